@@ -0,0 +1,97 @@
+package org.orelio.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.orelio.facade.ChallengeCoreBankingFacade;
+import org.orelio.model.Account;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * JMH benchmarks of {@link ChallengeCoreBankingFacade#getAccount(String)} under 1, 4 and all available threads.
+ *
+ * <p>Account ids are drawn per thread from the configured {@link KeyDistribution}
+ * and built ahead of time, so only the lookup and the detached copy are measured.</p>
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccountLookupBenchmark {
+
+    /**
+     * Number of prebuilt account ids per thread.
+     */
+    private static final int LOOKUPS = 1 << 14;
+
+    /**
+     * Facade shared by every benchmark thread.
+     */
+    @State(Scope.Benchmark)
+    public static class Bank {
+
+        @Param({"10000"})
+        public int accounts;
+
+        @Param({KeyDistribution.UNIFORM, KeyDistribution.ZIPFIAN})
+        public String distribution;
+
+        final ChallengeCoreBankingFacade facade = new ChallengeCoreBankingFacade();
+
+        final AtomicLong seeds = new AtomicLong();
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            facade.resetAccount();
+            for (int i = 0; i < accounts; i++) {
+                facade.operationEvent(BenchmarkOperations.deposit(KeyDistribution.accountId(i), "1000"));
+            }
+        }
+    }
+
+    /**
+     * Per-thread sequence of account ids.
+     */
+    @State(Scope.Thread)
+    public static class Lookups {
+
+        String[] ids;
+        int next;
+
+        @Setup(Level.Trial)
+        public void setUp(Bank bank) {
+            int[] keys = KeyDistribution.draw(bank.distribution, bank.accounts, LOOKUPS, bank.seeds.incrementAndGet());
+            ids = new String[LOOKUPS];
+            for (int i = 0; i < LOOKUPS; i++) {
+                ids[i] = KeyDistribution.accountId(keys[i]);
+            }
+        }
+
+        String next() {
+            return ids[next++ & (LOOKUPS - 1)];
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Account lookup1(Bank bank, Lookups lookups) {
+        return bank.facade.getAccount(lookups.next());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Account lookup4(Bank bank, Lookups lookups) {
+        return bank.facade.getAccount(lookups.next());
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Account lookupMax(Bank bank, Lookups lookups) {
+        return bank.facade.getAccount(lookups.next());
+    }
+}
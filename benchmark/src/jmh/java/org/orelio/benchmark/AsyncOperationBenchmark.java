@@ -0,0 +1,101 @@
+package org.orelio.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.orelio.facade.ChallengeCoreBankingFacade;
+import org.orelio.model.Operation;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks of blocking and asynchronous deposits as the thread count grows.
+ *
+ * <p>Deposits are combined in both modes. {@code blocking} is one request per thread, as
+ * served from a container thread: the thread waits for its deposit to be applied.
+ * {@code async} has each thread keep {@value #WINDOW} deposits in flight through
+ * {@link ChallengeCoreBankingFacade#operationEventAsync(Operation)} before waiting for them,
+ * as a few container threads holding many requests. {@code accounts} spreads the deposits
+ * over that many accounts, 1 being a single hot account. Compare thread counts with
+ * {@code -t}, for example {@code -t 1}, {@code -t 4} and {@code -t 16}.</p>
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AsyncOperationBenchmark {
+
+    /**
+     * Deposits each thread keeps in flight in the asynchronous mode.
+     */
+    private static final int WINDOW = 32;
+
+    /**
+     * Facade shared by every benchmark thread, combining deposits.
+     */
+    @State(Scope.Benchmark)
+    public static class Bank {
+
+        @Param({"1", "1000"})
+        public int accounts;
+
+        final ChallengeCoreBankingFacade facade = new ChallengeCoreBankingFacade();
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            facade.resetAccount();
+            facade.setDepositCombining(true);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            facade.setDepositCombining(false);
+            facade.resetAccount();
+        }
+    }
+
+    /**
+     * Per-thread deposits cycling over the accounts.
+     */
+    @State(Scope.Thread)
+    public static class Deposits {
+
+        Operation[] operations;
+
+        final CompletableFuture<?>[] pending = new CompletableFuture<?>[WINDOW];
+
+        int next;
+
+        @Setup(Level.Trial)
+        public void setUp(Bank bank) {
+            operations = new Operation[bank.accounts];
+            for (int i = 0; i < operations.length; i++) {
+                operations[i] = BenchmarkOperations.deposit("ACC" + i, "1");
+            }
+        }
+
+        Operation next() {
+            Operation operation = operations[next];
+            next = next + 1 == operations.length ? 0 : next + 1;
+            return operation;
+        }
+    }
+
+    @Benchmark
+    public String blocking(Bank bank, Deposits deposits) {
+        return bank.facade.operationEvent(deposits.next());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(WINDOW)
+    public Object async(Bank bank, Deposits deposits) {
+        for (int i = 0; i < WINDOW; i++) {
+            deposits.pending[i] = bank.facade.operationEventAsync(deposits.next());
+        }
+        return CompletableFuture.allOf(deposits.pending).join();
+    }
+}
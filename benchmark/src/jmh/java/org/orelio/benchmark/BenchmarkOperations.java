@@ -0,0 +1,64 @@
+package org.orelio.benchmark;
+
+import org.orelio.model.Constants;
+import org.orelio.model.Operation;
+
+/**
+ * Factory methods for the {@link Operation} instances used by the benchmarks.
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ */
+public final class BenchmarkOperations {
+
+    private BenchmarkOperations() {
+    }
+
+    /**
+     * Creates a deposit operation.
+     *
+     * @param destination the destination account id
+     * @param amount the amount
+     * @return the operation
+     */
+    public static Operation deposit(String destination, String amount) {
+        Operation operation = new Operation();
+        operation.setType(Constants.DEPOSIT);
+        operation.setDestination(destination);
+        operation.setAmount(amount);
+        return operation;
+    }
+
+    /**
+     * Creates a withdraw operation.
+     *
+     * @param origin the origin account id
+     * @param amount the amount
+     * @return the operation
+     */
+    public static Operation withdraw(String origin, String amount) {
+        Operation operation = new Operation();
+        operation.setType(Constants.WITHDRAW);
+        operation.setOrigin(origin);
+        operation.setAmount(amount);
+        return operation;
+    }
+
+    /**
+     * Creates a transfer operation.
+     *
+     * @param origin the origin account id
+     * @param destination the destination account id
+     * @param amount the amount
+     * @return the operation
+     */
+    public static Operation transfer(String origin, String destination, String amount) {
+        Operation operation = new Operation();
+        operation.setType(Constants.TRANSFER);
+        operation.setOrigin(origin);
+        operation.setDestination(destination);
+        operation.setAmount(amount);
+        return operation;
+    }
+}
@@ -0,0 +1,144 @@
+package org.orelio.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.orelio.Application;
+import org.orelio.client.Balance;
+import org.orelio.client.BankingClient;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks of deposits sent over HTTP by the Java SDK and by a naive client.
+ *
+ * <p>Each invocation sends {@value #OPERATIONS} deposits to the embedded application,
+ * started once per trial on a random port with rate limits disabled. {@code mode} selects
+ * the client:</p>
+ * <ul>
+ *   <li>{@code connectionPerCall}: {@link HttpURLConnection} opening a connection per deposit</li>
+ *   <li>{@code sync}: blocking {@link BankingClient} calls on one keep-alive connection</li>
+ *   <li>{@code async}: asynchronous calls spread over the client's connections</li>
+ *   <li>{@code pipelined}: asynchronous calls pipelined 16 deep on each connection</li>
+ *   <li>{@code batched}: asynchronous calls grouped into one {@code /event/batch} request</li>
+ * </ul>
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClientSdkBenchmark {
+
+    /**
+     * Deposits sent per invocation.
+     */
+    private static final int OPERATIONS = 64;
+
+    private static final int ACCOUNTS = 1000;
+
+    @Param({"connectionPerCall", "sync", "async", "pipelined", "batched"})
+    public String mode;
+
+    private ConfigurableApplicationContext context;
+
+    private String baseUrl;
+
+    private BankingClient client;
+
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = SpringApplication.run(Application.class, "--server.port=0", "--banking.ratelimit.enabled=false",
+                "--banking.metrics.enabled=false", "--logging.level.root=WARN");
+        baseUrl = "http://127.0.0.1:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+        BankingClient.Builder builder = BankingClient.builder(baseUrl).requestTimeout(Duration.ofSeconds(30));
+        if ("pipelined".equals(mode)) {
+            builder.pipelineDepth(16);
+        } else if ("batched".equals(mode)) {
+            builder.batching(Duration.ofMillis(1), OPERATIONS);
+        }
+        client = builder.build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        client.close();
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPERATIONS)
+    public long deposits() throws IOException {
+        switch (mode) {
+            case "connectionPerCall":
+                long status = 0L;
+                for (int i = 0; i < OPERATIONS; i++) {
+                    status += post(nextAccount());
+                }
+                return status;
+            case "sync":
+                long balance = 0L;
+                for (int i = 0; i < OPERATIONS; i++) {
+                    balance += client.deposit(nextAccount(), 1L).getBalance();
+                }
+                return balance;
+            default:
+                @SuppressWarnings("unchecked")
+                CompletableFuture<Balance>[] deposits = new CompletableFuture[OPERATIONS];
+                for (int i = 0; i < OPERATIONS; i++) {
+                    deposits[i] = client.depositAsync(nextAccount(), 1L);
+                }
+                long total = 0L;
+                for (CompletableFuture<Balance> deposit : deposits) {
+                    total += deposit.join().getBalance();
+                }
+                return total;
+        }
+    }
+
+    private String nextAccount() {
+        next = next + 1 == ACCOUNTS ? 0 : next + 1;
+        return "SDK" + next;
+    }
+
+    /**
+     * Sends a deposit on a new connection closed after the response, as a client without
+     * connection reuse does.
+     */
+    private int post(String account) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + "/event").openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        connection.setRequestProperty("Content-Type", "application/json");
+        connection.setRequestProperty("Connection", "close");
+        byte[] body = ("{\"type\":\"deposit\",\"destination\":\"" + account + "\",\"amount\":\"1\"}")
+                .getBytes(StandardCharsets.UTF_8);
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write(body);
+        }
+        int status = connection.getResponseCode();
+        try (InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+            while (in != null && in.read() >= 0) {
+                // Drain the response
+            }
+        }
+        connection.disconnect();
+        return status;
+    }
+}
@@ -0,0 +1,99 @@
+package org.orelio.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.*;
+import org.orelio.config.CompactFormatConverter;
+import org.orelio.model.Operation;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks of the JSON, CBOR and Smile encodings of {@code POST /event}.
+ *
+ * <p>{@code encodeResponse} is the server's work for a transfer response once the facade
+ * has produced its JSON text: UTF-8 encoding for JSON, streaming transcoding by the
+ * {@link CompactFormatConverter} for CBOR and Smile. {@code decodeResponse} is a client
+ * reading that response into a tree, and {@code decodeOperation} is the server reading a
+ * transfer request into an {@link Operation}, as Spring MVC does. The encoded size of both
+ * bodies is printed once per format.</p>
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContentFormatBenchmark {
+
+    private static final String TRANSFER_RESPONSE =
+            "{\"origin\": {\"id\":\"ACC100\",\"balance\":123456}, \"destination\": {\"id\":\"ACC300\",\"balance\":7890}}";
+
+    private static final String TRANSFER_REQUEST =
+            "{\"type\":\"transfer\",\"origin\":\"ACC100\",\"amount\":\"15\",\"destination\":\"ACC300\"}";
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    private JsonFactory factory;
+
+    private ObjectMapper mapper;
+
+    private ObjectReader operationReader;
+
+    private ByteArrayOutputStream out;
+
+    private byte[] response;
+
+    private byte[] request;
+
+    @Setup
+    public void setUp() throws IOException {
+        factory = "cbor".equals(format) ? new CBORFactory() : "smile".equals(format) ? new SmileFactory() : null;
+        mapper = factory != null ? new ObjectMapper(factory) : new ObjectMapper();
+        if (factory != null) {
+            factory.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+        operationReader = mapper.readerFor(Operation.class);
+        out = new ByteArrayOutputStream(256);
+        response = encodeResponse();
+        request = mapper.writeValueAsBytes(new ObjectMapper().readValue(TRANSFER_REQUEST, Operation.class));
+        System.out.println();
+        System.out.println(format + ": transfer response " + response.length + " bytes, transfer request "
+                + request.length + " bytes");
+    }
+
+    @Benchmark
+    public byte[] encodeResponse() throws IOException {
+        if (factory == null) {
+            return TRANSFER_RESPONSE.getBytes(StandardCharsets.UTF_8);
+        }
+        out.reset();
+        try (JsonGenerator generator = factory.createGenerator(out)) {
+            CompactFormatConverter.transcode(TRANSFER_RESPONSE, generator);
+        }
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public JsonNode decodeResponse() throws IOException {
+        return mapper.readTree(response);
+    }
+
+    @Benchmark
+    public Operation decodeOperation() throws IOException {
+        return operationReader.readValue(request);
+    }
+}
@@ -0,0 +1,90 @@
+package org.orelio.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.orelio.facade.ChallengeCoreBankingFacade;
+import org.orelio.model.Operation;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks of concurrent deposits to a single hot account.
+ *
+ * <p>With {@code mode=locked} every deposit takes the account lock; with
+ * {@code mode=striped} the account is striped first and deposits add to per-thread
+ * credit cells; with {@code mode=combined} deposits queue on the lock stripe and
+ * are applied in batches by the lock holder. {@code balance} runs alongside the deposits in the same group to
+ * show the cost of summing the cells on read. Run with {@code -t} set to the core
+ * count, or compare {@code -t 1} with {@code -t N}, to see the scaling.</p>
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class HotAccountBenchmark {
+
+    private static final String MERCHANT = "MERCHANT";
+
+    /**
+     * Facade shared by every benchmark thread, holding the hot account.
+     */
+    @State(Scope.Benchmark)
+    public static class Bank {
+
+        @Param({"locked", "striped", "combined"})
+        public String mode;
+
+        final ChallengeCoreBankingFacade facade = new ChallengeCoreBankingFacade();
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            facade.resetAccount();
+            facade.setHotAccountThreshold(0);
+            facade.setDepositCombining("combined".equals(mode));
+            facade.operationEvent(BenchmarkOperations.deposit(MERCHANT, "0"));
+            if ("striped".equals(mode)) {
+                facade.stripeAccount(MERCHANT);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            facade.setHotAccountThreshold(16);
+            facade.setDepositCombining(false);
+            facade.resetAccount();
+        }
+    }
+
+    /**
+     * Per-thread deposit to the hot account.
+     */
+    @State(Scope.Thread)
+    public static class Deposit {
+
+        final Operation operation = BenchmarkOperations.deposit(MERCHANT, "1");
+    }
+
+    @Benchmark
+    public String deposit(Bank bank, Deposit deposit) {
+        return bank.facade.operationEvent(deposit.operation);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(3)
+    public String mixedDeposit(Bank bank, Deposit deposit) {
+        return bank.facade.operationEvent(deposit.operation);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public Long mixedBalance(Bank bank) {
+        return bank.facade.getAccount(MERCHANT).getBalance();
+    }
+}
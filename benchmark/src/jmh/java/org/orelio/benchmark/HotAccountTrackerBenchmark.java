@@ -0,0 +1,101 @@
+package org.orelio.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.orelio.facade.ChallengeCoreBankingFacade;
+import org.orelio.metrics.HotAccountTracker;
+import org.orelio.model.Operation;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * JMH benchmarks of the heavy-hitter tracking fed by {@link ChallengeCoreBankingFacade#operationEvent(Operation)}.
+ *
+ * <p>{@code deposit} runs facade deposits with the tracker sampling one operation in
+ * {@code sampleRate}, 0 turning tracking off; the difference between rates is the
+ * tracking cost per operation. {@code record} measures one sampled record on its own.</p>
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HotAccountTrackerBenchmark {
+
+    /**
+     * Number of prebuilt operations per thread.
+     */
+    private static final int OPERATIONS = 1 << 14;
+
+    /**
+     * Facade and tracker shared by every benchmark thread.
+     */
+    @State(Scope.Benchmark)
+    public static class Bank {
+
+        @Param({"10000"})
+        public int accounts;
+
+        @Param({"0", "16", "1"})
+        public int sampleRate;
+
+        final ChallengeCoreBankingFacade facade = new ChallengeCoreBankingFacade();
+
+        final HotAccountTracker tracker = new HotAccountTracker();
+
+        final AtomicLong seeds = new AtomicLong();
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            facade.resetAccount();
+            facade.setHotAccountSampleRate(sampleRate);
+            for (int i = 0; i < accounts; i++) {
+                facade.operationEvent(BenchmarkOperations.deposit(KeyDistribution.accountId(i), "1000000"));
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            facade.setHotAccountSampleRate(16);
+            facade.resetAccount();
+        }
+    }
+
+    /**
+     * Per-thread sequence of prebuilt deposits on Zipfian-distributed accounts.
+     */
+    @State(Scope.Thread)
+    public static class Operations {
+
+        Operation[] deposits;
+        int next;
+
+        @Setup(Level.Trial)
+        public void setUp(Bank bank) {
+            int[] keys = KeyDistribution.draw(KeyDistribution.ZIPFIAN, bank.accounts, OPERATIONS,
+                    bank.seeds.incrementAndGet());
+            deposits = new Operation[OPERATIONS];
+            for (int i = 0; i < OPERATIONS; i++) {
+                deposits[i] = BenchmarkOperations.deposit(KeyDistribution.accountId(keys[i]), "10");
+            }
+        }
+
+        int next() {
+            return next++ & (OPERATIONS - 1);
+        }
+    }
+
+    @Benchmark
+    public String deposit(Bank bank, Operations operations) {
+        return bank.facade.operationEvent(operations.deposits[operations.next()]);
+    }
+
+    @Benchmark
+    public void record(Bank bank, Operations operations) {
+        bank.tracker.record(operations.deposits[operations.next()].getDestination(), 0L);
+    }
+}
@@ -0,0 +1,92 @@
+package org.orelio.benchmark;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Account popularity distributions used by the benchmarks of the ChallengeCoreBanking system.
+ *
+ * <p>Keys are drawn ahead of time into a fixed-size array so that the measured
+ * code never pays for random number generation:</p>
+ * <ul>
+ *   <li><strong>uniform:</strong> every account is equally likely</li>
+ *   <li><strong>zipfian:</strong> account {@code k} is chosen with probability proportional
+ *       to {@code 1 / (k + 1)^0.99}, so a few accounts receive most of the traffic</li>
+ * </ul>
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ */
+public final class KeyDistribution {
+
+    /**
+     * Uniform distribution name, as used in {@code @Param} values.
+     */
+    public static final String UNIFORM = "uniform";
+
+    /**
+     * Zipfian distribution name, as used in {@code @Param} values.
+     */
+    public static final String ZIPFIAN = "zipfian";
+
+    /**
+     * Skew of the Zipfian distribution.
+     */
+    private static final double ZIPF_EXPONENT = 0.99;
+
+    private KeyDistribution() {
+    }
+
+    /**
+     * Draws a sequence of account indexes.
+     *
+     * @param distribution {@link #UNIFORM} or {@link #ZIPFIAN}
+     * @param accounts the number of accounts
+     * @param length the length of the sequence, a power of two
+     * @param seed the random seed
+     * @return account indexes in {@code [0, accounts)}
+     * @throws IllegalArgumentException if the distribution is unknown
+     */
+    public static int[] draw(String distribution, int accounts, int length, long seed) {
+        Random random = new Random(seed);
+        int[] keys = new int[length];
+        if (UNIFORM.equals(distribution)) {
+            for (int i = 0; i < length; i++) {
+                keys[i] = random.nextInt(accounts);
+            }
+        } else if (ZIPFIAN.equals(distribution)) {
+            double[] cdf = zipfCdf(accounts);
+            for (int i = 0; i < length; i++) {
+                int k = Arrays.binarySearch(cdf, random.nextDouble());
+                keys[i] = Math.min(k < 0 ? -k - 1 : k, accounts - 1);
+            }
+        } else {
+            throw new IllegalArgumentException("Unknown distribution: " + distribution);
+        }
+        return keys;
+    }
+
+    /**
+     * Returns the account id of an account index.
+     *
+     * @param index the account index
+     * @return the account id
+     */
+    public static String accountId(int index) {
+        return "ACC" + index;
+    }
+
+    private static double[] zipfCdf(int accounts) {
+        double[] cdf = new double[accounts];
+        double total = 0;
+        for (int k = 0; k < accounts; k++) {
+            total += 1.0 / Math.pow(k + 1, ZIPF_EXPONENT);
+            cdf[k] = total;
+        }
+        for (int k = 0; k < accounts; k++) {
+            cdf[k] /= total;
+        }
+        return cdf;
+    }
+}
@@ -0,0 +1,103 @@
+package org.orelio.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.orelio.facade.ChallengeCoreBankingFacade;
+import org.orelio.model.Operation;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * JMH benchmarks of {@link ChallengeCoreBankingFacade#operationEvent(Operation)} for every operation type.
+ *
+ * <p>Accounts are created once per trial and every operation targets an account
+ * drawn from the configured {@link KeyDistribution}. Operations are prebuilt per
+ * thread so only the facade is measured.</p>
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OperationEventBenchmark {
+
+    /**
+     * Number of prebuilt operations per thread.
+     */
+    private static final int OPERATIONS = 1 << 14;
+
+    /**
+     * Facade shared by every benchmark thread.
+     */
+    @State(Scope.Benchmark)
+    public static class Bank {
+
+        @Param({"10000"})
+        public int accounts;
+
+        @Param({KeyDistribution.UNIFORM, KeyDistribution.ZIPFIAN})
+        public String distribution;
+
+        final ChallengeCoreBankingFacade facade = new ChallengeCoreBankingFacade();
+
+        final AtomicLong seeds = new AtomicLong();
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            facade.resetAccount();
+            for (int i = 0; i < accounts; i++) {
+                facade.operationEvent(BenchmarkOperations.deposit(KeyDistribution.accountId(i), "1000000"));
+            }
+        }
+    }
+
+    /**
+     * Per-thread sequences of prebuilt operations.
+     */
+    @State(Scope.Thread)
+    public static class Operations {
+
+        Operation[] deposits;
+        Operation[] withdrawals;
+        Operation[] transfers;
+        int next;
+
+        @Setup(Level.Trial)
+        public void setUp(Bank bank) {
+            int[] keys = KeyDistribution.draw(bank.distribution, bank.accounts, OPERATIONS, bank.seeds.incrementAndGet());
+            int[] others = KeyDistribution.draw(bank.distribution, bank.accounts, OPERATIONS, -bank.seeds.incrementAndGet());
+            deposits = new Operation[OPERATIONS];
+            withdrawals = new Operation[OPERATIONS];
+            transfers = new Operation[OPERATIONS];
+            for (int i = 0; i < OPERATIONS; i++) {
+                String id = KeyDistribution.accountId(keys[i]);
+                deposits[i] = BenchmarkOperations.deposit(id, "10");
+                withdrawals[i] = BenchmarkOperations.withdraw(id, "10");
+                transfers[i] = BenchmarkOperations.transfer(id, KeyDistribution.accountId(others[i]), "10");
+            }
+        }
+
+        int next() {
+            return next++ & (OPERATIONS - 1);
+        }
+    }
+
+    @Benchmark
+    public String deposit(Bank bank, Operations operations) {
+        return bank.facade.operationEvent(operations.deposits[operations.next()]);
+    }
+
+    @Benchmark
+    public String withdraw(Bank bank, Operations operations) {
+        return bank.facade.operationEvent(operations.withdrawals[operations.next()]);
+    }
+
+    @Benchmark
+    public String transfer(Bank bank, Operations operations) {
+        return bank.facade.operationEvent(operations.transfers[operations.next()]);
+    }
+}
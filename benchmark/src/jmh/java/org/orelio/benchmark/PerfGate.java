@@ -0,0 +1,243 @@
+package org.orelio.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Performance regression gate comparing a JMH JSON result file against a checked-in baseline.
+ *
+ * <p>Every benchmark in the baseline must be present in the results. A benchmark
+ * fails the gate when its throughput drops by more than {@code maxThroughputDrop}
+ * or its allocation per operation (from {@code -prof gc}) rises by more than
+ * {@code maxAllocationIncrease} plus {@code allocationSlackBytes}. Both tolerances
+ * are fractions of the baseline, taken from the benchmark entry or from the
+ * baseline {@code defaults}.</p>
+ *
+ * <p><strong>Baseline Format:</strong></p>
+ * <pre>
+ * {
+ *   "defaults": {"maxThroughputDrop": 0.30, "maxAllocationIncrease": 0.10, "allocationSlackBytes": 16},
+ *   "benchmarks": {
+ *     "OperationEventBenchmark.deposit[accounts=10000,distribution=uniform]":
+ *         {"throughput": 0.95, "unit": "ops/us", "allocationBytesPerOp": 1480.0, "maxThroughputDrop": 0.30}
+ *   }
+ * }
+ * </pre>
+ *
+ * <p>Usage: {@code PerfGate check|update <jmh-result.json> <baseline.json>}. The
+ * {@code update} mode rewrites the measured values of the baseline from the results,
+ * keeping its tolerances, and never fails.</p>
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ */
+public final class PerfGate {
+
+    private static final String PACKAGE_PREFIX = PerfGate.class.getPackage().getName() + ".";
+
+    private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+
+    private PerfGate() {
+    }
+
+    /**
+     * Runs the gate.
+     *
+     * @param args the mode, the JMH result file and the baseline file
+     * @throws IOException if a file cannot be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3 || !("check".equals(args[0]) || "update".equals(args[0]))) {
+            System.err.println("Usage: PerfGate check|update <jmh-result.json> <baseline.json>");
+            System.exit(2);
+        }
+        ObjectMapper mapper = new ObjectMapper();
+        Map<String, Measurement> results = readResults(mapper.readTree(new File(args[1])));
+        File baselineFile = new File(args[2]);
+        ObjectNode baseline = (ObjectNode) mapper.readTree(baselineFile);
+
+        if ("update".equals(args[0])) {
+            update(baseline, results);
+            mapper.writerWithDefaultPrettyPrinter().writeValue(baselineFile, baseline);
+            System.out.println("Baseline " + baselineFile + " updated with " + results.size() + " benchmarks");
+            return;
+        }
+
+        List<String> failures = check(baseline, results);
+        if (!failures.isEmpty()) {
+            System.out.println();
+            System.out.println("Performance regression gate FAILED:");
+            for (String failure : failures) {
+                System.out.println("  - " + failure);
+            }
+            System.exit(1);
+        }
+        System.out.println();
+        System.out.println("Performance regression gate passed");
+    }
+
+    /**
+     * Compares the results against the baseline and prints the comparison table.
+     *
+     * @param baseline the baseline document
+     * @param results the measured benchmarks by key
+     * @return the failure descriptions, empty if the gate passes
+     */
+    static List<String> check(JsonNode baseline, Map<String, Measurement> results) {
+        JsonNode defaults = baseline.path("defaults");
+        List<String> failures = new ArrayList<>();
+        System.out.println(String.format("%-70s %12s %12s %8s %12s %12s %8s  %s",
+                "Benchmark", "Base ops", "Now ops", "Change", "Base B/op", "Now B/op", "Change", "Status"));
+
+        Iterator<Map.Entry<String, JsonNode>> entries = baseline.path("benchmarks").fields();
+        while (entries.hasNext()) {
+            Map.Entry<String, JsonNode> entry = entries.next();
+            String key = entry.getKey();
+            JsonNode expected = entry.getValue();
+            Measurement actual = results.get(key);
+            if (actual == null) {
+                System.out.println(String.format("%-70s %12s %12s %8s %12s %12s %8s  %s",
+                        key, format(expected.path("throughput").asDouble()), "-", "-", "-", "-", "-", "MISSING"));
+                failures.add(key + ": not measured");
+                continue;
+            }
+
+            double baseThroughput = expected.path("throughput").asDouble();
+            double maxDrop = tolerance(expected, defaults, "maxThroughputDrop", 0.30);
+            double throughputChange = baseThroughput == 0 ? 0 : actual.throughput / baseThroughput - 1;
+            boolean throughputOk = throughputChange >= -maxDrop;
+
+            String baseAlloc = "-";
+            String nowAlloc = "-";
+            String allocChange = "-";
+            boolean allocOk = true;
+            if (expected.has("allocationBytesPerOp") && !Double.isNaN(actual.allocationBytesPerOp)) {
+                double baseBytes = expected.path("allocationBytesPerOp").asDouble();
+                double maxIncrease = tolerance(expected, defaults, "maxAllocationIncrease", 0.10);
+                double slack = tolerance(expected, defaults, "allocationSlackBytes", 16);
+                allocOk = actual.allocationBytesPerOp <= baseBytes * (1 + maxIncrease) + slack;
+                baseAlloc = format(baseBytes);
+                nowAlloc = format(actual.allocationBytesPerOp);
+                allocChange = baseBytes == 0 ? "-" : percent(actual.allocationBytesPerOp / baseBytes - 1);
+                if (!allocOk) {
+                    failures.add(String.format("%s: allocation %s -> %s B/op (allowed +%s%% + %s B)",
+                            key, baseAlloc, nowAlloc, format(maxIncrease * 100), format(slack)));
+                }
+            }
+            if (!throughputOk) {
+                failures.add(String.format("%s: throughput %s -> %s %s (%s, allowed -%s%%)",
+                        key, format(baseThroughput), format(actual.throughput), actual.unit,
+                        percent(throughputChange), format(maxDrop * 100)));
+            }
+            System.out.println(String.format("%-70s %12s %12s %8s %12s %12s %8s  %s",
+                    key, format(baseThroughput), format(actual.throughput), percent(throughputChange),
+                    baseAlloc, nowAlloc, allocChange, throughputOk && allocOk ? "OK" : "FAIL"));
+        }
+
+        for (String key : results.keySet()) {
+            if (!baseline.path("benchmarks").has(key)) {
+                System.out.println(String.format("%-70s %12s %12s %8s %12s %12s %8s  %s",
+                        key, "-", format(results.get(key).throughput), "-", "-", "-", "-", "NEW"));
+            }
+        }
+        return failures;
+    }
+
+    /**
+     * Rewrites the measured values of the baseline, keeping its tolerances.
+     *
+     * @param baseline the baseline document to update
+     * @param results the measured benchmarks by key
+     */
+    static void update(ObjectNode baseline, Map<String, Measurement> results) {
+        ObjectNode benchmarks = baseline.with("benchmarks");
+        for (Map.Entry<String, Measurement> result : results.entrySet()) {
+            ObjectNode entry = benchmarks.with(result.getKey());
+            entry.put("throughput", round(result.getValue().throughput));
+            entry.put("unit", result.getValue().unit);
+            if (!Double.isNaN(result.getValue().allocationBytesPerOp)) {
+                entry.put("allocationBytesPerOp", round(result.getValue().allocationBytesPerOp));
+            }
+        }
+    }
+
+    /**
+     * Reads a JMH JSON result file.
+     *
+     * @param root the parsed result array
+     * @return the measurements keyed by short benchmark name and parameters
+     */
+    static Map<String, Measurement> readResults(JsonNode root) {
+        Map<String, Measurement> results = new LinkedHashMap<>();
+        for (JsonNode run : root) {
+            String name = run.path("benchmark").asText();
+            if (name.startsWith(PACKAGE_PREFIX)) {
+                name = name.substring(PACKAGE_PREFIX.length());
+            }
+            Map<String, String> params = new TreeMap<>();
+            Iterator<Map.Entry<String, JsonNode>> fields = run.path("params").fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                params.put(field.getKey(), field.getValue().asText());
+            }
+            String key = params.isEmpty() ? name : name + params.toString().replace(", ", ",").replace('{', '[').replace('}', ']');
+
+            double allocation = Double.NaN;
+            Iterator<Map.Entry<String, JsonNode>> secondary = run.path("secondaryMetrics").fields();
+            while (secondary.hasNext()) {
+                Map.Entry<String, JsonNode> metric = secondary.next();
+                if (metric.getKey().endsWith(ALLOCATION_METRIC)) {
+                    allocation = metric.getValue().path("score").asDouble();
+                }
+            }
+            JsonNode primary = run.path("primaryMetric");
+            results.put(key, new Measurement(primary.path("score").asDouble(), primary.path("scoreUnit").asText(), allocation));
+        }
+        return results;
+    }
+
+    private static double tolerance(JsonNode expected, JsonNode defaults, String name, double fallback) {
+        return expected.has(name) ? expected.path(name).asDouble() : defaults.path(name).asDouble(fallback);
+    }
+
+    private static double round(double value) {
+        return new BigDecimal(value).round(new MathContext(4)).doubleValue();
+    }
+
+    private static String format(double value) {
+        return String.format("%.4g", value);
+    }
+
+    private static String percent(double fraction) {
+        return String.format("%+.1f%%", fraction * 100);
+    }
+
+    /**
+     * One measured benchmark.
+     */
+    static final class Measurement {
+
+        final double throughput;
+        final String unit;
+        final double allocationBytesPerOp;
+
+        Measurement(double throughput, String unit, double allocationBytesPerOp) {
+            this.throughput = throughput;
+            this.unit = unit;
+            this.allocationBytesPerOp = allocationBytesPerOp;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package org.orelio.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.orelio.admission.RateLimits;
+import org.orelio.facade.ChallengeCoreBankingFacade;
+import org.orelio.model.Operation;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * JMH benchmarks of the rate limit check in front of {@link ChallengeCoreBankingFacade#operationEvent(Operation)}.
+ *
+ * <p>{@code deposit} is the facade alone and {@code depositRateLimited} adds the
+ * {@link RateLimits} check with limits high enough never to be hit. The difference
+ * between the two is the cost of the check on the normal path.</p>
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RateLimitBenchmark {
+
+    /**
+     * Number of prebuilt operations per thread.
+     */
+    private static final int OPERATIONS = 1 << 14;
+
+    /**
+     * Facade and limits shared by every benchmark thread.
+     */
+    @State(Scope.Benchmark)
+    public static class Bank {
+
+        @Param({"10000"})
+        public int accounts;
+
+        @Param({KeyDistribution.UNIFORM, KeyDistribution.ZIPFIAN})
+        public String distribution;
+
+        final ChallengeCoreBankingFacade facade = new ChallengeCoreBankingFacade();
+
+        final RateLimits limits = new RateLimits(true, 1e9, 1_000_000_000L, 1e9, 1_000_000_000L);
+
+        final AtomicLong seeds = new AtomicLong();
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            facade.resetAccount();
+            for (int i = 0; i < accounts; i++) {
+                facade.operationEvent(BenchmarkOperations.deposit(KeyDistribution.accountId(i), "1000000"));
+            }
+        }
+    }
+
+    /**
+     * Per-thread sequence of prebuilt deposits and the thread's client ID.
+     */
+    @State(Scope.Thread)
+    public static class Operations {
+
+        Operation[] deposits;
+        String client;
+        int next;
+
+        @Setup(Level.Trial)
+        public void setUp(Bank bank) {
+            long seed = bank.seeds.incrementAndGet();
+            int[] keys = KeyDistribution.draw(bank.distribution, bank.accounts, OPERATIONS, seed);
+            deposits = new Operation[OPERATIONS];
+            for (int i = 0; i < OPERATIONS; i++) {
+                deposits[i] = BenchmarkOperations.deposit(KeyDistribution.accountId(keys[i]), "10");
+            }
+            client = "client-" + seed;
+        }
+
+        int next() {
+            return next++ & (OPERATIONS - 1);
+        }
+    }
+
+    @Benchmark
+    public String deposit(Bank bank, Operations operations) {
+        return bank.facade.operationEvent(operations.deposits[operations.next()]);
+    }
+
+    @Benchmark
+    public String depositRateLimited(Bank bank, Operations operations) {
+        Operation operation = operations.deposits[operations.next()];
+        if (bank.limits.tryAcquire(operations.client, operation) > 0) {
+            throw new IllegalStateException("Rate limit hit");
+        }
+        return bank.facade.operationEvent(operation);
+    }
+}
@@ -0,0 +1,65 @@
+package org.orelio.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.openjdk.jmh.annotations.*;
+import org.orelio.model.Account;
+import org.orelio.model.Constants;
+import org.orelio.model.Operation;
+import org.orelio.util.ChallengeCoreUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks of response encoding and request decoding.
+ *
+ * <p>Covers {@link ChallengeCoreUtils#resultJsonAPI(Account, String)} for the
+ * single-account responses, {@link ChallengeCoreUtils#resultJsonAPI(Account)} as
+ * used for transfers, and Jackson deserialization of an {@link Operation} body
+ * as performed by Spring MVC for {@code POST /event}.</p>
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    private static final byte[] TRANSFER_BODY =
+            "{\"type\":\"transfer\",\"origin\":\"ACC100\",\"amount\":\"15\",\"destination\":\"ACC300\"}"
+                    .getBytes(StandardCharsets.UTF_8);
+
+    private Account account;
+
+    private ObjectReader operationReader;
+
+    @Setup
+    public void setUp() {
+        account = new Account();
+        account.setId("ACC100");
+        account.setBalance(123456L);
+        operationReader = new ObjectMapper().readerFor(Operation.class);
+    }
+
+    @Benchmark
+    public String encodeDestination() {
+        return ChallengeCoreUtils.resultJsonAPI(account, Constants.fmtDestination);
+    }
+
+    @Benchmark
+    public String encodeAccount() {
+        return ChallengeCoreUtils.resultJsonAPI(account);
+    }
+
+    @Benchmark
+    public Operation decodeOperation() throws IOException {
+        return operationReader.readValue(TRANSFER_BODY);
+    }
+}
@@ -0,0 +1,77 @@
+package org.orelio.load;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Single-writer log of request latencies kept by one load generator worker.
+ *
+ * <p>Every measured request appends two values: the latency from its intended
+ * start (corrected for coordinated omission) and the latency from its actual
+ * start (service time). Values are kept exactly and sorted once when the logs
+ * are merged, so percentiles carry no bucketing error.</p>
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ */
+class LatencyLog {
+
+    long[] corrected = new long[1024];
+    long[] raw = new long[1024];
+    int size;
+    long errors;
+
+    /**
+     * Appends one measured request.
+     *
+     * @param correctedNanos latency from the intended start
+     * @param rawNanos latency from the actual start
+     */
+    void record(long correctedNanos, long rawNanos) {
+        if (size == corrected.length) {
+            corrected = Arrays.copyOf(corrected, size * 2);
+            raw = Arrays.copyOf(raw, size * 2);
+        }
+        corrected[size] = correctedNanos;
+        raw[size] = rawNanos;
+        size++;
+    }
+
+    /**
+     * Merges and sorts one column of the given logs.
+     *
+     * @param logs the worker logs
+     * @param correctedColumn true for the corrected latencies, false for the raw ones
+     * @return the sorted latencies in nanoseconds
+     */
+    static long[] merge(List<LatencyLog> logs, boolean correctedColumn) {
+        int total = 0;
+        for (LatencyLog log : logs) {
+            total += log.size;
+        }
+        long[] merged = new long[total];
+        int offset = 0;
+        for (LatencyLog log : logs) {
+            System.arraycopy(correctedColumn ? log.corrected : log.raw, 0, merged, offset, log.size);
+            offset += log.size;
+        }
+        Arrays.sort(merged);
+        return merged;
+    }
+
+    /**
+     * Returns a percentile of sorted latencies.
+     *
+     * @param sorted the sorted latencies
+     * @param percentile the percentile, from 0 to 100
+     * @return the latency at the percentile, or zero if there are none
+     */
+    static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(sorted.length * percentile / 100.0);
+        return sorted[Math.min(sorted.length, Math.max(rank, 1)) - 1];
+    }
+}
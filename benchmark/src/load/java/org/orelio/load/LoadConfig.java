@@ -0,0 +1,211 @@
+package org.orelio.load;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Configuration of a {@link LoadGenerator} run, read from {@code load.*} system properties.
+ *
+ * <p><strong>Properties:</strong></p>
+ * <ul>
+ *   <li>{@code load.mode} - {@code open} (requests issued on a fixed schedule regardless of
+ *       completions) or {@code closed} (each worker waits for its response), default {@code open}</li>
+ *   <li>{@code load.rate} - target requests per second; required for {@code open}, optional pacing
+ *       for {@code closed} where 0 means back-to-back, default 1000</li>
+ *   <li>{@code load.workers} - number of connections and worker threads, default 16</li>
+ *   <li>{@code load.duration} - measured seconds, default 30</li>
+ *   <li>{@code load.warmup} - unmeasured seconds before the measurement, default 5</li>
+ *   <li>{@code load.accounts} - number of accounts, default 10000</li>
+ *   <li>{@code load.distribution} - {@code uniform} or {@code zipfian} account popularity, default {@code uniform}</li>
+ *   <li>{@code load.mix} - request weights, default {@code deposit:40,withdraw:20,transfer:20,balance:20}</li>
+ *   <li>{@code load.url} - base URL of a running server; when empty the application is booted on a random port</li>
+ *   <li>{@code load.stack} - web stack of the booted application, {@code servlet} (Tomcat) or
+ *       {@code reactive} (WebFlux on Netty), default {@code servlet}; ignored with {@code load.url}</li>
+ *   <li>{@code load.profile} - Spring profiles active in the booted application, for example {@code virtual}
+ *       for virtual-thread request execution; default none, ignored with {@code load.url}</li>
+ *   <li>{@code load.protocol} - {@code http} (JSON over HTTP/1.1) or {@code binary} (the length-prefixed
+ *       TCP protocol of {@link org.orelio.tcp.BinaryProtocol}, servlet stack only), default {@code http};
+ *       accounts are created over HTTP either way</li>
+ *   <li>{@code load.ratelimit} - whether the booted application enforces its {@code banking.ratelimit.*}
+ *       limits, default {@code false} because every worker shares one client address; ignored with {@code load.url}</li>
+ *   <li>{@code load.pipeline} - binary requests each worker sends before reading their responses, closed
+ *       mode only; each round of {@code load.pipeline} requests is one paced iteration, default 1</li>
+ *   <li>{@code load.binary.port} - binary protocol port of the server at {@code load.url}; the booted
+ *       application listens on a random port</li>
+ *   <li>{@code load.report} - path of the JSON report, default {@code target/load-report.json}</li>
+ * </ul>
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ */
+public class LoadConfig {
+
+    /**
+     * Request kinds that can appear in {@code load.mix}.
+     */
+    public static final String[] KINDS = {"deposit", "withdraw", "transfer", "balance"};
+
+    final boolean open;
+    final int rate;
+    final int workers;
+    final int durationSeconds;
+    final int warmupSeconds;
+    final int accounts;
+    final boolean zipfian;
+    final int[] weights;
+    final String url;
+    final boolean reactive;
+    final String profile;
+    final boolean rateLimit;
+    final boolean binary;
+    final int pipeline;
+    final int binaryPort;
+    final String report;
+
+    private LoadConfig(boolean open, int rate, int workers, int durationSeconds, int warmupSeconds,
+                       int accounts, boolean zipfian, int[] weights, String url, boolean reactive, String profile,
+                       boolean rateLimit, boolean binary, int pipeline, int binaryPort, String report) {
+        this.open = open;
+        this.rate = rate;
+        this.workers = workers;
+        this.durationSeconds = durationSeconds;
+        this.warmupSeconds = warmupSeconds;
+        this.accounts = accounts;
+        this.zipfian = zipfian;
+        this.weights = weights;
+        this.url = url;
+        this.reactive = reactive;
+        this.profile = profile;
+        this.rateLimit = rateLimit;
+        this.binary = binary;
+        this.pipeline = pipeline;
+        this.binaryPort = binaryPort;
+        this.report = report;
+    }
+
+    /**
+     * Reads the configuration from system properties.
+     *
+     * @return the configuration
+     * @throws IllegalArgumentException if a property is invalid
+     */
+    public static LoadConfig fromSystemProperties() {
+        String mode = System.getProperty("load.mode", "open");
+        if (!"open".equals(mode) && !"closed".equals(mode)) {
+            throw new IllegalArgumentException("load.mode must be open or closed: " + mode);
+        }
+        String distribution = System.getProperty("load.distribution", "uniform");
+        if (!"uniform".equals(distribution) && !"zipfian".equals(distribution)) {
+            throw new IllegalArgumentException("load.distribution must be uniform or zipfian: " + distribution);
+        }
+        String stack = System.getProperty("load.stack", "servlet");
+        if (!"servlet".equals(stack) && !"reactive".equals(stack)) {
+            throw new IllegalArgumentException("load.stack must be servlet or reactive: " + stack);
+        }
+        String protocol = System.getProperty("load.protocol", "http");
+        if (!"http".equals(protocol) && !"binary".equals(protocol)) {
+            throw new IllegalArgumentException("load.protocol must be http or binary: " + protocol);
+        }
+        boolean open = "open".equals(mode);
+        int rate = intProperty("load.rate", 1000, 0);
+        if (open && rate == 0) {
+            throw new IllegalArgumentException("load.rate must be positive in open mode");
+        }
+        boolean binary = "binary".equals(protocol);
+        String url = System.getProperty("load.url", "").trim();
+        int pipeline = intProperty("load.pipeline", 1, 1);
+        int binaryPort = intProperty("load.binary.port", 0, 0);
+        if (binary && "reactive".equals(stack) && url.isEmpty()) {
+            throw new IllegalArgumentException("load.protocol=binary requires load.stack=servlet");
+        }
+        if (binary && !url.isEmpty() && binaryPort == 0) {
+            throw new IllegalArgumentException("load.binary.port is required with load.url and load.protocol=binary");
+        }
+        if (pipeline > 1 && (open || !binary)) {
+            throw new IllegalArgumentException("load.pipeline requires load.protocol=binary in closed mode");
+        }
+        return new LoadConfig(open, rate,
+                intProperty("load.workers", 16, 1),
+                intProperty("load.duration", 30, 1),
+                intProperty("load.warmup", 5, 0),
+                intProperty("load.accounts", 10000, 2),
+                "zipfian".equals(distribution),
+                parseMix(System.getProperty("load.mix", "deposit:40,withdraw:20,transfer:20,balance:20")),
+                url,
+                "reactive".equals(stack),
+                System.getProperty("load.profile", "").trim(),
+                Boolean.parseBoolean(System.getProperty("load.ratelimit", "false").trim()),
+                binary, pipeline, binaryPort,
+                System.getProperty("load.report", "target/load-report.json"));
+    }
+
+    /**
+     * Returns the configuration as report entries.
+     *
+     * @return the configuration entries in a stable order
+     */
+    Map<String, Object> describe() {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("mode", open ? "open" : "closed");
+        description.put("rate", rate);
+        description.put("workers", workers);
+        description.put("durationSeconds", durationSeconds);
+        description.put("warmupSeconds", warmupSeconds);
+        description.put("accounts", accounts);
+        description.put("distribution", zipfian ? "zipfian" : "uniform");
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        for (int i = 0; i < KINDS.length; i++) {
+            mix.put(KINDS[i], weights[i]);
+        }
+        description.put("mix", mix);
+        description.put("protocol", binary ? "binary" : "http");
+        if (binary) {
+            description.put("pipeline", pipeline);
+        }
+        if (url.isEmpty()) {
+            description.put("stack", reactive ? "reactive" : "servlet");
+            String profiles = reactive ? (profile.isEmpty() ? "reactive" : "reactive," + profile) : profile;
+            description.put("profile", profiles.isEmpty() ? "default" : profiles);
+            description.put("rateLimit", rateLimit);
+            description.put("connectionsPerCore", workers / Runtime.getRuntime().availableProcessors());
+        }
+        return description;
+    }
+
+    private static int[] parseMix(String mix) {
+        int[] weights = new int[KINDS.length];
+        for (String part : mix.split(",")) {
+            String[] pair = part.trim().split(":");
+            int kind = -1;
+            for (int i = 0; i < KINDS.length; i++) {
+                if (KINDS[i].equals(pair[0].trim())) {
+                    kind = i;
+                }
+            }
+            if (kind < 0 || pair.length != 2) {
+                throw new IllegalArgumentException("Invalid load.mix entry: " + part);
+            }
+            weights[kind] = Integer.parseInt(pair[1].trim());
+        }
+        int total = 0;
+        for (int weight : weights) {
+            if (weight < 0) {
+                throw new IllegalArgumentException("load.mix weights must not be negative: " + mix);
+            }
+            total += weight;
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("load.mix must have a positive weight: " + mix);
+        }
+        return weights;
+    }
+
+    private static int intProperty(String name, int defaultValue, int min) {
+        int value = Integer.parseInt(System.getProperty(name, String.valueOf(defaultValue)).trim());
+        if (value < min) {
+            throw new IllegalArgumentException(name + " must be at least " + min + ": " + value);
+        }
+        return value;
+    }
+}
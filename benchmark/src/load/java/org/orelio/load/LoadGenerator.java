@@ -0,0 +1,486 @@
+package org.orelio.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.orelio.Application;
+import org.orelio.reactive.ReactiveApplication;
+import org.orelio.tcp.BinaryProtocol;
+import org.orelio.tcp.BinaryServer;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * HTTP load generator for the full ChallengeCoreBanking web stack.
+ *
+ * <p>Boots the application on a random port (or targets {@code load.url}), on the
+ * servlet or the reactive stack ({@code load.stack}), creates the configured accounts,
+ * then drives {@code POST /event} and {@code GET /balance} with the configured mix and
+ * account popularity. See {@link LoadConfig} for the properties.</p>
+ *
+ * <p>With {@code load.protocol=binary} the same mix is sent over the binary TCP protocol
+ * instead, one connection per worker, optionally pipelining {@code load.pipeline} requests
+ * per round; each request's latency runs from the round's intended start to its response.</p>
+ *
+ * <p><strong>Load Models:</strong></p>
+ * <ul>
+ *   <li><strong>open:</strong> a dispatcher issues requests at {@code load.rate} per second onto
+ *       {@code load.workers} connections, whether or not earlier requests have completed. Requests
+ *       that cannot be sent on time wait in a queue.</li>
+ *   <li><strong>closed:</strong> {@code load.workers} workers each send one request at a time, paced
+ *       at {@code load.rate / load.workers} per second, or back-to-back when the rate is 0.</li>
+ * </ul>
+ *
+ * <p>Latency is measured from each request's <em>intended</em> start on the schedule,
+ * not from when it was actually sent. A stall therefore shows up in the latency of
+ * every request scheduled during it, instead of being hidden by the load generator
+ * backing off (coordinated omission). Raw service times are reported alongside.
+ * Back-to-back closed-loop runs have no schedule, so both figures coincide.</p>
+ *
+ * <p>The report is printed and written as JSON to {@code load.report}.</p>
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ * @see LoadConfig
+ */
+public class LoadGenerator {
+
+    private static final int DEPOSIT = 0;
+    private static final int WITHDRAW = 1;
+    private static final int TRANSFER = 2;
+    private static final int BALANCE = 3;
+
+    private static final double ZIPF_EXPONENT = 0.99;
+
+    private final LoadConfig config;
+    private final String baseUrl;
+    private final InetSocketAddress binaryAddress;
+    private final double[] zipfCdf;
+    private final int totalWeight;
+
+    private final List<LatencyLog> logs = Collections.synchronizedList(new ArrayList<>());
+    private final List<BinaryClient> binaryClients = Collections.synchronizedList(new ArrayList<>());
+    private final ThreadLocal<BinaryClient> localClient = new ThreadLocal<>();
+
+    private final ThreadLocal<LatencyLog> localLog = ThreadLocal.withInitial(() -> {
+        LatencyLog log = new LatencyLog();
+        logs.add(log);
+        return log;
+    });
+
+    private volatile long measureStart;
+
+    LoadGenerator(LoadConfig config, String baseUrl, InetSocketAddress binaryAddress) {
+        this.config = config;
+        this.baseUrl = baseUrl;
+        this.binaryAddress = binaryAddress;
+        this.zipfCdf = config.zipfian ? zipfCdf(config.accounts) : null;
+        int total = 0;
+        for (int weight : config.weights) {
+            total += weight;
+        }
+        this.totalWeight = total;
+    }
+
+    /**
+     * Runs the load generator.
+     *
+     * @param args ignored, configuration is read from {@code load.*} system properties
+     * @throws Exception if the run fails
+     */
+    public static void main(String[] args) throws Exception {
+        LoadConfig config = LoadConfig.fromSystemProperties();
+        // Keep one idle connection per worker instead of the JDK default of 5
+        System.setProperty("http.maxConnections", String.valueOf(config.workers));
+
+        ConfigurableApplicationContext context = null;
+        String baseUrl = config.url;
+        if (baseUrl.isEmpty()) {
+            // DevTools would restart the application on another thread and end this one
+            System.setProperty("spring.devtools.restart.enabled", "false");
+            List<String> arguments = new ArrayList<>(Arrays.asList("--server.port=0", "--server.address=127.0.0.1",
+                    "--spring.main.banner-mode=off", "--logging.level.root=WARN",
+                    "--banking.ratelimit.enabled=" + config.rateLimit));
+            if (!config.profile.isEmpty()) {
+                arguments.add("--spring.profiles.active=" + config.profile);
+            }
+            if (config.binary) {
+                arguments.addAll(Arrays.asList("--banking.tcp.enabled=true", "--banking.tcp.port=0",
+                        "--banking.tcp.address=127.0.0.1"));
+            }
+            String[] applicationArgs = arguments.toArray(new String[0]);
+            context = config.reactive ? ReactiveApplication.run(applicationArgs)
+                    : SpringApplication.run(Application.class, applicationArgs);
+            baseUrl = "http://127.0.0.1:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+        }
+        InetSocketAddress binaryAddress = null;
+        if (config.binary) {
+            binaryAddress = context != null
+                    ? new InetSocketAddress("127.0.0.1", context.getBean(BinaryServer.class).getPort())
+                    : new InetSocketAddress(new URL(baseUrl).getHost(), config.binaryPort);
+        }
+        try {
+            new LoadGenerator(config, baseUrl, binaryAddress).run();
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+        // The embedded Tomcat's await thread outlives the closed context
+        System.exit(0);
+    }
+
+    void run() throws Exception {
+        System.out.println("Target " + (binaryAddress != null ? "tcp:/" + binaryAddress : baseUrl) + " "
+                + config.describe());
+        createAccounts();
+
+        long start = System.nanoTime();
+        measureStart = start + TimeUnit.SECONDS.toNanos(config.warmupSeconds);
+        long end = measureStart + TimeUnit.SECONDS.toNanos(config.durationSeconds);
+        if (config.open) {
+            runOpen(start, end);
+        } else {
+            runClosed(start, end);
+        }
+        long elapsed = System.nanoTime() - measureStart;
+        for (BinaryClient client : binaryClients) {
+            client.close();
+        }
+
+        report(elapsed);
+    }
+
+    private void createAccounts() throws InterruptedException {
+        post("/reset", "");
+        ExecutorService pool = Executors.newFixedThreadPool(config.workers);
+        for (int i = 0; i < config.accounts; i++) {
+            String body = "{\"type\":\"deposit\",\"destination\":\"" + accountId(i) + "\",\"amount\":\"1000000\"}";
+            pool.execute(() -> post("/event", body));
+        }
+        pool.shutdown();
+        pool.awaitTermination(1, TimeUnit.HOURS);
+    }
+
+    private void runOpen(long start, long end) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(config.workers);
+        double period = 1e9 / config.rate;
+        for (long i = 0; ; i++) {
+            long intended = start + (long) (i * period);
+            if (intended >= end) {
+                break;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            pool.execute(() -> execute(intended));
+        }
+        pool.shutdown();
+        pool.awaitTermination(1, TimeUnit.HOURS);
+    }
+
+    private void runClosed(long start, long end) throws InterruptedException {
+        Thread[] workers = new Thread[config.workers];
+        double period = config.rate == 0 ? 0 : 1e9 * config.workers / config.rate;
+        for (int w = 0; w < workers.length; w++) {
+            long offset = (long) (w * period / workers.length);
+            workers[w] = new Thread(() -> {
+                for (long k = 0; ; k++) {
+                    long now = System.nanoTime();
+                    long intended = period == 0 ? now : start + offset + (long) (k * period);
+                    if (intended >= end) {
+                        break;
+                    }
+                    if (intended > now) {
+                        LockSupport.parkNanos(intended - now);
+                    }
+                    execute(intended);
+                }
+            }, "load-worker-" + w);
+            workers[w].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+    }
+
+    private void execute(long intended) {
+        if (binaryAddress != null) {
+            executeBinary(intended);
+            return;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long sent = System.nanoTime();
+        boolean ok;
+        switch (kind(random)) {
+            case DEPOSIT:
+                ok = post("/event", "{\"type\":\"deposit\",\"destination\":\"" + accountId(account(random))
+                        + "\",\"amount\":\"10\"}");
+                break;
+            case WITHDRAW:
+                ok = post("/event", "{\"type\":\"withdraw\",\"origin\":\"" + accountId(account(random))
+                        + "\",\"amount\":\"10\"}");
+                break;
+            case TRANSFER:
+                ok = post("/event", "{\"type\":\"transfer\",\"origin\":\"" + accountId(account(random))
+                        + "\",\"destination\":\"" + accountId(account(random)) + "\",\"amount\":\"1\"}");
+                break;
+            default:
+                ok = get("/balance?account_id=" + accountId(account(random)));
+                break;
+        }
+        record(intended, sent, ok);
+    }
+
+    /**
+     * Sends a round of {@code load.pipeline} binary requests, then reads their responses.
+     * Rejected operations ({@code NOT_FOUND}) count as successful requests, like over HTTP.
+     */
+    private void executeBinary(long intended) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        BinaryClient client = localClient.get();
+        long sent = System.nanoTime();
+        try {
+            if (client == null) {
+                client = new BinaryClient(binaryAddress, config.pipeline);
+                binaryClients.add(client);
+                localClient.set(client);
+            }
+            ByteBuffer out = client.out;
+            out.clear();
+            for (int i = 0; i < config.pipeline; i++) {
+                long requestId = client.nextRequestId++;
+                switch (kind(random)) {
+                    case DEPOSIT:
+                        BinaryProtocol.putDeposit(out, requestId, accountId(account(random)), 10L);
+                        break;
+                    case WITHDRAW:
+                        BinaryProtocol.putWithdraw(out, requestId, accountId(account(random)), 10L);
+                        break;
+                    case TRANSFER:
+                        BinaryProtocol.putTransfer(out, requestId, accountId(account(random)),
+                                accountId(account(random)), 1L);
+                        break;
+                    default:
+                        BinaryProtocol.putBalance(out, requestId, accountId(account(random)));
+                        break;
+                }
+            }
+            out.flip();
+            while (out.hasRemaining()) {
+                client.channel.write(out);
+            }
+            for (int i = 0; i < config.pipeline; i++) {
+                byte status = client.readResponse();
+                record(intended, sent, status == BinaryProtocol.OK || status == BinaryProtocol.NOT_FOUND);
+            }
+        } catch (IOException e) {
+            // The connection is unusable: count the round as failed and reconnect next time
+            if (client != null) {
+                client.close();
+                binaryClients.remove(client);
+                localClient.remove();
+            }
+            for (int i = 0; i < config.pipeline; i++) {
+                record(intended, sent, false);
+            }
+        }
+    }
+
+    private void record(long intended, long sent, boolean ok) {
+        long done = System.nanoTime();
+        if (intended >= measureStart) {
+            LatencyLog log = localLog.get();
+            log.record(done - intended, done - sent);
+            if (!ok) {
+                log.errors++;
+            }
+        }
+    }
+
+    private int kind(ThreadLocalRandom random) {
+        int pick = random.nextInt(totalWeight);
+        for (int i = 0; i < config.weights.length; i++) {
+            pick -= config.weights[i];
+            if (pick < 0) {
+                return i;
+            }
+        }
+        return BALANCE;
+    }
+
+    private int account(ThreadLocalRandom random) {
+        if (zipfCdf == null) {
+            return random.nextInt(config.accounts);
+        }
+        int k = Arrays.binarySearch(zipfCdf, random.nextDouble());
+        return Math.min(k < 0 ? -k - 1 : k, config.accounts - 1);
+    }
+
+    private boolean post(String path, String body) {
+        try {
+            HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + path).openConnection();
+            connection.setRequestMethod("POST");
+            connection.setDoOutput(true);
+            connection.setRequestProperty("Content-Type", "application/json");
+            // Buffered (not streaming) mode sends headers and body in one segment,
+            // avoiding a Nagle/delayed-ACK stall of about 40ms per request
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(body.getBytes(StandardCharsets.UTF_8));
+            }
+            return complete(connection);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private boolean get(String path) {
+        try {
+            return complete((HttpURLConnection) new URL(baseUrl + path).openConnection());
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Drains the response so the connection returns to the keep-alive pool.
+     * Business failures ("0" with 404) count as successful requests.
+     */
+    private static boolean complete(HttpURLConnection connection) throws IOException {
+        int status = connection.getResponseCode();
+        InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+        if (in != null) {
+            byte[] buffer = new byte[512];
+            try (InputStream body = in) {
+                while (body.read(buffer) >= 0) {
+                    // discard
+                }
+            }
+        }
+        return status < 400 || status == HttpURLConnection.HTTP_NOT_FOUND;
+    }
+
+    private void report(long elapsedNanos) throws IOException {
+        long[] corrected = LatencyLog.merge(logs, true);
+        long[] raw = LatencyLog.merge(logs, false);
+        long errors = 0;
+        for (LatencyLog log : logs) {
+            errors += log.errors;
+        }
+        double throughput = corrected.length / (elapsedNanos / 1e9);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("config", config.describe());
+        report.put("requests", corrected.length);
+        report.put("errors", errors);
+        report.put("throughputPerSecond", Math.round(throughput * 10) / 10.0);
+        report.put("latencyMillis", latencies(corrected));
+        report.put("serviceTimeMillis", latencies(raw));
+
+        System.out.println();
+        System.out.printf("requests=%d errors=%d throughput=%.1f req/s%n", corrected.length, errors, throughput);
+        System.out.println("latency (from intended start, ms): " + report.get("latencyMillis"));
+        System.out.println("service time (from actual send, ms): " + report.get("serviceTimeMillis"));
+
+        File file = new File(config.report);
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(file, report);
+        System.out.println("Report written to " + file.getPath());
+    }
+
+    private static Map<String, Double> latencies(long[] sorted) {
+        Map<String, Double> latencies = new LinkedHashMap<>();
+        latencies.put("p50", millis(LatencyLog.percentile(sorted, 50.0)));
+        latencies.put("p99", millis(LatencyLog.percentile(sorted, 99.0)));
+        latencies.put("p99.9", millis(LatencyLog.percentile(sorted, 99.9)));
+        latencies.put("max", millis(LatencyLog.percentile(sorted, 100.0)));
+        return latencies;
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 1e3) / 1e3;
+    }
+
+    private static String accountId(int index) {
+        return "ACC" + index;
+    }
+
+    private static double[] zipfCdf(int accounts) {
+        double[] cdf = new double[accounts];
+        double total = 0;
+        for (int k = 0; k < accounts; k++) {
+            total += 1.0 / Math.pow(k + 1, ZIPF_EXPONENT);
+            cdf[k] = total;
+        }
+        for (int k = 0; k < accounts; k++) {
+            cdf[k] /= total;
+        }
+        return cdf;
+    }
+
+    /**
+     * Blocking binary protocol connection of one worker.
+     */
+    private static final class BinaryClient {
+
+        final SocketChannel channel;
+        final DataInputStream in;
+        final ByteBuffer out;
+        long nextRequestId;
+
+        BinaryClient(InetSocketAddress address, int pipeline) throws IOException {
+            channel = SocketChannel.open(address);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), 16 * 1024));
+            out = ByteBuffer.allocate(pipeline * BinaryProtocol.MAX_FRAME);
+        }
+
+        /**
+         * Reads one response and returns its status.
+         */
+        byte readResponse() throws IOException {
+            int length = in.readInt();
+            in.readLong();
+            byte status = in.readByte();
+            in.skipBytes(length - BinaryProtocol.HEADER_BYTES);
+            return status;
+        }
+
+        void close() {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // Closing anyway
+            }
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package org.orelio.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.Test;
+import java.util.List;
+import java.util.Map;
+import static org.junit.Assert.*;
+
+/**
+ * JUnit test class for PerfGate
+ * Demonstrates testing of the performance regression gate including:
+ * - JMH results keyed by short benchmark name and parameters
+ * - Results within the tolerances passing the gate
+ * - Throughput drops and allocation increases failing the gate
+ * - Baseline benchmarks missing from the results failing the gate
+ * - Baseline updates keeping the tolerances
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 19/10/2026
+ */
+public class PerfGateTest {
+
+    private static final String KEY = "OperationEventBenchmark.deposit[accounts=10000,distribution=uniform]";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    /**
+     * Test that JMH results are keyed by short name and sorted parameters
+     */
+    @Test
+    public void testReadResults() throws Exception {
+        // Act
+        Map<String, PerfGate.Measurement> results = PerfGate.readResults(result(0.95, 1480.0));
+
+        // Assert
+        assertEquals("One benchmark should be read", 1, results.size());
+        PerfGate.Measurement measurement = results.get(KEY);
+        assertNotNull("Benchmark should be keyed by short name and parameters", measurement);
+        assertEquals("Throughput should be the primary score", 0.95, measurement.throughput, 0.0);
+        assertEquals("Unit should be read", "ops/us", measurement.unit);
+        assertEquals("Allocation should be the normalized rate", 1480.0, measurement.allocationBytesPerOp, 0.0);
+    }
+
+    /**
+     * Test that results within the tolerances pass the gate
+     */
+    @Test
+    public void testWithinTolerancesPasses() throws Exception {
+        // Arrange
+        JsonNode baseline = baseline(1.0, 1000.0);
+
+        // Act
+        List<String> failures = PerfGate.check(baseline, PerfGate.readResults(result(0.75, 1090.0)));
+
+        // Assert
+        assertTrue("A 25% drop and a 9% allocation increase should pass: " + failures, failures.isEmpty());
+    }
+
+    /**
+     * Test that throughput drops and allocation increases beyond the tolerances fail the gate
+     */
+    @Test
+    public void testRegressionFails() throws Exception {
+        // Arrange
+        JsonNode baseline = baseline(1.0, 1000.0);
+
+        // Act
+        List<String> failures = PerfGate.check(baseline, PerfGate.readResults(result(0.5, 1200.0)));
+
+        // Assert
+        assertEquals("Both regressions should be reported", 2, failures.size());
+        assertTrue("Allocation regression should be reported", failures.get(0).contains("allocation"));
+        assertTrue("Throughput regression should be reported", failures.get(1).contains("throughput"));
+    }
+
+    /**
+     * Test that a baseline benchmark missing from the results fails the gate
+     */
+    @Test
+    public void testMissingBenchmarkFails() throws Exception {
+        // Arrange
+        JsonNode baseline = baseline(1.0, 1000.0);
+
+        // Act
+        List<String> failures = PerfGate.check(baseline, PerfGate.readResults(mapper.readTree("[]")));
+
+        // Assert
+        assertEquals("Missing benchmark should fail the gate", 1, failures.size());
+        assertEquals("Missing benchmark should be named", KEY + ": not measured", failures.get(0));
+    }
+
+    /**
+     * Test that updating the baseline replaces the measurements and keeps the tolerances
+     */
+    @Test
+    public void testUpdateKeepsTolerances() throws Exception {
+        // Arrange
+        ObjectNode baseline = baseline(1.0, 1000.0);
+
+        // Act
+        PerfGate.update(baseline, PerfGate.readResults(result(1.234567, 900.0)));
+
+        // Assert
+        JsonNode entry = baseline.path("benchmarks").path(KEY);
+        assertEquals("Throughput should be rounded to four digits", 1.235, entry.path("throughput").asDouble(), 0.0);
+        assertEquals("Allocation should be replaced", 900.0, entry.path("allocationBytesPerOp").asDouble(), 0.0);
+        assertEquals("Tolerance should be kept", 0.30, entry.path("maxThroughputDrop").asDouble(), 0.0);
+    }
+
+    private ObjectNode baseline(double throughput, double allocation) throws Exception {
+        return (ObjectNode) mapper.readTree("{\"defaults\": {\"maxAllocationIncrease\": 0.10, \"allocationSlackBytes\": 16},"
+                + " \"benchmarks\": {\"" + KEY + "\": {\"throughput\": " + throughput + ", \"unit\": \"ops/us\","
+                + " \"allocationBytesPerOp\": " + allocation + ", \"maxThroughputDrop\": 0.30}}}");
+    }
+
+    private JsonNode result(double throughput, double allocation) throws Exception {
+        return mapper.readTree("[{\"benchmark\": \"org.orelio.benchmark.OperationEventBenchmark.deposit\","
+                + " \"params\": {\"distribution\": \"uniform\", \"accounts\": \"10000\"},"
+                + " \"primaryMetric\": {\"score\": " + throughput + ", \"scoreUnit\": \"ops/us\"},"
+                + " \"secondaryMetrics\": {\"\u00b7gc.alloc.rate.norm\": {\"score\": " + allocation + "}}}]");
+    }
+}
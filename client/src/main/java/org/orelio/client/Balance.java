@@ -0,0 +1,69 @@
+package org.orelio.client;
+
+import java.util.Objects;
+
+/**
+ * Balance of an account after an operation, as answered by the banking API.
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ * @see BankingClient
+ */
+public final class Balance {
+
+    private final String accountId;
+
+    private final long balance;
+
+    /**
+     * Creates a balance.
+     *
+     * @param accountId the account ID
+     * @param balance the account balance
+     */
+    public Balance(String accountId, long balance) {
+        this.accountId = accountId;
+        this.balance = balance;
+    }
+
+    /**
+     * Returns the account ID.
+     *
+     * @return the account ID
+     */
+    public String getAccountId() {
+        return accountId;
+    }
+
+    /**
+     * Returns the account balance.
+     *
+     * @return the balance
+     */
+    public long getBalance() {
+        return balance;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Balance)) {
+            return false;
+        }
+        Balance other = (Balance) o;
+        return balance == other.balance && Objects.equals(accountId, other.accountId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(accountId, balance);
+    }
+
+    @Override
+    public String toString() {
+        return "Balance{accountId='" + accountId + "', balance=" + balance + '}';
+    }
+}
@@ -0,0 +1,847 @@
+package org.orelio.client;
+
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Java client of the ChallengeCoreBanking HTTP API.
+ *
+ * <p>Offers typed deposit, withdraw, transfer and balance calls, each in a blocking form and
+ * an asynchronous form returning a {@link CompletableFuture}. Requests share a bounded pool
+ * of keep-alive connections, so a busy client opens {@code maxConnections} connections once
+ * instead of one per call.</p>
+ *
+ * <p><strong>Execution:</strong></p>
+ * <ul>
+ *   <li>Blocking calls run on the calling thread, one request per connection at a time</li>
+ *   <li>Asynchronous calls are queued and sent by the client's I/O threads, one per
+ *       connection; with a {@code pipelineDepth} above 1, each thread writes up to that many
+ *       queued requests before reading their responses, in order (HTTP/1.1 pipelining)</li>
+ *   <li>With {@linkplain Builder#batching batching} enabled, operations (not balance reads,
+ *       blocking ones included) wait up to the linger time to be sent together to
+ *       {@code POST /event/batch}, trading that latency for far fewer requests</li>
+ * </ul>
+ *
+ * <p><strong>Retries:</strong> every operation and batch carries a unique
+ * {@value #IDEMPOTENCY_HEADER} header, so a request whose answer was lost can be sent again
+ * without being applied twice: the server answers a repeated key with the stored response.
+ * Requests are retried after connection failures, timeouts and the {@code 409}, {@code 429}
+ * and {@code 503} answers of a busy server, with jittered exponential backoff or the delay of
+ * its {@code Retry-After} header, at most {@code maxRetries} times. Other answers are final:
+ * {@code 404} fails the call with a {@link BankingException}, except for balance reads, which
+ * return an empty value.</p>
+ *
+ * <p>Futures are completed on the client's I/O threads, so callbacks chained on them should
+ * not block. The client is thread-safe; share one instance and {@link #close()} it on
+ * shutdown.</p>
+ *
+ * <pre>
+ * try (BankingClient client = BankingClient.builder("http://localhost:8000")
+ *         .maxConnections(8).pipelineDepth(16).build()) {
+ *     client.deposit("100", 10);
+ *     client.transferAsync("100", "300", 5).thenAccept(transfer -&gt; ...);
+ * }
+ * </pre>
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ */
+public final class BankingClient implements AutoCloseable {
+
+    /**
+     * Request header carrying the idempotency key of an operation or batch.
+     */
+    public static final String IDEMPOTENCY_HEADER = "Idempotency-Key";
+
+    /**
+     * Response header marking a stored response sent again for a repeated key.
+     */
+    static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final String DEPOSIT = "deposit";
+
+    private static final String WITHDRAW = "withdraw";
+
+    private static final String TRANSFER = "transfer";
+
+    private final String basePath;
+
+    private final ConnectionPool pool;
+
+    private final int ioThreads;
+
+    private final int pipelineDepth;
+
+    private final int maxRetries;
+
+    private final long retryBackoffMillis;
+
+    private final long maxRetryDelayMillis;
+
+    private final long closeTimeoutMillis;
+
+    private final BlockingQueue<Call> queue;
+
+    private final List<Thread> workers = new ArrayList<>();
+
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    private final ScheduledThreadPoolExecutor timer;
+
+    private final MicroBatcher batcher;
+
+    private final String keyPrefix = UUID.randomUUID().toString();
+
+    private final AtomicLong keySequence = new AtomicLong();
+
+    private final Set<CompletableFuture<?>> outstanding = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean closed;
+
+    private BankingClient(Builder builder) {
+        URI uri = builder.baseUrl;
+        int port = uri.getPort() == -1 ? 80 : uri.getPort();
+        String path = uri.getRawPath() == null ? "" : uri.getRawPath();
+        this.basePath = path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+        this.pool = new ConnectionPool(new InetSocketAddress(uri.getHost(), port),
+                uri.getPort() == -1 ? uri.getHost() : uri.getHost() + ':' + port, builder.clientId,
+                builder.maxConnections, (int) builder.connectTimeout.toMillis(),
+                (int) builder.requestTimeout.toMillis(), builder.maxIdle.toNanos());
+        this.ioThreads = builder.maxConnections;
+        this.pipelineDepth = builder.pipelineDepth;
+        this.maxRetries = builder.maxRetries;
+        this.retryBackoffMillis = Math.max(1L, builder.retryBackoff.toMillis());
+        this.maxRetryDelayMillis = Math.max(retryBackoffMillis, builder.maxRetryDelay.toMillis());
+        this.closeTimeoutMillis = builder.requestTimeout.toMillis();
+        this.queue = new LinkedBlockingQueue<>(builder.maxPending);
+        AtomicInteger timerThreads = new AtomicInteger();
+        this.timer = new ScheduledThreadPoolExecutor(1, task -> daemon(task, "banking-client-timer-"
+                + timerThreads.incrementAndGet()));
+        this.timer.setRemoveOnCancelPolicy(true);
+        this.batcher = builder.batchLinger == null ? null : new MicroBatcher(this, basePath + "/event/batch",
+                builder.batchLinger.toNanos(), builder.maxBatchSize, builder.maxRetries);
+    }
+
+    /**
+     * Starts configuring a client of a server.
+     *
+     * @param baseUrl the server URL, such as {@code http://localhost:8000}
+     * @return the builder
+     * @throws IllegalArgumentException if the URL is not an {@code http} URL with a host
+     */
+    public static Builder builder(String baseUrl) {
+        return new Builder(baseUrl);
+    }
+
+    /**
+     * Deposits into an account, creating it if needed.
+     *
+     * @param destination the account receiving the amount
+     * @param amount the amount
+     * @return the balance of the destination account
+     * @throws BankingException if the deposit is refused or gets no answer
+     */
+    public Balance deposit(String destination, long amount) {
+        Objects.requireNonNull(destination, "destination");
+        if (batcher != null) {
+            return join(depositAsync(destination, amount));
+        }
+        return balanceOf(outcome(execute(operation(DEPOSIT, null, destination, amount))), "destination", DEPOSIT);
+    }
+
+    /**
+     * Withdraws from an existing account.
+     *
+     * @param origin the account giving the amount
+     * @param amount the amount
+     * @return the balance of the origin account
+     * @throws BankingException if the withdrawal is refused, such as for a missing account, or gets no answer
+     */
+    public Balance withdraw(String origin, long amount) {
+        Objects.requireNonNull(origin, "origin");
+        if (batcher != null) {
+            return join(withdrawAsync(origin, amount));
+        }
+        return balanceOf(outcome(execute(operation(WITHDRAW, origin, null, amount))), "origin", WITHDRAW);
+    }
+
+    /**
+     * Transfers between two accounts, creating the destination if needed.
+     *
+     * @param origin the account giving the amount
+     * @param destination the account receiving the amount
+     * @param amount the amount
+     * @return the balances of both accounts
+     * @throws BankingException if the transfer is refused, such as for a missing origin, or gets no answer
+     */
+    public Transfer transfer(String origin, String destination, long amount) {
+        Objects.requireNonNull(origin, "origin");
+        Objects.requireNonNull(destination, "destination");
+        if (batcher != null) {
+            return join(transferAsync(origin, destination, amount));
+        }
+        return transferOf(outcome(execute(operation(TRANSFER, origin, destination, amount))));
+    }
+
+    /**
+     * Reads the balance of an account.
+     *
+     * @param accountId the account ID
+     * @return the balance, or empty if the account does not exist
+     * @throws BankingException if the read gets no answer
+     */
+    public OptionalLong balance(String accountId) {
+        Objects.requireNonNull(accountId, "accountId");
+        return balanceValueOf(outcome(execute(balanceRequest(accountId))));
+    }
+
+    /**
+     * Deposits into an account asynchronously.
+     *
+     * @param destination the account receiving the amount
+     * @param amount the amount
+     * @return the balance of the destination account, or a {@link BankingException} failure
+     * @see #deposit(String, long)
+     */
+    public CompletableFuture<Balance> depositAsync(String destination, long amount) {
+        Objects.requireNonNull(destination, "destination");
+        return operationAsync(DEPOSIT, null, destination, amount,
+                outcome -> balanceOf(outcome, "destination", DEPOSIT));
+    }
+
+    /**
+     * Withdraws from an existing account asynchronously.
+     *
+     * @param origin the account giving the amount
+     * @param amount the amount
+     * @return the balance of the origin account, or a {@link BankingException} failure
+     * @see #withdraw(String, long)
+     */
+    public CompletableFuture<Balance> withdrawAsync(String origin, long amount) {
+        Objects.requireNonNull(origin, "origin");
+        return operationAsync(WITHDRAW, origin, null, amount, outcome -> balanceOf(outcome, "origin", WITHDRAW));
+    }
+
+    /**
+     * Transfers between two accounts asynchronously.
+     *
+     * @param origin the account giving the amount
+     * @param destination the account receiving the amount
+     * @param amount the amount
+     * @return the balances of both accounts, or a {@link BankingException} failure
+     * @see #transfer(String, String, long)
+     */
+    public CompletableFuture<Transfer> transferAsync(String origin, String destination, long amount) {
+        Objects.requireNonNull(origin, "origin");
+        Objects.requireNonNull(destination, "destination");
+        return operationAsync(TRANSFER, origin, destination, amount, BankingClient::transferOf);
+    }
+
+    /**
+     * Reads the balance of an account asynchronously. Balance reads are never batched.
+     *
+     * @param accountId the account ID
+     * @return the balance, empty if the account does not exist, or a {@link BankingException} failure
+     * @see #balance(String)
+     */
+    public CompletableFuture<OptionalLong> balanceAsync(String accountId) {
+        Objects.requireNonNull(accountId, "accountId");
+        checkOpen();
+        return track(submit(balanceRequest(accountId)).thenApply(response -> balanceValueOf(outcome(response))));
+    }
+
+    /**
+     * Returns the number of connections opened since the client was created. Close to
+     * {@code maxConnections} under a steady load when connections are kept alive.
+     *
+     * @return the opened connections
+     */
+    public long getConnectionsOpened() {
+        return pool.getOpened();
+    }
+
+    /**
+     * Sends the operations waiting in a batch and waits up to the request timeout for the
+     * calls in flight; those still unanswered then fail with a {@link BankingException}.
+     * Connections and threads are released, and later calls throw {@link IllegalStateException}.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (batcher != null) {
+            batcher.flush();
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(closeTimeoutMillis);
+        try {
+            while (!outstanding.isEmpty() && System.nanoTime() - deadline < 0) {
+                Thread.sleep(1L);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        BankingException failure = new BankingException(0, "Client closed");
+        for (CompletableFuture<?> future : outstanding) {
+            future.completeExceptionally(failure);
+        }
+        timer.shutdownNow();
+        synchronized (workers) {
+            for (Thread worker : workers) {
+                worker.interrupt();
+            }
+        }
+        for (Call call; (call = queue.poll()) != null; ) {
+            call.result.completeExceptionally(failure);
+        }
+        pool.close();
+    }
+
+    private <T> CompletableFuture<T> operationAsync(String type, String origin, String destination, long amount,
+                                                    Function<Outcome, T> result) {
+        checkOpen();
+        if (batcher != null) {
+            String operation = Json.appendOperation(new StringBuilder(96), type, origin, destination, amount)
+                    .toString();
+            return track(batcher.add(operation).thenApply(result));
+        }
+        return track(submit(operation(type, origin, destination, amount))
+                .thenApply(response -> result.apply(outcome(response))));
+    }
+
+    /**
+     * Sends a request on the calling thread, retrying it on failures and busy answers.
+     */
+    private HttpConnection.Response execute(HttpConnection.Request request) {
+        checkOpen();
+        for (int attempt = 0; ; attempt++) {
+            HttpConnection.Response response = null;
+            IOException failure = null;
+            HttpConnection connection = null;
+            try {
+                connection = pool.acquire();
+                connection.write(request);
+                connection.flush();
+                response = connection.read();
+                pool.release(connection);
+            } catch (IOException e) {
+                if (connection != null) {
+                    pool.discard(connection);
+                }
+                failure = e;
+            }
+            if (response != null && (!isRetryable(response.status) || attempt >= maxRetries)) {
+                return response;
+            }
+            if (failure != null && (attempt >= maxRetries || Thread.currentThread().isInterrupted())) {
+                throw new BankingException("No answer from the server after " + (attempt + 1) + " attempts",
+                        failure);
+            }
+            try {
+                Thread.sleep(retryDelayMillis(attempt, response != null ? response.retryAfterSeconds : -1L));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new BankingException("Interrupted while waiting to retry", e);
+            }
+        }
+    }
+
+    /**
+     * Queues a request for the I/O threads.
+     *
+     * @param request the request
+     * @return the final response, after retries
+     */
+    CompletableFuture<HttpConnection.Response> submit(HttpConnection.Request request) {
+        Call call = new Call(request);
+        if (started.compareAndSet(false, true)) {
+            startWorkers();
+        }
+        if (!queue.offer(call)) {
+            call.result.completeExceptionally(new BankingException(0, "Too many requests pending"));
+        }
+        return call.result;
+    }
+
+    /**
+     * Runs a task on the client's timer.
+     *
+     * @return false if the client has stopped its timer
+     */
+    boolean schedule(Runnable task, long delay, TimeUnit unit) {
+        try {
+            timer.schedule(task, delay, unit);
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns the delay before a retry: the server's {@code Retry-After} when given, otherwise
+     * an exponential backoff with jitter, both capped by the maximum retry delay.
+     *
+     * @param attempt the number of attempts already retried, from 0
+     * @param retryAfterSeconds the {@code Retry-After} of the answer, or -1
+     * @return the delay in milliseconds
+     */
+    long retryDelayMillis(int attempt, long retryAfterSeconds) {
+        if (retryAfterSeconds > 0) {
+            return Math.min(TimeUnit.SECONDS.toMillis(retryAfterSeconds), maxRetryDelayMillis);
+        }
+        long backoff = Math.min(maxRetryDelayMillis, retryBackoffMillis << Math.min(attempt, 20));
+        return backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+    }
+
+    /**
+     * Returns a key unique to this client and request.
+     *
+     * @return the idempotency key
+     */
+    String nextIdempotencyKey() {
+        return keyPrefix + '-' + Long.toString(keySequence.incrementAndGet(), 36);
+    }
+
+    private void startWorkers() {
+        synchronized (workers) {
+            for (int i = 0; i < ioThreads; i++) {
+                Thread worker = daemon(this::runWorker, "banking-client-io-" + (i + 1));
+                workers.add(worker);
+                worker.start();
+            }
+        }
+    }
+
+    private void runWorker() {
+        List<Call> calls = new ArrayList<>(pipelineDepth);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                calls.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(calls, pipelineDepth - 1);
+            exchange(calls);
+            calls.clear();
+        }
+    }
+
+    /**
+     * Writes a group of calls on one connection, then reads their responses in order.
+     */
+    private void exchange(List<Call> calls) {
+        HttpConnection connection;
+        try {
+            connection = pool.acquire();
+        } catch (IOException e) {
+            for (Call call : calls) {
+                retryOrFail(call, e);
+            }
+            return;
+        }
+        int answered = 0;
+        try {
+            for (Call call : calls) {
+                connection.write(call.request);
+            }
+            connection.flush();
+            while (answered < calls.size() && (answered == 0 || connection.isReusable())) {
+                HttpConnection.Response response = connection.read();
+                complete(calls.get(answered++), response);
+            }
+        } catch (IOException e) {
+            pool.discard(connection);
+            for (int i = answered; i < calls.size(); i++) {
+                retryOrFail(calls.get(i), e);
+            }
+            return;
+        }
+        pool.release(connection);
+        // The server closed the connection before reading the rest: they were never processed
+        for (int i = answered; i < calls.size(); i++) {
+            resend(calls.get(i), 0L);
+        }
+    }
+
+    private void complete(Call call, HttpConnection.Response response) {
+        if (isRetryable(response.status) && call.attempts < maxRetries) {
+            resend(call, retryDelayMillis(call.attempts++, response.retryAfterSeconds));
+        } else {
+            call.result.complete(response);
+        }
+    }
+
+    private void retryOrFail(Call call, IOException failure) {
+        if (call.attempts < maxRetries && !closed) {
+            resend(call, retryDelayMillis(call.attempts++, -1L));
+        } else {
+            call.result.completeExceptionally(new BankingException(
+                    "No answer from the server after " + (call.attempts + 1) + " attempts", failure));
+        }
+    }
+
+    private void resend(Call call, long delayMillis) {
+        Runnable enqueue = () -> {
+            if (!queue.offer(call)) {
+                call.result.completeExceptionally(new BankingException(0, "Too many requests pending"));
+            }
+        };
+        if (delayMillis <= 0) {
+            enqueue.run();
+        } else if (!schedule(enqueue, delayMillis, TimeUnit.MILLISECONDS)) {
+            call.result.completeExceptionally(new BankingException(0, "Client closed"));
+        }
+    }
+
+    private <T> CompletableFuture<T> track(CompletableFuture<T> future) {
+        outstanding.add(future);
+        future.whenComplete((value, failure) -> outstanding.remove(future));
+        return future;
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Client closed");
+        }
+    }
+
+    private HttpConnection.Request operation(String type, String origin, String destination, long amount) {
+        byte[] body = Json.appendOperation(new StringBuilder(96), type, origin, destination, amount).toString()
+                .getBytes(StandardCharsets.UTF_8);
+        return new HttpConnection.Request("POST", basePath + "/event", body, nextIdempotencyKey());
+    }
+
+    private HttpConnection.Request balanceRequest(String accountId) {
+        try {
+            return new HttpConnection.Request("GET", basePath + "/balance?account_id="
+                    + URLEncoder.encode(accountId, "UTF-8"), null, null);
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static boolean isRetryable(int status) {
+        return status == 409 || status == 429 || status == 503;
+    }
+
+    /**
+     * Reads a response into its status and parsed body; bodies of failures are not parsed.
+     */
+    static Outcome outcome(HttpConnection.Response response) {
+        if (response.status / 100 != 2) {
+            return new Outcome(response.status, null);
+        }
+        try {
+            return new Outcome(response.status, Json.parse(response.body));
+        } catch (IllegalArgumentException e) {
+            throw new BankingException(response.status, "Malformed response: " + e.getMessage());
+        }
+    }
+
+    private static Balance balanceOf(Outcome outcome, String side, String type) {
+        if (outcome.status != 201) {
+            throw failure(outcome.status, type);
+        }
+        return account(outcome.body, side);
+    }
+
+    private static Transfer transferOf(Outcome outcome) {
+        if (outcome.status != 201) {
+            throw failure(outcome.status, TRANSFER);
+        }
+        return new Transfer(account(outcome.body, "origin"), account(outcome.body, "destination"));
+    }
+
+    private static OptionalLong balanceValueOf(Outcome outcome) {
+        if (outcome.status == 404) {
+            return OptionalLong.empty();
+        }
+        if (outcome.status != 200 || !(outcome.body instanceof Number)) {
+            throw failure(outcome.status, "balance");
+        }
+        return OptionalLong.of(((Number) outcome.body).longValue());
+    }
+
+    private static Balance account(Object body, String side) {
+        Object account = body instanceof Map ? ((Map<?, ?>) body).get(side) : null;
+        Object id = account instanceof Map ? ((Map<?, ?>) account).get("id") : null;
+        Object balance = account instanceof Map ? ((Map<?, ?>) account).get("balance") : null;
+        if (!(balance instanceof Number)) {
+            throw new BankingException(201, "Response without the " + side + " balance: " + body);
+        }
+        return new Balance(id == null ? null : id.toString(), ((Number) balance).longValue());
+    }
+
+    private static BankingException failure(int status, String type) {
+        if (status == 404) {
+            return new BankingException(status, "The server refused the " + type);
+        }
+        return new BankingException(status, "The server answered the " + type + " with status " + status);
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BankingException("Interrupted while waiting for the server", e);
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable cause) {
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        }
+        return new BankingException("Call failed", cause);
+    }
+
+    private static Thread daemon(Runnable task, String name) {
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /**
+     * The status and parsed body the server answered for one operation.
+     */
+    static final class Outcome {
+
+        final int status;
+
+        final Object body;
+
+        Outcome(int status, Object body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+
+    /**
+     * A queued request and its response.
+     */
+    private static final class Call {
+
+        final HttpConnection.Request request;
+
+        final CompletableFuture<HttpConnection.Response> result = new CompletableFuture<>();
+
+        int attempts;
+
+        Call(HttpConnection.Request request) {
+            this.request = request;
+        }
+    }
+
+    /**
+     * Configuration of a {@link BankingClient}.
+     */
+    public static final class Builder {
+
+        private final URI baseUrl;
+
+        private String clientId;
+
+        private int maxConnections = 8;
+
+        private int pipelineDepth = 1;
+
+        private int maxPending = 65536;
+
+        private Duration connectTimeout = Duration.ofSeconds(2);
+
+        private Duration requestTimeout = Duration.ofSeconds(10);
+
+        private Duration maxIdle = Duration.ofSeconds(15);
+
+        private int maxRetries = 3;
+
+        private Duration retryBackoff = Duration.ofMillis(25);
+
+        private Duration maxRetryDelay = Duration.ofSeconds(1);
+
+        private Duration batchLinger;
+
+        private int maxBatchSize = 256;
+
+        private Builder(String baseUrl) {
+            Objects.requireNonNull(baseUrl, "baseUrl");
+            this.baseUrl = URI.create(baseUrl);
+            if (!"http".equalsIgnoreCase(this.baseUrl.getScheme()) || this.baseUrl.getHost() == null) {
+                throw new IllegalArgumentException("Expected an http URL with a host: " + baseUrl);
+            }
+        }
+
+        /**
+         * Sets the {@code X-Client-Id} header identifying this client to the server's rate limits.
+         * Without it, the server limits by remote address.
+         *
+         * @param clientId the client ID
+         * @return this builder
+         */
+        public Builder clientId(String clientId) {
+            this.clientId = clientId;
+            return this;
+        }
+
+        /**
+         * Sets the most connections open at once, also the number of I/O threads. Default 8.
+         *
+         * @param maxConnections the connection limit
+         * @return this builder
+         */
+        public Builder maxConnections(int maxConnections) {
+            this.maxConnections = positive(maxConnections, "maxConnections");
+            return this;
+        }
+
+        /**
+         * Sets how many asynchronous requests an I/O thread writes on its connection before
+         * reading their responses. Default 1, no pipelining.
+         *
+         * @param pipelineDepth the requests in flight per connection
+         * @return this builder
+         */
+        public Builder pipelineDepth(int pipelineDepth) {
+            this.pipelineDepth = positive(pipelineDepth, "pipelineDepth");
+            return this;
+        }
+
+        /**
+         * Sets the most asynchronous requests queued for the I/O threads; beyond it, calls
+         * fail at once. Default 65536.
+         *
+         * @param maxPending the queue capacity
+         * @return this builder
+         */
+        public Builder maxPending(int maxPending) {
+            this.maxPending = positive(maxPending, "maxPending");
+            return this;
+        }
+
+        /**
+         * Sets the connect timeout, also the longest wait for a free connection. Default 2 seconds.
+         *
+         * @param connectTimeout the timeout
+         * @return this builder
+         */
+        public Builder connectTimeout(Duration connectTimeout) {
+            this.connectTimeout = Objects.requireNonNull(connectTimeout, "connectTimeout");
+            return this;
+        }
+
+        /**
+         * Sets the longest wait for response bytes before the request is retried. Default 10 seconds.
+         *
+         * @param requestTimeout the timeout
+         * @return this builder
+         */
+        public Builder requestTimeout(Duration requestTimeout) {
+            this.requestTimeout = Objects.requireNonNull(requestTimeout, "requestTimeout");
+            return this;
+        }
+
+        /**
+         * Sets how long a connection may stay idle and still be reused; keep it below the
+         * server's keep-alive timeout. Default 15 seconds.
+         *
+         * @param maxIdle the idle limit
+         * @return this builder
+         */
+        public Builder maxIdle(Duration maxIdle) {
+            this.maxIdle = Objects.requireNonNull(maxIdle, "maxIdle");
+            return this;
+        }
+
+        /**
+         * Sets how many times a request is sent again after a failure or a busy answer. Default 3.
+         *
+         * @param maxRetries the retry limit, 0 to never retry
+         * @return this builder
+         */
+        public Builder maxRetries(int maxRetries) {
+            if (maxRetries < 0) {
+                throw new IllegalArgumentException("maxRetries must not be negative");
+            }
+            this.maxRetries = maxRetries;
+            return this;
+        }
+
+        /**
+         * Sets the first retry delay, doubled on each retry and capped by the maximum delay.
+         * Defaults 25 milliseconds and 1 second.
+         *
+         * @param retryBackoff the first delay
+         * @param maxRetryDelay the longest delay, also the cap of the server's {@code Retry-After}
+         * @return this builder
+         */
+        public Builder retryBackoff(Duration retryBackoff, Duration maxRetryDelay) {
+            this.retryBackoff = Objects.requireNonNull(retryBackoff, "retryBackoff");
+            this.maxRetryDelay = Objects.requireNonNull(maxRetryDelay, "maxRetryDelay");
+            return this;
+        }
+
+        /**
+         * Sends operations in batches to {@code POST /event/batch}: a batch is sent when it holds
+         * {@code maxBatchSize} operations or when its first one has waited {@code linger}.
+         * Keep {@code maxBatchSize} within the server's {@code banking.batch.max-operations}.
+         *
+         * @param linger the longest wait of an operation for others to join its batch
+         * @param maxBatchSize the most operations in one batch
+         * @return this builder
+         */
+        public Builder batching(Duration linger, int maxBatchSize) {
+            this.batchLinger = Objects.requireNonNull(linger, "linger");
+            this.maxBatchSize = positive(maxBatchSize, "maxBatchSize");
+            return this;
+        }
+
+        /**
+         * Creates the client.
+         *
+         * @return the client
+         */
+        public BankingClient build() {
+            return new BankingClient(this);
+        }
+
+        private static int positive(int value, String name) {
+            if (value < 1) {
+                throw new IllegalArgumentException(name + " must be positive");
+            }
+            return value;
+        }
+    }
+}
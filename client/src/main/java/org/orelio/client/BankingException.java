@@ -0,0 +1,52 @@
+package org.orelio.client;
+
+/**
+ * Failure of a call to the banking API.
+ *
+ * <p>Carries the HTTP status of the final answer: {@code 404} for an operation the server
+ * refused (such as a withdrawal from a missing account), {@code 429} or {@code 503} when
+ * the retries ran out while the server was shedding load, and 0 when no answer was
+ * received at all (connection failure, timeout or closed client).</p>
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ * @see BankingClient
+ */
+public class BankingException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int status;
+
+    /**
+     * Creates an exception for an answer of the server.
+     *
+     * @param status the HTTP status, or 0 without an answer
+     * @param message the detail message
+     */
+    public BankingException(int status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    /**
+     * Creates an exception for a call that got no answer.
+     *
+     * @param message the detail message
+     * @param cause the I/O failure
+     */
+    public BankingException(String message, Throwable cause) {
+        super(message, cause);
+        this.status = 0;
+    }
+
+    /**
+     * Returns the HTTP status of the final answer.
+     *
+     * @return the status, or 0 if no answer was received
+     */
+    public int getStatus() {
+        return status;
+    }
+}
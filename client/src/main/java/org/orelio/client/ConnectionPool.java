@@ -0,0 +1,152 @@
+package org.orelio.client;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded pool of keep-alive {@link HttpConnection}s to one server.
+ *
+ * <p>At most {@code maxConnections} connections are in use at once; a caller waits up to
+ * the acquire timeout for one to be released. Idle connections are reused most recently
+ * released first, so a light load keeps few of them warm, and one idle longer than the
+ * idle timeout is closed instead of reused, before the server would close it.</p>
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ */
+final class ConnectionPool implements Closeable {
+
+    private final InetSocketAddress address;
+
+    private final String hostHeader;
+
+    private final String clientId;
+
+    private final int connectTimeoutMillis;
+
+    private final int readTimeoutMillis;
+
+    private final long maxIdleNanos;
+
+    private final Semaphore permits;
+
+    private final ConcurrentLinkedDeque<HttpConnection> idle = new ConcurrentLinkedDeque<>();
+
+    private final AtomicLong opened = new AtomicLong();
+
+    private volatile boolean closed;
+
+    /**
+     * Creates an empty pool.
+     *
+     * @param address the server address
+     * @param hostHeader the value of the {@code Host} header
+     * @param clientId the value of the {@code X-Client-Id} header, or null
+     * @param maxConnections the most connections in use at once
+     * @param connectTimeoutMillis the connect timeout, also the longest wait for a free connection
+     * @param readTimeoutMillis the longest wait for response bytes
+     * @param maxIdleNanos the longest time a connection may stay idle and still be reused
+     */
+    ConnectionPool(InetSocketAddress address, String hostHeader, String clientId, int maxConnections,
+                   int connectTimeoutMillis, int readTimeoutMillis, long maxIdleNanos) {
+        this.address = address;
+        this.hostHeader = hostHeader;
+        this.clientId = clientId;
+        this.connectTimeoutMillis = connectTimeoutMillis;
+        this.readTimeoutMillis = readTimeoutMillis;
+        this.maxIdleNanos = maxIdleNanos;
+        this.permits = new Semaphore(maxConnections, true);
+    }
+
+    /**
+     * Takes a connection, reusing an idle one when possible.
+     *
+     * @return a connection, to give back with {@link #release} or {@link #discard}
+     * @throws IOException if no connection could be had in time, or opened
+     */
+    HttpConnection acquire() throws IOException {
+        try {
+            if (!permits.tryAcquire(connectTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new IOException("No connection released within " + connectTimeoutMillis + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a connection");
+        }
+        if (closed) {
+            permits.release();
+            throw new IOException("Client closed");
+        }
+        long now = System.nanoTime();
+        for (HttpConnection connection; (connection = idle.pollFirst()) != null; ) {
+            if (now - connection.getIdleSince() < maxIdleNanos && connection.isReusable()) {
+                return connection;
+            }
+            connection.close();
+        }
+        try {
+            HttpConnection connection = new HttpConnection(address, hostHeader, clientId, connectTimeoutMillis,
+                    readTimeoutMillis);
+            opened.incrementAndGet();
+            return connection;
+        } catch (IOException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Gives back a connection after a complete exchange, keeping it if it can be reused.
+     *
+     * @param connection the connection taken by {@link #acquire()}
+     */
+    void release(HttpConnection connection) {
+        if (connection.isReusable() && !closed) {
+            connection.setIdleSince(System.nanoTime());
+            idle.offerFirst(connection);
+            if (closed && idle.remove(connection)) {
+                connection.close();
+            }
+        } else {
+            connection.close();
+        }
+        permits.release();
+    }
+
+    /**
+     * Gives back a connection that failed, closing it.
+     *
+     * @param connection the connection taken by {@link #acquire()}
+     */
+    void discard(HttpConnection connection) {
+        connection.close();
+        permits.release();
+    }
+
+    /**
+     * Returns the number of connections opened since the pool was created.
+     *
+     * @return the opened connections
+     */
+    long getOpened() {
+        return opened.get();
+    }
+
+    /**
+     * Closes the idle connections; connections in use are closed when given back.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (HttpConnection connection; (connection = idle.pollFirst()) != null; ) {
+            connection.close();
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package org.orelio.client;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * One persistent HTTP/1.1 connection to the banking API.
+ *
+ * <p>Requests are written into a buffer and sent by {@link #flush()}, so several may be
+ * pipelined in one write; responses are then read back in the same order. Bodies are
+ * read by {@code Content-Length} or chunked encoding. A response carrying
+ * {@code Connection: close}, or one delimited by the end of the stream, makes the
+ * connection unusable for further requests.</p>
+ *
+ * <p>Not thread-safe: a connection is used by one thread at a time, handed over by the
+ * {@link ConnectionPool}.</p>
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ */
+final class HttpConnection implements Closeable {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Socket socket;
+
+    private final OutputStream out;
+
+    private final InputStream in;
+
+    private final byte[] requestHead;
+
+    private final StringBuilder head = new StringBuilder(256);
+
+    private boolean reusable = true;
+
+    private long idleSince;
+
+    /**
+     * Opens a connection.
+     *
+     * @param address the server address
+     * @param hostHeader the value of the {@code Host} header
+     * @param clientId the value of the {@code X-Client-Id} header, or null
+     * @param connectTimeoutMillis the connect timeout
+     * @param readTimeoutMillis the longest wait for response bytes
+     * @throws IOException if the connection cannot be opened
+     */
+    HttpConnection(InetSocketAddress address, String hostHeader, String clientId, int connectTimeoutMillis,
+                   int readTimeoutMillis) throws IOException {
+        socket = new Socket();
+        try {
+            socket.setTcpNoDelay(true);
+            socket.setKeepAlive(true);
+            socket.connect(address, connectTimeoutMillis);
+            socket.setSoTimeout(readTimeoutMillis);
+            out = new BufferedOutputStream(socket.getOutputStream(), BUFFER_SIZE);
+            in = new BufferedInputStream(socket.getInputStream(), BUFFER_SIZE);
+        } catch (IOException e) {
+            socket.close();
+            throw e;
+        }
+        StringBuilder common = new StringBuilder(128).append("Host: ").append(hostHeader)
+                .append("\r\nAccept: application/json\r\n");
+        if (clientId != null) {
+            common.append("X-Client-Id: ").append(clientId).append("\r\n");
+        }
+        requestHead = common.toString().getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Buffers a request; it is sent by the next {@link #flush()} or once the buffer fills.
+     *
+     * @param request the request
+     * @throws IOException if the connection fails
+     */
+    void write(Request request) throws IOException {
+        head.setLength(0);
+        head.append(request.method).append(' ').append(request.target).append(" HTTP/1.1\r\n");
+        out.write(head.toString().getBytes(StandardCharsets.ISO_8859_1));
+        out.write(requestHead);
+        head.setLength(0);
+        if (request.body != null) {
+            head.append("Content-Type: application/json\r\nContent-Length: ").append(request.body.length)
+                    .append("\r\n");
+        }
+        if (request.idempotencyKey != null) {
+            head.append(BankingClient.IDEMPOTENCY_HEADER).append(": ").append(request.idempotencyKey).append("\r\n");
+        }
+        head.append("\r\n");
+        out.write(head.toString().getBytes(StandardCharsets.ISO_8859_1));
+        if (request.body != null) {
+            out.write(request.body);
+        }
+    }
+
+    /**
+     * Sends the buffered requests.
+     *
+     * @throws IOException if the connection fails
+     */
+    void flush() throws IOException {
+        out.flush();
+    }
+
+    /**
+     * Reads the next response.
+     *
+     * @return the response
+     * @throws IOException if the connection fails, times out or the response is malformed
+     */
+    Response read() throws IOException {
+        String statusLine = readLine();
+        while (statusLine.isEmpty()) {
+            statusLine = readLine();
+        }
+        if (!statusLine.startsWith("HTTP/1.") || statusLine.length() < 12) {
+            throw new IOException("Malformed status line: " + statusLine);
+        }
+        int status;
+        try {
+            status = Integer.parseInt(statusLine.substring(9, 12));
+        } catch (NumberFormatException e) {
+            throw new IOException("Malformed status line: " + statusLine);
+        }
+        long contentLength = -1;
+        boolean chunked = false;
+        long retryAfterSeconds = -1;
+        boolean replayed = false;
+        if (statusLine.startsWith("HTTP/1.0")) {
+            reusable = false;
+        }
+        for (String line = readLine(); !line.isEmpty(); line = readLine()) {
+            int colon = line.indexOf(':');
+            if (colon <= 0) {
+                continue;
+            }
+            String name = line.substring(0, colon).trim();
+            String value = line.substring(colon + 1).trim();
+            if ("Content-Length".equalsIgnoreCase(name)) {
+                try {
+                    contentLength = Long.parseLong(value);
+                } catch (NumberFormatException e) {
+                    throw new IOException("Malformed Content-Length: " + value);
+                }
+            } else if ("Transfer-Encoding".equalsIgnoreCase(name)) {
+                chunked = value.toLowerCase().contains("chunked");
+            } else if ("Connection".equalsIgnoreCase(name)) {
+                if (value.toLowerCase().contains("close")) {
+                    reusable = false;
+                }
+            } else if ("Retry-After".equalsIgnoreCase(name)) {
+                try {
+                    retryAfterSeconds = Long.parseLong(value);
+                } catch (NumberFormatException ignored) {
+                    // An HTTP date; fall back to the client's own backoff
+                }
+            } else if (BankingClient.REPLAYED_HEADER.equalsIgnoreCase(name)) {
+                replayed = "true".equalsIgnoreCase(value);
+            }
+        }
+        byte[] body;
+        if (status / 100 == 1 || status == 204 || status == 304) {
+            body = new byte[0];
+        } else if (chunked) {
+            body = readChunked();
+        } else if (contentLength >= 0) {
+            body = readFully(contentLength);
+        } else {
+            reusable = false;
+            body = readToEnd();
+        }
+        return new Response(status, new String(body, StandardCharsets.UTF_8), retryAfterSeconds, replayed);
+    }
+
+    /**
+     * Returns whether another request may be sent on this connection.
+     *
+     * @return false once the server has asked to close it or it has failed
+     */
+    boolean isReusable() {
+        return reusable && !socket.isClosed();
+    }
+
+    /**
+     * Marks the connection unusable, such as after a failed exchange.
+     */
+    void invalidate() {
+        reusable = false;
+    }
+
+    /**
+     * Returns when the connection was last returned to its pool.
+     *
+     * @return the {@link System#nanoTime()} of the last release
+     */
+    long getIdleSince() {
+        return idleSince;
+    }
+
+    void setIdleSince(long idleSince) {
+        this.idleSince = idleSince;
+    }
+
+    @Override
+    public void close() {
+        reusable = false;
+        try {
+            socket.close();
+        } catch (IOException ignored) {
+            // Nothing left to release
+        }
+    }
+
+    private byte[] readFully(long length) throws IOException {
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException("Response too large: " + length);
+        }
+        byte[] body = new byte[(int) length];
+        int read = 0;
+        while (read < body.length) {
+            int n = in.read(body, read, body.length - read);
+            if (n < 0) {
+                throw new EOFException("Connection closed after " + read + " of " + length + " bytes");
+            }
+            read += n;
+        }
+        return body;
+    }
+
+    private byte[] readChunked() throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        for (;;) {
+            String sizeLine = readLine();
+            int extension = sizeLine.indexOf(';');
+            long size;
+            try {
+                size = Long.parseLong((extension >= 0 ? sizeLine.substring(0, extension) : sizeLine).trim(), 16);
+            } catch (NumberFormatException e) {
+                throw new IOException("Malformed chunk size: " + sizeLine);
+            }
+            if (size == 0) {
+                while (!readLine().isEmpty()) {
+                    // Skip trailers
+                }
+                return body.toByteArray();
+            }
+            body.write(readFully(size));
+            readLine();
+        }
+    }
+
+    private byte[] readToEnd() throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        for (int n; (n = in.read(buffer)) >= 0; ) {
+            body.write(buffer, 0, n);
+        }
+        return body.toByteArray();
+    }
+
+    private String readLine() throws IOException {
+        head.setLength(0);
+        for (;;) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException("Connection closed by the server");
+            }
+            if (b == '\n') {
+                int length = head.length();
+                if (length > 0 && head.charAt(length - 1) == '\r') {
+                    head.setLength(length - 1);
+                }
+                return head.toString();
+            }
+            head.append((char) b);
+        }
+    }
+
+    /**
+     * A request to send.
+     */
+    static final class Request {
+
+        final String method;
+
+        final String target;
+
+        final byte[] body;
+
+        final String idempotencyKey;
+
+        /**
+         * Creates a request.
+         *
+         * @param method the HTTP method
+         * @param target the path and query
+         * @param body the JSON body, or null
+         * @param idempotencyKey the value of the idempotency header, or null
+         */
+        Request(String method, String target, byte[] body, String idempotencyKey) {
+            this.method = method;
+            this.target = target;
+            this.body = body;
+            this.idempotencyKey = idempotencyKey;
+        }
+    }
+
+    /**
+     * A response read from the server.
+     */
+    static final class Response {
+
+        final int status;
+
+        final String body;
+
+        final long retryAfterSeconds;
+
+        final boolean replayed;
+
+        /**
+         * Creates a response.
+         *
+         * @param status the HTTP status
+         * @param body the body text
+         * @param retryAfterSeconds the {@code Retry-After} header in seconds, or -1
+         * @param replayed whether the server sent a stored response for the idempotency key
+         */
+        Response(int status, String body, long retryAfterSeconds, boolean replayed) {
+            this.status = status;
+            this.body = body;
+            this.retryAfterSeconds = retryAfterSeconds;
+            this.replayed = replayed;
+        }
+    }
+}
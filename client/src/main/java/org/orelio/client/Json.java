@@ -0,0 +1,275 @@
+package org.orelio.client;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The little JSON the banking API needs, so the SDK depends on the JDK only.
+ *
+ * <p>Writes operation objects and reads responses into maps, lists, strings, {@link Long}
+ * or {@link Double} numbers, booleans and null. Parsing is strict: trailing content and
+ * malformed input are reported as {@link IllegalArgumentException}.</p>
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ */
+final class Json {
+
+    private final String text;
+
+    private int position;
+
+    private Json(String text) {
+        this.text = text;
+    }
+
+    /**
+     * Appends an operation object in the format of {@code POST /event}.
+     *
+     * @param out the buffer receiving the object
+     * @param type the operation type
+     * @param origin the origin account, or null
+     * @param destination the destination account, or null
+     * @param amount the amount
+     * @return the buffer
+     */
+    static StringBuilder appendOperation(StringBuilder out, String type, String origin, String destination,
+                                         long amount) {
+        out.append("{\"type\":\"").append(type).append('"');
+        if (origin != null) {
+            appendString(out.append(",\"origin\":"), origin);
+        }
+        if (destination != null) {
+            appendString(out.append(",\"destination\":"), destination);
+        }
+        return out.append(",\"amount\":\"").append(amount).append("\"}");
+    }
+
+    /**
+     * Appends a quoted, escaped string.
+     *
+     * @param out the buffer receiving the string
+     * @param value the string
+     * @return the buffer
+     */
+    static StringBuilder appendString(StringBuilder out, String value) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.append('\\').append(c);
+            } else if (c < 0x20) {
+                out.append(String.format("\\u%04x", (int) c));
+            } else {
+                out.append(c);
+            }
+        }
+        return out.append('"');
+    }
+
+    /**
+     * Parses a JSON text.
+     *
+     * @param text the JSON text
+     * @return the value
+     * @throws IllegalArgumentException if the text is not a single JSON value
+     */
+    static Object parse(String text) {
+        Json json = new Json(text);
+        Object value = json.value();
+        json.skipWhitespace();
+        if (json.position != text.length()) {
+            throw json.error("Trailing content");
+        }
+        return value;
+    }
+
+    private Object value() {
+        skipWhitespace();
+        if (position >= text.length()) {
+            throw error("Unexpected end");
+        }
+        char c = text.charAt(position);
+        switch (c) {
+            case '{':
+                return object();
+            case '[':
+                return array();
+            case '"':
+                return string();
+            case 't':
+                return literal("true", Boolean.TRUE);
+            case 'f':
+                return literal("false", Boolean.FALSE);
+            case 'n':
+                return literal("null", null);
+            default:
+                return number();
+        }
+    }
+
+    private Map<String, Object> object() {
+        Map<String, Object> object = new LinkedHashMap<>();
+        position++;
+        skipWhitespace();
+        if (peek() == '}') {
+            position++;
+            return object;
+        }
+        for (;;) {
+            skipWhitespace();
+            if (peek() != '"') {
+                throw error("Expected a field name");
+            }
+            String name = string();
+            skipWhitespace();
+            expect(':');
+            object.put(name, value());
+            skipWhitespace();
+            if (peek() == ',') {
+                position++;
+            } else {
+                expect('}');
+                return object;
+            }
+        }
+    }
+
+    private List<Object> array() {
+        List<Object> array = new ArrayList<>();
+        position++;
+        skipWhitespace();
+        if (peek() == ']') {
+            position++;
+            return array;
+        }
+        for (;;) {
+            array.add(value());
+            skipWhitespace();
+            if (peek() == ',') {
+                position++;
+            } else {
+                expect(']');
+                return array;
+            }
+        }
+    }
+
+    private String string() {
+        position++;
+        StringBuilder out = null;
+        int start = position;
+        for (;;) {
+            if (position >= text.length()) {
+                throw error("Unterminated string");
+            }
+            char c = text.charAt(position);
+            if (c == '"') {
+                String value = out == null ? text.substring(start, position)
+                        : out.append(text, start, position).toString();
+                position++;
+                return value;
+            }
+            if (c != '\\') {
+                position++;
+                continue;
+            }
+            if (out == null) {
+                out = new StringBuilder();
+            }
+            out.append(text, start, position);
+            if (position + 1 >= text.length()) {
+                throw error("Unterminated escape");
+            }
+            char escaped = text.charAt(position + 1);
+            position += 2;
+            switch (escaped) {
+                case 'b':
+                    out.append('\b');
+                    break;
+                case 'f':
+                    out.append('\f');
+                    break;
+                case 'n':
+                    out.append('\n');
+                    break;
+                case 'r':
+                    out.append('\r');
+                    break;
+                case 't':
+                    out.append('\t');
+                    break;
+                case 'u':
+                    if (position + 4 > text.length()) {
+                        throw error("Truncated unicode escape");
+                    }
+                    try {
+                        out.append((char) Integer.parseInt(text.substring(position, position + 4), 16));
+                    } catch (NumberFormatException e) {
+                        throw error("Invalid unicode escape");
+                    }
+                    position += 4;
+                    break;
+                default:
+                    out.append(escaped);
+                    break;
+            }
+            start = position;
+        }
+    }
+
+    private Object number() {
+        int start = position;
+        boolean integral = true;
+        while (position < text.length()) {
+            char c = text.charAt(position);
+            if (c == '.' || c == 'e' || c == 'E') {
+                integral = false;
+            } else if ((c < '0' || c > '9') && c != '-' && c != '+') {
+                break;
+            }
+            position++;
+        }
+        String number = text.substring(start, position);
+        try {
+            return integral ? (Object) Long.valueOf(number) : (Object) Double.valueOf(number);
+        } catch (NumberFormatException e) {
+            throw error("Invalid value");
+        }
+    }
+
+    private Object literal(String literal, Object value) {
+        if (!text.startsWith(literal, position)) {
+            throw error("Invalid value");
+        }
+        position += literal.length();
+        return value;
+    }
+
+    private void skipWhitespace() {
+        while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+            position++;
+        }
+    }
+
+    private char peek() {
+        if (position >= text.length()) {
+            throw error("Unexpected end");
+        }
+        return text.charAt(position);
+    }
+
+    private void expect(char c) {
+        if (peek() != c) {
+            throw error("Expected '" + c + "'");
+        }
+        position++;
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at offset " + position + " of: " + text);
+    }
+}
@@ -0,0 +1,201 @@
+package org.orelio.client;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Groups operations into requests to {@code POST /event/batch}.
+ *
+ * <p>The first operation added to an empty batch starts the linger timer; the batch is
+ * sent when the timer fires or as soon as it holds {@code maxBatchSize} operations,
+ * whichever comes first. Each batch is one request with its own idempotency key, sent
+ * and retried like any other asynchronous request of the {@link BankingClient}.</p>
+ *
+ * <p>The response holds one status and body per operation, in order. An operation
+ * rejected by a rate limit was not applied, so it is added to a later batch after the
+ * delay the server asked for, up to the client's retry limit; every other result
+ * completes the operation's future.</p>
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ */
+final class MicroBatcher {
+
+    private static final int TOO_MANY_REQUESTS = 429;
+
+    private final BankingClient client;
+
+    private final String target;
+
+    private final long lingerNanos;
+
+    private final int maxBatchSize;
+
+    private final int maxRetries;
+
+    private final Object lock = new Object();
+
+    private List<Pending> pending = new ArrayList<>();
+
+    private long generation;
+
+    /**
+     * Creates a batcher.
+     *
+     * @param client the client sending the batches
+     * @param target the path of the batch endpoint
+     * @param lingerNanos how long the first operation of a batch waits for others
+     * @param maxBatchSize the most operations in one batch
+     * @param maxRetries the most times a rate-limited operation is sent again
+     */
+    MicroBatcher(BankingClient client, String target, long lingerNanos, int maxBatchSize, int maxRetries) {
+        this.client = client;
+        this.target = target;
+        this.lingerNanos = lingerNanos;
+        this.maxBatchSize = maxBatchSize;
+        this.maxRetries = maxRetries;
+    }
+
+    /**
+     * Adds an operation to the current batch.
+     *
+     * @param operation the operation as a JSON object
+     * @return the status and body the server answered for the operation
+     */
+    CompletableFuture<BankingClient.Outcome> add(String operation) {
+        Pending added = new Pending(operation);
+        enqueue(added);
+        return added.result;
+    }
+
+    /**
+     * Sends the current batch without waiting for the linger timer.
+     */
+    void flush() {
+        flush(-1L);
+    }
+
+    private void enqueue(Pending operation) {
+        List<Pending> full = null;
+        long started = -1L;
+        synchronized (lock) {
+            pending.add(operation);
+            if (pending.size() >= maxBatchSize) {
+                full = pending;
+                pending = new ArrayList<>();
+                generation++;
+            } else if (pending.size() == 1) {
+                started = generation;
+            }
+        }
+        if (full != null) {
+            send(full);
+        } else if (started >= 0) {
+            long batch = started;
+            if (!client.schedule(() -> flush(batch), lingerNanos, TimeUnit.NANOSECONDS)) {
+                flush(batch);
+            }
+        }
+    }
+
+    /**
+     * Sends the current batch if it is still the given one, or unconditionally for -1.
+     */
+    private void flush(long batch) {
+        List<Pending> operations;
+        synchronized (lock) {
+            if (pending.isEmpty() || (batch >= 0 && batch != generation)) {
+                return;
+            }
+            operations = pending;
+            pending = new ArrayList<>();
+            generation++;
+        }
+        send(operations);
+    }
+
+    private void send(List<Pending> operations) {
+        StringBuilder body = new StringBuilder(operations.size() * 80).append('[');
+        for (int i = 0; i < operations.size(); i++) {
+            if (i > 0) {
+                body.append(',');
+            }
+            body.append(operations.get(i).operation);
+        }
+        byte[] bytes = body.append(']').toString().getBytes(StandardCharsets.UTF_8);
+        HttpConnection.Request request = new HttpConnection.Request("POST", target, bytes,
+                client.nextIdempotencyKey());
+        client.submit(request).whenComplete((response, failure) -> {
+            if (failure != null) {
+                for (Pending operation : operations) {
+                    operation.result.completeExceptionally(failure);
+                }
+            } else if (response.status != 200) {
+                BankingClient.Outcome outcome = BankingClient.outcome(response);
+                for (Pending operation : operations) {
+                    operation.result.complete(outcome);
+                }
+            } else {
+                complete(operations, response);
+            }
+        });
+    }
+
+    private void complete(List<Pending> operations, HttpConnection.Response response) {
+        List<?> items;
+        try {
+            Object parsed = Json.parse(response.body);
+            items = parsed instanceof List ? (List<?>) parsed : null;
+        } catch (IllegalArgumentException e) {
+            items = null;
+        }
+        if (items == null || items.size() != operations.size()) {
+            BankingException failure = new BankingException(response.status, "Malformed batch response");
+            for (Pending operation : operations) {
+                operation.result.completeExceptionally(failure);
+            }
+            return;
+        }
+        for (int i = 0; i < items.size(); i++) {
+            Pending operation = operations.get(i);
+            Map<?, ?> item = items.get(i) instanceof Map ? (Map<?, ?>) items.get(i) : null;
+            Object status = item != null ? item.get("status") : null;
+            if (!(status instanceof Number)) {
+                operation.result.completeExceptionally(
+                        new BankingException(response.status, "Malformed batch response item: " + items.get(i)));
+                continue;
+            }
+            int code = ((Number) status).intValue();
+            if (code == TOO_MANY_REQUESTS && operation.attempts < maxRetries) {
+                Object retryAfter = item.get("retryAfter");
+                long delay = client.retryDelayMillis(operation.attempts++,
+                        retryAfter instanceof Number ? ((Number) retryAfter).longValue() : -1L);
+                if (client.schedule(() -> enqueue(operation), delay, TimeUnit.MILLISECONDS)) {
+                    continue;
+                }
+            }
+            operation.result.complete(new BankingClient.Outcome(code, item.get("body")));
+        }
+    }
+
+    /**
+     * An operation waiting for its batch's response.
+     */
+    private static final class Pending {
+
+        final String operation;
+
+        final CompletableFuture<BankingClient.Outcome> result = new CompletableFuture<>();
+
+        int attempts;
+
+        Pending(String operation) {
+            this.operation = operation;
+        }
+    }
+}
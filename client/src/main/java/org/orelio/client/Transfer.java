@@ -0,0 +1,69 @@
+package org.orelio.client;
+
+import java.util.Objects;
+
+/**
+ * Balances of both accounts after a transfer, as answered by the banking API.
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ * @see BankingClient#transfer(String, String, long)
+ */
+public final class Transfer {
+
+    private final Balance origin;
+
+    private final Balance destination;
+
+    /**
+     * Creates a transfer result.
+     *
+     * @param origin the balance of the origin account
+     * @param destination the balance of the destination account
+     */
+    public Transfer(Balance origin, Balance destination) {
+        this.origin = origin;
+        this.destination = destination;
+    }
+
+    /**
+     * Returns the balance of the origin account.
+     *
+     * @return the origin balance
+     */
+    public Balance getOrigin() {
+        return origin;
+    }
+
+    /**
+     * Returns the balance of the destination account.
+     *
+     * @return the destination balance
+     */
+    public Balance getDestination() {
+        return destination;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Transfer)) {
+            return false;
+        }
+        Transfer other = (Transfer) o;
+        return Objects.equals(origin, other.origin) && Objects.equals(destination, other.destination);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(origin, destination);
+    }
+
+    @Override
+    public String toString() {
+        return "Transfer{origin=" + origin + ", destination=" + destination + '}';
+    }
+}
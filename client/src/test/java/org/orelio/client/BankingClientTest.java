@@ -0,0 +1,316 @@
+package org.orelio.client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.Assert.*;
+
+/**
+ * JUnit test class for BankingClient
+ * Demonstrates testing of the Java SDK against a stub server including:
+ * - Typed results and failures of deposit, withdraw, transfer and balance
+ * - Keep-alive connections reused across calls
+ * - Retries of busy answers carrying the same idempotency key
+ * - Asynchronous operations grouped into batches, rate-limited items sent again
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 19/10/2026
+ */
+public class BankingClientTest {
+
+    static {
+        // The stub writes headers and body separately; without this, Nagle delays every body
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private HttpServer server;
+
+    private final List<String> bodies = Collections.synchronizedList(new ArrayList<>());
+
+    private final List<String> keys = Collections.synchronizedList(new ArrayList<>());
+
+    private final List<Integer> remotePorts = Collections.synchronizedList(new ArrayList<>());
+
+    private final AtomicInteger busyAnswers = new AtomicInteger();
+
+    private final AtomicInteger limitedItems = new AtomicInteger();
+
+    private BankingClient client;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newFixedThreadPool(4));
+        server.createContext("/event", this::event);
+        server.createContext("/balance", exchange -> {
+            record(exchange);
+            boolean found = exchange.getRequestURI().getQuery().equals("account_id=100");
+            respond(exchange, found ? 200 : 404, found ? "42" : "0");
+        });
+        server.start();
+        client = builder().build();
+    }
+
+    @After
+    public void tearDown() {
+        client.close();
+        server.stop(0);
+    }
+
+    /**
+     * Test that each operation returns the balances of the accounts it touched
+     */
+    @Test
+    public void testTypedOperations() {
+        // Act
+        Balance deposit = client.deposit("100", 10);
+        Balance withdrawal = client.withdraw("100", 3);
+        Transfer transfer = client.transfer("100", "300", 5);
+        OptionalLong balance = client.balance("100");
+        OptionalLong missing = client.balance("999");
+
+        // Assert
+        assertEquals("Deposit should return the destination balance", new Balance("100", 10), deposit);
+        assertEquals("Withdrawal should return the origin balance", new Balance("100", 3), withdrawal);
+        assertEquals("Transfer should return both balances",
+                new Transfer(new Balance("100", 5), new Balance("300", 5)), transfer);
+        assertEquals("Existing balance should be returned", OptionalLong.of(42L), balance);
+        assertFalse("Unknown account should have no balance", missing.isPresent());
+        assertTrue("Operations should be sent as /event bodies",
+                bodies.contains("{\"type\":\"transfer\",\"origin\":\"100\",\"destination\":\"300\",\"amount\":\"5\"}"));
+    }
+
+    /**
+     * Test that an operation refused by the server fails with its status
+     */
+    @Test
+    public void testRefusedOperation() {
+        try {
+            // Act
+            client.withdraw("MISSING", 1);
+            fail("Refused withdrawal should throw");
+        } catch (BankingException e) {
+            // Assert
+            assertEquals("Failure should carry the 404 status", 404, e.getStatus());
+        }
+    }
+
+    /**
+     * Test that sequential calls share one keep-alive connection
+     */
+    @Test
+    public void testConnectionReused() {
+        // Act
+        for (int i = 0; i < 50; i++) {
+            client.deposit("100", 1);
+        }
+
+        // Assert
+        assertEquals("One connection should be opened", 1L, client.getConnectionsOpened());
+        assertEquals("Every call should come from the same port", 1L, remotePorts.stream().distinct().count());
+    }
+
+    /**
+     * Test that busy answers are retried with the idempotency key of the first attempt
+     */
+    @Test
+    public void testRetriesKeepIdempotencyKey() {
+        // Arrange
+        busyAnswers.set(2);
+
+        // Act
+        Balance deposit = client.deposit("100", 10);
+
+        // Assert
+        assertEquals("Deposit should succeed after the retries", new Balance("100", 10), deposit);
+        assertEquals("Three attempts should reach the server", 3, keys.size());
+        assertNotNull("Operations should carry a key", keys.get(0));
+        assertEquals("Retries should repeat the key", 1L, keys.stream().distinct().count());
+        client.deposit("100", 10);
+        assertNotEquals("Another operation should get another key", keys.get(0), keys.get(3));
+    }
+
+    /**
+     * Test that retries stop at the limit with the last busy status
+     */
+    @Test
+    public void testRetriesExhausted() {
+        // Arrange
+        busyAnswers.set(10);
+
+        try {
+            // Act
+            client.deposit("100", 10);
+            fail("Deposit should fail once retries are exhausted");
+        } catch (BankingException e) {
+            // Assert
+            assertEquals("Failure should carry the busy status", 503, e.getStatus());
+            assertEquals("The first attempt and two retries should be sent", 3, keys.size());
+        }
+    }
+
+    /**
+     * Test that asynchronous operations are sent together and rate-limited items sent again
+     */
+    @Test
+    public void testBatching() throws Exception {
+        // Arrange
+        client.close();
+        client = builder().batching(Duration.ofMillis(100), 64).build();
+        limitedItems.set(1);
+        List<CompletableFuture<Balance>> deposits = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            deposits.add(client.depositAsync("B" + i, i + 1));
+        }
+        CompletableFuture<Balance> refused = client.withdrawAsync("MISSING", 1);
+        CompletableFuture.allOf(deposits.toArray(new CompletableFuture<?>[0])).get();
+
+        // Assert
+        for (int i = 0; i < deposits.size(); i++) {
+            assertEquals("Each deposit should get its own item", new Balance("B" + i, i + 1), deposits.get(i).get());
+        }
+        try {
+            refused.get();
+            fail("Refused withdrawal should fail");
+        } catch (ExecutionException e) {
+            assertEquals("Failure should carry the item's 404", 404, ((BankingException) e.getCause()).getStatus());
+        }
+        assertEquals("The operations and the rate-limited one sent again should take two batches", 2, keys.size());
+        assertNotEquals("Each batch should have its own key", keys.get(0), keys.get(1));
+        assertEquals("The first batch should hold every operation", 11, ((List<?>) Json.parse(bodies.get(0))).size());
+    }
+
+    /**
+     * Test that the JSON reader handles the structures and escapes the server sends
+     */
+    @Test
+    public void testJsonParsing() {
+        // Act
+        Object parsed = Json.parse("[{\"status\":201,\"body\":{\"id\":\"a\\\"b\\u0041\",\"balance\":-7}},"
+                + " {\"status\":404,\"body\":0}, true, null, 1.5]");
+        StringBuilder written = Json.appendOperation(new StringBuilder(), "deposit", null, "x\"y", 3);
+
+        // Assert
+        List<?> items = (List<?>) parsed;
+        Map<?, ?> account = (Map<?, ?>) ((Map<?, ?>) items.get(0)).get("body");
+        assertEquals("Escapes should be decoded", "a\"bA", account.get("id"));
+        assertEquals("Integers should be longs", -7L, account.get("balance"));
+        assertEquals("Literals should be read", Boolean.TRUE, items.get(2));
+        assertNull("Null should be read", items.get(3));
+        assertEquals("Decimals should be doubles", 1.5, items.get(4));
+        assertEquals("Written operations should escape IDs",
+                "{\"type\":\"deposit\",\"destination\":\"x\\\"y\",\"amount\":\"3\"}", written.toString());
+        try {
+            Json.parse("{\"a\":1} x");
+            fail("Trailing content should be rejected");
+        } catch (IllegalArgumentException expected) {
+            // Expected
+        }
+    }
+
+    private BankingClient.Builder builder() {
+        return BankingClient.builder("http://127.0.0.1:" + server.getAddress().getPort())
+                .maxConnections(2)
+                .maxRetries(2)
+                .retryBackoff(Duration.ofMillis(1), Duration.ofMillis(5));
+    }
+
+    /**
+     * Answers /event and /event/batch like the banking API: each account's balance is the
+     * amount of the last operation on it, and operations on "MISSING" are refused.
+     */
+    private void event(HttpExchange exchange) throws IOException {
+        String body = record(exchange);
+        if (busyAnswers.getAndDecrement() > 0) {
+            respond(exchange, 503, "0");
+            return;
+        }
+        Object parsed = Json.parse(body);
+        if (parsed instanceof Map) {
+            Map<?, ?> operation = (Map<?, ?>) parsed;
+            String result = result(operation);
+            respond(exchange, result.equals("0") ? 404 : 201, result);
+            return;
+        }
+        StringBuilder results = new StringBuilder("[");
+        for (Object item : (List<?>) parsed) {
+            if (results.length() > 1) {
+                results.append(',');
+            }
+            if (limitedItems.getAndDecrement() > 0) {
+                results.append("{\"status\":429,\"body\":0,\"retryAfter\":0}");
+                continue;
+            }
+            String result = result((Map<?, ?>) item);
+            results.append("{\"status\":").append(result.equals("0") ? 404 : 201).append(",\"body\":")
+                    .append(result).append('}');
+        }
+        respond(exchange, 200, results.append(']').toString());
+    }
+
+    private static String result(Map<?, ?> operation) {
+        Object origin = operation.get("origin");
+        Object destination = operation.get("destination");
+        Object amount = operation.get("amount");
+        if ("MISSING".equals(origin)) {
+            return "0";
+        }
+        String originJson = "{\"id\":\"" + origin + "\",\"balance\":" + amount + "}";
+        String destinationJson = "{\"id\":\"" + destination + "\",\"balance\":" + amount + "}";
+        if (origin == null) {
+            return "{\"destination\": " + destinationJson + "}";
+        }
+        if (destination == null) {
+            return "{\"origin\": " + originJson + "}";
+        }
+        return "{\"origin\": " + originJson + ", \"destination\": " + destinationJson + "}";
+    }
+
+    private String record(HttpExchange exchange) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] buffer = new byte[1024];
+            for (int n; (n = in.read(buffer)) >= 0; ) {
+                body.write(buffer, 0, n);
+            }
+        }
+        String text = new String(body.toByteArray(), StandardCharsets.UTF_8);
+        remotePorts.add(exchange.getRemoteAddress().getPort());
+        if (!text.isEmpty()) {
+            bodies.add(text);
+            keys.add(exchange.getRequestHeaders().getFirst(BankingClient.IDEMPOTENCY_HEADER));
+        }
+        return text;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json;charset=UTF-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,1326 @@
+package org.orelio.facade;
+
+import org.orelio.metrics.BankingOperationEvent;
+import org.orelio.metrics.FlightRecorderSupport;
+import org.orelio.metrics.HotAccount;
+import org.orelio.metrics.HotAccountTracker;
+import org.orelio.metrics.HotAccountsReport;
+import org.orelio.metrics.OperationMetrics;
+import org.orelio.metrics.ServerTiming;
+import org.orelio.model.Account;
+import org.orelio.model.Constants;
+import org.orelio.model.Operation;
+import org.orelio.store.AccountAggregates;
+import org.orelio.store.AccountEntry;
+import org.orelio.store.AccountIdIndex;
+import org.orelio.store.AccountLocks;
+import org.orelio.store.AccountPage;
+import org.orelio.store.AggregatesSnapshot;
+import org.orelio.store.BalanceColumn;
+import org.orelio.store.BalanceHistogram;
+import org.orelio.store.BalanceIndex;
+import org.orelio.store.BalanceScanEngine;
+import org.orelio.store.DepositCombiner;
+import org.orelio.store.ScanResult;
+import org.orelio.store.StripedCredits;
+import org.orelio.util.ResponseBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongPredicate;
+
+/**
+ * Service facade for core banking operations in the ChallengeCoreBanking system.
+ * 
+ * <p>This facade provides the business logic layer for all banking operations including
+ * account management and transaction processing. It uses an in-memory ConcurrentHashMap
+ * for account storage and provides methods for:</p>
+ * <ul>
+ *   <li>Account creation and management</li>
+ *   <li>Deposit operations</li>
+ *   <li>Withdrawal operations</li>
+ *   <li>Transfer operations between accounts</li>
+ *   <li>System reset functionality</li>
+ *   <li>O(1) system-wide aggregates</li>
+ *   <li>Balance-ordered queries (top N, balance ranges)</li>
+ *   <li>Cursor-paginated account listing in ID order</li>
+ *   <li>Parallel bulk scans and histograms over balances</li>
+ * </ul>
+ * 
+ * <p>Every mutation runs under the striped lock of the accounts it touches (see
+ * {@link AccountLocks}), so concurrent operations on the same account are applied
+ * atomically while readers never block. Accounts are held as {@link AccountEntry}
+ * cells updated in place, with a primitive copy of each balance in a
+ * {@link BalanceColumn} for bulk scans; callers always receive detached
+ * {@link Account} copies.</p>
+ * 
+ * <p>Accounts whose lock keeps other deposits queued are striped: their
+ * deposits are added to per-thread {@link StripedCredits} cells without the lock, so
+ * they scale with cores. Balance reads sum the cells; withdrawals, transfers and
+ * other locked operations settle the cells into the balance first, so they act on
+ * the exact balance. The aggregates, the balance index and the balance column see
+ * a striped account's credits when they are settled, which every query over them
+ * does first.</p>
+ * 
+ * <p>Alternatively, deposits can be combined (see {@link DepositCombiner}): the thread
+ * holding a lock stripe applies every deposit queued for it in one batch, so a hot
+ * account's deposits share lock acquisitions and balance stores while each still
+ * reports its own resulting balance.</p>
+ * 
+ * <p>The service uses in-memory storage, so data is lost when the application restarts.</p>
+ * 
+ * <p>The facade depends on the JDK only and is ready as soon as it is constructed, so it
+ * can be embedded as a plain library: {@code new ChallengeCoreBankingFacade()}. Each instance
+ * is a separate engine with its own accounts, metrics and settings; {@link #close()} stops the
+ * threads it started. The web application registers one instance as a bean and applies the
+ * {@code banking.*} properties through its setters.</p>
+ * 
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ * @see org.orelio.model.Account
+ * @see org.orelio.model.Operation
+ * @see org.orelio.store.AccountAggregates
+ * @see org.orelio.store.BalanceIndex
+ * @see org.orelio.store.AccountIdIndex
+ * @see org.orelio.store.BalanceScanEngine
+ * @see org.orelio.metrics.OperationMetrics
+ * @see org.orelio.metrics.BankingOperationEvent
+ * @see org.orelio.metrics.HotAccountTracker
+ */
+public class ChallengeCoreBankingFacade implements AutoCloseable {
+    
+    /**
+     * In-memory storage for accounts using account ID as key.
+     * This map stores all accounts in the system.
+     */
+    private final Map<String, AccountEntry> accountMap = new ConcurrentHashMap<>();
+
+    /**
+     * Primitive copy of every balance, one slot per account, for bulk scans.
+     */
+    private final BalanceColumn balanceColumn = new BalanceColumn();
+
+    /**
+     * Fork/join scan engine over the balance column.
+     */
+    private final BalanceScanEngine scanEngine = new BalanceScanEngine(balanceColumn);
+
+    /**
+     * Per-operation latency histograms, shared with the web layer.
+     */
+    private final OperationMetrics metrics = new OperationMetrics();
+
+    /**
+     * Enables or disables latency recording.
+     * 
+     * <p>Configured by {@code banking.metrics.enabled} in {@code application.properties};
+     * recording is enabled by default.</p>
+     * 
+     * @param enabled true to record latencies
+     */
+    public void setMetricsEnabled(boolean enabled) {
+        metrics.setEnabled(enabled);
+    }
+
+    /**
+     * Returns the latency histograms recorded by this facade and the web layer.
+     * 
+     * @return the operation metrics
+     */
+    public OperationMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Striped locks serializing mutations of the same account.
+     */
+    private final AccountLocks accountLocks = new AccountLocks();
+
+    /**
+     * System-wide aggregates maintained incrementally by every mutation.
+     */
+    private final AccountAggregates aggregates = new AccountAggregates();
+
+    /**
+     * Secondary index ordering accounts by balance, maintained by every mutation
+     * while {@link #balanceIndexEnabled} is set.
+     */
+    private final BalanceIndex balanceIndex = new BalanceIndex();
+
+    /**
+     * Whether mutations maintain the balance index. When disabled, balance-ordered
+     * queries are answered from a scan instead.
+     */
+    private volatile boolean balanceIndexEnabled = true;
+
+    /**
+     * Reusable response buffer of each thread, for {@link #operationEvent(Operation)} and
+     * the deposits completed by {@link #operationEventAsync(Operation)}.
+     */
+    private static final ThreadLocal<ResponseBuffer> responses = ThreadLocal.withInitial(ResponseBuffer::new);
+
+    /**
+     * Reusable apply-step result holder of each thread.
+     */
+    private static final ThreadLocal<OperationResult> results = ThreadLocal.withInitial(OperationResult::new);
+
+    /**
+     * Literal parts of the response formats around their {@code %s} placeholders.
+     */
+    private static final String[] fmtDestinationParts = Constants.fmtDestination.split("%s", -1);
+    private static final String[] fmtOriginParts = Constants.fmtOrigin.split("%s", -1);
+    private static final String[] fmtOriginDestinParts = Constants.fmtOriginDestin.split("%s", -1);
+
+    /**
+     * Sorted index over account IDs backing the account listing.
+     */
+    private final AccountIdIndex accountIdIndex = new AccountIdIndex();
+
+    /**
+     * Accounts whose deposits are striped, in the order they became hot.
+     */
+    private final List<AccountEntry> stripedAccounts = new CopyOnWriteArrayList<>();
+
+    /**
+     * Daemon threads flushing the asynchronous deposits queued behind a taken account lock,
+     * started on the first flush and stopped by {@link #close()}.
+     */
+    private final ExecutorService depositFlusher = Executors.newFixedThreadPool(
+            Math.max(2, Runtime.getRuntime().availableProcessors()), new ThreadFactory() {
+                private final AtomicInteger count = new AtomicInteger();
+
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "deposit-flusher-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+
+    /**
+     * Per-stripe queues of deposits waiting to be applied in batches.
+     */
+    private final DepositCombiner depositCombiner =
+            new DepositCombiner(AccountLocks.DEFAULT_STRIPES, depositFlusher);
+
+    /**
+     * Reusable combined-deposit request of each thread.
+     */
+    private static final ThreadLocal<DepositCombiner.Request> depositRequests =
+            ThreadLocal.withInitial(DepositCombiner.Request::new);
+
+    /**
+     * Whether deposits on locked accounts are combined into batches.
+     */
+    private volatile boolean depositCombining = false;
+
+    /**
+     * Whether {@link #close()} has stopped the deposit flusher.
+     */
+    private volatile boolean closed;
+
+    /**
+     * Applies combined deposit batches through this facade.
+     */
+    private final DepositCombiner.Batch depositBatch = this::applyDeposits;
+
+    /**
+     * Heavy-hitter tracker of the accounts touched by a sample of the operations.
+     */
+    private final HotAccountTracker hotAccounts = new HotAccountTracker();
+
+    /**
+     * Contention score making an account hot, or 0 to never stripe accounts.
+     */
+    private volatile int hotAccountThreshold = 16;
+
+    /**
+     * Sets the lock contention score at which an account's deposits are striped.
+     * 
+     * <p>Configured by {@code banking.hot-accounts.contention-threshold} in
+     * {@code application.properties}. Each deposit acquiring the account lock while
+     * other threads are queued for it raises the account's score by one, and each
+     * other deposit lowers it by one. Zero disables striping for accounts not yet striped.</p>
+     * 
+     * @param threshold the contention score, or 0 to disable striping
+     * @throws IllegalArgumentException if threshold is negative
+     */
+    public void setHotAccountThreshold(int threshold) {
+        if (threshold < 0) {
+            throw new IllegalArgumentException("threshold must not be negative");
+        }
+        hotAccountThreshold = threshold;
+    }
+
+    /**
+     * Enables or disables flat combining of deposits.
+     * 
+     * <p>Configured by {@code banking.deposits.combining.enabled} in {@code application.properties}.
+     * When enabled, a deposit finding its account lock taken queues itself; the lock holder
+     * applies every queued deposit for the stripe in one batch, storing each account's balance
+     * once, and hands each waiter its own balance. Accounts are then no longer striped
+     * automatically, since the lock no longer keeps deposits queued; striped accounts stay striped.</p>
+     * 
+     * @param enabled true to combine deposits
+     */
+    public void setDepositCombining(boolean enabled) {
+        depositCombining = enabled;
+    }
+
+    /**
+     * Stripes the deposits of an existing account at once, regardless of contention.
+     * 
+     * <p>For accounts known in advance to receive many concurrent deposits, such as
+     * merchant settlement accounts. The account stays striped until it is removed.</p>
+     * 
+     * @param accountId the account ID
+     * @return true if the account exists
+     */
+    public boolean stripeAccount(String accountId) {
+        ReentrantLock lock = accountLocks.lockFor(accountId);
+        lock.lock();
+        try {
+            AccountEntry entry = accountMap.get(accountId);
+            if (entry == null) {
+                return false;
+            }
+            stripe(entry);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Sets the fraction of operations fed to the heavy-hitter tracker.
+     * 
+     * <p>Configured by {@code banking.hot-accounts.sample-rate} in {@code application.properties};
+     * one operation in 16 is tracked by default. Sampled operations also time their lock wait.</p>
+     * 
+     * @param sampleRate track one operation in {@code sampleRate}, or 0 to track none
+     * @throws IllegalArgumentException if sampleRate is negative
+     */
+    public void setHotAccountSampleRate(int sampleRate) {
+        hotAccounts.setSampleRate(sampleRate);
+    }
+
+    /**
+     * Returns the accounts touched by the most operations, older ones fading with a one-minute half-life.
+     * 
+     * <p>Served from a decaying count-min sketch fed by a sample of the operations, in memory
+     * independent of the number of accounts. Rates are extrapolated from the sample and
+     * may be overestimated for accounts colliding with busier ones.</p>
+     * 
+     * @param limit the maximum number of accounts to return
+     * @return the hottest accounts with their operation rate, mean lock wait and striping
+     * @see HotAccountTracker#top(int)
+     */
+    public HotAccountsReport getHotAccounts(int limit) {
+        long now = System.nanoTime();
+        List<HotAccount> accounts = hotAccounts.top(limit, now);
+        for (HotAccount account : accounts) {
+            AccountEntry entry = accountMap.get(account.getId());
+            account.setStriped(entry != null && entry.isStriped());
+        }
+        HotAccountsReport report = new HotAccountsReport();
+        report.setWindowSeconds(hotAccounts.windowSeconds(now));
+        report.setSampleRate(hotAccounts.getSampleRate());
+        report.setAccounts(accounts);
+        return report;
+    }
+
+    /**
+     * Returns the IDs of the accounts whose deposits are striped.
+     * 
+     * @return the striped account IDs, in the order they became hot
+     */
+    public List<String> getStripedAccounts() {
+        List<String> ids = new ArrayList<>(stripedAccounts.size());
+        for (AccountEntry entry : stripedAccounts) {
+            ids.add(entry.getId());
+        }
+        return ids;
+    }
+
+    /**
+     * Creates a new account in the system.
+     * 
+     * <p>If an account with the same ID already exists, it will be overwritten
+     * with the new account data.</p>
+     * 
+     * @param account the account to create
+     * @return the created account (same reference as input)
+     * @throws IllegalArgumentException if account is null or has null ID
+     */
+    public Account createAccount(Account account) {
+        if (account == null) {
+            throw new IllegalArgumentException("account must not be null");
+        }
+        return updateAccount(account, account.getId());
+    }
+
+    /**
+     * Updates an existing account in the system.
+     * 
+     * <p>This method updates the account data for the specified account ID.
+     * If the account doesn't exist, it will be created.</p>
+     * 
+     * @param account the account data to update
+     * @param accountId the ID of the account to update
+     * @return the updated account
+     * @throws IllegalArgumentException if account or accountId is null
+     */
+    public Account updateAccount(Account account, String accountId) {
+        if (account == null || accountId == null) {
+            throw new IllegalArgumentException("account and accountId must not be null");
+        }
+        ReentrantLock lock = accountLocks.lockFor(accountId);
+        lock.lock();
+        try {
+            AccountEntry entry = accountMap.get(accountId);
+            if (entry != null) {
+                // Pending credits precede the update
+                settle(entry);
+            }
+            storeAccount(entry, accountId, balanceOf(account));
+            return account;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Retrieves an account by its ID.
+     * 
+     * <p>The returned account is a detached copy of the current state; later
+     * operations do not change it.</p>
+     * 
+     * @param accountId the unique identifier of the account
+     * @return the account if found, null otherwise
+     */
+    public Account getAccount(String accountId) {
+        if (accountId == null) {
+            return null;
+        }
+        AccountEntry entry = accountMap.get(accountId);
+        return entry == null ? null : entry.toAccount();
+    }
+
+    /**
+     * Resets the banking system by clearing all accounts.
+     * 
+     * <p>This method removes all accounts from the system, effectively
+     * returning it to its initial empty state. All account locks are held
+     * while clearing, so the reset is atomic with respect to operations. Striped
+     * deposits take no lock; one that credits an entry the reset removes is applied
+     * again to the accounts left by the reset.</p>
+     */
+    public void resetAccount() {
+        accountLocks.lockAll();
+        try {
+            accountMap.clear();
+            stripedAccounts.clear();
+            hotAccounts.reset();
+            aggregates.reset();
+            balanceIndex.clear();
+            accountIdIndex.clear();
+            balanceColumn.clear();
+        } finally {
+            accountLocks.unlockAll();
+        }
+    }
+
+    /**
+     * Stops the deposit flusher of this facade.
+     * 
+     * <p>Call it once no other thread is submitting asynchronous deposits. Deposits already
+     * handed to the flusher are applied before this method returns. Later calls to
+     * {@link #operationEventAsync(Operation)} are applied on the calling thread, and every other
+     * operation keeps working. Closing twice has no further effect.</p>
+     */
+    @Override
+    public void close() {
+        closed = true;
+        depositFlusher.shutdown();
+        try {
+            depositFlusher.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Returns the incrementally maintained system-wide aggregates.
+     * 
+     * <p>This is an O(1) read that never blocks writers, apart from settling the
+     * pending credits of striped accounts.</p>
+     * 
+     * @return the current aggregates
+     * @see AccountAggregates#snapshot()
+     */
+    public AggregatesSnapshot getAggregates() {
+        settleStripedAccounts();
+        return aggregates.snapshot();
+    }
+
+    /**
+     * Recomputes the balance aggregates with a full scan of the account map.
+     * 
+     * <p>All account locks are held during the scan so the result is an exact,
+     * consistent cut of the settled balances; credits to striped accounts arriving
+     * during the scan are left pending. Operation counters are copied from the
+     * maintained aggregates. This is a diagnostic method used to reconcile {@link #getAggregates()}; it is
+     * O(n) and blocks writers for its duration.</p>
+     * 
+     * @return the aggregates computed from the stored accounts
+     */
+    public AggregatesSnapshot scanAggregates() {
+        accountLocks.lockAll();
+        try {
+            settleStripedAccounts();
+            AggregatesSnapshot scanned = aggregates.snapshot();
+            long totalFunds = 0;
+            long negativeCount = 0;
+            long negativeSum = 0;
+            for (AccountEntry entry : accountMap.values()) {
+                long balance = entry.getSettledBalance();
+                totalFunds += balance;
+                if (balance < 0) {
+                    negativeCount++;
+                    negativeSum += balance;
+                }
+            }
+            scanned.setTotalFunds(totalFunds);
+            scanned.setAccountCount(accountMap.size());
+            scanned.setNegativeCount(negativeCount);
+            scanned.setNegativeSum(negativeSum);
+            return scanned;
+        } finally {
+            accountLocks.unlockAll();
+        }
+    }
+
+    /**
+     * Returns the accounts with the largest or most negative balances.
+     * 
+     * <p>Served from the balance index in O(log n + N), without scanning accounts,
+     * unless index maintenance is disabled (see {@link #setBalanceIndexEnabled(boolean)}).</p>
+     * 
+     * @param n the maximum number of accounts to return
+     * @param descending true for the largest balances first, false for the most overdrawn first
+     * @return up to {@code n} accounts in balance order
+     * @see BalanceIndex#top(int, boolean)
+     */
+    public List<Account> getTopAccounts(int n, boolean descending) {
+        settleStripedAccounts();
+        return currentBalanceIndex().top(n, descending);
+    }
+
+    /**
+     * Returns the accounts whose balance lies in {@code [min, max)}.
+     * 
+     * <p>For example, {@code getAccountsByBalance(null, 0L, limit)} returns the
+     * overdrawn accounts, most overdrawn first.</p>
+     * 
+     * @param min the inclusive lower bound, or null for no lower bound
+     * @param max the exclusive upper bound, or null for no upper bound
+     * @param limit the maximum number of accounts to return
+     * @return up to {@code limit} accounts in ascending balance order
+     * @see BalanceIndex#range(Long, Long, int)
+     */
+    public List<Account> getAccountsByBalance(Long min, Long max, int limit) {
+        settleStripedAccounts();
+        return currentBalanceIndex().range(min, max, limit);
+    }
+
+    /**
+     * Enables or disables maintenance of the balance index.
+     * 
+     * <p>Configured by {@code banking.index.balance.enabled} in {@code application.properties};
+     * enabled by default. Disabling it removes the skip-list updates from every
+     * mutation, which is required for the allocation-free steady state described in
+     * {@link #operationEvent(Operation, ResponseBuffer)}. Balance-ordered queries then
+     * rebuild a temporary index from the accounts in O(n log n). Re-enabling rebuilds
+     * the index under all account locks.</p>
+     * 
+     * @param enabled true to maintain the balance index on every mutation
+     */
+    public void setBalanceIndexEnabled(boolean enabled) {
+        accountLocks.lockAll();
+        try {
+            if (enabled == balanceIndexEnabled) {
+                return;
+            }
+            settleStripedAccounts();
+            balanceIndex.clear();
+            if (enabled) {
+                for (AccountEntry entry : accountMap.values()) {
+                    balanceIndex.add(entry.getId(), entry.getSettledBalance());
+                }
+            }
+            balanceIndexEnabled = enabled;
+        } finally {
+            accountLocks.unlockAll();
+        }
+    }
+
+    /**
+     * Returns the maintained balance index, or a temporary one built from the
+     * current balances if maintenance is disabled.
+     * 
+     * @return an index over every account
+     */
+    private BalanceIndex currentBalanceIndex() {
+        if (balanceIndexEnabled) {
+            return balanceIndex;
+        }
+        BalanceIndex snapshot = new BalanceIndex();
+        for (AccountEntry entry : accountMap.values()) {
+            snapshot.add(entry.getId(), entry.getBalance());
+        }
+        return snapshot;
+    }
+
+    /**
+     * Lists accounts in ascending ID order, one page at a time.
+     * 
+     * <p>Pages are served from the sorted ID index without copying it or taking any
+     * lock. To walk every account, start with a null cursor and pass
+     * {@link AccountPage#getNext()} as {@code after} until it is null.</p>
+     * 
+     * @param after the last ID of the previous page, or null to start at the beginning
+     * @param prefix only list accounts whose ID starts with this prefix, or null for all
+     * @param limit the maximum number of accounts on the page
+     * @return the page of accounts and the cursor for the next page
+     * @see AccountIdIndex#page(String, String, int)
+     */
+    public AccountPage listAccounts(String after, String prefix, int limit) {
+        List<String> ids = accountIdIndex.page(after, prefix, limit);
+        List<Account> accounts = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            AccountEntry entry = accountMap.get(id);
+            if (entry != null) {
+                accounts.add(entry.toAccount());
+            }
+        }
+
+        AccountPage page = new AccountPage();
+        page.setAccounts(accounts);
+        page.setNext(ids.size() == limit ? ids.get(ids.size() - 1) : null);
+        return page;
+    }
+
+    /**
+     * Aggregates the balances that lie in {@code [min, max)} with a parallel scan.
+     * 
+     * <p>The scan runs on the fork/join pool over the primitive balance column and
+     * never blocks writers; its result is weakly consistent with concurrent operations.</p>
+     * 
+     * @param min the inclusive lower bound, or null for no lower bound
+     * @param max the exclusive upper bound, or null for no upper bound
+     * @return the count, sum, min and max of matching balances
+     * @see BalanceScanEngine#scan(Long, Long)
+     */
+    public ScanResult scanBalances(Long min, Long max) {
+        settleStripedAccounts();
+        return scanEngine.scan(min, max);
+    }
+
+    /**
+     * Aggregates the balances matching a predicate with a parallel scan.
+     * 
+     * @param predicate the balance predicate
+     * @return the count, sum, min and max of matching balances
+     * @see BalanceScanEngine#scan(LongPredicate)
+     */
+    public ScanResult scanBalances(LongPredicate predicate) {
+        settleStripedAccounts();
+        return scanEngine.scan(predicate);
+    }
+
+    /**
+     * Builds a histogram of all balances with a parallel scan.
+     * 
+     * @param bounds the bucket bounds, strictly ascending
+     * @return the histogram with {@code bounds.length + 1} buckets
+     * @throws IllegalArgumentException if the bounds are not strictly ascending
+     * @see BalanceScanEngine#histogram(long[])
+     */
+    public BalanceHistogram balanceHistogram(long[] bounds) {
+        settleStripedAccounts();
+        return scanEngine.histogram(bounds);
+    }
+
+    /**
+     * Processes a banking operation based on the operation type.
+     * 
+     * <p>This method handles three types of operations:</p>
+     * <ul>
+     *   <li><strong>deposit</strong> - Adds funds to a destination account</li>
+     *   <li><strong>withdraw</strong> - Removes funds from an origin account</li>
+     *   <li><strong>transfer</strong> - Moves funds from origin to destination account</li>
+     * </ul>
+     * 
+     * <p>The method returns a JSON string containing the updated account information.
+     * If the operation fails (e.g., invalid account, insufficient funds), it returns
+     * the {@link Constants#ZERO} constant.</p>
+     * 
+     * <p><strong>Operation Details:</strong></p>
+     * <ul>
+     *   <li><strong>Deposit:</strong> Creates destination account if it doesn't exist</li>
+     *   <li><strong>Withdraw:</strong> Requires origin account to exist</li>
+     *   <li><strong>Transfer:</strong> Requires origin account to exist; creates destination if needed</li>
+     * </ul>
+     * 
+     * <p>Each operation is applied atomically under the locks of the accounts it
+     * touches, together with the matching update of the system-wide aggregates.
+     * Operations without the required account ID are rejected.</p>
+     * 
+     * @param operation the banking operation to process
+     * @return JSON string with account details if successful, {@link Constants#ZERO} if failed
+     * @throws NumberFormatException if the amount cannot be parsed as a long
+     * @see Constants#DEPOSIT
+     * @see Constants#WITHDRAW
+     * @see Constants#TRANSFER
+     * @see #operationEvent(Operation, ResponseBuffer)
+     */
+    public String operationEvent(Operation operation) {
+        ResponseBuffer response = responses.get();
+        return operationEvent(operation, response) ? response.toString() : Constants.ZERO;
+    }
+
+    /**
+     * Processes a banking operation and writes its JSON response into a reusable buffer.
+     * 
+     * <p>Behaves exactly like {@link #operationEvent(Operation)}; the buffer is cleared
+     * and receives the same JSON, or {@link Constants#ZERO} if the operation failed.</p>
+     * 
+     * <p><strong>Steady-State Mode:</strong> deposits and withdrawals on existing
+     * accounts allocate no memory in this method or in the response encoding when:</p>
+     * <ul>
+     *   <li>the ordered balance index is disabled ({@code banking.index.balance.enabled=false}),
+     *       since every skip-list update allocates nodes</li>
+     *   <li>the operation type is already lowercase</li>
+     *   <li>the account lock is not contended</li>
+     *   <li>the buffer has grown to the response size, and the calling thread has
+     *       already recorded a latency of the same type and outcome</li>
+     * </ul>
+     * 
+     * @param operation the banking operation to process
+     * @param response the buffer receiving the JSON response
+     * @return true if the operation succeeded, false if it was rejected
+     * @throws NumberFormatException if the amount cannot be parsed as a long
+     */
+    public boolean operationEvent(Operation operation, ResponseBuffer response) {
+        return process(operation, response, null);
+    }
+
+    /**
+     * Processes a banking operation and returns the resulting balances instead of JSON.
+     * 
+     * <p>Behaves exactly like {@link #operationEvent(Operation)}, for callers with their
+     * own response encoding such as the binary protocol server. On success the origin
+     * balance is stored at index 0 and the destination balance at index 1; the entry of an
+     * account the operation type does not touch is unspecified.</p>
+     * 
+     * @param operation the banking operation to process
+     * @param balances receives the origin and destination balances, length at least 2
+     * @return true if the operation succeeded, false if it was rejected
+     * @throws NumberFormatException if the amount cannot be parsed as a long
+     */
+    public boolean operationEvent(Operation operation, long[] balances) {
+        return process(operation, null, balances);
+    }
+
+    /**
+     * Applies an operation and encodes its outcome either as JSON or as raw balances.
+     * 
+     * @param operation the banking operation to process
+     * @param response the buffer receiving the JSON response, or null
+     * @param balances receives the balances when {@code response} is null
+     * @return true if the operation succeeded, false if it was rejected
+     */
+    private boolean process(Operation operation, ResponseBuffer response, long[] balances) {
+        // Nothing from an earlier operation on this thread is left in the buffer, even if this one throws
+        if (response != null) {
+            response.clear();
+        }
+        boolean timed = metrics.isEnabled();
+        ServerTiming timing = ServerTiming.current();
+        boolean stamped = timed || timing != null;
+        long start = stamped ? System.nanoTime() : 0L;
+        BankingOperationEvent event = null;
+        if (FlightRecorderSupport.isRecording()) {
+            event = new BankingOperationEvent();
+            event.begin();
+        }
+
+        // Normalize operation type to lowercase for case-insensitive comparison; a missing type is invalid
+        String optTypeStr = operation.getType() != null ? operation.getType().toLowerCase() : "";
+        
+        // Apply the operation under the account locks, keeping the resulting balances
+        OperationResult result = results.get();
+        boolean success;
+        long applied;
+        long serialized;
+        try {
+            boolean sampled = hotAccounts.sample();
+            result.traced = event != null || timing != null || sampled;
+            switch (optTypeStr) {
+                case Constants.DEPOSIT:
+                    success = deposit(operation, result);
+                    break;
+
+                case Constants.TRANSFER:
+                    success = transfer(operation, result);
+                    break;
+
+                case Constants.WITHDRAW:
+                    success = withdraw(operation, result);
+                    break;
+
+                default:
+                    // Invalid operation type
+                    success = false;
+                    break;
+            }
+            applied = stamped ? System.nanoTime() : 0L;
+
+            // Serialize the response outside the locks
+            if (response == null) {
+                if (success) {
+                    balances[0] = result.originBalance;
+                    balances[1] = result.destinationBalance;
+                } else {
+                    aggregates.operationRejected();
+                }
+            } else {
+                if (success) {
+                    encodeResult(optTypeStr, result, response);
+                } else {
+                    response.append(Constants.ZERO);
+                    aggregates.operationRejected();
+                }
+            }
+            serialized = stamped ? System.nanoTime() : 0L;
+            if (timing != null) {
+                // No journal: changes are durable only in memory
+                timing.record(ServerTiming.Stage.LOCK, result.lockWaitNanos);
+                timing.record(ServerTiming.Stage.APPLY, applied - start - result.lockWaitNanos);
+                timing.record(ServerTiming.Stage.DURABILITY, 0L);
+                timing.record(ServerTiming.Stage.SERIALIZE, serialized - applied);
+            }
+            if (event != null) {
+                commitEvent(event, optTypeStr, operation, success, result);
+            }
+            if (sampled && success) {
+                trackHotAccounts(result);
+            }
+        } finally {
+            // The per-thread result is reused by the next operation, including after a throw
+            result.clear();
+        }
+
+        if (timed) {
+            int type = OperationMetrics.typeIndex(optTypeStr);
+            metrics.record(OperationMetrics.Stage.APPLY, type, success, applied - start);
+            metrics.record(OperationMetrics.Stage.SERIALIZE, type, success, serialized - applied);
+            metrics.operationCompleted(type, success);
+        }
+        return success;
+    }
+
+    /**
+     * Processes a banking operation without parking the calling thread on a queued deposit.
+     * 
+     * <p>With deposit combining enabled, a deposit to an account that is not striped is
+     * queued on its lock stripe and the future completes, on the thread that combined it,
+     * once it is applied; the caller never waits for the batch. Every other operation is
+     * applied at once by {@link #operationEvent(Operation)} and returns a completed future,
+     * since reads and striped deposits take no lock and withdrawals and transfers hold
+     * theirs only for the update.</p>
+     * 
+     * <p>Queued deposits are not traced by flight recordings or {@code Server-Timing}; their
+     * apply stage is recorded from queueing to completion, and their outcome is reported
+     * with {@link OperationMetrics#operationCompleted(int, boolean)} on the completing thread.
+     * The response is encoded in that thread's reusable buffer.</p>
+     * 
+     * @param operation the banking operation to process
+     * @return the future JSON response, completed with {@link Constants#ZERO} if the operation failed
+     * @throws NumberFormatException if the amount cannot be parsed as a long
+     */
+    public CompletableFuture<String> operationEventAsync(Operation operation) {
+        String destination = operation.getDestination();
+        if (!depositCombining || closed || destination == null
+                || !Constants.DEPOSIT.equalsIgnoreCase(operation.getType())) {
+            return CompletableFuture.completedFuture(operationEvent(operation));
+        }
+        AccountEntry hot = accountMap.get(destination);
+        if (hot != null && hot.isStriped()) {
+            return CompletableFuture.completedFuture(operationEvent(operation));
+        }
+
+        long amount = Long.parseLong(operation.getAmount());
+        boolean timed = metrics.isEnabled();
+        long start = timed ? System.nanoTime() : 0L;
+        boolean sampled = hotAccounts.sample();
+        return depositCombiner.submitAsync(destination, amount, accountLocks.stripeOf(destination),
+                accountLocks.lockFor(destination), depositBatch).thenApply(balance -> {
+            long applied = timed ? System.nanoTime() : 0L;
+            // Encoded once, in the completing thread's reusable buffer
+            ResponseBuffer out = responses.get();
+            out.clear();
+            out.append(fmtDestinationParts[0]);
+            out.appendAccountJson(destination, balance);
+            out.append(fmtDestinationParts[1]);
+            String response = out.toString();
+            if (sampled) {
+                hotAccounts.record(destination, 0L);
+            }
+            if (timed) {
+                int type = OperationMetrics.typeIndex(Constants.DEPOSIT);
+                metrics.record(OperationMetrics.Stage.APPLY, type, true, applied - start);
+                metrics.record(OperationMetrics.Stage.SERIALIZE, type, true, System.nanoTime() - applied);
+                // The completing thread is the caller, another combined deposit or the
+                // flusher, so the outcome never overwrites a different one
+                metrics.operationCompleted(type, true);
+            }
+            return response;
+        });
+    }
+
+    /**
+     * Retrieves an account by its ID as an already completed future.
+     * 
+     * <p>Account lookups take no lock, so they never wait; this is the read counterpart of
+     * {@link #operationEventAsync(Operation)} for callers composing futures.</p>
+     * 
+     * @param accountId the unique identifier of the account
+     * @return the account if found, null otherwise
+     * @see #getAccount(String)
+     */
+    public CompletableFuture<Account> getAccountAsync(String accountId) {
+        return CompletableFuture.completedFuture(getAccount(accountId));
+    }
+
+    /**
+     * Completes and commits the flight recorder event of an operation.
+     * 
+     * @param event the event begun before the operation was applied
+     * @param optTypeStr the normalized operation type
+     * @param operation the processed operation
+     * @param success whether the operation was applied
+     * @param result the lock timings captured by the apply step
+     */
+    private static void commitEvent(BankingOperationEvent event, String optTypeStr, Operation operation,
+                                    boolean success, OperationResult result) {
+        event.type = optTypeStr;
+        event.origin = operation.getOrigin();
+        event.destination = operation.getDestination();
+        event.amountBucket = BankingOperationEvent.amountBucket(operation.getAmount());
+        event.success = success;
+        event.lockWait = result.lockWaitNanos;
+        event.storeTime = result.storeNanos;
+        event.commit();
+    }
+
+    /**
+     * Feeds the accounts of an applied operation and its lock wait to the heavy-hitter tracker.
+     * 
+     * @param result the accounts and lock timings captured by the apply step
+     */
+    private void trackHotAccounts(OperationResult result) {
+        if (result.origin != null) {
+            hotAccounts.record(result.origin, result.lockWaitNanos);
+        }
+        if (result.destination != null) {
+            hotAccounts.record(result.destination, result.lockWaitNanos);
+        }
+    }
+
+    /**
+     * Encodes the JSON response of an applied operation.
+     * 
+     * <p>The output is an {@link Account} serialized by Jackson, inserted into the
+     * {@link Constants} response formats.</p>
+     * 
+     * @param optTypeStr the normalized operation type
+     * @param result the balances captured by the apply step
+     * @param out the buffer receiving the JSON response
+     */
+    private static void encodeResult(String optTypeStr, OperationResult result, ResponseBuffer out) {
+        switch (optTypeStr) {
+            case Constants.DEPOSIT:
+                out.append(fmtDestinationParts[0]);
+                out.appendAccountJson(result.destination, result.destinationBalance);
+                out.append(fmtDestinationParts[1]);
+                break;
+
+            case Constants.WITHDRAW:
+                out.append(fmtOriginParts[0]);
+                out.appendAccountJson(result.origin, result.originBalance);
+                out.append(fmtOriginParts[1]);
+                break;
+
+            default:
+                out.append(fmtOriginDestinParts[0]);
+                out.appendAccountJson(result.origin, result.originBalance);
+                out.append(fmtOriginDestinParts[1]);
+                out.appendAccountJson(result.destination, result.destinationBalance);
+                out.append(fmtOriginDestinParts[2]);
+                break;
+        }
+    }
+
+    /**
+     * Applies a deposit under the destination account lock, or as a striped credit
+     * without the lock if the destination is hot.
+     * 
+     * @param operation the deposit operation
+     * @param result receives the destination balance after the deposit
+     * @return true if applied, false if no destination is given
+     */
+    private boolean deposit(Operation operation, OperationResult result) {
+        String destination = operation.getDestination();
+        if (destination == null) {
+            return false;
+        }
+        long amount = Long.parseLong(operation.getAmount());
+
+        AccountEntry hot = accountMap.get(destination);
+        if (hot != null && hot.isStriped() && credit(hot, amount, result)) {
+            return true;
+        }
+
+        if (depositCombining) {
+            return combine(destination, amount, result);
+        }
+
+        ReentrantLock lock = accountLocks.lockFor(destination);
+        long requested = result.traced ? System.nanoTime() : 0L;
+        lock.lock();
+        long acquired = result.traced ? System.nanoTime() : 0L;
+        try {
+            AccountEntry accountReturn = accountMap.get(destination);
+
+            // Create new account with deposit amount, or add to existing account balance
+            long balance = accountReturn == null ? amount : settle(accountReturn) + amount;
+            accountReturn = storeAccount(accountReturn, destination, balance);
+            // Other deposits queued behind this one make the account hotter
+            if (accountReturn.lockAcquired(lock.hasQueuedThreads(), hotAccountThreshold)) {
+                stripe(accountReturn);
+            }
+            aggregates.depositApplied();
+            result.locked(requested, acquired);
+            result.destination = destination;
+            result.destinationBalance = balance;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Applies a deposit through the combiner of its lock stripe.
+     * 
+     * @param destination the destination account ID
+     * @param amount the amount to deposit
+     * @param result receives the destination balance right after the deposit
+     * @return true
+     */
+    private boolean combine(String destination, long amount, OperationResult result) {
+        int stripe = accountLocks.stripeOf(destination);
+        long requested = result.traced ? System.nanoTime() : 0L;
+        long balance = depositCombiner.submit(depositRequests.get(), destination, amount,
+                stripe, accountLocks.lockFor(destination), depositBatch);
+        long applied = result.traced ? System.nanoTime() : 0L;
+        result.locked(requested, applied);
+        result.destination = destination;
+        result.destinationBalance = balance;
+        return true;
+    }
+
+    /**
+     * Applies a batch of combined deposits, storing each run of deposits to the same
+     * account once.
+     * 
+     * <p>Called by the combiner while holding the lock stripe of every deposit in the batch.</p>
+     * 
+     * @param first the first deposit of the batch, in arrival order
+     */
+    private void applyDeposits(DepositCombiner.Request first) {
+        String accountId = null;
+        AccountEntry entry = null;
+        long balance = 0L;
+        for (DepositCombiner.Request deposit = first; deposit != null; deposit = deposit.getNext()) {
+            if (!deposit.getDestination().equals(accountId)) {
+                if (accountId != null) {
+                    storeAccount(entry, accountId, balance);
+                }
+                accountId = deposit.getDestination();
+                entry = accountMap.get(accountId);
+                balance = entry == null ? 0L : settle(entry);
+            }
+            balance += deposit.getAmount();
+            deposit.setBalance(balance);
+            aggregates.depositApplied();
+        }
+        storeAccount(entry, accountId, balance);
+    }
+
+    /**
+     * Applies a deposit to a striped account without its lock.
+     * 
+     * <p>The deposit is counted in the entry with its credit and reaches the aggregates when
+     * the entry is settled. A {@link #resetAccount()} running meanwhile may remove the entry,
+     * discarding both. The entry is looked up again after crediting it: if it was removed,
+     * the deposit is reported as not applied so that the caller retries it under the lock,
+     * against the accounts left by the reset.</p>
+     * 
+     * @param entry the entry of the destination account
+     * @param amount the amount to deposit
+     * @param result receives the destination balance after the deposit
+     * @return true if applied, false if a reset removed the entry
+     */
+    private boolean credit(AccountEntry entry, long amount, OperationResult result) {
+        entry.credit(amount);
+        if (accountMap.get(entry.getId()) != entry) {
+            return false;
+        }
+        long credited = result.traced ? System.nanoTime() : 0L;
+        result.locked(credited, credited);
+        result.destination = entry.getId();
+        result.destinationBalance = entry.getBalance();
+        return true;
+    }
+
+    /**
+     * Applies a withdrawal under the origin account lock.
+     * 
+     * @param operation the withdraw operation
+     * @param result receives the origin balance after the withdrawal
+     * @return true if applied, false if the origin does not exist
+     */
+    private boolean withdraw(Operation operation, OperationResult result) {
+        String origin = operation.getOrigin();
+        if (origin == null) {
+            return false;
+        }
+
+        ReentrantLock lock = accountLocks.lockFor(origin);
+        long requested = result.traced ? System.nanoTime() : 0L;
+        lock.lock();
+        long acquired = result.traced ? System.nanoTime() : 0L;
+        try {
+            AccountEntry accountOrigin = accountMap.get(origin);
+            if (accountOrigin == null) {
+                return false;
+            }
+
+            long balance = settle(accountOrigin) - Long.parseLong(operation.getAmount());
+            storeAccount(accountOrigin, origin, balance);
+            aggregates.withdrawalApplied();
+            result.locked(requested, acquired);
+            result.origin = origin;
+            result.originBalance = balance;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Applies a transfer under the locks of both accounts.
+     * 
+     * @param operation the transfer operation
+     * @param result receives the origin and destination balances after the transfer
+     * @return true if applied, false if the origin does not exist
+     */
+    private boolean transfer(Operation operation, OperationResult result) {
+        String origin = operation.getOrigin();
+        String destination = operation.getDestination();
+        if (origin == null || destination == null) {
+            return false;
+        }
+
+        long requested = result.traced ? System.nanoTime() : 0L;
+        accountLocks.lockPair(origin, destination);
+        long acquired = result.traced ? System.nanoTime() : 0L;
+        try {
+            AccountEntry accountOrigin = accountMap.get(origin);
+            if (accountOrigin == null) {
+                return false;
+            }
+            long originBalance = settle(accountOrigin);
+            AccountEntry accountReturn = accountMap.get(destination);
+            long amount = Long.parseLong(operation.getAmount());
+
+            // Create new destination account, or add to existing destination account
+            long destinationBalance = accountReturn == null ? amount : settle(accountReturn) + amount;
+            storeAccount(accountReturn, destination, destinationBalance);
+
+            // Subtract from origin account
+            storeAccount(accountOrigin, origin, originBalance - amount);
+            aggregates.transferApplied();
+            result.locked(requested, acquired);
+
+            result.origin = origin;
+            result.originBalance = originBalance - amount;
+            result.destination = destination;
+            result.destinationBalance = destinationBalance;
+            return true;
+        } finally {
+            accountLocks.unlockPair(origin, destination);
+        }
+    }
+
+    /**
+     * Per-thread holder of the balances produced by the apply step, reused across
+     * operations so that applying one allocates nothing. When {@code traced} is set,
+     * the apply step also times its lock wait and its work under the locks.
+     */
+    private static final class OperationResult {
+
+        String origin;
+        long originBalance;
+        String destination;
+        long destinationBalance;
+        boolean traced;
+        long lockWaitNanos;
+        long storeNanos;
+
+        void locked(long requested, long acquired) {
+            if (traced) {
+                lockWaitNanos = acquired - requested;
+                storeNanos = System.nanoTime() - acquired;
+            }
+        }
+
+        void clear() {
+            origin = null;
+            destination = null;
+            traced = false;
+            lockWaitNanos = 0L;
+            storeNanos = 0L;
+        }
+    }
+
+    /**
+     * Stores a balance and reports the transition to the aggregates, indexes and column.
+     * 
+     * <p>Must be called while holding the lock of {@code accountId}.</p>
+     * 
+     * @param entry the current entry of the account, or null to create it
+     * @param accountId the account ID
+     * @param newBalance the balance to store
+     * @return the entry holding the new balance
+     */
+    private AccountEntry storeAccount(AccountEntry entry, String accountId, long newBalance) {
+        if (entry == null) {
+            entry = new AccountEntry(accountId, balanceColumn.allocate(newBalance), newBalance);
+            accountMap.put(accountId, entry);
+            aggregates.accountCreated(newBalance);
+            if (balanceIndexEnabled) {
+                balanceIndex.add(accountId, newBalance);
+            }
+            accountIdIndex.add(accountId);
+        } else {
+            long oldBalance = entry.getSettledBalance();
+            entry.setBalance(newBalance);
+            publishBalance(entry, oldBalance, newBalance);
+        }
+        return entry;
+    }
+
+    /**
+     * Reports the settled balance transition of an existing account to the aggregates, index and column.
+     * 
+     * <p>Must be called while holding the lock of the account.</p>
+     * 
+     * @param entry the entry of the account
+     * @param oldBalance the settled balance before the transition
+     * @param newBalance the settled balance after the transition
+     */
+    private void publishBalance(AccountEntry entry, long oldBalance, long newBalance) {
+        balanceColumn.set(entry.getSlot(), newBalance);
+        aggregates.balanceChanged(oldBalance, newBalance);
+        if (balanceIndexEnabled) {
+            balanceIndex.update(entry.getId(), oldBalance, newBalance);
+        }
+    }
+
+    /**
+     * Settles the pending credits of a striped account into its balance and counts their deposits.
+     * 
+     * <p>Must be called while holding the lock of the account.</p>
+     * 
+     * @param entry the entry of the account
+     * @return the settled balance
+     */
+    private long settle(AccountEntry entry) {
+        long oldBalance = entry.getSettledBalance();
+        long newBalance = entry.settle();
+        long credits = entry.drainCreditCount();
+        if (credits != 0) {
+            aggregates.depositsApplied(credits);
+        }
+        if (newBalance != oldBalance) {
+            publishBalance(entry, oldBalance, newBalance);
+        }
+        return newBalance;
+    }
+
+    /**
+     * Stripes the deposits of a hot account.
+     * 
+     * <p>Must be called while holding the lock of the account.</p>
+     * 
+     * @param entry the entry of the account
+     */
+    private void stripe(AccountEntry entry) {
+        if (!entry.isStriped()) {
+            entry.stripe(Runtime.getRuntime().availableProcessors());
+            stripedAccounts.add(entry);
+        }
+    }
+
+    /**
+     * Settles the pending credits of every striped account, so that the aggregates,
+     * index and column reflect them.
+     */
+    private void settleStripedAccounts() {
+        for (AccountEntry entry : stripedAccounts) {
+            ReentrantLock lock = accountLocks.lockFor(entry.getId());
+            lock.lock();
+            try {
+                // Skip entries removed by a concurrent reset
+                if (accountMap.get(entry.getId()) == entry) {
+                    settle(entry);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Returns the balance of an account, treating a null balance as zero.
+     * 
+     * @param account the account
+     * @return the balance, or zero if not set
+     */
+    private static long balanceOf(Account account) {
+        Long balance = account.getBalance();
+        return balance == null ? 0L : balance;
+    }
+}
@@ -0,0 +1,102 @@
+package org.orelio.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Java Flight Recorder event emitted for every banking operation in the ChallengeCoreBanking system.
+ *
+ * <p>The event duration spans the whole {@code operationEvent} call, including the
+ * response encoding. Lock wait and store time break down the part spent under the
+ * account locks.</p>
+ *
+ * <p>Callers must check {@link #isRecording()} before creating an event, so that
+ * no event object is allocated and no timestamp is taken while no recording
+ * has the event enabled. Initializing this class registers the event with the Flight
+ * Recorder, which takes a quarter of a second on a JVM not using it yet, and fails on a
+ * runtime without it, so callers go through {@link FlightRecorderSupport#isRecording()}.</p>
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ */
+@Name("org.orelio.BankingOperation")
+@Label("Banking Operation")
+@Category("Banking")
+@Description("A deposit, withdraw or transfer processed by the banking facade")
+@StackTrace(false)
+public class BankingOperationEvent extends Event {
+
+    /**
+     * Amount bucket labels by number of decimal digits.
+     */
+    private static final String[] AMOUNT_BUCKETS = {
+        "0", "1-9", "10-99", "100-999", "1K-10K", "10K-100K", "100K-1M", "1M-10M", "10M-100M", ">=100M"
+    };
+
+    private static final EventType TYPE = EventType.getEventType(BankingOperationEvent.class);
+
+    @Label("Type")
+    public String type;
+
+    @Label("Origin")
+    public String origin;
+
+    @Label("Destination")
+    public String destination;
+
+    @Label("Amount Bucket")
+    @Description("Order of magnitude of the amount")
+    public String amountBucket;
+
+    @Label("Success")
+    public boolean success;
+
+    @Label("Lock Wait")
+    @Description("Time spent waiting for the account locks")
+    @Timespan(Timespan.NANOSECONDS)
+    public long lockWait;
+
+    @Label("Store Time")
+    @Description("Time spent applying the operation while holding the account locks")
+    @Timespan(Timespan.NANOSECONDS)
+    public long storeTime;
+
+    /**
+     * Returns whether a running recording has this event enabled.
+     *
+     * @return true if events should be created and committed
+     */
+    public static boolean isRecording() {
+        return TYPE.isEnabled();
+    }
+
+    /**
+     * Returns the order-of-magnitude bucket of an amount.
+     *
+     * @param amount the amount as received, may be null or invalid
+     * @return the bucket label, {@code "negative"} or {@code "invalid"}
+     */
+    public static String amountBucket(String amount) {
+        long value;
+        try {
+            value = Long.parseLong(amount);
+        } catch (NumberFormatException e) {
+            return "invalid";
+        }
+        if (value < 0) {
+            return "negative";
+        }
+        int digits = 0;
+        for (long v = value; v > 0; v /= 10) {
+            digits++;
+        }
+        return AMOUNT_BUCKETS[Math.min(digits, AMOUNT_BUCKETS.length - 1)];
+    }
+}
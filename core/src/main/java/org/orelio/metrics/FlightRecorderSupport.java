@@ -0,0 +1,65 @@
+package org.orelio.metrics;
+
+import jdk.jfr.FlightRecorder;
+
+/**
+ * Guards the use of Java Flight Recorder events in the ChallengeCoreBanking system.
+ *
+ * <p>The core module targets Java 8, where some runtimes ship without the
+ * {@code jdk.jfr} package. Whether it exists is resolved once when this class is
+ * initialized; {@code jdk.jfr} classes, including {@link BankingOperationEvent}, are only
+ * touched after that check passed, so operations run unchanged on such runtimes.</p>
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ * @see BankingOperationEvent
+ */
+public final class FlightRecorderSupport {
+
+    /**
+     * Whether this runtime has the Flight Recorder API.
+     */
+    private static final boolean AVAILABLE = available();
+
+    private FlightRecorderSupport() {
+    }
+
+    /**
+     * Returns whether a running recording has {@link BankingOperationEvent} enabled.
+     *
+     * @return true if operation events should be created and committed
+     */
+    public static boolean isRecording() {
+        return AVAILABLE && Jfr.isRecording();
+    }
+
+    /**
+     * Returns whether this runtime has the Flight Recorder API.
+     *
+     * @return true if {@code jdk.jfr} can be used
+     */
+    public static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    private static boolean available() {
+        try {
+            Class.forName("jdk.jfr.FlightRecorder", false, FlightRecorderSupport.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * Holds the calls into {@code jdk.jfr}, loaded only once the API is known to exist.
+     */
+    private static final class Jfr {
+
+        static boolean isRecording() {
+            // No recording can be running before the Flight Recorder is initialized
+            return FlightRecorder.isInitialized() && BankingOperationEvent.isRecording();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package org.orelio.metrics;
+
+/**
+ * Activity of one heavily used account over the window of a {@link HotAccountTracker}.
+ *
+ * <p>Instances are serialized in the body of the {@code GET /stats/hot-accounts} endpoint.
+ * The rate is extrapolated from the sampled operations, and both figures are count-min
+ * estimates that may be inflated by other accounts sharing the same counters.</p>
+ *
+ * <p><strong>Example Output:</strong></p>
+ * <pre>{"id":"MERCHANT","sampled":5120,"operationsPerSecond":1365.3,"meanLockWaitMicros":12.4,"striped":true}</pre>
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ * @see HotAccountTracker#top(int)
+ */
+public class HotAccount {
+
+    /**
+     * Account ID.
+     */
+    private String id;
+
+    /**
+     * Sampled operations on the account in the window.
+     */
+    private long sampled;
+
+    /**
+     * Estimated operations per second on the account.
+     */
+    private double operationsPerSecond;
+
+    /**
+     * Mean wait for the account lock of the sampled operations, in microseconds.
+     */
+    private double meanLockWaitMicros;
+
+    /**
+     * Whether deposits to the account are striped.
+     */
+    private boolean striped;
+
+    /**
+     * Gets the account ID.
+     *
+     * @return the account ID
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Sets the account ID.
+     *
+     * @param id the account ID
+     */
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    /**
+     * Gets the number of sampled operations on the account in the window.
+     *
+     * @return the sampled operations
+     */
+    public long getSampled() {
+        return sampled;
+    }
+
+    /**
+     * Sets the number of sampled operations on the account in the window.
+     *
+     * @param sampled the sampled operations
+     */
+    public void setSampled(long sampled) {
+        this.sampled = sampled;
+    }
+
+    /**
+     * Gets the estimated operations per second on the account.
+     *
+     * @return the operation rate
+     */
+    public double getOperationsPerSecond() {
+        return operationsPerSecond;
+    }
+
+    /**
+     * Sets the estimated operations per second on the account.
+     *
+     * @param operationsPerSecond the operation rate
+     */
+    public void setOperationsPerSecond(double operationsPerSecond) {
+        this.operationsPerSecond = operationsPerSecond;
+    }
+
+    /**
+     * Gets the mean wait for the account lock, in microseconds.
+     *
+     * @return the mean lock wait
+     */
+    public double getMeanLockWaitMicros() {
+        return meanLockWaitMicros;
+    }
+
+    /**
+     * Sets the mean wait for the account lock, in microseconds.
+     *
+     * @param meanLockWaitMicros the mean lock wait
+     */
+    public void setMeanLockWaitMicros(double meanLockWaitMicros) {
+        this.meanLockWaitMicros = meanLockWaitMicros;
+    }
+
+    /**
+     * Returns whether deposits to the account are striped.
+     *
+     * @return true if the account is striped
+     */
+    public boolean isStriped() {
+        return striped;
+    }
+
+    /**
+     * Sets whether deposits to the account are striped.
+     *
+     * @param striped true if the account is striped
+     */
+    public void setStriped(boolean striped) {
+        this.striped = striped;
+    }
+}
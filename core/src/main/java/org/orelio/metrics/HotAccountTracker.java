@@ -0,0 +1,391 @@
+package org.orelio.metrics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Streaming heavy-hitter tracker of the accounts touched by banking operations.
+ *
+ * <p>A sample of the operations is counted in a count-min sketch of {@value #DEPTH}
+ * rows of counters, where each account adds to one counter per row, picked by an
+ * independent hash. An account's estimate is the smallest of its counters, so it never
+ * undercounts and overcounts only by the colliding traffic. A second sketch with the
+ * same layout sums the lock wait of the sampled operations. A bounded min-heap keeps
+ * the accounts with the largest estimates as candidates. Memory is fixed by the sketch
+ * width and the heap capacity, whatever the number of accounts.</p>
+ *
+ * <p>Every window, all counters and candidate estimates are halved, so activity fades
+ * with a half-life of one window instead of being kept forever. Rates divide the
+ * estimate by the time it effectively covers, which is exact for a steady rate.</p>
+ *
+ * <p>Recording takes four atomic increments and is lock-free apart from the candidate
+ * heap, which is skipped when another thread holds it. Increments racing with a
+ * halving may be lost.</p>
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ * @see HotAccount
+ */
+public final class HotAccountTracker {
+
+    /**
+     * Rows of the count-min sketch.
+     */
+    public static final int DEPTH = 4;
+
+    private static final int[] SEEDS = {0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F};
+
+    /**
+     * Halvings after which the counters are cleared instead.
+     */
+    private static final int MAX_HALVINGS = 64;
+
+    private final int width;
+
+    private final int mask;
+
+    private final long windowNanos;
+
+    private final AtomicLongArray counts;
+
+    private final AtomicLongArray waits;
+
+    private final AtomicLong nextHalving;
+
+    private volatile int halvings;
+
+    private volatile int sampleRate = 16;
+
+    private final ReentrantLock heapLock = new ReentrantLock();
+
+    private final String[] heapIds;
+
+    private final int[] heapHashes;
+
+    private final long[] heapCounts;
+
+    private int heapSize;
+
+    /**
+     * Creates a tracker with a one-minute window, 1024 counters per sketch row and 64 candidates.
+     */
+    public HotAccountTracker() {
+        this(1024, TimeUnit.MINUTES.toNanos(1), 64, System.nanoTime());
+    }
+
+    /**
+     * Creates a tracker.
+     *
+     * @param width the counters per sketch row, rounded up to a power of two
+     * @param windowNanos the time between two halvings of the counters
+     * @param capacity the candidate accounts kept in the heap
+     * @param origin the {@link System#nanoTime()} value the windows start from
+     * @throws IllegalArgumentException if a size or the window is not positive
+     */
+    public HotAccountTracker(int width, long windowNanos, int capacity, long origin) {
+        if (width <= 0 || windowNanos <= 0 || capacity <= 0) {
+            throw new IllegalArgumentException("sizes and window must be positive");
+        }
+        int size = Integer.highestOneBit(width);
+        if (size < width) {
+            size <<= 1;
+        }
+        this.width = size;
+        this.mask = size - 1;
+        this.windowNanos = windowNanos;
+        this.counts = new AtomicLongArray(DEPTH * size);
+        this.waits = new AtomicLongArray(DEPTH * size);
+        this.nextHalving = new AtomicLong(origin + windowNanos);
+        this.heapIds = new String[capacity];
+        this.heapHashes = new int[capacity];
+        this.heapCounts = new long[capacity];
+    }
+
+    /**
+     * Sets the fraction of operations tracked.
+     *
+     * @param sampleRate track one operation in {@code sampleRate} on average, or 0 to track none
+     * @throws IllegalArgumentException if sampleRate is negative
+     */
+    public void setSampleRate(int sampleRate) {
+        if (sampleRate < 0) {
+            throw new IllegalArgumentException("sampleRate must not be negative");
+        }
+        this.sampleRate = sampleRate;
+    }
+
+    /**
+     * Returns the fraction of operations tracked.
+     *
+     * @return one operation in this many is tracked, or 0 if tracking is off
+     */
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    /**
+     * Decides whether the calling thread's current operation is tracked.
+     *
+     * @return true to pass the operation to {@link #record(String, long)}
+     */
+    public boolean sample() {
+        int rate = sampleRate;
+        return rate == 1 || (rate > 1 && ThreadLocalRandom.current().nextInt(rate) == 0);
+    }
+
+    /**
+     * Records a sampled operation on an account.
+     *
+     * @param accountId the account touched by the operation
+     * @param lockWaitNanos the time the operation waited for the account lock
+     */
+    public void record(String accountId, long lockWaitNanos) {
+        record(accountId, lockWaitNanos, System.nanoTime());
+    }
+
+    /**
+     * Records a sampled operation on an account at a given time.
+     *
+     * @param accountId the account touched by the operation
+     * @param lockWaitNanos the time the operation waited for the account lock
+     * @param now the current {@link System#nanoTime()} value
+     */
+    public void record(String accountId, long lockWaitNanos, long now) {
+        if (now >= nextHalving.get()) {
+            age(now);
+        }
+        int hash = accountId.hashCode();
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            int index = row * width + column(hash, row);
+            estimate = Math.min(estimate, counts.incrementAndGet(index));
+            if (lockWaitNanos > 0) {
+                waits.addAndGet(index, lockWaitNanos);
+            }
+        }
+        offer(accountId, hash, estimate);
+    }
+
+    /**
+     * Returns the accounts with the most sampled operations in the window, most first.
+     *
+     * @param limit the maximum number of accounts
+     * @return up to {@code limit} accounts with their estimated rate and mean lock wait
+     */
+    public List<HotAccount> top(int limit) {
+        return top(limit, System.nanoTime());
+    }
+
+    /**
+     * Returns the accounts with the most sampled operations in the window at a given time.
+     *
+     * @param limit the maximum number of accounts
+     * @param now the current {@link System#nanoTime()} value
+     * @return up to {@code limit} accounts with their estimated rate and mean lock wait
+     */
+    public List<HotAccount> top(int limit, long now) {
+        age(now);
+        String[] ids;
+        int[] hashes;
+        heapLock.lock();
+        try {
+            ids = Arrays.copyOf(heapIds, heapSize);
+            hashes = Arrays.copyOf(heapHashes, heapSize);
+        } finally {
+            heapLock.unlock();
+        }
+
+        double seconds = windowSeconds(now);
+        int rate = Math.max(sampleRate, 1);
+        List<HotAccount> accounts = new ArrayList<>(ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            long count = estimate(hashes[i], counts);
+            if (count == 0) {
+                continue;
+            }
+            HotAccount account = new HotAccount();
+            account.setId(ids[i]);
+            account.setSampled(count);
+            account.setOperationsPerSecond(count * (double) rate / seconds);
+            account.setMeanLockWaitMicros(estimate(hashes[i], waits) / (count * 1000.0));
+            accounts.add(account);
+        }
+        accounts.sort((a, b) -> Long.compare(b.getSampled(), a.getSampled()));
+        return accounts.size() > limit ? new ArrayList<>(accounts.subList(0, limit)) : accounts;
+    }
+
+    /**
+     * Returns the time effectively covered by the counters at a given time.
+     *
+     * <p>After {@code k} halvings, a steady rate {@code r} leaves
+     * {@code r * (window * (1 - 2^-k) + t)} in the counters, {@code t} being the time since
+     * the last halving; this returns the factor of {@code r}.</p>
+     *
+     * @param now the current {@link System#nanoTime()} value
+     * @return the covered seconds, at most two windows
+     */
+    public double windowSeconds(long now) {
+        int k = halvings;
+        long sinceHalving = Math.max(now - (nextHalving.get() - windowNanos), 1L);
+        return (windowNanos * (1.0 - Math.pow(0.5, k)) + sinceHalving) / 1e9;
+    }
+
+    /**
+     * Clears every counter and candidate and restarts the window.
+     */
+    public void reset() {
+        reset(System.nanoTime());
+    }
+
+    /**
+     * Clears every counter and candidate and restarts the window at a given time.
+     *
+     * <p>The decay state is cleared with the counters, so rates after a reset are
+     * computed over the time since the reset only.</p>
+     *
+     * @param now the current {@link System#nanoTime()} value
+     */
+    public void reset(long now) {
+        heapLock.lock();
+        try {
+            for (int i = 0; i < counts.length(); i++) {
+                counts.set(i, 0L);
+                waits.set(i, 0L);
+            }
+            Arrays.fill(heapIds, null);
+            heapSize = 0;
+            halvings = 0;
+            nextHalving.set(now + windowNanos);
+        } finally {
+            heapLock.unlock();
+        }
+    }
+
+    /**
+     * Halves the counters once per window elapsed since the last halving.
+     */
+    private void age(long now) {
+        long next = nextHalving.get();
+        if (now < next) {
+            return;
+        }
+        int due = (int) Math.min((now - next) / windowNanos + 1, MAX_HALVINGS);
+        if (!nextHalving.compareAndSet(next, next + due * windowNanos)) {
+            return;
+        }
+        heapLock.lock();
+        try {
+            for (int i = 0; i < counts.length(); i++) {
+                counts.set(i, due >= MAX_HALVINGS ? 0L : counts.get(i) >>> due);
+                waits.set(i, due >= MAX_HALVINGS ? 0L : waits.get(i) >>> due);
+            }
+            for (int i = 0; i < heapSize; i++) {
+                heapCounts[i] = due >= MAX_HALVINGS ? 0L : heapCounts[i] >>> due;
+            }
+            halvings = Math.min(halvings + due, MAX_HALVINGS);
+        } finally {
+            heapLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the smallest counter of an account.
+     */
+    private long estimate(int hash, AtomicLongArray cells) {
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            min = Math.min(min, cells.get(row * width + column(hash, row)));
+        }
+        return min;
+    }
+
+    private int column(int hash, int row) {
+        int h = (hash ^ SEEDS[row]) * 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h & mask;
+    }
+
+    /**
+     * Updates or admits a candidate in the min-heap ordered by estimate.
+     */
+    private void offer(String accountId, int hash, long estimate) {
+        if (!heapLock.tryLock()) {
+            return;
+        }
+        try {
+            if (heapSize == heapIds.length && estimate <= heapCounts[0]) {
+                // Colder than every candidate: not admitted, or already the coldest one
+                return;
+            }
+            for (int i = 0; i < heapSize; i++) {
+                if (heapHashes[i] == hash && heapIds[i].equals(accountId)) {
+                    heapCounts[i] = estimate;
+                    siftDown(i);
+                    return;
+                }
+            }
+            if (heapSize < heapIds.length) {
+                set(heapSize, accountId, hash, estimate);
+                siftUp(heapSize++);
+            } else if (estimate > heapCounts[0]) {
+                set(0, accountId, hash, estimate);
+                siftDown(0);
+            }
+        } finally {
+            heapLock.unlock();
+        }
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heapCounts[parent] <= heapCounts[i]) {
+                return;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int smallest = i;
+            int left = 2 * i + 1;
+            int right = left + 1;
+            if (left < heapSize && heapCounts[left] < heapCounts[smallest]) {
+                smallest = left;
+            }
+            if (right < heapSize && heapCounts[right] < heapCounts[smallest]) {
+                smallest = right;
+            }
+            if (smallest == i) {
+                return;
+            }
+            swap(i, smallest);
+            i = smallest;
+        }
+    }
+
+    private void set(int i, String accountId, int hash, long estimate) {
+        heapIds[i] = accountId;
+        heapHashes[i] = hash;
+        heapCounts[i] = estimate;
+    }
+
+    private void swap(int i, int j) {
+        String id = heapIds[i];
+        int hash = heapHashes[i];
+        long count = heapCounts[i];
+        set(i, heapIds[j], heapHashes[j], heapCounts[j]);
+        set(j, id, hash, count);
+    }
+}
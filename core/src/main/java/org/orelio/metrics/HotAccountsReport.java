@@ -0,0 +1,87 @@
+package org.orelio.metrics;
+
+import java.util.List;
+
+/**
+ * Heavy-hitter report of the {@code GET /stats/hot-accounts} endpoint.
+ *
+ * <p><strong>Example Output:</strong></p>
+ * <pre>{"windowSeconds":60.0,"sampleRate":16,"accounts":[{"id":"MERCHANT",...}]}</pre>
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ * @see HotAccount
+ * @see HotAccountTracker
+ */
+public class HotAccountsReport {
+
+    /**
+     * Seconds of activity covered by the report.
+     */
+    private double windowSeconds;
+
+    /**
+     * One operation in this many is tracked, or 0 if tracking is off.
+     */
+    private int sampleRate;
+
+    /**
+     * The hottest accounts, most operations first.
+     */
+    private List<HotAccount> accounts;
+
+    /**
+     * Gets the seconds of activity covered by the report.
+     *
+     * @return the window length in seconds
+     */
+    public double getWindowSeconds() {
+        return windowSeconds;
+    }
+
+    /**
+     * Sets the seconds of activity covered by the report.
+     *
+     * @param windowSeconds the window length in seconds
+     */
+    public void setWindowSeconds(double windowSeconds) {
+        this.windowSeconds = windowSeconds;
+    }
+
+    /**
+     * Gets the sampling rate of the tracker.
+     *
+     * @return one operation in this many is tracked, or 0 if tracking is off
+     */
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    /**
+     * Sets the sampling rate of the tracker.
+     *
+     * @param sampleRate one operation in this many is tracked, or 0 if tracking is off
+     */
+    public void setSampleRate(int sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    /**
+     * Gets the hottest accounts, most operations first.
+     *
+     * @return the accounts
+     */
+    public List<HotAccount> getAccounts() {
+        return accounts;
+    }
+
+    /**
+     * Sets the hottest accounts, most operations first.
+     *
+     * @param accounts the accounts
+     */
+    public void setAccounts(List<HotAccount> accounts) {
+        this.accounts = accounts;
+    }
+}
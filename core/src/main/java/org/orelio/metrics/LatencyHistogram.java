@@ -0,0 +1,172 @@
+package org.orelio.metrics;
+
+/**
+ * Merged, read-only latency histogram in the ChallengeCoreBanking system.
+ *
+ * <p>Values are nanoseconds recorded into log-linear buckets in the style of
+ * HdrHistogram: every power-of-two range is split into {@link #SUB_BUCKETS} equal
+ * sub-buckets, so each recorded value is reported with a relative error below
+ * {@code 1 / SUB_BUCKETS} (about 6%) over the whole range from 1ns to
+ * {@link #MAX_TRACKABLE} nanoseconds. Larger values are clamped into the last bucket.</p>
+ *
+ * <p>Instances are produced by merging per-thread recorders in
+ * {@link OperationMetrics#snapshot(OperationMetrics.Stage, int, boolean)}.</p>
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ * @see OperationMetrics
+ */
+public class LatencyHistogram {
+
+    /**
+     * Number of bits used for the sub-bucket index.
+     */
+    static final int SUB_BITS = 4;
+
+    /**
+     * Number of linear sub-buckets per power of two.
+     */
+    public static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+    /**
+     * Largest value tracked without clamping (about 17 seconds).
+     */
+    public static final long MAX_TRACKABLE = (1L << 34) - 1;
+
+    /**
+     * Total number of buckets needed to cover {@code [0, MAX_TRACKABLE]}.
+     */
+    public static final int BUCKETS = bucketOf(MAX_TRACKABLE) + 1;
+
+    /**
+     * Per-bucket counts.
+     */
+    private final long[] counts;
+
+    /**
+     * Number of recorded values.
+     */
+    private final long count;
+
+    /**
+     * Sum of recorded values in nanoseconds.
+     */
+    private final long sum;
+
+    /**
+     * Largest recorded value in nanoseconds.
+     */
+    private final long max;
+
+    /**
+     * Creates a histogram from merged recorder state.
+     *
+     * @param counts the per-bucket counts
+     * @param count the number of recorded values
+     * @param sum the sum of recorded values
+     * @param max the largest recorded value
+     */
+    LatencyHistogram(long[] counts, long count, long sum, long max) {
+        this.counts = counts;
+        this.count = count;
+        this.sum = sum;
+        this.max = max;
+    }
+
+    /**
+     * Returns the bucket index of a value.
+     *
+     * @param nanos the value in nanoseconds
+     * @return the bucket index
+     */
+    static int bucketOf(long nanos) {
+        long v = nanos <= 0 ? 0 : Math.min(nanos, MAX_TRACKABLE);
+        if (v < SUB_BUCKETS) {
+            return (int) v;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(v) - SUB_BITS;
+        return ((shift + 1) << SUB_BITS) + (int) ((v >>> shift) - SUB_BUCKETS);
+    }
+
+    /**
+     * Returns the largest value that maps onto a bucket.
+     *
+     * @param bucket the bucket index
+     * @return the inclusive upper bound of the bucket in nanoseconds
+     */
+    static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = (bucket >>> SUB_BITS) - 1;
+        long sub = bucket & (SUB_BUCKETS - 1);
+        return ((SUB_BUCKETS + sub + 1) << shift) - 1;
+    }
+
+    /**
+     * Gets the number of recorded values.
+     *
+     * @return the count
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the sum of recorded values.
+     *
+     * @return the sum in nanoseconds
+     */
+    public long getSum() {
+        return sum;
+    }
+
+    /**
+     * Gets the largest recorded value.
+     *
+     * @return the maximum in nanoseconds
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * Returns the number of recorded values less than or equal to a threshold.
+     *
+     * <p>Values are attributed to their bucket's upper bound, so the result is exact
+     * at bucket boundaries and conservative in between.</p>
+     *
+     * @param nanos the threshold in nanoseconds
+     * @return the cumulative count
+     */
+    public long countAtOrBelow(long nanos) {
+        long total = 0;
+        for (int i = 0; i < counts.length && upperBoundOf(i) <= nanos; i++) {
+            total += counts[i];
+        }
+        return total;
+    }
+
+    /**
+     * Returns the value at a given percentile.
+     *
+     * @param percentile the percentile, from 0 to 100
+     * @return the upper bound of the bucket holding the percentile, capped at {@link #getMax()},
+     *         or zero if nothing was recorded
+     */
+    public long valueAtPercentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(count * Math.min(percentile, 100.0) / 100.0));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return Math.min(upperBoundOf(i), max);
+            }
+        }
+        return max;
+    }
+}
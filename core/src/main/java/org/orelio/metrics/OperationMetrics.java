@@ -0,0 +1,524 @@
+package org.orelio.metrics;
+
+import org.orelio.model.Constants;
+import org.orelio.util.VirtualThreads;
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Per-operation latency histograms and throughput counters for the ChallengeCoreBanking system.
+ *
+ * <p>Latencies are recorded per {@link Stage}, per operation type (deposit, withdraw,
+ * transfer or other) and per outcome (success or "0" failure). Every platform thread
+ * records into its own {@link Histograms} with plain, uncontended writes; histograms are
+ * only merged when the metrics are read, so the hot path costs one thread-local
+ * lookup and a few array increments per stage.</p>
+ *
+ * <p><strong>Recorded Stages:</strong></p>
+ * <ul>
+ *   <li><strong>parse:</strong> Jackson deserialization of the request body</li>
+ *   <li><strong>apply:</strong> the locked balance mutation in the facade</li>
+ *   <li><strong>serialize:</strong> encoding of the JSON response in the facade</li>
+ *   <li><strong>total:</strong> the whole {@code /event} request, from handler selection to completion</li>
+ * </ul>
+ *
+ * <p>The request stages are tracked on the request thread. When a request moves to
+ * another thread, such as a workload lane executor, its state travels with
+ * {@link #detachRequest()} and {@link #attachRequest(RequestState)}.</p>
+ *
+ * <p>A platform thread's histograms are kept only while it is alive. When a new thread
+ * registers or the metrics are read, the histograms of finished threads are merged into
+ * one retired set and dropped, so the recorders are bounded by the live threads rather
+ * than by every thread a pool ever created.</p>
+ *
+ * <p>Virtual threads are created per request, so they do not get recorders of their own:
+ * they share a fixed set of {@link Histograms} picked by thread ID, each updated under
+ * its own {@link ReentrantLock}, which unlike a monitor never pins the carrier thread.
+ * Only the small request state is kept per virtual thread.</p>
+ *
+ * <p>Merged reads are taken without stopping writers, so a snapshot may miss
+ * values recorded while it is being built. Histogram counts double as throughput
+ * counters.</p>
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ * @see LatencyHistogram
+ */
+public class OperationMetrics {
+
+    /**
+     * Request processing stages with their own latency histograms.
+     */
+    public enum Stage {
+        PARSE, APPLY, SERIALIZE, TOTAL;
+
+        /**
+         * Returns the lowercase label used in exported metrics.
+         *
+         * @return the stage label
+         */
+        public String label() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * Operation type index for deposits.
+     */
+    public static final int DEPOSIT = 0;
+
+    /**
+     * Operation type index for withdrawals.
+     */
+    public static final int WITHDRAW = 1;
+
+    /**
+     * Operation type index for transfers.
+     */
+    public static final int TRANSFER = 2;
+
+    /**
+     * Operation type index for unknown or missing types.
+     */
+    public static final int OTHER = 3;
+
+    /**
+     * Labels of the operation type indexes.
+     */
+    public static final String[] TYPE_LABELS = {Constants.DEPOSIT, Constants.WITHDRAW, Constants.TRANSFER, "other"};
+
+    private static final int STAGES = Stage.values().length;
+    private static final int TYPES = TYPE_LABELS.length;
+    private static final int KEYS = STAGES * TYPES * 2;
+
+    /**
+     * Whether recording is enabled.
+     */
+    private volatile boolean enabled = true;
+
+    /**
+     * The histogram sets merged by reads: the shared and retired sets, and one per live platform thread.
+     */
+    private final List<Histograms> recorders = new CopyOnWriteArrayList<>();
+
+    /**
+     * Values recorded by platform threads that have finished.
+     */
+    private final Histograms retired = new Histograms(null, null);
+
+    /**
+     * Serializes retiring finished threads with registrations and reads, so that no value
+     * is counted twice or missed while it moves to the retired set.
+     */
+    private final ReentrantLock retireLock = new ReentrantLock();
+
+    /**
+     * Histogram sets shared by virtual threads, indexed by thread ID.
+     */
+    private final Histograms[] shared;
+
+    /**
+     * Whether every thread uses the shared histogram sets, as virtual threads do.
+     */
+    private final boolean shareAll;
+
+    /**
+     * The calling thread's recorder.
+     */
+    private final ThreadLocal<ThreadRecorder> local = ThreadLocal.withInitial(this::register);
+
+    /**
+     * Creates metrics giving each platform thread its own histograms.
+     */
+    public OperationMetrics() {
+        this(false);
+    }
+
+    /**
+     * Creates metrics, optionally sharing histograms between all threads.
+     *
+     * @param shareAll true to treat every thread like a virtual thread
+     */
+    OperationMetrics(boolean shareAll) {
+        this.shareAll = shareAll;
+        int size = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()) * 2);
+        this.shared = new Histograms[size];
+        for (int i = 0; i < size; i++) {
+            shared[i] = new Histograms(new ReentrantLock(), null);
+            recorders.add(shared[i]);
+        }
+        recorders.add(retired);
+    }
+
+    /**
+     * Returns the type index of a normalized operation type.
+     *
+     * @param type the lowercase operation type, may be null
+     * @return the type index
+     */
+    public static int typeIndex(String type) {
+        if (Constants.DEPOSIT.equals(type)) {
+            return DEPOSIT;
+        } else if (Constants.WITHDRAW.equals(type)) {
+            return WITHDRAW;
+        } else if (Constants.TRANSFER.equals(type)) {
+            return TRANSFER;
+        }
+        return OTHER;
+    }
+
+    /**
+     * Returns whether recording is enabled.
+     *
+     * @return true if latencies are recorded
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enables or disables recording. Already recorded values are kept.
+     *
+     * @param enabled true to record latencies
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Records the latency of one stage of one operation.
+     *
+     * @param stage the stage
+     * @param type the operation type index
+     * @param success true if the operation succeeded, false if it returned "0"
+     * @param nanos the latency in nanoseconds
+     */
+    public void record(Stage stage, int type, boolean success, long nanos) {
+        local.get().histograms.record(key(stage, type, success), nanos);
+    }
+
+    /**
+     * Marks the start of an {@code /event} request on the calling thread.
+     *
+     * <p>The web layer calls this, then {@link #parseStarted()}/{@link #parseFinished()}
+     * around body deserialization, {@link #operationCompleted(int, boolean)} once the
+     * outcome is known and finally {@link #requestFinished()}, which records the parse
+     * and total stages for that outcome.</p>
+     */
+    public void requestStarted() {
+        if (enabled) {
+            ThreadRecorder recorder = local.get();
+            recorder.requestStart = System.nanoTime();
+            recorder.parseStart = 0;
+            recorder.parseNanos = -1;
+            recorder.type = -1;
+        }
+    }
+
+    /**
+     * Marks the start of request body deserialization on the calling thread.
+     */
+    public void parseStarted() {
+        if (enabled) {
+            local.get().parseStart = System.nanoTime();
+        }
+    }
+
+    /**
+     * Marks the end of request body deserialization on the calling thread.
+     */
+    public void parseFinished() {
+        if (enabled) {
+            ThreadRecorder recorder = local.get();
+            if (recorder.parseStart != 0) {
+                recorder.parseNanos = System.nanoTime() - recorder.parseStart;
+            }
+        }
+    }
+
+    /**
+     * Records the outcome of the operation handled by the calling thread's request.
+     *
+     * @param type the operation type index
+     * @param success true if the operation succeeded, false if it returned "0"
+     */
+    public void operationCompleted(int type, boolean success) {
+        if (enabled) {
+            ThreadRecorder recorder = local.get();
+            recorder.type = type;
+            recorder.success = success;
+        }
+    }
+
+    /**
+     * Marks the end of the calling thread's request and records its parse and total stages.
+     *
+     * <p>Requests that never reached {@link #operationCompleted(int, boolean)}, such as
+     * malformed bodies, are not recorded.</p>
+     */
+    public void requestFinished() {
+        if (!enabled) {
+            return;
+        }
+        ThreadRecorder recorder = local.get();
+        if (recorder.type >= 0 && recorder.requestStart != 0) {
+            if (recorder.parseNanos >= 0) {
+                recorder.histograms.record(key(Stage.PARSE, recorder.type, recorder.success), recorder.parseNanos);
+            }
+            recorder.histograms.record(key(Stage.TOTAL, recorder.type, recorder.success),
+                    System.nanoTime() - recorder.requestStart);
+        }
+        recorder.requestStart = 0;
+        recorder.type = -1;
+    }
+
+    /**
+     * Removes the state of the calling thread's request so that another thread can continue it.
+     *
+     * @return the request state, or null if recording is disabled
+     * @see #attachRequest(RequestState)
+     */
+    public RequestState detachRequest() {
+        if (!enabled) {
+            return null;
+        }
+        ThreadRecorder recorder = local.get();
+        RequestState state = new RequestState(recorder.requestStart, recorder.parseNanos,
+                recorder.type, recorder.success);
+        recorder.requestStart = 0;
+        recorder.parseNanos = -1;
+        recorder.type = -1;
+        return state;
+    }
+
+    /**
+     * Continues on the calling thread a request detached from another thread.
+     *
+     * @param state the detached request state, may be null
+     * @see #detachRequest()
+     */
+    public void attachRequest(RequestState state) {
+        if (!enabled || state == null) {
+            return;
+        }
+        ThreadRecorder recorder = local.get();
+        recorder.requestStart = state.requestStart;
+        recorder.parseNanos = state.parseNanos;
+        recorder.type = state.type;
+        recorder.success = state.success;
+    }
+
+    /**
+     * Returns the number of histogram sets merged by {@link #snapshot(Stage, int, boolean)}.
+     *
+     * @return the shared and retired sets plus one per live platform thread that recorded
+     */
+    int recorderCount() {
+        return recorders.size();
+    }
+
+    /**
+     * Merges every thread's recorder for one series.
+     *
+     * @param stage the stage
+     * @param type the operation type index
+     * @param success the outcome
+     * @return the merged histogram
+     */
+    public LatencyHistogram snapshot(Stage stage, int type, boolean success) {
+        int key = key(stage, type, success);
+        long[] counts = new long[LatencyHistogram.BUCKETS];
+        long count = 0;
+        long sum = 0;
+        long max = 0;
+        retireLock.lock();
+        try {
+            retireFinished();
+            for (Histograms recorder : recorders) {
+                long[] local = recorder.counts[key];
+                if (local == null) {
+                    continue;
+                }
+                for (int i = 0; i < counts.length; i++) {
+                    counts[i] += local[i];
+                }
+                count += recorder.totals[key];
+                sum += recorder.sums[key];
+                max = Math.max(max, recorder.maxes[key]);
+            }
+        } finally {
+            retireLock.unlock();
+        }
+        return new LatencyHistogram(counts, count, sum, max);
+    }
+
+    private static int key(Stage stage, int type, boolean success) {
+        return ((stage.ordinal() * TYPES) + type) * 2 + (success ? 0 : 1);
+    }
+
+    private ThreadRecorder register() {
+        Thread thread = Thread.currentThread();
+        if (shareAll || VirtualThreads.isVirtual(thread)) {
+            return new ThreadRecorder(shared[(int) thread.getId() & (shared.length - 1)]);
+        }
+        Histograms histograms = new Histograms(null, thread);
+        retireLock.lock();
+        try {
+            retireFinished();
+            recorders.add(histograms);
+        } finally {
+            retireLock.unlock();
+        }
+        return new ThreadRecorder(histograms);
+    }
+
+    /**
+     * Merges the histograms of finished platform threads into the retired set and drops them.
+     * Must be called holding {@link #retireLock}.
+     */
+    private void retireFinished() {
+        for (Histograms recorder : recorders) {
+            if (recorder.isFinished()) {
+                retired.merge(recorder);
+                recorders.remove(recorder);
+            }
+        }
+    }
+
+    /**
+     * Request timestamps and outcome handed from one thread to another.
+     */
+    public static final class RequestState {
+
+        private final long requestStart;
+        private final long parseNanos;
+        private final int type;
+        private final boolean success;
+
+        private RequestState(long requestStart, long parseNanos, int type, boolean success) {
+            this.requestStart = requestStart;
+            this.parseNanos = parseNanos;
+            this.type = type;
+            this.success = success;
+        }
+
+        /**
+         * Returns this state with the outcome of an operation completed on another thread.
+         *
+         * @param type the operation type index
+         * @param success true if the operation succeeded, false if it returned "0"
+         * @return the state with the outcome
+         */
+        public RequestState withOutcome(int type, boolean success) {
+            return new RequestState(requestStart, parseNanos, type, success);
+        }
+    }
+
+    /**
+     * Request state of one thread and the histograms it records into.
+     */
+    static final class ThreadRecorder {
+
+        final Histograms histograms;
+
+        long requestStart;
+        long parseStart;
+        long parseNanos = -1;
+        int type = -1;
+        boolean success;
+
+        ThreadRecorder(Histograms histograms) {
+            this.histograms = histograms;
+        }
+    }
+
+    /**
+     * Latency histograms of every series, written by one platform thread, or under a lock
+     * by the virtual threads sharing them, or by merges into the retired set.
+     *
+     * <p>Bucket arrays are allocated on the first value of each series, so a thread
+     * only pays for the series it actually records.</p>
+     */
+    static final class Histograms {
+
+        final long[][] counts = new long[KEYS][];
+        final long[] totals = new long[KEYS];
+        final long[] sums = new long[KEYS];
+        final long[] maxes = new long[KEYS];
+
+        private final ReentrantLock lock;
+
+        /**
+         * The platform thread writing these histograms, or null for the shared and retired sets.
+         */
+        private final WeakReference<Thread> owner;
+
+        Histograms(ReentrantLock lock, Thread owner) {
+            this.lock = lock;
+            this.owner = owner == null ? null : new WeakReference<>(owner);
+        }
+
+        /**
+         * Returns whether the owning thread has finished, after which its writes are all visible.
+         */
+        boolean isFinished() {
+            if (owner == null) {
+                return false;
+            }
+            Thread thread = owner.get();
+            return thread == null || !thread.isAlive();
+        }
+
+        /**
+         * Adds the values of another set, which no thread writes any more.
+         */
+        void merge(Histograms other) {
+            for (int key = 0; key < KEYS; key++) {
+                long[] buckets = other.counts[key];
+                if (buckets == null) {
+                    continue;
+                }
+                if (counts[key] == null) {
+                    counts[key] = new long[LatencyHistogram.BUCKETS];
+                }
+                for (int i = 0; i < buckets.length; i++) {
+                    counts[key][i] += buckets[i];
+                }
+                totals[key] += other.totals[key];
+                sums[key] += other.sums[key];
+                maxes[key] = Math.max(maxes[key], other.maxes[key]);
+            }
+        }
+
+        void record(int key, long nanos) {
+            if (lock == null) {
+                add(key, nanos);
+                return;
+            }
+            lock.lock();
+            try {
+                add(key, nanos);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void add(int key, long nanos) {
+            long[] buckets = counts[key];
+            if (buckets == null) {
+                buckets = new long[LatencyHistogram.BUCKETS];
+                counts[key] = buckets;
+            }
+            buckets[LatencyHistogram.bucketOf(nanos)]++;
+            totals[key]++;
+            sums[key] += nanos;
+            if (nanos > maxes[key]) {
+                maxes[key] = nanos;
+            }
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package org.orelio.metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-request stage timings reported in the {@code Server-Timing} response header.
+ *
+ * <p>Timing is opt-in per request: the web layer calls {@link #begin()} only for requests
+ * carrying the {@link #REQUEST_HEADER} header, and every other code path asks
+ * {@link #current()}, which costs a single volatile read while no timed request is in
+ * flight. Stages are recorded with {@link System#nanoTime()} stamps on the request thread.</p>
+ *
+ * <p>An instance is confined to the thread handling its request.</p>
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ */
+public final class ServerTiming {
+
+    /**
+     * Request attribute holding the timing, for code running outside the request thread.
+     */
+    public static final String ATTRIBUTE = ServerTiming.class.getName();
+
+    /**
+     * Request header asking for a {@code Server-Timing} response header, with any value except "false".
+     */
+    public static final String REQUEST_HEADER = "X-Server-Timing";
+
+    /**
+     * Response header carrying the stage timings.
+     */
+    public static final String RESPONSE_HEADER = "Server-Timing";
+
+    /**
+     * Request stages, in the order they are reported.
+     */
+    public enum Stage {
+        /** Request body deserialization. */
+        DESERIALIZE("deserialize"),
+        /** Time from entering the filter chain until the handler runs. */
+        QUEUE("queue"),
+        /** Wait for the account locks. */
+        LOCK("lock"),
+        /** Work under the account locks, or the lookup of a read. */
+        APPLY("apply"),
+        /** Persistence of the change; always zero for in-memory storage. */
+        DURABILITY("durability"),
+        /** Response encoding. */
+        SERIALIZE("serialize");
+
+        private final String label;
+
+        Stage(String label) {
+            this.label = label;
+        }
+
+        /**
+         * Returns the metric name used in the header.
+         *
+         * @return the metric name
+         */
+        public String label() {
+            return label;
+        }
+    }
+
+    private static final Stage[] STAGES = Stage.values();
+
+    private static final AtomicInteger inFlight = new AtomicInteger();
+
+    private static final ThreadLocal<ServerTiming> local = new ThreadLocal<>();
+
+    private final long received = System.nanoTime();
+
+    private final long[] nanos = new long[STAGES.length];
+
+    private final long[] starts = new long[STAGES.length];
+
+    private ServerTiming() {
+        Arrays.fill(nanos, -1L);
+    }
+
+    /**
+     * Returns whether a request header value asks for timing.
+     *
+     * @param headerValue the value of {@link #REQUEST_HEADER}, may be null
+     * @return true if the request should be timed
+     */
+    public static boolean isRequested(String headerValue) {
+        return headerValue != null && !"false".equalsIgnoreCase(headerValue.trim());
+    }
+
+    /**
+     * Starts timing the request handled by the calling thread.
+     *
+     * @return the timing of the request
+     */
+    public static ServerTiming begin() {
+        ServerTiming timing = new ServerTiming();
+        local.set(timing);
+        inFlight.incrementAndGet();
+        return timing;
+    }
+
+    /**
+     * Continues on the calling thread the timing of a request started on another thread.
+     *
+     * <p>Must be followed by {@link #end()} on the same thread. Does nothing if the
+     * timing is already attached to the calling thread.</p>
+     *
+     * @param timing the timing of the request, may be null
+     */
+    public static void attach(ServerTiming timing) {
+        if (timing != null && local.get() != timing) {
+            local.set(timing);
+            inFlight.incrementAndGet();
+        }
+    }
+
+    /**
+     * Stops timing the request handled by the calling thread, if it was timed.
+     */
+    public static void end() {
+        if (local.get() != null) {
+            local.remove();
+            inFlight.decrementAndGet();
+        }
+    }
+
+    /**
+     * Returns the timing of the request handled by the calling thread.
+     *
+     * @return the timing, or null if the request is not timed
+     */
+    public static ServerTiming current() {
+        return inFlight.get() == 0 ? null : local.get();
+    }
+
+    /**
+     * Marks the start of the handler, closing the queue stage.
+     *
+     * <p>Called again when the handler continues on a workload lane, so that the
+     * queue stage includes the lane's queue.</p>
+     */
+    public void handlerStarted() {
+        nanos[Stage.QUEUE.ordinal()] = System.nanoTime() - received;
+    }
+
+    /**
+     * Marks the start of a stage measured by a pair of calls.
+     *
+     * @param stage the stage
+     */
+    public void stageStarted(Stage stage) {
+        starts[stage.ordinal()] = System.nanoTime();
+    }
+
+    /**
+     * Adds the time elapsed since {@link #stageStarted(Stage)} to a stage.
+     *
+     * @param stage the stage
+     */
+    public void stageFinished(Stage stage) {
+        long start = starts[stage.ordinal()];
+        if (start != 0) {
+            record(stage, System.nanoTime() - start);
+            starts[stage.ordinal()] = 0;
+        }
+    }
+
+    /**
+     * Adds time to a stage.
+     *
+     * @param stage the stage
+     * @param elapsed the elapsed nanoseconds
+     */
+    public void record(Stage stage, long elapsed) {
+        int i = stage.ordinal();
+        nanos[i] = Math.max(nanos[i], 0L) + elapsed;
+    }
+
+    /**
+     * Returns the recorded time of a stage.
+     *
+     * @param stage the stage
+     * @return the elapsed nanoseconds, or -1 if the stage was not recorded
+     */
+    public long nanos(Stage stage) {
+        return nanos[stage.ordinal()];
+    }
+
+    /**
+     * Formats the recorded stages and the total so far as a {@code Server-Timing} header value.
+     *
+     * <p>Durations are in milliseconds, for example
+     * {@code deserialize;dur=0.041, queue;dur=0.012, lock;dur=0.000, apply;dur=0.003, total;dur=0.090}.
+     * Stages not recorded for the request are left out.</p>
+     *
+     * @return the header value
+     */
+    public String header() {
+        StringBuilder header = new StringBuilder(160);
+        for (Stage stage : STAGES) {
+            long value = nanos[stage.ordinal()];
+            if (value >= 0) {
+                appendMetric(header, stage.label(), value);
+            }
+        }
+        appendMetric(header, "total", System.nanoTime() - received);
+        return header.toString();
+    }
+
+    private static void appendMetric(StringBuilder header, String name, long nanos) {
+        if (header.length() > 0) {
+            header.append(", ");
+        }
+        long micros = nanos / 1000;
+        header.append(name).append(";dur=").append(micros / 1000).append('.');
+        long fraction = micros % 1000;
+        if (fraction < 100) {
+            header.append('0');
+        }
+        if (fraction < 10) {
+            header.append('0');
+        }
+        header.append(fraction);
+    }
+}
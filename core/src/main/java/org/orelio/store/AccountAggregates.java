@@ -0,0 +1,174 @@
+package org.orelio.store;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Incrementally maintained system-wide aggregates for the ChallengeCoreBanking system.
+ *
+ * <p>Every account mutation reports the balance transition it applied, and the
+ * aggregates are adjusted by the resulting delta. Reading an aggregate is therefore
+ * O(1) instead of a full scan of the account map.</p>
+ *
+ * <p><strong>Maintained Aggregates:</strong></p>
+ * <ul>
+ *   <li><strong>Total funds:</strong> sum of all account balances</li>
+ *   <li><strong>Account count:</strong> number of stored accounts</li>
+ *   <li><strong>Negative balances:</strong> count and sum of overdrawn accounts</li>
+ *   <li><strong>Operations:</strong> applied deposits, withdrawals, transfers and rejected operations</li>
+ * </ul>
+ *
+ * <p>All counters are {@link LongAdder}s, which stripe updates across cells so the
+ * aggregates never become a contention point. Callers must report a transition while
+ * holding the lock of the account it belongs to; once writers are quiescent the
+ * aggregates reconcile exactly with a full scan.</p>
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ * @see AggregatesSnapshot
+ * @see org.orelio.facade.ChallengeCoreBankingFacade#getAggregates()
+ */
+public class AccountAggregates {
+
+    /**
+     * Sum of all account balances.
+     */
+    private final LongAdder totalFunds = new LongAdder();
+
+    /**
+     * Number of stored accounts.
+     */
+    private final LongAdder accountCount = new LongAdder();
+
+    /**
+     * Number of accounts whose balance is below zero.
+     */
+    private final LongAdder negativeCount = new LongAdder();
+
+    /**
+     * Sum of all balances below zero.
+     */
+    private final LongAdder negativeSum = new LongAdder();
+
+    /**
+     * Per-type counters of applied and rejected operations.
+     */
+    private final LongAdder deposits = new LongAdder();
+    private final LongAdder withdrawals = new LongAdder();
+    private final LongAdder transfers = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * Records the creation of an account with the given balance.
+     *
+     * @param balance the initial balance
+     */
+    public void accountCreated(long balance) {
+        accountCount.increment();
+        totalFunds.add(balance);
+        if (balance < 0) {
+            negativeCount.increment();
+            negativeSum.add(balance);
+        }
+    }
+
+    /**
+     * Records the balance transition of an existing account.
+     *
+     * @param oldBalance the balance before the mutation
+     * @param newBalance the balance after the mutation
+     */
+    public void balanceChanged(long oldBalance, long newBalance) {
+        if (oldBalance == newBalance) {
+            return;
+        }
+        totalFunds.add(newBalance - oldBalance);
+        if (oldBalance < 0) {
+            negativeSum.add(-oldBalance);
+            if (newBalance >= 0) {
+                negativeCount.decrement();
+            }
+        }
+        if (newBalance < 0) {
+            negativeSum.add(newBalance);
+            if (oldBalance >= 0) {
+                negativeCount.increment();
+            }
+        }
+    }
+
+    /**
+     * Records an applied deposit.
+     */
+    public void depositApplied() {
+        deposits.increment();
+    }
+
+    /**
+     * Records applied deposits.
+     *
+     * @param count the number of deposits
+     */
+    public void depositsApplied(long count) {
+        deposits.add(count);
+    }
+
+    /**
+     * Records an applied withdrawal.
+     */
+    public void withdrawalApplied() {
+        withdrawals.increment();
+    }
+
+    /**
+     * Records an applied transfer.
+     */
+    public void transferApplied() {
+        transfers.increment();
+    }
+
+    /**
+     * Records an operation that was rejected with {@link org.orelio.model.Constants#ZERO}.
+     */
+    public void operationRejected() {
+        rejected.increment();
+    }
+
+    /**
+     * Clears every aggregate.
+     *
+     * <p>Must be called while all account locks are held, otherwise concurrent
+     * transitions may be lost.</p>
+     */
+    public void reset() {
+        totalFunds.reset();
+        accountCount.reset();
+        negativeCount.reset();
+        negativeSum.reset();
+        deposits.reset();
+        withdrawals.reset();
+        transfers.reset();
+        rejected.reset();
+    }
+
+    /**
+     * Returns a point-in-time copy of the aggregates.
+     *
+     * <p>While writers are active the individual values are each consistent but may
+     * reflect slightly different moments.</p>
+     *
+     * @return the current aggregates
+     */
+    public AggregatesSnapshot snapshot() {
+        AggregatesSnapshot snapshot = new AggregatesSnapshot();
+        snapshot.setTotalFunds(totalFunds.sum());
+        snapshot.setAccountCount(accountCount.sum());
+        snapshot.setNegativeCount(negativeCount.sum());
+        snapshot.setNegativeSum(negativeSum.sum());
+        snapshot.setDeposits(deposits.sum());
+        snapshot.setWithdrawals(withdrawals.sum());
+        snapshot.setTransfers(transfers.sum());
+        snapshot.setRejected(rejected.sum());
+        return snapshot;
+    }
+}
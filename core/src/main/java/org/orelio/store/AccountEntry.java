@@ -0,0 +1,236 @@
+package org.orelio.store;
+
+import org.orelio.model.Account;
+
+/**
+ * Mutable storage cell for one account in the ChallengeCoreBanking system.
+ *
+ * <p>The facade keeps one entry per account in its account map. Operations update
+ * the balance in place while holding the account's lock, and lock-free readers see
+ * the latest committed balance through a volatile read. Each entry also owns a slot
+ * in the {@link BalanceColumn}, which mirrors the balance as a primitive for
+ * bulk scans.</p>
+ *
+ * <p>An account found to be hot is striped: from then on its deposits are added
+ * to {@link StripedCredits} without taking the lock, and the balance is the settled
+ * balance plus the pending credits. Operations holding the lock first
+ * {@link #settle()} the credits into the settled balance, which is the value mirrored
+ * by the balance column and the other derived structures.</p>
+ *
+ * <p>Callers outside the store receive {@link Account} copies made by
+ * {@link #toAccount()}, never the entry itself.</p>
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ * @see BalanceColumn
+ * @see StripedCredits
+ * @see org.orelio.facade.ChallengeCoreBankingFacade
+ */
+public final class AccountEntry {
+
+    /**
+     * Unique identifier of the account.
+     */
+    private final String id;
+
+    /**
+     * Slot holding this account's balance in the balance column.
+     */
+    private final int slot;
+
+    /**
+     * Settled balance; written only under the account lock.
+     */
+    private volatile long balance;
+
+    /**
+     * Credits not yet settled into the balance, or null while the account is not striped.
+     */
+    private volatile StripedCredits credits;
+
+    /**
+     * Incremented before and after each settlement, so that readers can detect
+     * credits moving from the cells into the balance.
+     */
+    private volatile int settlements;
+
+    /**
+     * Contention score of the account lock; accessed only under the account lock.
+     */
+    private int contention;
+
+    /**
+     * Creates an entry for an account.
+     *
+     * @param id the account ID
+     * @param slot the balance column slot owned by this account
+     * @param balance the initial balance
+     */
+    public AccountEntry(String id, int slot, long balance) {
+        this.id = id;
+        this.slot = slot;
+        this.balance = balance;
+    }
+
+    /**
+     * Gets the account ID.
+     *
+     * @return the account ID
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Gets the balance column slot owned by this account.
+     *
+     * @return the slot index
+     */
+    public int getSlot() {
+        return slot;
+    }
+
+    /**
+     * Gets the current balance, including the pending credits of a striped account.
+     *
+     * <p>Never blocks. A read concurrent with a deposit to a striped account may or
+     * may not include it, but never sees a credit twice or loses a settled one.</p>
+     *
+     * @return the balance in cents
+     */
+    public long getBalance() {
+        StripedCredits pending = credits;
+        if (pending == null) {
+            return balance;
+        }
+        while (true) {
+            int before = settlements;
+            if ((before & 1) == 0) {
+                long total = balance + pending.sum();
+                if (settlements == before) {
+                    return total;
+                }
+            }
+            Thread.yield();
+        }
+    }
+
+    /**
+     * Gets the settled balance, excluding pending credits.
+     *
+     * <p>This is the balance mirrored by the balance column, the aggregates and the
+     * balance index.</p>
+     *
+     * @return the settled balance in cents
+     */
+    public long getSettledBalance() {
+        return balance;
+    }
+
+    /**
+     * Returns whether deposits to this account are striped.
+     *
+     * @return true if the account is striped
+     */
+    public boolean isStriped() {
+        return credits != null;
+    }
+
+    /**
+     * Adds a credit without the account lock, if the account is striped.
+     *
+     * @param amount the amount to credit
+     * @return true if credited, false if the account is not striped and the lock must be taken
+     */
+    public boolean credit(long amount) {
+        StripedCredits pending = credits;
+        if (pending == null) {
+            return false;
+        }
+        pending.add(amount);
+        return true;
+    }
+
+    /**
+     * Moves the pending credits into the settled balance. Must be called while holding the account lock.
+     *
+     * @return the settled balance after the move
+     */
+    public long settle() {
+        StripedCredits pending = credits;
+        if (pending == null) {
+            return balance;
+        }
+        settlements++;
+        try {
+            balance += pending.drain();
+        } finally {
+            settlements++;
+        }
+        return balance;
+    }
+
+    /**
+     * Removes and returns the number of striped credits added since the last call.
+     * Must be called while holding the account lock.
+     *
+     * @return the number of credits, 0 if the account is not striped
+     */
+    public long drainCreditCount() {
+        StripedCredits pending = credits;
+        return pending == null ? 0L : pending.drainCount();
+    }
+
+    /**
+     * Stripes the deposits of this account. Must be called while holding the account lock.
+     *
+     * <p>An account stays striped until it is removed.</p>
+     *
+     * @param stripes the minimum number of credit cells
+     */
+    public void stripe(int stripes) {
+        if (credits == null) {
+            credits = new StripedCredits(stripes);
+        }
+    }
+
+    /**
+     * Updates the contention score of the account lock. Must be called while holding the account lock.
+     *
+     * <p>The score rises with each contended acquisition and decays with each uncontended one.</p>
+     *
+     * @param contended whether other threads were queued for the lock when it was acquired
+     * @param threshold the score making the account hot, or 0 to never report it hot
+     * @return true if the score reached the threshold
+     */
+    public boolean lockAcquired(boolean contended, int threshold) {
+        if (contended) {
+            contention++;
+        } else if (contention > 0) {
+            contention--;
+        }
+        return threshold > 0 && contention >= threshold;
+    }
+
+    /**
+     * Sets the settled balance. Must be called while holding the account lock.
+     *
+     * @param balance the new balance in cents
+     */
+    public void setBalance(long balance) {
+        this.balance = balance;
+    }
+
+    /**
+     * Returns a detached {@link Account} copy of this entry.
+     *
+     * @return a new account holding the current ID and balance
+     */
+    public Account toAccount() {
+        Account account = new Account();
+        account.setId(id);
+        account.setBalance(getBalance());
+        return account;
+    }
+}
@@ -0,0 +1,78 @@
+package org.orelio.store;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Sorted index over account IDs in the ChallengeCoreBanking system.
+ *
+ * <p>The account map itself is unordered, so listing accounts would require a full
+ * iteration. This index keeps every account ID in a {@link ConcurrentSkipListSet},
+ * which supports:</p>
+ * <ul>
+ *   <li><strong>Cursor pagination:</strong> resume strictly after the last ID of the previous page</li>
+ *   <li><strong>Prefix search:</strong> walk only the IDs starting with a given prefix</li>
+ * </ul>
+ *
+ * <p>Paging never copies the index and never takes a lock, so walking every account
+ * in ID order has constant memory overhead and does not block writers. Cursors are
+ * stable: an ID is never skipped or repeated across pages, although accounts created
+ * behind the cursor after a page was served are not revisited.</p>
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ * @see org.orelio.facade.ChallengeCoreBankingFacade#listAccounts(String, String, int)
+ */
+public class AccountIdIndex {
+
+    /**
+     * All account IDs in natural string order.
+     */
+    private final ConcurrentSkipListSet<String> ids = new ConcurrentSkipListSet<>();
+
+    /**
+     * Adds an account ID to the index.
+     *
+     * @param accountId the account ID
+     */
+    public void add(String accountId) {
+        ids.add(accountId);
+    }
+
+    /**
+     * Removes every ID from the index.
+     */
+    public void clear() {
+        ids.clear();
+    }
+
+    /**
+     * Returns the next page of account IDs.
+     *
+     * @param after the cursor: the last ID of the previous page, or null to start at the beginning
+     * @param prefix only return IDs starting with this prefix, or null for all IDs
+     * @param limit the maximum number of IDs to return
+     * @return up to {@code limit} IDs in ascending order
+     */
+    public List<String> page(String after, String prefix, int limit) {
+        NavigableSet<String> view = ids;
+        if (prefix != null && (after == null || after.compareTo(prefix) < 0)) {
+            // Every ID with the prefix sorts at or after the prefix itself
+            view = view.tailSet(prefix, true);
+        } else if (after != null) {
+            view = view.tailSet(after, false);
+        }
+
+        List<String> page = new ArrayList<>(Math.min(limit, 1024));
+        for (String id : view) {
+            if (page.size() >= limit || (prefix != null && !id.startsWith(prefix))) {
+                break;
+            }
+            page.add(id);
+        }
+        return page;
+    }
+}
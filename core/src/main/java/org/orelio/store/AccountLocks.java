@@ -0,0 +1,151 @@
+package org.orelio.store;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Striped lock table guarding account mutations in the ChallengeCoreBanking system.
+ *
+ * <p>Each account ID is hashed onto one of a fixed number of {@link ReentrantLock}
+ * stripes, so operations on unrelated accounts rarely contend while operations on
+ * the same account are serialized. Transfers take both stripes in ascending stripe
+ * order, which rules out lock-ordering deadlocks.</p>
+ *
+ * <p><strong>Usage Notes:</strong></p>
+ * <ul>
+ *   <li>The stripe count is rounded up to a power of two</li>
+ *   <li>A {@code null} account ID maps onto stripe zero</li>
+ *   <li>{@link #lockAll()} is used for whole-store operations such as reset</li>
+ * </ul>
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ * @see org.orelio.facade.ChallengeCoreBankingFacade
+ */
+public class AccountLocks {
+
+    /**
+     * Default number of lock stripes.
+     */
+    public static final int DEFAULT_STRIPES = 256;
+
+    /**
+     * The lock stripes, indexed by a mix of the account ID hash.
+     */
+    private final ReentrantLock[] stripes;
+
+    /**
+     * Bit mask used to map a hash onto a stripe index.
+     */
+    private final int mask;
+
+    /**
+     * Creates a lock table with {@link #DEFAULT_STRIPES} stripes.
+     */
+    public AccountLocks() {
+        this(DEFAULT_STRIPES);
+    }
+
+    /**
+     * Creates a lock table with at least the given number of stripes.
+     *
+     * @param stripeCount the minimum number of stripes
+     * @throws IllegalArgumentException if stripeCount is not positive
+     */
+    public AccountLocks(int stripeCount) {
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("stripeCount must be positive");
+        }
+        int size = 1;
+        while (size < stripeCount) {
+            size <<= 1;
+        }
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * Returns the stripe index for an account ID.
+     *
+     * @param accountId the account ID, may be null
+     * @return the stripe index
+     */
+    public int stripeOf(String accountId) {
+        if (accountId == null) {
+            return 0;
+        }
+        int h = accountId.hashCode();
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    /**
+     * Returns the lock guarding an account ID.
+     *
+     * @param accountId the account ID, may be null
+     * @return the stripe lock
+     */
+    public ReentrantLock lockFor(String accountId) {
+        return stripes[stripeOf(accountId)];
+    }
+
+    /**
+     * Acquires the locks for two accounts in stripe order.
+     *
+     * <p>If both IDs map onto the same stripe the lock is acquired once.</p>
+     *
+     * @param first the first account ID
+     * @param second the second account ID
+     * @see #unlockPair(String, String)
+     */
+    public void lockPair(String first, String second) {
+        int a = stripeOf(first);
+        int b = stripeOf(second);
+        if (a == b) {
+            stripes[a].lock();
+        } else if (a < b) {
+            stripes[a].lock();
+            stripes[b].lock();
+        } else {
+            stripes[b].lock();
+            stripes[a].lock();
+        }
+    }
+
+    /**
+     * Releases the locks acquired by {@link #lockPair(String, String)}.
+     *
+     * @param first the first account ID
+     * @param second the second account ID
+     */
+    public void unlockPair(String first, String second) {
+        int a = stripeOf(first);
+        int b = stripeOf(second);
+        stripes[a].unlock();
+        if (a != b) {
+            stripes[b].unlock();
+        }
+    }
+
+    /**
+     * Acquires every stripe in index order.
+     *
+     * @see #unlockAll()
+     */
+    public void lockAll() {
+        for (ReentrantLock stripe : stripes) {
+            stripe.lock();
+        }
+    }
+
+    /**
+     * Releases every stripe acquired by {@link #lockAll()}.
+     */
+    public void unlockAll() {
+        for (int i = stripes.length - 1; i >= 0; i--) {
+            stripes[i].unlock();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package org.orelio.store;
+
+import org.orelio.model.Account;
+import java.util.List;
+
+/**
+ * One page of a cursor-paginated account listing.
+ *
+ * <p>Instances are produced by
+ * {@link org.orelio.facade.ChallengeCoreBankingFacade#listAccounts(String, String, int)}
+ * and serialized as the body of the {@code GET /accounts} endpoint. To fetch the
+ * following page, pass {@link #getNext()} back as the {@code after} cursor.</p>
+ *
+ * <p><strong>Example Output:</strong></p>
+ * <pre>{"accounts":[{"id":"ACC001","balance":100},{"id":"ACC002","balance":50}],"next":"ACC002"}</pre>
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ * @see AccountIdIndex
+ */
+public class AccountPage {
+
+    /**
+     * Accounts on this page in ascending ID order.
+     */
+    private List<Account> accounts;
+
+    /**
+     * Cursor for the next page, or null if this is the last page.
+     */
+    private String next;
+
+    /**
+     * Gets the accounts on this page.
+     *
+     * @return the accounts in ascending ID order
+     */
+    public List<Account> getAccounts() {
+        return accounts;
+    }
+
+    /**
+     * Sets the accounts on this page.
+     *
+     * @param accounts the accounts in ascending ID order
+     */
+    public void setAccounts(List<Account> accounts) {
+        this.accounts = accounts;
+    }
+
+    /**
+     * Gets the cursor for the next page.
+     *
+     * @return the ID to pass as {@code after}, or null if this is the last page
+     */
+    public String getNext() {
+        return next;
+    }
+
+    /**
+     * Sets the cursor for the next page.
+     *
+     * @param next the ID to pass as {@code after}, or null if this is the last page
+     */
+    public void setNext(String next) {
+        this.next = next;
+    }
+}
@@ -0,0 +1,203 @@
+package org.orelio.store;
+
+/**
+ * Point-in-time copy of the system-wide aggregates.
+ *
+ * <p>Instances are produced by {@link AccountAggregates#snapshot()} and serialized
+ * as the body of the {@code GET /stats/aggregates} endpoint.</p>
+ *
+ * <p><strong>Example Output:</strong></p>
+ * <pre>{"totalFunds":1500,"accountCount":2,"negativeCount":0,"negativeSum":0,
+ * "deposits":2,"withdrawals":0,"transfers":0,"rejected":0}</pre>
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ * @see AccountAggregates
+ */
+public class AggregatesSnapshot {
+
+    /**
+     * Sum of all account balances.
+     */
+    private long totalFunds;
+
+    /**
+     * Number of accounts in the system.
+     */
+    private long accountCount;
+
+    /**
+     * Number of accounts with a negative balance.
+     */
+    private long negativeCount;
+
+    /**
+     * Sum of all negative balances (zero or negative).
+     */
+    private long negativeSum;
+
+    /**
+     * Number of applied deposit operations.
+     */
+    private long deposits;
+
+    /**
+     * Number of applied withdrawal operations.
+     */
+    private long withdrawals;
+
+    /**
+     * Number of applied transfer operations.
+     */
+    private long transfers;
+
+    /**
+     * Number of operations rejected with "0".
+     */
+    private long rejected;
+
+    /**
+     * Gets the sum of all account balances.
+     *
+     * @return the sum of all account balances
+     */
+    public long getTotalFunds() {
+        return totalFunds;
+    }
+
+    /**
+     * Sets the sum of all account balances.
+     *
+     * @param totalFunds the value to set
+     */
+    public void setTotalFunds(long totalFunds) {
+        this.totalFunds = totalFunds;
+    }
+
+    /**
+     * Gets the number of accounts in the system.
+     *
+     * @return the number of accounts in the system
+     */
+    public long getAccountCount() {
+        return accountCount;
+    }
+
+    /**
+     * Sets the number of accounts in the system.
+     *
+     * @param accountCount the value to set
+     */
+    public void setAccountCount(long accountCount) {
+        this.accountCount = accountCount;
+    }
+
+    /**
+     * Gets the number of accounts with a negative balance.
+     *
+     * @return the number of accounts with a negative balance
+     */
+    public long getNegativeCount() {
+        return negativeCount;
+    }
+
+    /**
+     * Sets the number of accounts with a negative balance.
+     *
+     * @param negativeCount the value to set
+     */
+    public void setNegativeCount(long negativeCount) {
+        this.negativeCount = negativeCount;
+    }
+
+    /**
+     * Gets the sum of all negative balances (zero or negative).
+     *
+     * @return the sum of all negative balances (zero or negative)
+     */
+    public long getNegativeSum() {
+        return negativeSum;
+    }
+
+    /**
+     * Sets the sum of all negative balances (zero or negative).
+     *
+     * @param negativeSum the value to set
+     */
+    public void setNegativeSum(long negativeSum) {
+        this.negativeSum = negativeSum;
+    }
+
+    /**
+     * Gets the number of applied deposit operations.
+     *
+     * @return the number of applied deposit operations
+     */
+    public long getDeposits() {
+        return deposits;
+    }
+
+    /**
+     * Sets the number of applied deposit operations.
+     *
+     * @param deposits the value to set
+     */
+    public void setDeposits(long deposits) {
+        this.deposits = deposits;
+    }
+
+    /**
+     * Gets the number of applied withdrawal operations.
+     *
+     * @return the number of applied withdrawal operations
+     */
+    public long getWithdrawals() {
+        return withdrawals;
+    }
+
+    /**
+     * Sets the number of applied withdrawal operations.
+     *
+     * @param withdrawals the value to set
+     */
+    public void setWithdrawals(long withdrawals) {
+        this.withdrawals = withdrawals;
+    }
+
+    /**
+     * Gets the number of applied transfer operations.
+     *
+     * @return the number of applied transfer operations
+     */
+    public long getTransfers() {
+        return transfers;
+    }
+
+    /**
+     * Sets the number of applied transfer operations.
+     *
+     * @param transfers the value to set
+     */
+    public void setTransfers(long transfers) {
+        this.transfers = transfers;
+    }
+
+    /**
+     * Gets the number of operations rejected with "0".
+     *
+     * @return the number of operations rejected with "0"
+     */
+    public long getRejected() {
+        return rejected;
+    }
+
+    /**
+     * Sets the number of operations rejected with "0".
+     *
+     * @param rejected the value to set
+     */
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+}
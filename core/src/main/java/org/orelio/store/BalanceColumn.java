@@ -0,0 +1,140 @@
+package org.orelio.store;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Columnar copy of every account balance as primitive {@code long}s.
+ *
+ * <p>Each account is assigned a slot when it is created, and every mutation writes
+ * the new balance into that slot. Balances live in fixed-size {@code long[]} chunks
+ * of {@link #CHUNK_SIZE} elements, so bulk scans walk contiguous primitive arrays
+ * instead of chasing one object per account, and the column grows without ever
+ * copying existing chunks.</p>
+ *
+ * <p><strong>Usage Notes:</strong></p>
+ * <ul>
+ *   <li>Slots are never reused until {@link #clear()}</li>
+ *   <li>A slot must only be written while holding the lock of the account that owns it</li>
+ *   <li>Readers are lock-free and weakly consistent: a scan running concurrently with
+ *       writers sees each slot either before or after any given write</li>
+ *   <li>Allocation takes a {@link ReentrantLock} rather than a monitor, so a virtual
+ *       thread waiting to allocate does not pin its carrier thread</li>
+ * </ul>
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ * @see BalanceScanEngine
+ * @see AccountEntry#getSlot()
+ */
+public class BalanceColumn {
+
+    /**
+     * Number of bits addressing an element within a chunk.
+     */
+    static final int CHUNK_BITS = 16;
+
+    /**
+     * Number of balances per chunk.
+     */
+    public static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    /**
+     * Balance chunks; replaced by a larger copy of the outer array when full.
+     */
+    private volatile long[][] chunks = new long[1][CHUNK_SIZE];
+
+    /**
+     * Number of allocated slots; slots below this value are live.
+     */
+    private volatile int size;
+
+    /**
+     * Serializes allocation and clearing.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Allocates a slot and stores the initial balance in it.
+     *
+     * @param balance the initial balance
+     * @return the allocated slot
+     */
+    public int allocate(long balance) {
+        lock.lock();
+        try {
+            int slot = size;
+            int chunk = slot >>> CHUNK_BITS;
+            long[][] current = chunks;
+            if (chunk == current.length) {
+                current = Arrays.copyOf(current, current.length * 2);
+                for (int i = chunk; i < current.length; i++) {
+                    current[i] = new long[CHUNK_SIZE];
+                }
+                chunks = current;
+            }
+            current[chunk][slot & CHUNK_MASK] = balance;
+            size = slot + 1;
+            return slot;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes the balance of a slot.
+     *
+     * @param slot the slot
+     * @param balance the new balance
+     */
+    public void set(int slot, long balance) {
+        chunks[slot >>> CHUNK_BITS][slot & CHUNK_MASK] = balance;
+    }
+
+    /**
+     * Reads the balance of a slot.
+     *
+     * @param slot the slot
+     * @return the balance last written to the slot
+     */
+    public long get(int slot) {
+        return chunks[slot >>> CHUNK_BITS][slot & CHUNK_MASK];
+    }
+
+    /**
+     * Returns the number of live slots.
+     *
+     * @return the slot count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the chunk array backing the column.
+     *
+     * <p>Chunks are shared, not copied; callers must treat them as read-only and only
+     * read slots below {@link #size()} as observed before fetching the chunks.</p>
+     *
+     * @return the balance chunks
+     */
+    long[][] chunks() {
+        return chunks;
+    }
+
+    /**
+     * Releases every slot. Must be called while all account locks are held.
+     */
+    public void clear() {
+        lock.lock();
+        try {
+            chunks = new long[1][CHUNK_SIZE];
+            size = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
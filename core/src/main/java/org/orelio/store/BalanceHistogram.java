@@ -0,0 +1,57 @@
+package org.orelio.store;
+
+/**
+ * Histogram of account balances over caller-supplied bucket bounds.
+ *
+ * <p>For ascending bounds {@code b0 < b1 < ... < bn-1} the histogram has {@code n + 1}
+ * buckets: {@code (-inf, b0)}, {@code [b0, b1)}, ..., {@code [bn-1, +inf)}.</p>
+ *
+ * <p><strong>Example Output:</strong></p>
+ * <pre>{"bounds":[0,1000],"counts":[2,15,4]}</pre>
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ * @see BalanceScanEngine#histogram(long[])
+ */
+public class BalanceHistogram {
+
+    /**
+     * Ascending bucket bounds.
+     */
+    private final long[] bounds;
+
+    /**
+     * Number of balances per bucket; one more element than {@link #bounds}.
+     */
+    private final long[] counts;
+
+    /**
+     * Creates a histogram.
+     *
+     * @param bounds the ascending bucket bounds
+     * @param counts the per-bucket counts
+     */
+    BalanceHistogram(long[] bounds, long[] counts) {
+        this.bounds = bounds;
+        this.counts = counts;
+    }
+
+    /**
+     * Gets the bucket bounds.
+     *
+     * @return the ascending bounds
+     */
+    public long[] getBounds() {
+        return bounds;
+    }
+
+    /**
+     * Gets the per-bucket counts.
+     *
+     * @return the counts, one more than the number of bounds
+     */
+    public long[] getCounts() {
+        return counts;
+    }
+}
@@ -0,0 +1,155 @@
+package org.orelio.store;
+
+import org.orelio.model.Account;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Secondary index ordering accounts by balance in the ChallengeCoreBanking system.
+ *
+ * <p>The index is a {@link ConcurrentSkipListSet} of (balance, account ID) entries that
+ * every mutation updates incrementally, so ordered queries never scan or sort the
+ * account map:</p>
+ * <ul>
+ *   <li><strong>Top N:</strong> walk the set from either end, O(log n + N)</li>
+ *   <li><strong>Range:</strong> walk a sub-set bounded by balance, e.g. all accounts below zero</li>
+ * </ul>
+ *
+ * <p><strong>Usage Notes:</strong></p>
+ * <ul>
+ *   <li>Updates for one account must be made while holding that account's lock</li>
+ *   <li>Readers never block; results are weakly consistent with concurrent updates,
+ *       so an account being moved may be momentarily absent from a result</li>
+ *   <li>Entries are keyed by balance first and account ID second, so accounts with
+ *       equal balances are returned in ID order</li>
+ * </ul>
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ * @see org.orelio.facade.ChallengeCoreBankingFacade#getTopAccounts(int, boolean)
+ * @see org.orelio.facade.ChallengeCoreBankingFacade#getAccountsByBalance(Long, Long, int)
+ */
+public class BalanceIndex {
+
+    /**
+     * Ordered (balance, account ID) entries.
+     */
+    private final ConcurrentSkipListSet<Entry> entries = new ConcurrentSkipListSet<>();
+
+    /**
+     * Adds an account to the index.
+     *
+     * @param accountId the account ID
+     * @param balance the account balance
+     */
+    public void add(String accountId, long balance) {
+        entries.add(new Entry(balance, accountId));
+    }
+
+    /**
+     * Moves an account from its old balance to its new balance.
+     *
+     * @param accountId the account ID
+     * @param oldBalance the balance the account is currently indexed under
+     * @param newBalance the balance to index the account under
+     */
+    public void update(String accountId, long oldBalance, long newBalance) {
+        if (oldBalance == newBalance) {
+            return;
+        }
+        entries.remove(new Entry(oldBalance, accountId));
+        entries.add(new Entry(newBalance, accountId));
+    }
+
+    /**
+     * Removes every entry from the index.
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Returns the accounts with the highest or lowest balances.
+     *
+     * @param n the maximum number of accounts to return
+     * @param descending true for the largest balances first, false for the most overdrawn first
+     * @return up to {@code n} accounts in balance order
+     */
+    public List<Account> top(int n, boolean descending) {
+        NavigableSet<Entry> view = descending ? entries.descendingSet() : entries;
+        return collect(view.iterator(), n);
+    }
+
+    /**
+     * Returns accounts whose balance lies in {@code [min, max)}, in ascending balance order.
+     *
+     * @param min the inclusive lower bound, or null for no lower bound
+     * @param max the exclusive upper bound, or null for no upper bound
+     * @param limit the maximum number of accounts to return
+     * @return up to {@code limit} accounts in ascending balance order, empty if {@code min > max}
+     */
+    public List<Account> range(Long min, Long max, int limit) {
+        if (min != null && max != null && min > max) {
+            return new ArrayList<>(0);
+        }
+        NavigableSet<Entry> view = entries;
+        if (min != null) {
+            // The empty ID sorts before every other ID with the same balance
+            view = view.tailSet(new Entry(min, ""), true);
+        }
+        if (max != null) {
+            view = view.headSet(new Entry(max, ""), false);
+        }
+        return collect(view.iterator(), limit);
+    }
+
+    private static List<Account> collect(Iterator<Entry> iterator, int limit) {
+        List<Account> result = new ArrayList<>(Math.min(limit, 1024));
+        while (result.size() < limit && iterator.hasNext()) {
+            Entry entry = iterator.next();
+            Account account = new Account();
+            account.setId(entry.accountId);
+            account.setBalance(entry.balance);
+            result.add(account);
+        }
+        return result;
+    }
+
+    /**
+     * Immutable (balance, account ID) index key.
+     */
+    private static final class Entry implements Comparable<Entry> {
+
+        private final long balance;
+        private final String accountId;
+
+        private Entry(long balance, String accountId) {
+            this.balance = balance;
+            this.accountId = accountId;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            int cmp = Long.compare(balance, other.balance);
+            return cmp != 0 ? cmp : accountId.compareTo(other.accountId);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Entry)) {
+                return false;
+            }
+            Entry other = (Entry) obj;
+            return balance == other.balance && accountId.equals(other.accountId);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Long.hashCode(balance) + accountId.hashCode();
+        }
+    }
+}
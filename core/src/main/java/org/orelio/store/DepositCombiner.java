@@ -0,0 +1,350 @@
+package org.orelio.store;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Flat-combining queue of deposits waiting for an account lock stripe.
+ *
+ * <p>A deposit publishes itself on its stripe's queue instead of waiting for the lock.
+ * Whichever thread gets the lock becomes the combiner: it takes every queued deposit,
+ * applies them as one batch and hands each waiter its own result. The waiters park
+ * meanwhile, so a burst of deposits to the same account costs one lock acquisition
+ * and one balance store per batch instead of one per deposit.</p>
+ *
+ * <p>{@link #submitAsync} queues a deposit without waiting at all: its future is
+ * completed by whichever thread next combines the stripe, after the lock is released.
+ * If the lock is taken, a flush of the stripe is handed to the flusher executor, at
+ * most one per stripe at a time, so queued deposits never depend on another deposit
+ * arriving. Thousands of deposits can then be in flight with only the flusher's
+ * threads blocked on locks.</p>
+ *
+ * <p><strong>Usage Notes:</strong></p>
+ * <ul>
+ *   <li>Each thread reuses one {@link Request} for {@link #submit}, which must not be shared while submitted</li>
+ *   <li>Batches are applied in arrival order</li>
+ *   <li>A waiter parks at most {@link #PARK_NANOS} before retrying the lock, in case the
+ *       stripe is held by an operation that does not combine</li>
+ * </ul>
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ * @see AccountLocks
+ */
+public final class DepositCombiner {
+
+    /**
+     * Longest time a waiter parks before retrying the lock itself.
+     */
+    public static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    /**
+     * Batches a combiner applies before releasing the lock, bounding its own latency.
+     */
+    private static final int MAX_PASSES = 4;
+
+    /**
+     * Applies a batch of deposits while the combiner holds the stripe lock.
+     */
+    @FunctionalInterface
+    public interface Batch {
+
+        /**
+         * Applies the deposits in order and sets the balance of each.
+         *
+         * @param first the first deposit, followed by {@link Request#getNext()}
+         */
+        void apply(Request first);
+    }
+
+    /**
+     * A deposit published on the queue, reused by its thread across submissions.
+     */
+    public static final class Request {
+
+        private String destination;
+
+        private long amount;
+
+        private long balance;
+
+        private Thread waiter;
+
+        private Request next;
+
+        private volatile boolean done;
+
+        private CompletableFuture<Long> future;
+
+        private Request nextCompleted;
+
+        /**
+         * Gets the destination account ID.
+         *
+         * @return the account receiving the deposit
+         */
+        public String getDestination() {
+            return destination;
+        }
+
+        /**
+         * Gets the amount deposited.
+         *
+         * @return the amount
+         */
+        public long getAmount() {
+            return amount;
+        }
+
+        /**
+         * Gets the destination balance right after this deposit.
+         *
+         * @return the balance set by the batch
+         */
+        public long getBalance() {
+            return balance;
+        }
+
+        /**
+         * Sets the destination balance right after this deposit.
+         *
+         * @param balance the balance including this deposit and every earlier one
+         */
+        public void setBalance(long balance) {
+            this.balance = balance;
+        }
+
+        /**
+         * Gets the next deposit of the batch.
+         *
+         * @return the next deposit, or null at the end of the batch
+         */
+        public Request getNext() {
+            return next;
+        }
+    }
+
+    /**
+     * Top of each stripe's queue, most recent deposit first.
+     */
+    private final AtomicReferenceArray<Request> heads;
+
+    /**
+     * Whether a flush of each stripe is already handed to the flusher.
+     */
+    private final AtomicIntegerArray flushing;
+
+    /**
+     * Runs the flushes of stripes with asynchronous deposits queued behind a taken lock.
+     */
+    private final Executor flusher;
+
+    /**
+     * Creates a combiner with one queue per lock stripe, flushing asynchronous deposits on the caller.
+     *
+     * @param stripes the number of lock stripes
+     * @throws IllegalArgumentException if stripes is not positive
+     */
+    public DepositCombiner(int stripes) {
+        this(stripes, Runnable::run);
+    }
+
+    /**
+     * Creates a combiner with one queue per lock stripe.
+     *
+     * @param stripes the number of lock stripes
+     * @param flusher runs the flushes of stripes whose lock was taken when an asynchronous
+     *                deposit was queued; each flush may block on the lock
+     * @throws IllegalArgumentException if stripes is not positive
+     */
+    public DepositCombiner(int stripes, Executor flusher) {
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("stripes must be positive");
+        }
+        this.heads = new AtomicReferenceArray<>(stripes);
+        this.flushing = new AtomicIntegerArray(stripes);
+        this.flusher = flusher;
+    }
+
+    /**
+     * Submits a deposit and returns once a combiner, possibly the calling thread, applied it.
+     *
+     * @param request the calling thread's request
+     * @param destination the account receiving the deposit
+     * @param amount the amount to deposit
+     * @param stripe the lock stripe of the destination
+     * @param lock the lock of that stripe
+     * @param batch applies the batches while the lock is held
+     * @return the destination balance right after this deposit
+     */
+    public long submit(Request request, String destination, long amount,
+                       int stripe, ReentrantLock lock, Batch batch) {
+        request.waiter = Thread.currentThread();
+        request.done = false;
+        push(request, destination, amount, stripe);
+
+        while (!request.done) {
+            if (lock.tryLock()) {
+                Request completed;
+                try {
+                    completed = combine(stripe, batch);
+                } finally {
+                    lock.unlock();
+                }
+                complete(completed);
+                handOff(stripe, lock, batch);
+            } else {
+                LockSupport.parkNanos(this, PARK_NANOS);
+            }
+        }
+        request.destination = null;
+        return request.balance;
+    }
+
+    /**
+     * Submits a deposit without waiting for it to be applied.
+     *
+     * <p>The deposit is combined at once if the lock is free; otherwise it is left to the
+     * current lock holder or to a flush. The future is completed outside the lock.</p>
+     *
+     * @param destination the account receiving the deposit
+     * @param amount the amount to deposit
+     * @param stripe the lock stripe of the destination
+     * @param lock the lock of that stripe
+     * @param batch applies the batches while the lock is held
+     * @return the destination balance right after this deposit, once applied
+     */
+    public CompletableFuture<Long> submitAsync(String destination, long amount,
+                                               int stripe, ReentrantLock lock, Batch batch) {
+        Request request = new Request();
+        request.future = new CompletableFuture<>();
+        push(request, destination, amount, stripe);
+
+        if (lock.tryLock()) {
+            Request completed;
+            try {
+                completed = combine(stripe, batch);
+            } finally {
+                lock.unlock();
+            }
+            complete(completed);
+            handOff(stripe, lock, batch);
+        } else {
+            scheduleFlush(stripe, lock, batch);
+        }
+        return request.future;
+    }
+
+    /**
+     * Publishes a request on its stripe's queue.
+     */
+    private void push(Request request, String destination, long amount, int stripe) {
+        request.destination = destination;
+        request.amount = amount;
+        Request head;
+        do {
+            head = heads.get(stripe);
+            request.next = head;
+        } while (!heads.compareAndSet(stripe, head, request));
+    }
+
+    /**
+     * Hands the stripe to a deposit queued after the last batch of a combiner.
+     */
+    private void handOff(int stripe, ReentrantLock lock, Batch batch) {
+        Request pending = heads.get(stripe);
+        if (pending == null) {
+            return;
+        }
+        if (pending.waiter != null) {
+            LockSupport.unpark(pending.waiter);
+        } else {
+            scheduleFlush(stripe, lock, batch);
+        }
+    }
+
+    /**
+     * Hands a flush of the stripe to the flusher unless one is already pending.
+     */
+    private void scheduleFlush(int stripe, ReentrantLock lock, Batch batch) {
+        if (flushing.compareAndSet(stripe, 0, 1)) {
+            flusher.execute(() -> flush(stripe, lock, batch));
+        }
+    }
+
+    /**
+     * Waits for the stripe lock and combines its queue.
+     */
+    private void flush(int stripe, ReentrantLock lock, Batch batch) {
+        // Cleared first, so a deposit queued from now on schedules its own flush
+        flushing.set(stripe, 0);
+        Request completed;
+        lock.lock();
+        try {
+            completed = combine(stripe, batch);
+        } finally {
+            lock.unlock();
+        }
+        complete(completed);
+        handOff(stripe, lock, batch);
+    }
+
+    /**
+     * Completes the futures of applied asynchronous deposits.
+     */
+    private static void complete(Request completed) {
+        while (completed != null) {
+            Request next = completed.nextCompleted;
+            completed.nextCompleted = null;
+            completed.future.complete(completed.balance);
+            completed = next;
+        }
+    }
+
+    /**
+     * Applies the queued deposits of a stripe and releases their waiters.
+     *
+     * @return the applied asynchronous deposits, to complete once the lock is released
+     */
+    private Request combine(int stripe, Batch batch) {
+        Thread combiner = Thread.currentThread();
+        Request completed = null;
+        for (int pass = 0; pass < MAX_PASSES; pass++) {
+            Request last = heads.getAndSet(stripe, null);
+            if (last == null) {
+                break;
+            }
+            // Reverse the queue into arrival order
+            Request first = null;
+            while (last != null) {
+                Request previous = last.next;
+                last.next = first;
+                first = last;
+                last = previous;
+            }
+            batch.apply(first);
+            while (first != null) {
+                // A released waiter may resubmit its request at once
+                Request next = first.next;
+                Thread waiter = first.waiter;
+                if (waiter == null) {
+                    first.nextCompleted = completed;
+                    completed = first;
+                } else {
+                    first.done = true;
+                    if (waiter != combiner) {
+                        LockSupport.unpark(waiter);
+                    }
+                }
+                first = next;
+            }
+        }
+        return completed;
+    }
+}
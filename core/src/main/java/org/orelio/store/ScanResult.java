@@ -0,0 +1,115 @@
+package org.orelio.store;
+
+/**
+ * Result of a bulk scan over account balances.
+ *
+ * <p>Instances are produced by {@link BalanceScanEngine} and serialized as the body
+ * of the {@code GET /stats/scan} endpoint. {@link #getMin()} and {@link #getMax()}
+ * are null when no balance matched.</p>
+ *
+ * <p><strong>Example Output:</strong></p>
+ * <pre>{"count":3,"sum":-150,"min":-100,"max":-10}</pre>
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ * @see BalanceScanEngine#scan(Long, Long)
+ */
+public class ScanResult {
+
+    /**
+     * Number of matching balances.
+     */
+    private long count;
+
+    /**
+     * Sum of matching balances.
+     */
+    private long sum;
+
+    /**
+     * Smallest matching balance, or null if nothing matched.
+     */
+    private Long min;
+
+    /**
+     * Largest matching balance, or null if nothing matched.
+     */
+    private Long max;
+
+    /**
+     * Creates an empty result.
+     */
+    public ScanResult() {
+    }
+
+    /**
+     * Creates a result from partial accumulators.
+     *
+     * @param count the number of matching balances
+     * @param sum the sum of matching balances
+     * @param min the smallest matching balance, ignored if count is zero
+     * @param max the largest matching balance, ignored if count is zero
+     */
+    ScanResult(long count, long sum, long min, long max) {
+        this.count = count;
+        this.sum = sum;
+        if (count > 0) {
+            this.min = min;
+            this.max = max;
+        }
+    }
+
+    /**
+     * Combines this partial result with another one.
+     *
+     * @param other the other partial result
+     * @return a new result covering both inputs
+     */
+    ScanResult merge(ScanResult other) {
+        if (other.count == 0) {
+            return this;
+        }
+        if (count == 0) {
+            return other;
+        }
+        return new ScanResult(count + other.count, sum + other.sum,
+                Math.min(min, other.min), Math.max(max, other.max));
+    }
+
+    /**
+     * Gets the number of matching balances.
+     *
+     * @return the count
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the sum of matching balances.
+     *
+     * @return the sum
+     */
+    public long getSum() {
+        return sum;
+    }
+
+    /**
+     * Gets the smallest matching balance.
+     *
+     * @return the minimum, or null if nothing matched
+     */
+    public Long getMin() {
+        return min;
+    }
+
+    /**
+     * Gets the largest matching balance.
+     *
+     * @return the maximum, or null if nothing matched
+     */
+    public Long getMax() {
+        return max;
+    }
+}
@@ -0,0 +1,209 @@
+package org.orelio.util;
+
+import java.util.Arrays;
+
+/**
+ * Reusable character buffer for encoding responses in the ChallengeCoreBanking system.
+ *
+ * <p>Unlike {@link StringBuilder}, a buffer is meant to be cleared and refilled for
+ * every response by the same thread, and its append methods never allocate once the
+ * buffer has grown to the size of the largest response. Numbers are written digit by
+ * digit instead of through {@link Long#toString(long)}.</p>
+ *
+ * <p>Buffers are not thread-safe; keep one per thread.</p>
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ */
+public final class ResponseBuffer implements CharSequence {
+
+    private static final String MIN_LONG = String.valueOf(Long.MIN_VALUE);
+
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private char[] chars;
+
+    private int length;
+
+    /**
+     * Creates a buffer sized for typical operation responses.
+     */
+    public ResponseBuffer() {
+        this(128);
+    }
+
+    /**
+     * Creates a buffer with the given initial capacity.
+     *
+     * @param capacity the initial capacity in characters
+     */
+    public ResponseBuffer(int capacity) {
+        this.chars = new char[Math.max(capacity, 16)];
+    }
+
+    /**
+     * Discards the content of the buffer, keeping its capacity.
+     *
+     * @return this buffer
+     */
+    public ResponseBuffer clear() {
+        length = 0;
+        return this;
+    }
+
+    /**
+     * Appends a character.
+     *
+     * @param c the character
+     * @return this buffer
+     */
+    public ResponseBuffer append(char c) {
+        ensureCapacity(1);
+        chars[length++] = c;
+        return this;
+    }
+
+    /**
+     * Appends a string as is.
+     *
+     * @param s the string
+     * @return this buffer
+     */
+    public ResponseBuffer append(String s) {
+        int n = s.length();
+        ensureCapacity(n);
+        s.getChars(0, n, chars, length);
+        length += n;
+        return this;
+    }
+
+    /**
+     * Appends the decimal representation of a number.
+     *
+     * @param value the number
+     * @return this buffer
+     */
+    public ResponseBuffer append(long value) {
+        if (value == Long.MIN_VALUE) {
+            return append(MIN_LONG);
+        }
+        ensureCapacity(20);
+        if (value < 0) {
+            chars[length++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (long v = value; v >= 10; v /= 10) {
+            digits++;
+        }
+        for (int i = length + digits - 1; i >= length; i--) {
+            chars[i] = (char) ('0' + (value % 10));
+            value /= 10;
+        }
+        length += digits;
+        return this;
+    }
+
+    /**
+     * Appends a string as a quoted JSON string, or {@code null}.
+     *
+     * <p>Escapes quotes, backslashes and control characters the same way Jackson does.</p>
+     *
+     * @param s the string, may be null
+     * @return this buffer
+     */
+    public ResponseBuffer appendJsonString(String s) {
+        if (s == null) {
+            return append("null");
+        }
+        append('"');
+        for (int i = 0, n = s.length(); i < n; i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"':
+                    append('\\').append('"');
+                    break;
+                case '\\':
+                    append('\\').append('\\');
+                    break;
+                case '\b':
+                    append('\\').append('b');
+                    break;
+                case '\t':
+                    append('\\').append('t');
+                    break;
+                case '\n':
+                    append('\\').append('n');
+                    break;
+                case '\f':
+                    append('\\').append('f');
+                    break;
+                case '\r':
+                    append('\\').append('r');
+                    break;
+                default:
+                    if (c < 0x20) {
+                        append('\\').append('u').append('0').append('0')
+                                .append(HEX[c >> 4]).append(HEX[c & 0xF]);
+                    } else {
+                        append(c);
+                    }
+                    break;
+            }
+        }
+        return append('"');
+    }
+
+    /**
+     * Appends the JSON representation of an account.
+     *
+     * <p>Produces exactly the output of Jackson for an {@link org.orelio.model.Account}
+     * with the given ID and balance, without creating the account or any other object,
+     * so it can be used on allocation-free paths.</p>
+     *
+     * <p><strong>Example Output:</strong></p>
+     * <pre>{"id":"ACC001","balance":1000}</pre>
+     *
+     * @param accountId the account ID
+     * @param balance the account balance
+     * @return this buffer
+     */
+    public ResponseBuffer appendAccountJson(String accountId, long balance) {
+        return append("{\"id\":").appendJsonString(accountId).append(",\"balance\":").append(balance).append('}');
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("index " + index + ", length " + length);
+        }
+        return chars[index];
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return toString().substring(start, end);
+    }
+
+    /**
+     * Returns the content of the buffer as a new string.
+     *
+     * @return the content
+     */
+    @Override
+    public String toString() {
+        return new String(chars, 0, length);
+    }
+
+    private void ensureCapacity(int extra) {
+        if (length + extra > chars.length) {
+            chars = Arrays.copyOf(chars, Math.max(chars.length * 2, length + extra));
+        }
+    }
+}
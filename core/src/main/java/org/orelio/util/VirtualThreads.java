@@ -0,0 +1,95 @@
+package org.orelio.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Access to virtual threads from code compiled for Java 8.
+ *
+ * <p>The application is built for Java 8, and the Spring Framework version in use cannot
+ * read newer class files, so the Java 21 virtual-thread API is looked up once through
+ * method handles. On older JDKs {@link #isSupported()} is false and every thread is a
+ * platform thread.</p>
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ */
+public final class VirtualThreads {
+
+    /**
+     * {@code Thread.isVirtual()}, or null before Java 21.
+     */
+    private static final MethodHandle IS_VIRTUAL = find(Thread.class, "isVirtual", MethodType.methodType(boolean.class));
+
+    /**
+     * {@code Executors.newVirtualThreadPerTaskExecutor()}, or null before Java 21.
+     */
+    private static final MethodHandle NEW_EXECUTOR = findStatic(java.util.concurrent.Executors.class,
+            "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class));
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * Returns whether the running JDK has virtual threads.
+     *
+     * @return true on Java 21 or later
+     */
+    public static boolean isSupported() {
+        return IS_VIRTUAL != null && NEW_EXECUTOR != null;
+    }
+
+    /**
+     * Returns whether a thread is virtual.
+     *
+     * @param thread the thread
+     * @return true if the thread is virtual, always false before Java 21
+     */
+    public static boolean isVirtual(Thread thread) {
+        if (IS_VIRTUAL == null) {
+            return false;
+        }
+        try {
+            return (boolean) IS_VIRTUAL.invokeExact(thread);
+        } catch (Throwable e) {
+            throw new IllegalStateException("Thread.isVirtual failed", e);
+        }
+    }
+
+    /**
+     * Creates an executor starting a new virtual thread for each task.
+     *
+     * @return the executor
+     * @throws UnsupportedOperationException if the running JDK has no virtual threads
+     */
+    public static ExecutorService newPerTaskExecutor() {
+        if (!isSupported()) {
+            throw new UnsupportedOperationException("Virtual threads require Java 21 or later, running "
+                    + System.getProperty("java.version"));
+        }
+        try {
+            return (ExecutorService) NEW_EXECUTOR.invokeExact();
+        } catch (Throwable e) {
+            throw new IllegalStateException("Executors.newVirtualThreadPerTaskExecutor failed", e);
+        }
+    }
+
+    private static MethodHandle find(Class<?> owner, String name, MethodType type) {
+        try {
+            return MethodHandles.publicLookup().findVirtual(owner, name, type);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    private static MethodHandle findStatic(Class<?> owner, String name, MethodType type) {
+        try {
+            return MethodHandles.publicLookup().findStatic(owner, name, type);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package org.orelio.facade;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.orelio.metrics.OperationMetrics;
+import org.orelio.model.Constants;
+import org.orelio.model.Operation;
+import org.orelio.store.DepositCombiner;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import static org.junit.Assert.*;
+
+/**
+ * JUnit test class for flat-combined deposits in ChallengeCoreBankingFacade
+ * Demonstrates testing of deposit combining including:
+ * - Exact balances after concurrent combined deposits
+ * - A distinct post-deposit balance in every response
+ * - Account creation and aggregates through combined deposits
+ * - Batches applied by the lock holder in arrival order
+ * - Asynchronous deposits completed by the combiner or a flush
+ * - Asynchronous deposits counted in the request metrics
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 18/10/2026
+ */
+public class DepositCombiningTest {
+
+    private static final String HOT = "MERCHANT";
+
+    private ChallengeCoreBankingFacade facade;
+
+    @Before
+    public void setUp() {
+        facade = new ChallengeCoreBankingFacade();
+        facade.resetAccount();
+        facade.setDepositCombining(true);
+    }
+
+    @After
+    public void tearDown() {
+        facade.setDepositCombining(false);
+        facade.resetAccount();
+    }
+
+    /**
+     * Test that concurrent combined deposits each report their own balance and all reach the account
+     */
+    @Test
+    public void testConcurrentDepositsReportDistinctBalances() throws InterruptedException {
+        // Arrange
+        int threads = 4;
+        int deposits = 500;
+        List<Long> balances = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            workers.add(new Thread(() -> {
+                Operation deposit = operation(HOT, "1");
+                for (int i = 0; i < deposits; i++) {
+                    String response = facade.operationEvent(deposit);
+                    balances.add(Long.parseLong(response.substring(
+                            response.lastIndexOf(':') + 1, response.indexOf('}'))));
+                }
+            }));
+        }
+
+        // Act
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        // Assert
+        long expected = (long) threads * deposits;
+        assertEquals("Every combined deposit should be in the balance",
+                Long.valueOf(expected), facade.getAccount(HOT).getBalance());
+        Collections.sort(balances);
+        for (int i = 0; i < balances.size(); i++) {
+            assertEquals("Each deposit should report the balance right after it", Long.valueOf(i + 1L), balances.get(i));
+        }
+        assertEquals("Aggregates should match the balance", expected, facade.getAggregates().getTotalFunds());
+    }
+
+    /**
+     * Test that a combined deposit creates an account and reports it like a locked deposit
+     */
+    @Test
+    public void testDepositCreatesAccount() {
+        // Act
+        String created = facade.operationEvent(operation("NEW", "100"));
+        String added = facade.operationEvent(operation("NEW", "50"));
+
+        // Assert
+        assertEquals("First deposit should create the account",
+                "{\"destination\": {\"id\":\"NEW\",\"balance\":100}}", created);
+        assertEquals("Second deposit should add to the balance",
+                "{\"destination\": {\"id\":\"NEW\",\"balance\":150}}", added);
+        assertEquals("Account should be counted once", 1L, facade.getAggregates().getAccountCount());
+        assertEquals("Both deposits should be counted", 2L, facade.getAggregates().getDeposits());
+    }
+
+    /**
+     * Test that combined deposits settle the pending credits of a striped account
+     */
+    @Test
+    public void testDepositSettlesStripedAccount() {
+        // Arrange
+        facade.setDepositCombining(false);
+        facade.operationEvent(operation(HOT, "1000"));
+        facade.stripeAccount(HOT);
+        facade.operationEvent(operation(HOT, "200"));
+        facade.setDepositCombining(true);
+
+        // Act
+        String withdrawn = facade.operationEvent(withdraw(HOT, "300"));
+        String deposited = facade.operationEvent(operation(HOT, "50"));
+
+        // Assert
+        assertEquals("Withdrawal should see the striped credit",
+                "{\"origin\": {\"id\":\"MERCHANT\",\"balance\":900}}", withdrawn);
+        assertTrue("Striped account should still take lock-free credits", deposited.endsWith("\"balance\":950}}"));
+    }
+
+    /**
+     * Test that deposits queued while the lock is held are applied together by the next holder
+     */
+    @Test
+    public void testQueuedDepositsAppliedInOneBatch() throws InterruptedException {
+        // Arrange
+        DepositCombiner combiner = new DepositCombiner(1);
+        ReentrantLock lock = new ReentrantLock();
+        List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+        long[] total = new long[1];
+        DepositCombiner.Batch batch = first -> {
+            int size = 0;
+            for (DepositCombiner.Request deposit = first; deposit != null; deposit = deposit.getNext()) {
+                total[0] += deposit.getAmount();
+                deposit.setBalance(total[0]);
+                size++;
+            }
+            batchSizes.add(size);
+        };
+        long[] balances = new long[3];
+        List<Thread> waiters = new ArrayList<>();
+        for (int t = 0; t < balances.length; t++) {
+            int index = t;
+            waiters.add(new Thread(() -> balances[index] =
+                    combiner.submit(new DepositCombiner.Request(), HOT, 10L, 0, lock, batch)));
+        }
+
+        // Act
+        lock.lock();
+        try {
+            for (Thread waiter : waiters) {
+                waiter.start();
+                // Queue in thread order
+                while (waiter.getState() != Thread.State.TIMED_WAITING && waiter.isAlive()) {
+                    Thread.yield();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        for (Thread waiter : waiters) {
+            waiter.join();
+        }
+
+        // Assert
+        assertEquals("Queued deposits should form one batch", Collections.singletonList(3), batchSizes);
+        assertArrayEquals("Deposits should be applied in arrival order", new long[] {10L, 20L, 30L}, balances);
+    }
+
+    /**
+     * Test that asynchronous deposits complete with their own balance, like blocking ones
+     */
+    @Test
+    public void testAsyncDepositsCompleteWithOwnBalance() {
+        // Arrange
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < 100; i++) {
+            futures.add(facade.operationEventAsync(operation(HOT, "2")));
+        }
+        CompletableFuture<String> withdrawn = facade.operationEventAsync(withdraw(HOT, "50"));
+
+        // Assert
+        for (int i = 0; i < futures.size(); i++) {
+            assertEquals("Each asynchronous deposit should report its own balance",
+                    "{\"destination\": {\"id\":\"MERCHANT\",\"balance\":" + (2 * (i + 1)) + "}}",
+                    futures.get(i).join());
+        }
+        assertEquals("Other operations should complete at once",
+                "{\"origin\": {\"id\":\"MERCHANT\",\"balance\":150}}", withdrawn.getNow(null));
+    }
+
+    /**
+     * Test that asynchronous deposits report their outcome to the request metrics like blocking ones
+     */
+    @Test
+    public void testAsyncDepositsCountedInMetrics() {
+        // Arrange
+        OperationMetrics metrics = facade.getMetrics();
+        facade.setMetricsEnabled(true);
+        long before = metrics.snapshot(OperationMetrics.Stage.TOTAL, OperationMetrics.DEPOSIT, true).getCount();
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            metrics.requestStarted();
+            facade.operationEventAsync(operation(HOT, "1")).join();
+            metrics.requestFinished();
+        }
+        long after = metrics.snapshot(OperationMetrics.Stage.TOTAL, OperationMetrics.DEPOSIT, true).getCount();
+
+        // Assert
+        assertEquals("Every asynchronous deposit should be counted as a successful request", before + 10, after);
+    }
+
+    /**
+     * Test that an asynchronous deposit queued behind a taken lock is applied by a flush
+     */
+    @Test
+    public void testAsyncDepositFlushedWhenLockReleased() throws Exception {
+        // Arrange
+        ExecutorService flusher = Executors.newSingleThreadExecutor();
+        DepositCombiner combiner = new DepositCombiner(1, flusher);
+        ReentrantLock lock = new ReentrantLock();
+        long[] total = new long[1];
+        DepositCombiner.Batch batch = first -> {
+            for (DepositCombiner.Request deposit = first; deposit != null; deposit = deposit.getNext()) {
+                total[0] += deposit.getAmount();
+                deposit.setBalance(total[0]);
+            }
+        };
+
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = new Thread(() -> {
+            lock.lock();
+            try {
+                locked.countDown();
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                lock.unlock();
+            }
+        });
+        holder.start();
+        locked.await();
+
+        // Act
+        CompletableFuture<Long> first = combiner.submitAsync(HOT, 10L, 0, lock, batch);
+        CompletableFuture<Long> second = combiner.submitAsync(HOT, 5L, 0, lock, batch);
+        boolean waited = !first.isDone() && !second.isDone();
+        release.countDown();
+
+        // Assert
+        assertTrue("Deposits should wait while the lock is held", waited);
+        assertEquals("Flush should apply the first deposit", Long.valueOf(10L), first.get(5, TimeUnit.SECONDS));
+        assertEquals("Flush should apply the second deposit", Long.valueOf(15L), second.get(5, TimeUnit.SECONDS));
+        flusher.shutdown();
+    }
+
+    private static Operation operation(String destination, String amount) {
+        Operation operation = new Operation();
+        operation.setType(Constants.DEPOSIT);
+        operation.setDestination(destination);
+        operation.setAmount(amount);
+        return operation;
+    }
+
+    private static Operation withdraw(String origin, String amount) {
+        Operation operation = new Operation();
+        operation.setType(Constants.WITHDRAW);
+        operation.setOrigin(origin);
+        operation.setAmount(amount);
+        return operation;
+    }
+}
@@ -0,0 +1,131 @@
+package org.orelio.facade;
+
+import jdk.jfr.FlightRecorder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.orelio.model.Constants;
+import org.orelio.model.Operation;
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeFalse;
+
+/**
+ * JUnit test class for ChallengeCoreBankingFacade embedded as a plain library
+ * Demonstrates testing of the core module without a container including:
+ * - No framework on the core module's classpath
+ * - Operations served right after construction
+ * - Separate instances keeping separate accounts
+ * - Asynchronous deposits after close applied on the calling thread
+ * - The Flight Recorder left uninitialized while no recording runs
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 19/10/2026
+ */
+public class EmbeddedEngineTest {
+
+    private ChallengeCoreBankingFacade facade;
+
+    @Before
+    public void setUp() {
+        facade = new ChallengeCoreBankingFacade();
+        facade.resetAccount();
+    }
+
+    @After
+    public void tearDown() {
+        facade.close();
+    }
+
+    /**
+     * Test that the core module builds and runs without Spring
+     */
+    @Test
+    public void testNoFrameworkOnClasspath() {
+        try {
+            // Act
+            Class.forName("org.springframework.context.ApplicationContext");
+            fail("Spring should not be on the core module's classpath");
+        } catch (ClassNotFoundException expected) {
+            // Assert
+            assertNotNull("Missing class should be reported", expected.getMessage());
+        }
+    }
+
+    /**
+     * Test that a newly constructed facade applies operations and answers balances
+     */
+    @Test
+    public void testOperationsRightAfterConstruction() {
+        // Act
+        String deposit = facade.operationEvent(operation(Constants.DEPOSIT, null, "100", "10"));
+        String transfer = facade.operationEvent(operation(Constants.TRANSFER, "100", "300", "4"));
+
+        // Assert
+        assertEquals("Deposit should answer the new balance",
+                "{\"destination\": {\"id\":\"100\",\"balance\":10}}", deposit);
+        assertEquals("Transfer should answer both balances",
+                "{\"origin\": {\"id\":\"100\",\"balance\":6}, \"destination\": {\"id\":\"300\",\"balance\":4}}", transfer);
+        assertEquals("Balance should be read", Long.valueOf(4L), facade.getAccount("300").getBalance());
+    }
+
+    /**
+     * Test that two facades in one JVM do not share accounts
+     */
+    @Test
+    public void testInstancesAreIndependent() {
+        // Arrange
+        try (ChallengeCoreBankingFacade other = new ChallengeCoreBankingFacade()) {
+            // Act
+            facade.operationEvent(operation(Constants.DEPOSIT, null, "100", "10"));
+            other.operationEvent(operation(Constants.DEPOSIT, null, "100", "3"));
+
+            // Assert
+            assertEquals("First facade should keep its own balance", Long.valueOf(10L), facade.getAccount("100").getBalance());
+            assertEquals("Second facade should keep its own balance", Long.valueOf(3L), other.getAccount("100").getBalance());
+        }
+    }
+
+    /**
+     * Test that a closed facade still applies asynchronous deposits
+     */
+    @Test
+    public void testAsyncDepositAfterClose() throws Exception {
+        // Arrange
+        facade.setDepositCombining(true);
+        facade.operationEventAsync(operation(Constants.DEPOSIT, null, "100", "10")).get();
+        facade.close();
+
+        // Act
+        String deposit = facade.operationEventAsync(operation(Constants.DEPOSIT, null, "100", "5")).get();
+
+        // Assert
+        assertEquals("Deposit should be applied after close",
+                "{\"destination\": {\"id\":\"100\",\"balance\":15}}", deposit);
+    }
+
+    /**
+     * Test that operations do not initialize the Flight Recorder when no recording runs
+     */
+    @Test
+    public void testFlightRecorderNotInitialized() {
+        // Arrange
+        assumeFalse("Another test started a recording in this JVM", FlightRecorder.isInitialized());
+
+        // Act
+        facade.operationEvent(operation(Constants.DEPOSIT, null, "100", "10"));
+        facade.operationEvent(operation(Constants.WITHDRAW, "100", null, "5"));
+
+        // Assert
+        assertFalse("Operations should not initialize the Flight Recorder", FlightRecorder.isInitialized());
+    }
+
+    private static Operation operation(String type, String origin, String destination, String amount) {
+        Operation operation = new Operation();
+        operation.setType(type);
+        operation.setOrigin(origin);
+        operation.setDestination(destination);
+        operation.setAmount(amount);
+        return operation;
+    }
+}
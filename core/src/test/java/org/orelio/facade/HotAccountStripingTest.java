@@ -0,0 +1,214 @@
+package org.orelio.facade;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.orelio.model.Constants;
+import org.orelio.model.Operation;
+import org.orelio.store.AccountEntry;
+import org.orelio.store.AggregatesSnapshot;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import static org.junit.Assert.*;
+
+/**
+ * JUnit test class for hot-account striping in ChallengeCoreBankingFacade
+ * Demonstrates testing of striped deposits including:
+ * - Exact balances after concurrent lock-free deposits
+ * - Withdrawals settling pending credits before applying
+ * - Aggregates and balance queries reflecting pending credits
+ * - Striped deposits racing resets without losing credits
+ * - Hot account detection from lock contention
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 18/10/2026
+ */
+public class HotAccountStripingTest {
+
+    private static final String HOT = "MERCHANT";
+
+    private ChallengeCoreBankingFacade facade;
+
+    @Before
+    public void setUp() {
+        facade = new ChallengeCoreBankingFacade();
+        facade.resetAccount();
+        facade.operationEvent(operation(Constants.DEPOSIT, null, HOT, "1000"));
+        assertTrue("Existing account should be striped", facade.stripeAccount(HOT));
+    }
+
+    @After
+    public void tearDown() {
+        facade.resetAccount();
+    }
+
+    /**
+     * Test that concurrent deposits to a striped account all reach its balance
+     */
+    @Test
+    public void testConcurrentStripedDepositsKeepExactBalance() throws InterruptedException {
+        // Arrange
+        int threads = 4;
+        int deposits = 1_000;
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            workers.add(new Thread(() -> {
+                Operation deposit = operation(Constants.DEPOSIT, null, HOT, "1");
+                for (int i = 0; i < deposits; i++) {
+                    facade.operationEvent(deposit);
+                }
+            }));
+        }
+
+        // Act
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        // Assert
+        long expected = 1000L + threads * deposits;
+        assertEquals("Every striped deposit should be in the balance",
+                Long.valueOf(expected), facade.getAccount(HOT).getBalance());
+        assertEquals("Aggregates should include the striped deposits",
+                expected, facade.getAggregates().getTotalFunds());
+        assertEquals("Deposits should be counted", 1L + threads * deposits, facade.getAggregates().getDeposits());
+    }
+
+    /**
+     * Test that a withdrawal acts on the balance including pending credits
+     */
+    @Test
+    public void testWithdrawalSettlesPendingCredits() {
+        // Arrange
+        String deposited = facade.operationEvent(operation(Constants.DEPOSIT, null, HOT, "500"));
+
+        // Act
+        String withdrawn = facade.operationEvent(operation(Constants.WITHDRAW, HOT, null, "1200"));
+
+        // Assert
+        assertEquals("Striped deposit should report the new balance",
+                "{\"destination\": {\"id\":\"MERCHANT\",\"balance\":1500}}", deposited);
+        assertEquals("Withdrawal should see the pending credit",
+                "{\"origin\": {\"id\":\"MERCHANT\",\"balance\":300}}", withdrawn);
+        assertEquals("Balance should be exact after the withdrawal",
+                Long.valueOf(300L), facade.getAccount(HOT).getBalance());
+    }
+
+    /**
+     * Test that aggregates, scans and the balance index see pending credits
+     */
+    @Test
+    public void testQueriesSeePendingCredits() {
+        // Arrange
+        facade.operationEvent(operation(Constants.DEPOSIT, null, "OTHER", "2000"));
+        facade.operationEvent(operation(Constants.DEPOSIT, null, HOT, "5000"));
+
+        // Act
+        AggregatesSnapshot maintained = facade.getAggregates();
+        AggregatesSnapshot scanned = facade.scanAggregates();
+        String top = facade.getTopAccounts(1, true).get(0).getId();
+
+        // Assert
+        assertEquals("Maintained total should include the pending credit", 8000L, maintained.getTotalFunds());
+        assertEquals("Scanned total should match the maintained total",
+                maintained.getTotalFunds(), scanned.getTotalFunds());
+        assertEquals("Balance index should order by the settled credit", HOT, top);
+        assertEquals("Balance scan should include the pending credit", 8000L,
+                facade.scanBalances(null, null).getSum());
+        assertEquals("Striped account should be listed", HOT, facade.getStripedAccounts().get(0));
+    }
+
+    /**
+     * Test that transfers out of a striped account settle it, and reset clears striping
+     */
+    @Test
+    public void testTransferAndReset() {
+        // Arrange
+        facade.operationEvent(operation(Constants.DEPOSIT, null, HOT, "250"));
+
+        // Act
+        String transferred = facade.operationEvent(operation(Constants.TRANSFER, HOT, "SUPPLIER", "1250"));
+        facade.resetAccount();
+
+        // Assert
+        assertEquals("Transfer should move the settled balance",
+                "{\"origin\": {\"id\":\"MERCHANT\",\"balance\":0}, \"destination\": {\"id\":\"SUPPLIER\",\"balance\":1250}}",
+                transferred);
+        assertTrue("Reset should clear striped accounts", facade.getStripedAccounts().isEmpty());
+    }
+
+    /**
+     * Test that striped deposits racing resets leave the balance and the aggregates in agreement
+     */
+    @Test
+    public void testStripedDepositsRacingReset() throws InterruptedException {
+        // Arrange
+        AtomicBoolean running = new AtomicBoolean(true);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            workers.add(new Thread(() -> {
+                Operation deposit = operation(Constants.DEPOSIT, null, HOT, "1");
+                while (running.get()) {
+                    facade.operationEvent(deposit);
+                }
+            }));
+        }
+        for (Thread worker : workers) {
+            worker.start();
+        }
+
+        // Act
+        for (int i = 0; i < 200; i++) {
+            facade.resetAccount();
+            facade.operationEvent(operation(Constants.DEPOSIT, null, HOT, "1000000"));
+            facade.stripeAccount(HOT);
+        }
+        running.set(false);
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        // Assert
+        AggregatesSnapshot aggregates = facade.getAggregates();
+        long balance = facade.getAccount(HOT).getBalance();
+        assertEquals("Funds should match the balance", balance, aggregates.getTotalFunds());
+        assertEquals("Deposits counted since the last reset should all be in the balance",
+                balance - 1_000_000L + 1, aggregates.getDeposits());
+    }
+
+    /**
+     * Test that the contention score rises with contended acquisitions and decays otherwise
+     */
+    @Test
+    public void testContentionScoreDetectsHotAccounts() {
+        // Arrange
+        AccountEntry entry = new AccountEntry("SCORE", 0, 0L);
+
+        // Act
+        boolean first = entry.lockAcquired(true, 2);
+        boolean decayed = entry.lockAcquired(false, 2);
+        entry.lockAcquired(true, 2);
+        boolean hot = entry.lockAcquired(true, 2);
+        boolean disabled = entry.lockAcquired(true, 0);
+
+        // Assert
+        assertFalse("One contended acquisition should not reach the threshold", first);
+        assertFalse("An uncontended acquisition should decay the score", decayed);
+        assertTrue("Repeated contention should reach the threshold", hot);
+        assertFalse("A zero threshold should never report an account hot", disabled);
+    }
+
+    private static Operation operation(String type, String origin, String destination, String amount) {
+        Operation operation = new Operation();
+        operation.setType(type);
+        operation.setOrigin(origin);
+        operation.setDestination(destination);
+        operation.setAmount(amount);
+        return operation;
+    }
+}
@@ -0,0 +1,149 @@
+package org.orelio.metrics;
+
+import org.junit.Test;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import static org.junit.Assert.*;
+
+/**
+ * JUnit test class for HotAccountTracker
+ * Demonstrates testing of heavy-hitter tracking including:
+ * - Finding the hottest accounts among many cold ones
+ * - Rate extrapolation from the sample and mean lock wait
+ * - Decay of older activity by halving the counters
+ * - Rates restarting from a reset
+ * - Sampling configuration
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 18/10/2026
+ */
+public class HotAccountTrackerTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * Test that the hottest accounts are reported first among many cold ones
+     */
+    @Test
+    public void testFindsHeavyHitters() {
+        // Arrange
+        HotAccountTracker tracker = new HotAccountTracker(1024, 10 * SECOND, 16, 0L);
+
+        // Act
+        for (int i = 0; i < 10_000; i++) {
+            tracker.record("COLD" + i, 0L, SECOND);
+            if (i % 5 == 0) {
+                tracker.record("HOT", 0L, SECOND);
+            }
+            if (i % 20 == 0) {
+                tracker.record("WARM", 0L, SECOND);
+            }
+        }
+        List<HotAccount> top = tracker.top(2, SECOND);
+
+        // Assert
+        assertEquals("Two accounts should be reported", 2, top.size());
+        assertEquals("Hottest account should be first", "HOT", top.get(0).getId());
+        assertEquals("Second hottest account should be next", "WARM", top.get(1).getId());
+        assertTrue("Estimates should never undercount", top.get(0).getSampled() >= 2000);
+        assertTrue("Estimates should stay close with a wide sketch", top.get(0).getSampled() < 2000 + 200);
+    }
+
+    /**
+     * Test that the rate is extrapolated from the sample and the lock wait averaged
+     */
+    @Test
+    public void testRateAndLockWait() {
+        // Arrange
+        HotAccountTracker tracker = new HotAccountTracker(1024, 10 * SECOND, 16, 0L);
+        tracker.setSampleRate(4);
+
+        // Act
+        for (int i = 0; i < 100; i++) {
+            tracker.record("MERCHANT", i % 2 == 0 ? 1_000L : 3_000L, 5 * SECOND);
+        }
+        HotAccount merchant = tracker.top(1, 10 * SECOND).get(0);
+
+        // Assert
+        assertEquals("Sampled operations should be halved after one window", 50L, merchant.getSampled());
+        assertEquals("Rate should scale the sample over the covered window", 40.0, merchant.getOperationsPerSecond(), 1e-6);
+        assertEquals("Mean lock wait should be in microseconds", 2.0, merchant.getMeanLockWaitMicros(), 1e-9);
+    }
+
+    /**
+     * Test that rates after a reset cover only the time since the reset
+     */
+    @Test
+    public void testRatesAfterReset() {
+        // Arrange
+        HotAccountTracker tracker = new HotAccountTracker(1024, SECOND, 16, 0L);
+        tracker.setSampleRate(1);
+        for (int i = 0; i < 1000; i++) {
+            tracker.record("OLD", 0L, 5 * SECOND + SECOND / 2);
+        }
+
+        // Act
+        tracker.reset(6 * SECOND);
+        for (int i = 0; i < 100; i++) {
+            tracker.record("NEW", 0L, 6 * SECOND + SECOND / 2);
+        }
+        List<HotAccount> top = tracker.top(10, 6 * SECOND + SECOND / 2);
+
+        // Assert
+        assertEquals("Only activity after the reset should be reported", 1, top.size());
+        assertEquals("New account should be reported", "NEW", top.get(0).getId());
+        assertEquals("Counters should not have been halved since the reset", 100L, top.get(0).getSampled());
+        assertEquals("Window should restart at the reset", 0.5, tracker.windowSeconds(6 * SECOND + SECOND / 2), 1e-9);
+        assertEquals("Rate should cover the time since the reset", 200.0, top.get(0).getOperationsPerSecond(), 1e-6);
+    }
+
+    /**
+     * Test that activity fades as the counters are halved every window
+     */
+    @Test
+    public void testActivityDecays() {
+        // Arrange
+        HotAccountTracker tracker = new HotAccountTracker(64, SECOND, 16, 0L);
+        for (int i = 0; i < 8; i++) {
+            tracker.record("OLD", 0L, 0L);
+        }
+        tracker.record("NEW", 0L, 4 * SECOND);
+
+        // Act
+        List<HotAccount> top = tracker.top(10, 4 * SECOND);
+
+        // Assert
+        assertEquals("Activity halved to nothing should not be reported", 1, top.size());
+        assertEquals("Recent account should be reported", "NEW", top.get(0).getId());
+        assertEquals("Covered time should follow the halvings", 0.9375, tracker.windowSeconds(4 * SECOND), 1e-6);
+    }
+
+    /**
+     * Test the sampling rate settings
+     */
+    @Test
+    public void testSampling() {
+        // Arrange
+        HotAccountTracker tracker = new HotAccountTracker();
+
+        // Act
+        tracker.setSampleRate(0);
+        boolean disabled = tracker.sample();
+        tracker.setSampleRate(1);
+        boolean every = tracker.sample();
+
+        // Assert
+        assertFalse("Rate zero should track nothing", disabled);
+        assertTrue("Rate one should track every operation", every);
+    }
+
+    /**
+     * Test that a negative sampling rate is rejected
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsNegativeSampleRate() {
+        // Act
+        new HotAccountTracker().setSampleRate(-1);
+    }
+}
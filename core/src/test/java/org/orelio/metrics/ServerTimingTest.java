@@ -0,0 +1,97 @@
+package org.orelio.metrics;
+
+import org.junit.After;
+import org.junit.Test;
+import org.orelio.facade.ChallengeCoreBankingFacade;
+import org.orelio.model.Constants;
+import org.orelio.model.Operation;
+import static org.junit.Assert.*;
+
+/**
+ * JUnit test class for ServerTiming
+ * Demonstrates testing of the Server-Timing breakdown including:
+ * - Opt-in timing per request thread
+ * - Stages recorded by the facade for a timed operation
+ * - Header formatting in milliseconds
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 18/10/2026
+ */
+public class ServerTimingTest {
+
+    @After
+    public void tearDown() {
+        ServerTiming.end();
+    }
+
+    /**
+     * Test that only requests that began timing have a current timing
+     */
+    @Test
+    public void testTimingIsOptIn() {
+        // Act
+        ServerTiming before = ServerTiming.current();
+        ServerTiming timing = ServerTiming.begin();
+        ServerTiming during = ServerTiming.current();
+        ServerTiming.end();
+        ServerTiming after = ServerTiming.current();
+
+        // Assert
+        assertNull("Untimed request should have no timing", before);
+        assertSame("Timed request should expose its timing", timing, during);
+        assertNull("Ended request should have no timing", after);
+        assertTrue("Any header value should request timing", ServerTiming.isRequested("1"));
+        assertFalse("A false header value should not request timing", ServerTiming.isRequested("false"));
+        assertFalse("A missing header should not request timing", ServerTiming.isRequested(null));
+    }
+
+    /**
+     * Test that a timed operation records its lock, apply, durability and serialize stages
+     */
+    @Test
+    public void testFacadeRecordsOperationStages() {
+        // Arrange
+        ChallengeCoreBankingFacade facade = new ChallengeCoreBankingFacade();
+        facade.resetAccount();
+        Operation operation = new Operation();
+        operation.setType(Constants.DEPOSIT);
+        operation.setDestination("TIMED");
+        operation.setAmount("10");
+        ServerTiming timing = ServerTiming.begin();
+
+        // Act
+        facade.operationEvent(operation);
+        String header = timing.header();
+
+        // Assert
+        assertTrue("Lock wait should be recorded", timing.nanos(ServerTiming.Stage.LOCK) >= 0);
+        assertTrue("Apply should be recorded", timing.nanos(ServerTiming.Stage.APPLY) >= 0);
+        assertEquals("Durability should be zero without a journal", 0L, timing.nanos(ServerTiming.Stage.DURABILITY));
+        assertTrue("Serialize should be recorded", timing.nanos(ServerTiming.Stage.SERIALIZE) >= 0);
+        assertEquals("Deserialize should not be recorded outside the web layer", -1L,
+                timing.nanos(ServerTiming.Stage.DESERIALIZE));
+        assertTrue("Header should list the stages in order",
+                header.matches("lock;dur=\\d+\\.\\d{3}, apply;dur=\\d+\\.\\d{3}, durability;dur=0\\.000, "
+                        + "serialize;dur=\\d+\\.\\d{3}, total;dur=\\d+\\.\\d{3}"));
+        facade.resetAccount();
+    }
+
+    /**
+     * Test header durations in milliseconds with microsecond precision
+     */
+    @Test
+    public void testHeaderFormatsMilliseconds() {
+        // Arrange
+        ServerTiming timing = ServerTiming.begin();
+
+        // Act
+        timing.record(ServerTiming.Stage.APPLY, 1_234_567L);
+        timing.record(ServerTiming.Stage.APPLY, 1_000L);
+        timing.record(ServerTiming.Stage.SERIALIZE, 5_000L);
+
+        // Assert
+        assertTrue("Durations should be summed and formatted in milliseconds",
+                timing.header().startsWith("apply;dur=1.235, serialize;dur=0.005, total;dur="));
+    }
+}
@@ -0,0 +1,160 @@
+package org.orelio.store;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.orelio.facade.ChallengeCoreBankingFacade;
+import org.orelio.model.Operation;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import static org.junit.Assert.*;
+
+/**
+ * JUnit test class for AccountAggregates
+ * Demonstrates testing of incrementally maintained aggregates including:
+ * - Balance transition bookkeeping
+ * - Per-type operation counters
+ * - Reconciliation against a full scan under concurrent load
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 18/10/2026
+ */
+public class AccountAggregatesTest {
+
+    private ChallengeCoreBankingFacade facade;
+
+    @Before
+    public void setUp() {
+        facade = new ChallengeCoreBankingFacade();
+        facade.resetAccount();
+    }
+
+    /**
+     * Test negative balance bookkeeping across sign changes
+     */
+    @Test
+    public void testBalanceTransitions() {
+        // Arrange
+        AccountAggregates aggregates = new AccountAggregates();
+
+        // Act
+        aggregates.accountCreated(100L);
+        aggregates.balanceChanged(100L, -50L);
+        aggregates.accountCreated(-20L);
+        aggregates.balanceChanged(-20L, -70L);
+        aggregates.balanceChanged(-50L, 10L);
+
+        // Assert
+        AggregatesSnapshot snapshot = aggregates.snapshot();
+        assertEquals("Total funds should be 10 - 70", -60L, snapshot.getTotalFunds());
+        assertEquals("Two accounts should be counted", 2L, snapshot.getAccountCount());
+        assertEquals("One account should be negative", 1L, snapshot.getNegativeCount());
+        assertEquals("Negative sum should be -70", -70L, snapshot.getNegativeSum());
+    }
+
+    /**
+     * Test that operations update aggregates and per-type counters
+     */
+    @Test
+    public void testOperationsUpdateAggregates() {
+        // Act
+        facade.operationEvent(operation("deposit", "100", null, "A"));
+        facade.operationEvent(operation("deposit", "50", null, "B"));
+        facade.operationEvent(operation("transfer", "150", "B", "A"));
+        facade.operationEvent(operation("withdraw", "10", "A", null));
+        facade.operationEvent(operation("withdraw", "10", "MISSING", null));
+
+        // Assert
+        AggregatesSnapshot snapshot = facade.getAggregates();
+        assertEquals("Total funds should be 140", 140L, snapshot.getTotalFunds());
+        assertEquals("Two accounts should exist", 2L, snapshot.getAccountCount());
+        assertEquals("Account B should be overdrawn", 1L, snapshot.getNegativeCount());
+        assertEquals("Negative sum should be -100", -100L, snapshot.getNegativeSum());
+        assertEquals("Two deposits should be counted", 2L, snapshot.getDeposits());
+        assertEquals("One withdrawal should be counted", 1L, snapshot.getWithdrawals());
+        assertEquals("One transfer should be counted", 1L, snapshot.getTransfers());
+        assertEquals("One rejected operation should be counted", 1L, snapshot.getRejected());
+    }
+
+    /**
+     * Test that reset clears the aggregates
+     */
+    @Test
+    public void testResetClearsAggregates() {
+        // Arrange
+        facade.operationEvent(operation("deposit", "100", null, "A"));
+
+        // Act
+        facade.resetAccount();
+
+        // Assert
+        AggregatesSnapshot snapshot = facade.getAggregates();
+        assertEquals("Total funds should be cleared", 0L, snapshot.getTotalFunds());
+        assertEquals("Account count should be cleared", 0L, snapshot.getAccountCount());
+        assertEquals("Deposit counter should be cleared", 0L, snapshot.getDeposits());
+    }
+
+    /**
+     * Test that aggregates reconcile exactly with a full scan after concurrent operations
+     */
+    @Test
+    public void testAggregatesReconcileWithScanUnderConcurrency() throws Exception {
+        // Arrange
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            final long seed = t;
+            tasks.add(() -> {
+                Random random = new Random(seed);
+                for (int i = 0; i < 5000; i++) {
+                    String a = "ACC" + random.nextInt(32);
+                    String b = "ACC" + random.nextInt(32);
+                    String amount = String.valueOf(random.nextInt(200));
+                    switch (random.nextInt(3)) {
+                        case 0:
+                            facade.operationEvent(operation("deposit", amount, null, a));
+                            break;
+                        case 1:
+                            facade.operationEvent(operation("withdraw", amount, a, null));
+                            break;
+                        default:
+                            facade.operationEvent(operation("transfer", amount, a, b));
+                            break;
+                    }
+                }
+                return null;
+            });
+        }
+
+        // Act
+        for (Future<Void> future : executor.invokeAll(tasks)) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // Assert
+        AggregatesSnapshot maintained = facade.getAggregates();
+        AggregatesSnapshot scanned = facade.scanAggregates();
+        assertEquals("Total funds should reconcile", scanned.getTotalFunds(), maintained.getTotalFunds());
+        assertEquals("Account count should reconcile", scanned.getAccountCount(), maintained.getAccountCount());
+        assertEquals("Negative count should reconcile", scanned.getNegativeCount(), maintained.getNegativeCount());
+        assertEquals("Negative sum should reconcile", scanned.getNegativeSum(), maintained.getNegativeSum());
+        assertEquals("Every operation should be counted", 40000L,
+                maintained.getDeposits() + maintained.getWithdrawals()
+                        + maintained.getTransfers() + maintained.getRejected());
+    }
+
+    private static Operation operation(String type, String amount, String origin, String destination) {
+        Operation operation = new Operation();
+        operation.setType(type);
+        operation.setAmount(amount);
+        operation.setOrigin(origin);
+        operation.setDestination(destination);
+        return operation;
+    }
+}
@@ -0,0 +1,101 @@
+package org.orelio.store;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.orelio.facade.ChallengeCoreBankingFacade;
+import org.orelio.model.Account;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import static org.junit.Assert.*;
+
+/**
+ * JUnit test class for AccountIdIndex
+ * Demonstrates testing of the sorted account ID index including:
+ * - Cursor pagination
+ * - Prefix search
+ * - Walking every account through the facade
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 18/10/2026
+ */
+public class AccountIdIndexTest {
+
+    private AccountIdIndex index;
+
+    @Before
+    public void setUp() {
+        index = new AccountIdIndex();
+        for (String id : Arrays.asList("B10", "A2", "B2", "A1", "C1", "B1")) {
+            index.add(id);
+        }
+    }
+
+    /**
+     * Test that pages follow each other without gaps or repeats
+     */
+    @Test
+    public void testCursorPagination() {
+        // Act
+        List<String> first = index.page(null, null, 4);
+        List<String> second = index.page(first.get(first.size() - 1), null, 4);
+
+        // Assert
+        assertEquals("First page should be in ID order", Arrays.asList("A1", "A2", "B1", "B10"), first);
+        assertEquals("Second page should resume after the cursor", Arrays.asList("B2", "C1"), second);
+    }
+
+    /**
+     * Test prefix search with and without a cursor
+     */
+    @Test
+    public void testPrefixSearch() {
+        // Act
+        List<String> all = index.page(null, "B", 10);
+        List<String> resumed = index.page("B1", "B", 10);
+        List<String> cursorBeforePrefix = index.page("A1", "B", 10);
+        List<String> none = index.page(null, "Z", 10);
+
+        // Assert
+        assertEquals("Prefix should select B accounts", Arrays.asList("B1", "B10", "B2"), all);
+        assertEquals("Cursor should apply within the prefix", Arrays.asList("B10", "B2"), resumed);
+        assertEquals("A cursor before the prefix should start at the prefix", all, cursorBeforePrefix);
+        assertTrue("Unknown prefix should return nothing", none.isEmpty());
+    }
+
+    /**
+     * Test walking every account through the facade listing
+     */
+    @Test
+    public void testListAllAccountsThroughFacade() {
+        // Arrange
+        ChallengeCoreBankingFacade facade = new ChallengeCoreBankingFacade();
+        facade.resetAccount();
+        for (int i = 0; i < 25; i++) {
+            Account account = new Account();
+            account.setId(String.format("ACC%03d", i));
+            account.setBalance((long) i);
+            facade.createAccount(account);
+        }
+
+        // Act
+        List<String> walked = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            AccountPage page = facade.listAccounts(cursor, null, 10);
+            for (Account account : page.getAccounts()) {
+                walked.add(account.getId());
+            }
+            cursor = page.getNext();
+            pages++;
+        } while (cursor != null);
+
+        // Assert
+        assertEquals("Every account should be listed once", 25, walked.size());
+        assertEquals("Listing should start at the lowest ID", "ACC000", walked.get(0));
+        assertEquals("Listing should end at the highest ID", "ACC024", walked.get(24));
+        assertEquals("Three pages should be needed", 3, pages);
+    }
+}
@@ -0,0 +1,144 @@
+package org.orelio.store;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.orelio.facade.ChallengeCoreBankingFacade;
+import org.orelio.model.Account;
+import org.orelio.model.Operation;
+import java.util.List;
+import static org.junit.Assert.*;
+
+/**
+ * JUnit test class for BalanceIndex
+ * Demonstrates testing of the balance-ordered secondary index including:
+ * - Top N in both directions
+ * - Balance range queries
+ * - Incremental maintenance by banking operations
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 18/10/2026
+ */
+public class BalanceIndexTest {
+
+    private BalanceIndex index;
+
+    @Before
+    public void setUp() {
+        index = new BalanceIndex();
+        index.add("A", 100L);
+        index.add("B", -50L);
+        index.add("C", 300L);
+        index.add("D", -10L);
+        index.add("E", 100L);
+    }
+
+    /**
+     * Test top N with largest balances first
+     */
+    @Test
+    public void testTopDescending() {
+        // Act
+        List<Account> top = index.top(3, true);
+
+        // Assert
+        assertEquals("Three accounts should be returned", 3, top.size());
+        assertEquals("Largest balance should be first", "C", top.get(0).getId());
+        assertEquals("Equal balances are ordered by descending ID", "E", top.get(1).getId());
+        assertEquals("Equal balances are ordered by descending ID", "A", top.get(2).getId());
+    }
+
+    /**
+     * Test top N with most overdrawn first
+     */
+    @Test
+    public void testTopAscending() {
+        // Act
+        List<Account> top = index.top(2, false);
+
+        // Assert
+        assertEquals("Most overdrawn should be first", "B", top.get(0).getId());
+        assertEquals("Most overdrawn balance should be returned", Long.valueOf(-50L), top.get(0).getBalance());
+        assertEquals("Second most overdrawn should be second", "D", top.get(1).getId());
+    }
+
+    /**
+     * Test range queries with open and closed bounds
+     */
+    @Test
+    public void testRange() {
+        // Act
+        List<Account> negative = index.range(null, 0L, 100);
+        List<Account> hundreds = index.range(100L, 300L, 100);
+        List<Account> limited = index.range(null, null, 2);
+
+        // Assert
+        assertEquals("Two accounts should be below zero", 2, negative.size());
+        assertEquals("Lower bound is inclusive and upper bound exclusive", 2, hundreds.size());
+        assertEquals("Range should hold A", "A", hundreds.get(0).getId());
+        assertEquals("Range should hold E", "E", hundreds.get(1).getId());
+        assertEquals("Limit should be honored", 2, limited.size());
+    }
+
+    /**
+     * Test that a range whose lower bound is above its upper bound is empty
+     */
+    @Test
+    public void testInvertedRange() {
+        // Act
+        List<Account> inverted = index.range(300L, 100L, 100);
+        List<Account> empty = index.range(100L, 100L, 100);
+
+        // Assert
+        assertTrue("Inverted range should be empty", inverted.isEmpty());
+        assertTrue("Range with equal bounds should be empty", empty.isEmpty());
+    }
+
+    /**
+     * Test that an update moves the account to its new position
+     */
+    @Test
+    public void testUpdateMovesEntry() {
+        // Act
+        index.update("B", -50L, 1000L);
+
+        // Assert
+        assertEquals("Updated account should lead the top", "B", index.top(1, true).get(0).getId());
+        assertEquals("Only one account should remain negative", 1, index.range(null, 0L, 100).size());
+    }
+
+    /**
+     * Test that the facade keeps the index in step with operations
+     */
+    @Test
+    public void testFacadeMaintainsIndex() {
+        // Arrange
+        ChallengeCoreBankingFacade facade = new ChallengeCoreBankingFacade();
+        facade.resetAccount();
+
+        // Act
+        facade.operationEvent(operation("deposit", "100", null, "X"));
+        facade.operationEvent(operation("deposit", "500", null, "Y"));
+        facade.operationEvent(operation("transfer", "300", "X", "Y"));
+
+        // Assert
+        List<Account> top = facade.getTopAccounts(10, true);
+        assertEquals("Two accounts should be indexed", 2, top.size());
+        assertEquals("Y should hold the largest balance", Long.valueOf(800L), top.get(0).getBalance());
+        List<Account> overdrawn = facade.getAccountsByBalance(null, 0L, 10);
+        assertEquals("X should be overdrawn", 1, overdrawn.size());
+        assertEquals("X should be overdrawn by 200", Long.valueOf(-200L), overdrawn.get(0).getBalance());
+
+        facade.resetAccount();
+        assertTrue("Reset should clear the index", facade.getTopAccounts(10, true).isEmpty());
+    }
+
+    private static Operation operation(String type, String amount, String origin, String destination) {
+        Operation operation = new Operation();
+        operation.setType(type);
+        operation.setAmount(amount);
+        operation.setOrigin(origin);
+        operation.setDestination(destination);
+        return operation;
+    }
+}
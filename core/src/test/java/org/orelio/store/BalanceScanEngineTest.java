@@ -0,0 +1,150 @@
+package org.orelio.store;
+
+import org.junit.Before;
+import org.junit.Test;
+import java.util.Random;
+import static org.junit.Assert.*;
+
+/**
+ * JUnit test class for BalanceScanEngine
+ * Demonstrates testing of the parallel bulk-scan engine including:
+ * - Unfiltered and range-filtered aggregates across many chunks
+ * - Predicate scans
+ * - Histograms and bound validation
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 18/10/2026
+ */
+public class BalanceScanEngineTest {
+
+    private static final int SIZE = BalanceColumn.CHUNK_SIZE * 5 + 123;
+
+    private BalanceColumn column;
+    private BalanceScanEngine engine;
+    private long[] balances;
+
+    @Before
+    public void setUp() {
+        column = new BalanceColumn();
+        engine = new BalanceScanEngine(column);
+        balances = new long[SIZE];
+        Random random = new Random(42);
+        for (int i = 0; i < SIZE; i++) {
+            balances[i] = random.nextInt(20001) - 10000;
+            assertEquals("Slots should be allocated in order", i, column.allocate(balances[i]));
+        }
+    }
+
+    /**
+     * Test that an unfiltered scan matches a sequential reference
+     */
+    @Test
+    public void testFullScan() {
+        // Arrange
+        long sum = 0;
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (long balance : balances) {
+            sum += balance;
+            min = Math.min(min, balance);
+            max = Math.max(max, balance);
+        }
+
+        // Act
+        ScanResult result = engine.scan(null, null);
+
+        // Assert
+        assertEquals("Every balance should be counted", SIZE, result.getCount());
+        assertEquals("Sum should match the reference", sum, result.getSum());
+        assertEquals("Min should match the reference", Long.valueOf(min), result.getMin());
+        assertEquals("Max should match the reference", Long.valueOf(max), result.getMax());
+    }
+
+    /**
+     * Test range and predicate scans against a sequential reference
+     */
+    @Test
+    public void testFilteredScans() {
+        // Arrange
+        long negativeCount = 0;
+        long negativeSum = 0;
+        long evenCount = 0;
+        for (long balance : balances) {
+            if (balance < 0) {
+                negativeCount++;
+                negativeSum += balance;
+            }
+            if (balance % 2 == 0) {
+                evenCount++;
+            }
+        }
+
+        // Act
+        ScanResult negative = engine.scan(null, 0L);
+        ScanResult even = engine.scan(v -> v % 2 == 0);
+        ScanResult none = engine.scan(20000L, null);
+
+        // Assert
+        assertEquals("Negative count should match", negativeCount, negative.getCount());
+        assertEquals("Negative sum should match", negativeSum, negative.getSum());
+        assertTrue("Negative max should be below zero", negative.getMax() < 0);
+        assertEquals("Predicate count should match", evenCount, even.getCount());
+        assertEquals("Empty range should match nothing", 0L, none.getCount());
+        assertNull("Empty range should have no min", none.getMin());
+    }
+
+    /**
+     * Test that writes to existing slots are seen by later scans
+     */
+    @Test
+    public void testScanSeesUpdates() {
+        // Act
+        column.set(SIZE - 1, 1_000_000L);
+
+        // Assert
+        assertEquals("Updated slot should be the max", Long.valueOf(1_000_000L), engine.scan(null, null).getMax());
+    }
+
+    /**
+     * Test histogram buckets, including balances equal to a bound
+     */
+    @Test
+    public void testHistogram() {
+        // Arrange
+        long[] bounds = {-5000L, 0L, 5000L};
+        long[] expected = new long[4];
+        for (long balance : balances) {
+            int bucket = balance < -5000 ? 0 : balance < 0 ? 1 : balance < 5000 ? 2 : 3;
+            expected[bucket]++;
+        }
+
+        // Act
+        BalanceHistogram histogram = engine.histogram(bounds);
+
+        // Assert
+        assertArrayEquals("Bucket counts should match the reference", expected, histogram.getCounts());
+    }
+
+    /**
+     * Test that unordered histogram bounds are rejected
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testHistogramRejectsUnorderedBounds() {
+        engine.histogram(new long[] {10L, 0L});
+    }
+
+    /**
+     * Test scanning an empty column
+     */
+    @Test
+    public void testEmptyColumn() {
+        // Act
+        column.clear();
+        ScanResult result = engine.scan(null, null);
+
+        // Assert
+        assertEquals("Empty column should count nothing", 0L, result.getCount());
+        assertEquals("Empty histogram should count nothing", 0L, engine.histogram(new long[] {0L}).getCounts()[1]);
+    }
+}
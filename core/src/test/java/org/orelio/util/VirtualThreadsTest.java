@@ -0,0 +1,58 @@
+package org.orelio.util;
+
+import org.junit.Test;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import static org.junit.Assert.*;
+
+/**
+ * JUnit test class for VirtualThreads
+ * Demonstrates testing of virtual-thread access including:
+ * - Platform threads reported as not virtual
+ * - Per-task executors running tasks on virtual threads when supported
+ * - A clear failure on JDKs without virtual threads
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 18/10/2026
+ */
+public class VirtualThreadsTest {
+
+    /**
+     * Test that a platform thread is not reported as virtual
+     */
+    @Test
+    public void testPlatformThreadIsNotVirtual() {
+        // Assert
+        assertFalse("The test thread should be a platform thread", VirtualThreads.isVirtual(Thread.currentThread()));
+    }
+
+    /**
+     * Test that the per-task executor runs tasks on virtual threads, or is refused before Java 21
+     */
+    @Test
+    public void testPerTaskExecutor() throws Exception {
+        if (!VirtualThreads.isSupported()) {
+            // Act
+            try {
+                VirtualThreads.newPerTaskExecutor();
+                fail("Executor should be refused without virtual threads");
+            } catch (UnsupportedOperationException e) {
+                // Assert
+                assertTrue("Message should name the required version", e.getMessage().contains("Java 21"));
+            }
+            return;
+        }
+
+        // Arrange
+        ExecutorService executor = VirtualThreads.newPerTaskExecutor();
+
+        // Act
+        Future<Boolean> virtual = executor.submit(() -> VirtualThreads.isVirtual(Thread.currentThread()));
+
+        // Assert
+        assertTrue("Tasks should run on virtual threads", virtual.get(5, TimeUnit.SECONDS));
+        executor.shutdown();
+    }
+}
@@ -16,6 +16,19 @@ echo "Java version:"
 java -version
 echo ""
 
+# HTTP load test mode: ./run_tests.sh load [-Dload.rate=2000 -Dload.distribution=zipfian ...]
+# Boots the application on a random port and reports throughput and latency percentiles
+if [ "$1" = "load" ]; then
+    shift
+    if ! command -v mvn &> /dev/null; then
+        echo "Error: Maven is required for the load test"
+        exit 1
+    fi
+    echo "Running HTTP load test..."
+    mvn -Pload verify "$@"
+    exit $?
+fi
+
 # Check if Maven is available
 if command -v mvn &> /dev/null; then
     echo "Maven found! Running tests with Maven..."
@@ -76,13 +89,13 @@ echo ""
 echo "=== Test Examples Created Successfully ==="
 echo ""
 echo "The following test files have been created:"
-echo "1. src/test/java/org/orelio/model/AccountTest.java"
-echo "2. src/test/java/org/orelio/model/OperationTest.java"
-echo "3. src/test/java/org/orelio/facade/ChallengeCoreBankingFacadeTest.java"
-echo "4. src/test/java/org/orelio/util/ChallengeCoreUtilsTest.java"
-echo "5. src/test/java/org/orelio/integration/BankingSystemIntegrationTest.java"
-echo "6. src/test/java/org/orelio/advanced/AdvancedJUnitTestExamples.java"
-echo "7. src/test/java/org/orelio/suite/AllTestsSuite.java"
+echo "1. core/src/test/java/org/orelio/model/AccountTest.java"
+echo "2. core/src/test/java/org/orelio/model/OperationTest.java"
+echo "3. core/src/test/java/org/orelio/facade/ChallengeCoreBankingFacadeTest.java"
+echo "4. server/src/test/java/org/orelio/util/ChallengeCoreUtilsTest.java"
+echo "5. server/src/test/java/org/orelio/integration/BankingSystemIntegrationTest.java"
+echo "6. server/src/test/java/org/orelio/advanced/AdvancedJUnitTestExamples.java"
+echo "7. server/src/test/java/org/orelio/suite/AllTestsSuite.java"
 echo ""
 echo "Documentation: TEST_README.md"
 echo ""
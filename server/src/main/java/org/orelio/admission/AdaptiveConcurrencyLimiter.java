@@ -0,0 +1,176 @@
+package org.orelio.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Adaptive limit on the number of in-flight requests in the ChallengeCoreBanking system.
+ *
+ * <p>Requests are admitted while fewer than {@link #getLimit()} are in flight and rejected
+ * immediately otherwise, so that queueing happens at the client instead of in the
+ * server's worker pool. The limit follows a gradient algorithm in the style of TCP Vegas:</p>
+ * <ul>
+ *   <li>a long-term average of the request latency estimates the no-load latency</li>
+ *   <li>each completed request compares its latency to that average; the ratio, scaled by
+ *       the tolerance and clamped to {@code [0.5, 1]}, is the gradient</li>
+ *   <li>the new limit is {@code limit * gradient + sqrt(limit)}, smoothed, and kept within
+ *       {@code [minLimit, maxLimit]}</li>
+ * </ul>
+ * <p>While latency stays within the tolerance, the {@code sqrt(limit)} headroom lets
+ * the limit grow. When requests queue up, latency rises and the limit shrinks. Samples
+ * taken while less than half the limit is in use carry no evidence of overload, and
+ * they only update the average latency.</p>
+ *
+ * <p>Admission is lock-free. Limit updates are skipped rather than waited for when
+ * another thread is already updating.</p>
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ */
+public final class AdaptiveConcurrencyLimiter {
+
+    /**
+     * Number of samples averaged by the long-term latency.
+     */
+    private static final int LONG_WINDOW = 600;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final double smoothing;
+
+    private final double tolerance;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final LongAdder rejected = new LongAdder();
+
+    private final ReentrantLock updateLock = new ReentrantLock();
+
+    private volatile int limit;
+
+    /**
+     * Unrounded limit, guarded by {@code updateLock}.
+     */
+    private double estimatedLimit;
+
+    /**
+     * Long-term average latency in nanoseconds, guarded by {@code updateLock}.
+     */
+    private double longRtt;
+
+    private long samples;
+
+    /**
+     * Creates a limiter.
+     *
+     * @param initialLimit the limit before any latency has been observed
+     * @param minLimit the lowest limit
+     * @param maxLimit the highest limit
+     * @param smoothing the weight of each new limit, in {@code (0, 1]}
+     * @param tolerance the latency increase over the average tolerated before shrinking, at least 1
+     * @throws IllegalArgumentException if the parameters are inconsistent
+     */
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double smoothing,
+                                      double tolerance) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= min <= initial <= max");
+        }
+        if (smoothing <= 0 || smoothing > 1 || tolerance < 1) {
+            throw new IllegalArgumentException("Smoothing must be in (0, 1] and tolerance at least 1");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.smoothing = smoothing;
+        this.tolerance = tolerance;
+        this.limit = initialLimit;
+        this.estimatedLimit = initialLimit;
+    }
+
+    /**
+     * Admits a request if the limit allows it.
+     *
+     * <p>Every admitted request must be followed by {@link #release(long)}.</p>
+     *
+     * @return true if admitted, false if the request must be rejected
+     */
+    public boolean tryAcquire() {
+        for (;;) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                rejected.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Completes an admitted request and feeds its latency to the limit.
+     *
+     * @param latencyNanos the latency of the request
+     */
+    public void release(long latencyNanos) {
+        int inFlightAtCompletion = inFlight.getAndDecrement();
+        if (updateLock.tryLock()) {
+            try {
+                update(Math.max(latencyNanos, 1L), inFlightAtCompletion);
+            } finally {
+                updateLock.unlock();
+            }
+        }
+    }
+
+    private void update(long rtt, int inFlightAtCompletion) {
+        samples++;
+        if (longRtt == 0) {
+            longRtt = rtt;
+        } else {
+            longRtt += (rtt - longRtt) / Math.min(samples, LONG_WINDOW);
+        }
+        // After a drop in latency, let the average catch up faster
+        if (longRtt > 2 * rtt) {
+            longRtt *= 0.95;
+        }
+        if (inFlightAtCompletion < estimatedLimit / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / rtt));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit,
+                estimatedLimit * (1 - smoothing) + newLimit * smoothing));
+        limit = (int) estimatedLimit;
+    }
+
+    /**
+     * Returns the current limit.
+     *
+     * @return the maximum number of requests admitted at once
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Returns the number of admitted requests not yet released.
+     *
+     * @return the in-flight requests
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Returns the number of rejected requests since startup.
+     *
+     * @return the rejected requests
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+}
@@ -0,0 +1,294 @@
+package org.orelio.admission;
+
+import org.orelio.model.Constants;
+import org.orelio.model.Operation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Responses of banking operations kept by idempotency key in the ChallengeCoreBanking system.
+ *
+ * <p>A client that sends an operation with an {@value #HEADER} header may resend it with the
+ * same key after a timeout or a dropped connection without applying it twice. Keys are scoped to
+ * the client sending them, identified like the rate limits do, so two clients choosing the same
+ * key never see each other's responses. The first request reserves the key; once its operation has been applied, the status and body of its response
+ * are stored, and every later request with that key gets them back unchanged. A request arriving
+ * while the first is still running gets {@code 409 Conflict}, and one reusing the key for a
+ * different operation gets {@code 422 Unprocessable Entity}.</p>
+ *
+ * <p>Only outcomes of the facade (201 and 404) are stored. A request rejected before reaching it,
+ * by a rate limit or a full lane, releases its key so that its retry is applied. Stored responses
+ * expire after {@code banking.idempotency.ttl-seconds}, and so do reservations whose request never
+ * completes, counted from the reservation; expired keys are swept at most once per
+ * sweep period by whichever caller notices it has elapsed, like idle rate-limit buckets. Beyond
+ * {@code banking.idempotency.max-keys} keys, new keys are refused with {@code 503} rather than
+ * accepted without protection.</p>
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ * @see TokenBucketTable
+ */
+@Component
+public class IdempotencyCache {
+
+    /**
+     * Request header carrying the idempotency key of an operation or batch.
+     */
+    public static final String HEADER = "Idempotency-Key";
+
+    /**
+     * Response header set to "true" on a stored response sent again.
+     */
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    /**
+     * Longest accepted key, in characters.
+     */
+    public static final int MAX_KEY_LENGTH = 128;
+
+    /**
+     * Answer to a key whose first request is still running.
+     */
+    static final Entry IN_PROGRESS = new Entry(null, HttpStatus.CONFLICT.value(), Constants.ZERO, false);
+
+    /**
+     * Answer to a key reused for another operation.
+     */
+    static final Entry MISMATCH = new Entry(null, HttpStatus.UNPROCESSABLE_ENTITY.value(), Constants.ZERO, false);
+
+    /**
+     * Answer to a key that is empty or too long.
+     */
+    static final Entry INVALID = new Entry(null, HttpStatus.BAD_REQUEST.value(), Constants.ZERO, false);
+
+    /**
+     * Answer to a new key when the cache is full.
+     */
+    static final Entry FULL = new Entry(null, HttpStatus.SERVICE_UNAVAILABLE.value(), Constants.ZERO, false);
+
+    private final boolean enabled;
+
+    private final long ttlNanos;
+
+    private final int maxKeys;
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final AtomicLong nextSweep;
+
+    /**
+     * Creates the cache from {@code banking.idempotency.*} properties.
+     *
+     * @param enabled whether idempotency keys are honored; without it the header is ignored
+     * @param ttlSeconds how long a stored response is kept
+     * @param maxKeys the most keys held at once
+     */
+    public IdempotencyCache(@Value("${banking.idempotency.enabled:true}") boolean enabled,
+                            @Value("${banking.idempotency.ttl-seconds:300}") long ttlSeconds,
+                            @Value("${banking.idempotency.max-keys:100000}") int maxKeys) {
+        this.enabled = enabled;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.maxKeys = maxKeys;
+        this.nextSweep = new AtomicLong(System.nanoTime() + sweepPeriod());
+    }
+
+    /**
+     * Reserves a key for a request, or returns the answer it must get instead.
+     *
+     * @param client identifies the client sending the key, such as its client ID or remote address
+     * @param key the idempotency key, may be null
+     * @param fingerprint identifies the operation sent with the key, see {@link #fingerprint(Operation)}
+     * @return null if the request may proceed, and must then {@link #complete} or {@link #release}
+     *         a non-null key; otherwise the status and body to answer
+     */
+    public Entry begin(String client, String key, String fingerprint) {
+        if (!enabled || key == null) {
+            return null;
+        }
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            return INVALID;
+        }
+        long now = System.nanoTime();
+        long sweepAt = nextSweep.get();
+        if (now - sweepAt >= 0 && nextSweep.compareAndSet(sweepAt, now + sweepPeriod())) {
+            sweep(now);
+        }
+        String scoped = scope(client, key);
+        Entry existing = entries.get(scoped);
+        if (existing == null) {
+            if (entries.size() >= maxKeys) {
+                return FULL;
+            }
+            Entry reserved = new Entry(fingerprint, 0, null, false);
+            reserved.expiresAt = now + ttlNanos;
+            existing = entries.putIfAbsent(scoped, reserved);
+            if (existing == null) {
+                return null;
+            }
+        }
+        if (!existing.fingerprint.equals(fingerprint)) {
+            return MISMATCH;
+        }
+        return existing.completed != null ? existing.completed : IN_PROGRESS;
+    }
+
+    /**
+     * Stores the response of a reserved key.
+     *
+     * @param client the client that reserved the key
+     * @param key the key reserved by {@link #begin}, may be null
+     * @param status the response status
+     * @param body the response body
+     */
+    public void complete(String client, String key, int status, String body) {
+        if (!enabled || key == null) {
+            return;
+        }
+        Entry entry = entries.get(scope(client, key));
+        if (entry != null && entry.completed == null) {
+            entry.expiresAt = System.nanoTime() + ttlNanos;
+            entry.completed = new Entry(null, status, body, true);
+        }
+    }
+
+    /**
+     * Releases a reserved key whose request was not applied, so that a retry is.
+     * Does nothing once the key has been completed.
+     *
+     * @param client the client that reserved the key
+     * @param key the key reserved by {@link #begin}, may be null
+     */
+    public void release(String client, String key) {
+        if (!enabled || key == null) {
+            return;
+        }
+        String scoped = scope(client, key);
+        Entry entry = entries.get(scoped);
+        if (entry != null && entry.completed == null) {
+            entries.remove(scoped, entry);
+        }
+    }
+
+    /**
+     * Removes the stored responses and the reservations that have expired.
+     *
+     * @param now the current {@link System#nanoTime()}
+     * @return the number of removed keys
+     */
+    public int sweep(long now) {
+        int evicted = 0;
+        for (Map.Entry<String, Entry> mapping : entries.entrySet()) {
+            Entry entry = mapping.getValue();
+            if (entry.expiresAt - now <= 0 && entries.remove(mapping.getKey(), entry)) {
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * Returns the number of keys currently held.
+     *
+     * @return the key count
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Prefixes a key with its client; neither header values nor addresses contain a line break.
+     */
+    private static String scope(String client, String key) {
+        return (client != null ? client : "") + '\n' + key;
+    }
+
+    private long sweepPeriod() {
+        return Math.max(TimeUnit.SECONDS.toNanos(1), ttlNanos / 10);
+    }
+
+    /**
+     * Identifies an operation, so that a key cannot be replayed for another one.
+     *
+     * @param operation the operation sent with a key
+     * @return the fingerprint of the operation
+     */
+    public static String fingerprint(Operation operation) {
+        return operation.getType() + '|' + operation.getOrigin() + '|' + operation.getDestination() + '|'
+                + operation.getAmount();
+    }
+
+    /**
+     * Identifies a batch of operations, so that a key cannot be replayed for another one.
+     *
+     * @param operations the operations sent with a key
+     * @return the fingerprint of the batch
+     */
+    public static String fingerprint(List<Operation> operations) {
+        StringBuilder fingerprint = new StringBuilder(operations.size() * 32).append('[');
+        for (Operation operation : operations) {
+            fingerprint.append(fingerprint(operation)).append('\n');
+        }
+        return fingerprint.toString();
+    }
+
+    /**
+     * A key's state: the operation it was first sent with and, once applied, its response.
+     * The entries returned by {@link #begin} carry the status and body to answer.
+     */
+    public static final class Entry {
+
+        private final String fingerprint;
+
+        private final int status;
+
+        private final String body;
+
+        private final boolean replayed;
+
+        private volatile Entry completed;
+
+        private volatile long expiresAt;
+
+        Entry(String fingerprint, int status, String body, boolean replayed) {
+            this.fingerprint = fingerprint;
+            this.status = status;
+            this.body = body;
+            this.replayed = replayed;
+        }
+
+        /**
+         * Returns the status to answer.
+         *
+         * @return the HTTP status
+         */
+        public int getStatus() {
+            return status;
+        }
+
+        /**
+         * Returns the body to answer.
+         *
+         * @return the response body
+         */
+        public String getBody() {
+            return body;
+        }
+
+        /**
+         * Returns whether this is the stored response of an earlier request.
+         *
+         * @return true for a replayed response, false for a refusal
+         */
+        public boolean isReplayed() {
+            return replayed;
+        }
+    }
+}
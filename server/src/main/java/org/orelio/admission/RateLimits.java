@@ -0,0 +1,190 @@
+package org.orelio.admission;
+
+import org.orelio.model.Constants;
+import org.orelio.model.Operation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-account and per-client rate limits for banking operations in the ChallengeCoreBanking system.
+ *
+ * <p>Checked before an operation is queued for the facade. A request must take a token
+ * from its client's bucket first. It then takes one from the bucket of each account it
+ * touches: the destination of a deposit, the origin of a withdrawal, or both for a
+ * transfer. When a later bucket is empty the tokens already taken are given back, so a
+ * rejected operation costs its client and its other account nothing.</p>
+ *
+ * <p>Configured by {@code banking.ratelimit.*} in {@code application.properties} and
+ * disabled by default. A rate of 0 disables that scope, and
+ * {@code banking.ratelimit.enabled=false} disables both.</p>
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ * @see TokenBucketTable
+ */
+@Component
+public class RateLimits {
+
+    /**
+     * Minimum time between two sweeps of idle buckets.
+     */
+    private static final long SWEEP_PERIOD_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final boolean enabled;
+
+    private final TokenBucketTable accounts;
+
+    private final TokenBucketTable clients;
+
+    private final LongAdder accountLimited = new LongAdder();
+
+    private final LongAdder clientLimited = new LongAdder();
+
+    /**
+     * Creates the limits from {@code banking.ratelimit.*} properties.
+     *
+     * @param enabled whether rate limiting is enabled
+     * @param accountRate the operations per second allowed on one account, or 0 for no limit
+     * @param accountBurst the operations allowed at once on one account
+     * @param clientRate the operations per second allowed to one client, or 0 for no limit
+     * @param clientBurst the operations allowed at once to one client
+     */
+    public RateLimits(@Value("${banking.ratelimit.enabled:false}") boolean enabled,
+                      @Value("${banking.ratelimit.account.rate:2000}") double accountRate,
+                      @Value("${banking.ratelimit.account.burst:4000}") long accountBurst,
+                      @Value("${banking.ratelimit.client.rate:20000}") double clientRate,
+                      @Value("${banking.ratelimit.client.burst:40000}") long clientBurst) {
+        long now = System.nanoTime();
+        this.enabled = enabled;
+        this.accounts = enabled && accountRate > 0
+                ? new TokenBucketTable(accountRate, accountBurst, SWEEP_PERIOD_NANOS, now) : null;
+        this.clients = enabled && clientRate > 0
+                ? new TokenBucketTable(clientRate, clientBurst, SWEEP_PERIOD_NANOS, now) : null;
+    }
+
+    /**
+     * Takes the tokens of an operation.
+     *
+     * @param client the client ID, may be null
+     * @param operation the operation about to be processed
+     * @return 0 if the operation may proceed, otherwise the nanoseconds until it may be retried
+     */
+    public long tryAcquire(String client, Operation operation) {
+        if (!enabled) {
+            return 0L;
+        }
+        long now = System.nanoTime();
+        boolean charged = clients != null && client != null;
+        if (charged) {
+            long wait = clients.tryAcquire(client, now);
+            if (wait > 0) {
+                clientLimited.increment();
+                return wait;
+            }
+        }
+        if (accounts != null) {
+            String origin = origin(operation);
+            String destination = destination(operation);
+            long wait = acquireAccount(origin, now);
+            if (wait == 0) {
+                wait = acquireAccount(destination, now);
+                if (wait > 0 && origin != null) {
+                    accounts.release(origin, now);
+                }
+            }
+            if (wait > 0) {
+                if (charged) {
+                    clients.release(client, now);
+                }
+                accountLimited.increment();
+                return wait;
+            }
+        }
+        return 0L;
+    }
+
+    /**
+     * Gives back the tokens taken by {@link #tryAcquire(String, Operation)} for an operation
+     * that was admitted but then rejected before it was processed, such as by a full lane.
+     *
+     * @param client the client ID passed to {@code tryAcquire}, may be null
+     * @param operation the operation passed to {@code tryAcquire}
+     */
+    public void release(String client, Operation operation) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (clients != null && client != null) {
+            clients.release(client, now);
+        }
+        if (accounts != null) {
+            releaseAccount(origin(operation), now);
+            releaseAccount(destination(operation), now);
+        }
+    }
+
+    private long acquireAccount(String account, long now) {
+        return account == null ? 0L : accounts.tryAcquire(account, now);
+    }
+
+    private void releaseAccount(String account, long now) {
+        if (account != null) {
+            accounts.release(account, now);
+        }
+    }
+
+    /**
+     * Returns the account an operation debits, or null for a deposit.
+     */
+    private static String origin(Operation operation) {
+        return Constants.DEPOSIT.equalsIgnoreCase(operation.getType()) ? null : operation.getOrigin();
+    }
+
+    /**
+     * Returns the account an operation credits, or null for a withdrawal.
+     */
+    private static String destination(Operation operation) {
+        return Constants.WITHDRAW.equalsIgnoreCase(operation.getType()) ? null : operation.getDestination();
+    }
+
+    /**
+     * Returns the number of operations rejected by an account limit.
+     *
+     * @return the account-limited operations
+     */
+    public long getAccountLimited() {
+        return accountLimited.sum();
+    }
+
+    /**
+     * Returns the number of operations rejected by a client limit.
+     *
+     * @return the client-limited operations
+     */
+    public long getClientLimited() {
+        return clientLimited.sum();
+    }
+
+    /**
+     * Returns the number of account buckets currently held.
+     *
+     * @return the account bucket count
+     */
+    public int getAccountBuckets() {
+        return accounts == null ? 0 : accounts.size();
+    }
+
+    /**
+     * Returns the number of client buckets currently held.
+     *
+     * @return the client bucket count
+     */
+    public int getClientBuckets() {
+        return clients == null ? 0 : clients.size();
+    }
+}
@@ -0,0 +1,165 @@
+package org.orelio.admission;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrent table of per-key token buckets in the ChallengeCoreBanking system.
+ *
+ * <p>Each bucket is stored as a single {@code long}: the theoretical arrival time of
+ * the next token (the generic cell rate algorithm). Refill is lazy and happens
+ * when a key is used, never in the background. Taking a token is one compare-and-set
+ * on the key's cell, so buckets are updated without locks, and taking a token from
+ * an existing bucket allocates nothing.</p>
+ *
+ * <p>A bucket whose arrival time has passed is full, and it behaves exactly like a
+ * missing bucket. Idle buckets are therefore evicted without losing state. A sweep
+ * runs at most once per sweep period, on whichever caller notices the period has
+ * elapsed. The sweep marks a cell dead with a compare-and-set before removing it,
+ * and callers that meet a dead cell help remove it and retry.</p>
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ * @see RateLimits
+ */
+public final class TokenBucketTable {
+
+    /**
+     * Arrival time marking a cell that is being evicted.
+     */
+    private static final long DEAD = Long.MIN_VALUE;
+
+    private final long intervalNanos;
+
+    private final long burstNanos;
+
+    private final long sweepPeriodNanos;
+
+    private final ConcurrentHashMap<String, Cell> cells = new ConcurrentHashMap<>();
+
+    private final AtomicLong nextSweep;
+
+    /**
+     * Creates a table.
+     *
+     * @param ratePerSecond the tokens added to each bucket per second
+     * @param burst the capacity of each bucket
+     * @param sweepPeriodNanos the minimum time between two sweeps of idle buckets
+     * @param now the current {@link System#nanoTime()}
+     * @throws IllegalArgumentException if the rate or the burst is not positive
+     */
+    public TokenBucketTable(double ratePerSecond, long burst, long sweepPeriodNanos, long now) {
+        if (ratePerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate and burst must be positive");
+        }
+        this.intervalNanos = Math.max(1L, (long) (1_000_000_000L / ratePerSecond));
+        this.burstNanos = intervalNanos * burst;
+        this.sweepPeriodNanos = sweepPeriodNanos;
+        this.nextSweep = new AtomicLong(now + sweepPeriodNanos);
+    }
+
+    /**
+     * Takes a token from the bucket of a key.
+     *
+     * @param key the key, such as an account or client ID
+     * @param now the current {@link System#nanoTime()}
+     * @return 0 if a token was taken, otherwise the nanoseconds until one is available
+     */
+    public long tryAcquire(String key, long now) {
+        long sweepAt = nextSweep.get();
+        if (now - sweepAt >= 0 && nextSweep.compareAndSet(sweepAt, now + sweepPeriodNanos)) {
+            sweep(now);
+        }
+        for (;;) {
+            Cell cell = cells.get(key);
+            if (cell == null) {
+                Cell created = new Cell(now + intervalNanos);
+                cell = cells.putIfAbsent(key, created);
+                if (cell == null) {
+                    return 0L;
+                }
+            }
+            long arrival = cell.get();
+            if (arrival == DEAD) {
+                cells.remove(key, cell);
+                continue;
+            }
+            long next = Math.max(arrival, now) + intervalNanos;
+            long excess = next - now - burstNanos;
+            if (excess > 0) {
+                return excess;
+            }
+            if (cell.compareAndSet(arrival, next)) {
+                return 0L;
+            }
+        }
+    }
+
+    /**
+     * Gives back a token taken by {@link #tryAcquire(String, long)}, for an operation
+     * that was rejected by another bucket afterwards.
+     *
+     * <p>The bucket never holds more than its burst: a token is not returned to a
+     * bucket that has refilled in the meantime or has been evicted.</p>
+     *
+     * @param key the key the token was taken from
+     * @param now the current {@link System#nanoTime()}
+     */
+    public void release(String key, long now) {
+        Cell cell = cells.get(key);
+        if (cell == null) {
+            return;
+        }
+        for (;;) {
+            long arrival = cell.get();
+            if (arrival == DEAD || arrival - now <= 0) {
+                return;
+            }
+            if (cell.compareAndSet(arrival, Math.max(now, arrival - intervalNanos))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Evicts the buckets that have refilled completely.
+     *
+     * @param now the current {@link System#nanoTime()}
+     * @return the number of evicted buckets
+     */
+    public int sweep(long now) {
+        int evicted = 0;
+        for (Map.Entry<String, Cell> entry : cells.entrySet()) {
+            Cell cell = entry.getValue();
+            long arrival = cell.get();
+            if (arrival != DEAD && arrival - now <= 0 && cell.compareAndSet(arrival, DEAD)) {
+                cells.remove(entry.getKey(), cell);
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * Returns the number of buckets currently held.
+     *
+     * @return the bucket count
+     */
+    public int size() {
+        return cells.size();
+    }
+
+    /**
+     * Bucket state: the theoretical arrival time of the next token.
+     */
+    private static final class Cell extends AtomicLong {
+
+        private static final long serialVersionUID = 1L;
+
+        Cell(long arrival) {
+            super(arrival);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package org.orelio.config;
+
+import org.orelio.admission.AdaptiveConcurrencyLimiter;
+import org.orelio.model.Constants;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Servlet filter shedding {@code /event} and {@code /balance} requests, and their {@code /async}
+ * variants, above the adaptive concurrency limit.
+ *
+ * <p>Rejected requests are answered before their body is read, with the status set by
+ * {@code banking.admission.rejection-status} (503 by default, or 429), a
+ * {@code Retry-After} header and the usual "0" body. Admitted requests report their
+ * latency to the {@link AdaptiveConcurrencyLimiter} when they complete, including
+ * requests completed asynchronously by a workload lane.</p>
+ *
+ * <p>Configured by {@code banking.admission.*} in {@code application.properties};
+ * {@code banking.admission.enabled=false} lets every request through.</p>
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ * @see org.orelio.admission.AdaptiveConcurrencyLimiter
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class AdmissionFilter extends OncePerRequestFilter {
+
+    /**
+     * The limiter deciding admission.
+     */
+    @Autowired
+    private AdaptiveConcurrencyLimiter admissionLimiter;
+
+    @Value("${banking.admission.enabled:true}")
+    private boolean enabled;
+
+    @Value("${banking.admission.rejection-status:503}")
+    private int rejectionStatus;
+
+    @Value("${banking.admission.retry-after-seconds:1}")
+    private int retryAfterSeconds;
+
+    /**
+     * Admits the request and continues the chain, or rejects it.
+     *
+     * @param request the current request
+     * @param response the current response
+     * @param chain the remaining filter chain
+     * @throws ServletException if a later filter or the servlet fails
+     * @throws IOException if reading or writing the request fails
+     */
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!enabled) {
+            chain.doFilter(request, response);
+            return;
+        }
+        if (!admissionLimiter.tryAcquire()) {
+            response.setStatus(rejectionStatus);
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            response.setContentType("application/json;charset=UTF-8");
+            response.getWriter().write(Constants.ZERO);
+            return;
+        }
+        long start = System.nanoTime();
+        boolean async = false;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseOnComplete(start));
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                admissionLimiter.release(System.nanoTime() - start);
+            }
+        }
+    }
+
+    /**
+     * Releases an asynchronously completed request. {@code onComplete} is called
+     * after errors and timeouts too, so only it releases.
+     */
+    private final class ReleaseOnComplete implements AsyncListener {
+
+        private final long start;
+
+        ReleaseOnComplete(long start) {
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            admissionLimiter.release(System.nanoTime() - start);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+
+    /**
+     * Applies only to the {@code /event} and {@code /balance} endpoints, their {@code /async} variants
+     * and {@code /event/batch}.
+     *
+     * @param request the current request
+     * @return true if the request is for another endpoint
+     */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !"/event".equals(path) && !"/balance".equals(path)
+                && !"/async/event".equals(path) && !"/async/balance".equals(path) && !"/event/batch".equals(path);
+    }
+}
@@ -0,0 +1,49 @@
+package org.orelio.config;
+
+import org.orelio.facade.ChallengeCoreBankingFacade;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the banking engine of the core module as a bean.
+ *
+ * <p>{@link ChallengeCoreBankingFacade} has no Spring dependency, so its
+ * {@code banking.*} settings from {@code application.properties} are applied here
+ * through its setters. Both the servlet and the reactive applications use this
+ * configuration.</p>
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ * @see ChallengeCoreBankingFacade
+ */
+@Configuration
+public class BankingEngineConfig {
+
+    /**
+     * Creates the banking facade with the configured settings.
+     *
+     * @param metricsEnabled whether operation latencies are recorded
+     * @param hotAccountThreshold the lock contention score at which an account's deposits are striped
+     * @param depositCombining whether deposits are combined
+     * @param hotAccountSampleRate track one operation in this many in the heavy-hitter tracker
+     * @param balanceIndexEnabled whether the balance index is maintained on every mutation
+     * @return the configured facade
+     */
+    @Bean(destroyMethod = "close")
+    public ChallengeCoreBankingFacade challengeCoreBankingFacade(
+            @Value("${banking.metrics.enabled:true}") boolean metricsEnabled,
+            @Value("${banking.hot-accounts.contention-threshold:16}") int hotAccountThreshold,
+            @Value("${banking.deposits.combining.enabled:false}") boolean depositCombining,
+            @Value("${banking.hot-accounts.sample-rate:16}") int hotAccountSampleRate,
+            @Value("${banking.index.balance.enabled:true}") boolean balanceIndexEnabled) {
+        ChallengeCoreBankingFacade facade = new ChallengeCoreBankingFacade();
+        facade.setMetricsEnabled(metricsEnabled);
+        facade.setHotAccountThreshold(hotAccountThreshold);
+        facade.setDepositCombining(depositCombining);
+        facade.setHotAccountSampleRate(hotAccountSampleRate);
+        facade.setBalanceIndexEnabled(balanceIndexEnabled);
+        return facade;
+    }
+}
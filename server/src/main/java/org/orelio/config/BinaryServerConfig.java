@@ -0,0 +1,51 @@
+package org.orelio.config;
+
+import org.orelio.admission.RateLimits;
+import org.orelio.facade.ChallengeCoreBankingFacade;
+import org.orelio.tcp.BinaryServer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+
+/**
+ * Runs the {@link BinaryServer} alongside the web server.
+ *
+ * <p>Enabled by {@code banking.tcp.enabled=true}; the server listens on
+ * {@code banking.tcp.address}:{@code banking.tcp.port} with {@code banking.tcp.io-threads}
+ * selector threads and shares the facade and rate limits of the HTTP endpoints. It is
+ * stopped when the application context closes.</p>
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ * @see BinaryServer
+ */
+@Configuration
+@ConditionalOnProperty(name = "banking.tcp.enabled", havingValue = "true")
+public class BinaryServerConfig {
+
+    /**
+     * Starts the binary protocol server.
+     *
+     * @param facade the banking facade
+     * @param rateLimits the per-account and per-client rate limits
+     * @param address the address to listen on
+     * @param port the port to listen on, 0 for an ephemeral port
+     * @param ioThreads the number of I/O threads, 0 for one per available processor
+     * @return the running server
+     * @throws IOException if the port cannot be bound
+     */
+    @Bean(destroyMethod = "stop")
+    public BinaryServer binaryServer(ChallengeCoreBankingFacade facade, RateLimits rateLimits,
+                                     @Value("${banking.tcp.address:0.0.0.0}") String address,
+                                     @Value("${banking.tcp.port:9000}") int port,
+                                     @Value("${banking.tcp.io-threads:0}") int ioThreads) throws IOException {
+        BinaryServer server = new BinaryServer(facade, rateLimits, ioThreads);
+        server.start(new InetSocketAddress(address, port));
+        return server;
+    }
+}
@@ -0,0 +1,115 @@
+package org.orelio.config;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+
+import java.io.IOException;
+
+/**
+ * Writes the JSON text responses of the banking endpoints as CBOR or Smile.
+ *
+ * <p>The controllers build their responses as JSON strings through the {@link org.orelio.model.Constants}
+ * formats. When a client accepts {@value #CBOR_VALUE} or {@value #SMILE_VALUE}, this converter streams
+ * that JSON into the requested binary encoding token by token, without building a tree: objects become
+ * maps, and the bare numbers of {@code /balance} and of failures ("0") become integers. A body that is
+ * not JSON, such as the "OK" of {@code /reset}, is written as a single text string.</p>
+ *
+ * <p>It only writes; requests in CBOR or Smile are read by Spring's own Jackson converters for those
+ * formats, registered because the data format libraries are on the classpath. JSON stays the default
+ * for clients that accept anything.</p>
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ * @see WebConfig#extendMessageConverters(java.util.List)
+ */
+public class CompactFormatConverter extends AbstractHttpMessageConverter<String> {
+
+    /**
+     * Media type of CBOR (RFC 7049) bodies.
+     */
+    public static final String CBOR_VALUE = "application/cbor";
+
+    /**
+     * Media type of Smile bodies, as used by Spring's Smile converter.
+     */
+    public static final String SMILE_VALUE = "application/x-jackson-smile";
+
+    /**
+     * Media type of CBOR bodies.
+     */
+    public static final MediaType CBOR = MediaType.valueOf(CBOR_VALUE);
+
+    /**
+     * Media type of Smile bodies.
+     */
+    public static final MediaType SMILE = MediaType.valueOf(SMILE_VALUE);
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final JsonFactory cborFactory = new CBORFactory().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    private final JsonFactory smileFactory = new SmileFactory().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    /**
+     * Creates the converter for {@link #CBOR} and {@link #SMILE}.
+     */
+    public CompactFormatConverter() {
+        super(CBOR, SMILE);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return String.class == clazz;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected String readInternal(Class<? extends String> clazz, HttpInputMessage inputMessage) {
+        throw new UnsupportedOperationException("CompactFormatConverter only writes responses");
+    }
+
+    @Override
+    protected void writeInternal(String body, HttpOutputMessage outputMessage) throws IOException {
+        MediaType contentType = outputMessage.getHeaders().getContentType();
+        JsonFactory format = contentType != null && SMILE.includes(contentType) ? smileFactory : cborFactory;
+        // Closing the generator recycles its buffers but leaves the response stream open
+        try (JsonGenerator generator = format.createGenerator(outputMessage.getBody())) {
+            transcode(body, generator);
+        }
+    }
+
+    /**
+     * Copies a JSON text into a generator of another format.
+     *
+     * @param json the JSON text
+     * @param generator the generator receiving the same structure
+     * @throws IOException if the generator cannot write
+     */
+    public static void transcode(String json, JsonGenerator generator) throws IOException {
+        try (JsonParser parser = JSON.createParser(json)) {
+            try {
+                if (parser.nextToken() == null) {
+                    generator.writeString(json);
+                    return;
+                }
+            } catch (JsonParseException e) {
+                generator.writeString(json);
+                return;
+            }
+            generator.copyCurrentStructure(parser);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package org.orelio.config;
+
+import org.orelio.admission.IdempotencyCache;
+import org.orelio.admission.RateLimits;
+import org.orelio.controllers.FastPathServlet;
+import org.orelio.facade.ChallengeCoreBankingFacade;
+import org.orelio.workload.WorkloadLanes;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.ServletRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Serves {@code /event} and {@code /balance} with the {@link FastPathServlet}.
+ *
+ * <p>Enabled by {@code banking.fast-path.enabled=true}. The servlet is mapped to the two
+ * exact paths, which the container prefers over the dispatcher servlet's default mapping,
+ * so these requests never reach Spring MVC. Every other endpoint, including the
+ * {@code /async} variants, is still served by the controllers.</p>
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ * @see FastPathServlet
+ */
+@Configuration
+@ConditionalOnProperty(name = "banking.fast-path.enabled", havingValue = "true")
+public class FastPathConfig {
+
+    /**
+     * Registers the fast-path servlet on {@code /event} and {@code /balance}.
+     *
+     * @param facade the banking facade
+     * @param workloadLanes the read and write executors
+     * @param rateLimits the per-account and per-client rate limits
+     * @param idempotencyCache the stored responses of operations sent with an idempotency key
+     * @return the servlet registration
+     */
+    @Bean
+    public ServletRegistrationBean<FastPathServlet> fastPathServlet(ChallengeCoreBankingFacade facade,
+                                                                    WorkloadLanes workloadLanes,
+                                                                    RateLimits rateLimits,
+                                                                    IdempotencyCache idempotencyCache) {
+        ServletRegistrationBean<FastPathServlet> registration = new ServletRegistrationBean<>(
+                new FastPathServlet(facade, workloadLanes, rateLimits, idempotencyCache), "/event", "/balance");
+        registration.setName("fastPath");
+        registration.setAsyncSupported(true);
+        registration.setLoadOnStartup(1);
+        return registration;
+    }
+}
@@ -0,0 +1,42 @@
+package org.orelio.config;
+
+import org.apache.coyote.ProtocolHandler;
+import org.apache.coyote.http11.AbstractHttp11Protocol;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Sets how many requests Tomcat serves on one keep-alive connection.
+ *
+ * <p>Tomcat closes a connection after 100 requests by default, so a client reusing its
+ * connections (such as the Java SDK, pipelining up to its depth on each) reconnects every
+ * 100 calls and resends the calls pipelined behind the close. The limit is set by
+ * {@code banking.http.max-keep-alive-requests}; -1 removes it.</p>
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ */
+@Configuration
+public class KeepAliveConfig {
+
+    /**
+     * Applies the keep-alive request limit to every HTTP/1.1 connector.
+     *
+     * @param maxKeepAliveRequests the most requests served on one connection, or -1 for no limit
+     * @return the customizer of the embedded Tomcat
+     */
+    @Bean
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> keepAliveCustomizer(
+            @Value("${banking.http.max-keep-alive-requests:10000}") int maxKeepAliveRequests) {
+        return factory -> factory.addConnectorCustomizers(connector -> {
+            ProtocolHandler handler = connector.getProtocolHandler();
+            if (handler instanceof AbstractHttp11Protocol) {
+                ((AbstractHttp11Protocol<?>) handler).setMaxKeepAliveRequests(maxKeepAliveRequests);
+            }
+        });
+    }
+}
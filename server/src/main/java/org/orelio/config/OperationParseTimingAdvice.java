@@ -0,0 +1,92 @@
+package org.orelio.config;
+
+import org.orelio.facade.ChallengeCoreBankingFacade;
+import org.orelio.metrics.ServerTiming;
+import org.orelio.model.Operation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+
+import java.lang.reflect.Type;
+
+/**
+ * Request body advice timing the deserialization of {@link Operation} bodies.
+ *
+ * <p>The measured time is kept on the request thread and recorded as the parse
+ * stage by {@link RequestTimingInterceptor} once the outcome of the operation is known.
+ * For requests asking for a {@code Server-Timing} header, it is also reported as the
+ * deserialize stage.</p>
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ * @see org.orelio.metrics.OperationMetrics#parseStarted()
+ * @see org.orelio.metrics.OperationMetrics#parseFinished()
+ */
+@ControllerAdvice
+public class OperationParseTimingAdvice extends RequestBodyAdviceAdapter {
+
+    /**
+     * The banking facade service that owns the metrics.
+     */
+    @Autowired
+    private ChallengeCoreBankingFacade challengeCoreBankingFacade;
+
+    /**
+     * Applies only to {@link Operation} request bodies.
+     *
+     * @param methodParameter the handler method parameter
+     * @param targetType the target type of the body
+     * @param converterType the selected converter type
+     * @return true if the body is an operation
+     */
+    @Override
+    public boolean supports(MethodParameter methodParameter, Type targetType,
+                            Class<? extends HttpMessageConverter<?>> converterType) {
+        return Operation.class.equals(targetType);
+    }
+
+    /**
+     * Marks the start of deserialization.
+     *
+     * @param inputMessage the request body
+     * @param parameter the handler method parameter
+     * @param targetType the target type of the body
+     * @param converterType the selected converter type
+     * @return the unchanged request body
+     */
+    @Override
+    public HttpInputMessage beforeBodyRead(HttpInputMessage inputMessage, MethodParameter parameter,
+                                           Type targetType, Class<? extends HttpMessageConverter<?>> converterType) {
+        challengeCoreBankingFacade.getMetrics().parseStarted();
+        ServerTiming timing = ServerTiming.current();
+        if (timing != null) {
+            timing.stageStarted(ServerTiming.Stage.DESERIALIZE);
+        }
+        return inputMessage;
+    }
+
+    /**
+     * Marks the end of deserialization.
+     *
+     * @param body the deserialized operation
+     * @param inputMessage the request body
+     * @param parameter the handler method parameter
+     * @param targetType the target type of the body
+     * @param converterType the selected converter type
+     * @return the unchanged operation
+     */
+    @Override
+    public Object afterBodyRead(Object body, HttpInputMessage inputMessage, MethodParameter parameter,
+                                Type targetType, Class<? extends HttpMessageConverter<?>> converterType) {
+        challengeCoreBankingFacade.getMetrics().parseFinished();
+        ServerTiming timing = ServerTiming.current();
+        if (timing != null) {
+            timing.stageFinished(ServerTiming.Stage.DESERIALIZE);
+        }
+        return body;
+    }
+}
@@ -0,0 +1,76 @@
+package org.orelio.config;
+
+import org.orelio.facade.ChallengeCoreBankingFacade;
+import org.orelio.metrics.OperationMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Interceptor recording the total latency of banking operation requests.
+ *
+ * <p>Marks the start of the request before the handler runs and records the parse
+ * and total stages once the request has completed, for the operation type and
+ * outcome reported by the facade.</p>
+ *
+ * <p>For requests completed by a workload lane, the handler runs again in an async
+ * dispatch; the request state left by the lane in the {@link #REQUEST_STATE} attribute
+ * is then attached to the dispatching thread instead of starting a new request.</p>
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ * @see org.orelio.metrics.OperationMetrics#requestStarted()
+ * @see org.orelio.metrics.OperationMetrics#requestFinished()
+ */
+@Component
+public class RequestTimingInterceptor implements HandlerInterceptor {
+
+    /**
+     * Request attribute holding the metrics state of a request completed by a workload lane.
+     */
+    public static final String REQUEST_STATE = RequestTimingInterceptor.class.getName() + ".state";
+
+    /**
+     * The banking facade service that owns the metrics.
+     */
+    @Autowired
+    private ChallengeCoreBankingFacade challengeCoreBankingFacade;
+
+    /**
+     * Marks the start of the request, or resumes it in an async dispatch.
+     *
+     * @param request the current request
+     * @param response the current response
+     * @param handler the selected handler
+     * @return always true
+     */
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        OperationMetrics metrics = challengeCoreBankingFacade.getMetrics();
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            metrics.attachRequest((OperationMetrics.RequestState) request.getAttribute(REQUEST_STATE));
+        } else {
+            metrics.requestStarted();
+        }
+        return true;
+    }
+
+    /**
+     * Records the parse and total stages of the completed request.
+     *
+     * @param request the current request
+     * @param response the current response
+     * @param handler the selected handler
+     * @param ex the exception thrown by the handler, if any
+     */
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        challengeCoreBankingFacade.getMetrics().requestFinished();
+    }
+}
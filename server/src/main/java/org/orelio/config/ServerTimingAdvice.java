@@ -0,0 +1,65 @@
+package org.orelio.config;
+
+import org.orelio.metrics.ServerTiming;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Response body advice adding the {@code Server-Timing} header to timed responses.
+ *
+ * <p>The header is added just before the body is written, since writing the body
+ * commits the response. The reported total therefore ends there, and the time spent
+ * writing the body to the socket is not included. The timing is looked up through the
+ * {@link ServerTiming#ATTRIBUTE} request attribute, because a request completed by a
+ * workload lane writes its body on a different thread than the one that began timing it.</p>
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ * @see org.orelio.metrics.ServerTiming#header()
+ */
+@ControllerAdvice
+public class ServerTimingAdvice implements ResponseBodyAdvice<Object> {
+
+    /**
+     * Applies to every response body; untimed requests are skipped in {@link #beforeBodyWrite}.
+     *
+     * @param returnType the handler method return type
+     * @param converterType the selected converter type
+     * @return always true
+     */
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    /**
+     * Adds the header if the request is timed.
+     *
+     * @param body the response body
+     * @param returnType the handler method return type
+     * @param contentType the selected content type
+     * @param converterType the selected converter type
+     * @param request the current request
+     * @param response the current response
+     * @return the unchanged body
+     */
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType contentType,
+                                  Class<? extends HttpMessageConverter<?>> converterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        Object timing = request instanceof ServletServerHttpRequest
+                ? ((ServletServerHttpRequest) request).getServletRequest().getAttribute(ServerTiming.ATTRIBUTE)
+                : null;
+        if (timing instanceof ServerTiming) {
+            response.getHeaders().add(ServerTiming.RESPONSE_HEADER, ((ServerTiming) timing).header());
+        }
+        return body;
+    }
+}
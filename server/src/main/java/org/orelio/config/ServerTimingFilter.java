@@ -0,0 +1,70 @@
+package org.orelio.config;
+
+import org.orelio.metrics.ServerTiming;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Servlet filter starting the {@code Server-Timing} breakdown of requests that ask for it.
+ *
+ * <p>Runs first in the filter chain for {@code /event} and {@code /balance}. When the
+ * request carries the {@link ServerTiming#REQUEST_HEADER} header, the request thread's
+ * timing is started here and ended once the request has been handled; other requests
+ * pass through untouched. The timing is also kept as the {@link ServerTiming#ATTRIBUTE}
+ * request attribute for asynchronously completed requests.</p>
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ * @see org.orelio.metrics.ServerTiming
+ * @see ServerTimingInterceptor
+ * @see ServerTimingAdvice
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    /**
+     * Starts timing the request if asked, then continues the chain.
+     *
+     * @param request the current request
+     * @param response the current response
+     * @param chain the remaining filter chain
+     * @throws ServletException if a later filter or the servlet fails
+     * @throws IOException if reading or writing the request fails
+     */
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!ServerTiming.isRequested(request.getHeader(ServerTiming.REQUEST_HEADER))) {
+            chain.doFilter(request, response);
+            return;
+        }
+        request.setAttribute(ServerTiming.ATTRIBUTE, ServerTiming.begin());
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ServerTiming.end();
+        }
+    }
+
+    /**
+     * Applies only to the {@code /event} and {@code /balance} endpoints.
+     *
+     * @param request the current request
+     * @return true if the request is for another endpoint
+     */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !"/event".equals(path) && !"/balance".equals(path);
+    }
+}
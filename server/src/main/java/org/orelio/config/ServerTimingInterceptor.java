@@ -0,0 +1,37 @@
+package org.orelio.config;
+
+import org.orelio.metrics.ServerTiming;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Interceptor closing the queue stage of timed requests when their handler starts.
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ * @see org.orelio.metrics.ServerTiming#handlerStarted()
+ */
+@Component
+public class ServerTimingInterceptor implements HandlerInterceptor {
+
+    /**
+     * Marks the start of the handler of a timed request.
+     *
+     * @param request the current request
+     * @param response the current response
+     * @param handler the selected handler
+     * @return always true
+     */
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        ServerTiming timing = ServerTiming.current();
+        if (timing != null) {
+            timing.handlerStarted();
+        }
+        return true;
+    }
+}
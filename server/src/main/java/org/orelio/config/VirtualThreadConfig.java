@@ -0,0 +1,64 @@
+package org.orelio.config;
+
+import org.apache.coyote.AbstractProtocol;
+import org.apache.coyote.ProtocolHandler;
+import org.orelio.util.VirtualThreads;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Runs Tomcat's request processing on virtual threads.
+ *
+ * <p>Enabled by {@code banking.threads.virtual=true}, which the {@code virtual} Spring
+ * profile sets. Each request is then handled, controller and facade included, on its own
+ * virtual thread instead of a pooled platform thread, so thousands of blocked requests
+ * cost memory rather than threads. The locking code parks through
+ * {@link java.util.concurrent.locks.ReentrantLock} and
+ * {@link java.util.concurrent.locks.LockSupport}, which release the carrier thread.</p>
+ *
+ * <p>Requires a Java 21 runtime; startup fails with an {@link UnsupportedOperationException}
+ * on older JDKs.</p>
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ * @see VirtualThreads
+ */
+@Configuration
+@ConditionalOnProperty(name = "banking.threads.virtual", havingValue = "true")
+public class VirtualThreadConfig {
+
+    /**
+     * Starts one virtual thread per request processing task.
+     */
+    private final ExecutorService executor = VirtualThreads.newPerTaskExecutor();
+
+    /**
+     * Replaces the executor of every Tomcat connector with the virtual-thread executor.
+     *
+     * @return the customizer of the embedded Tomcat
+     */
+    @Bean
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> virtualThreadCustomizer() {
+        return factory -> factory.addConnectorCustomizers(connector -> {
+            ProtocolHandler handler = connector.getProtocolHandler();
+            if (handler instanceof AbstractProtocol) {
+                ((AbstractProtocol<?>) handler).setExecutor(executor);
+            }
+        });
+    }
+
+    /**
+     * Stops accepting tasks once Tomcat has stopped.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,87 @@
+package org.orelio.config;
+
+import org.orelio.admission.AdaptiveConcurrencyLimiter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Spring MVC configuration for the ChallengeCoreBanking system.
+ *
+ * <p>Registers the {@link RequestTimingInterceptor} on {@code /event} and {@code /async/event} so
+ * that the total latency of every banking operation is recorded, and the
+ * {@link ServerTimingInterceptor} on {@code /event} and {@code /balance}. Also defines
+ * the {@link AdaptiveConcurrencyLimiter} used by the {@link AdmissionFilter} and adds the
+ * {@link CompactFormatConverter} for CBOR and Smile responses.</p>
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ * @see RequestTimingInterceptor
+ * @see OperationParseTimingAdvice
+ * @see ServerTimingInterceptor
+ * @see AdmissionFilter
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    /**
+     * Interceptor recording the total latency of {@code /event} requests.
+     */
+    @Autowired
+    private RequestTimingInterceptor requestTimingInterceptor;
+
+    /**
+     * Interceptor closing the queue stage of {@code Server-Timing} requests.
+     */
+    @Autowired
+    private ServerTimingInterceptor serverTimingInterceptor;
+
+    /**
+     * Creates the admission limiter from {@code banking.admission.*} properties.
+     *
+     * @param initialLimit the limit before any latency has been observed
+     * @param minLimit the lowest limit
+     * @param maxLimit the highest limit
+     * @param smoothing the weight of each new limit
+     * @param tolerance the latency increase tolerated before the limit shrinks
+     * @return the limiter
+     */
+    @Bean
+    public AdaptiveConcurrencyLimiter admissionLimiter(
+            @Value("${banking.admission.initial-limit:64}") int initialLimit,
+            @Value("${banking.admission.min-limit:8}") int minLimit,
+            @Value("${banking.admission.max-limit:512}") int maxLimit,
+            @Value("${banking.admission.smoothing:0.2}") double smoothing,
+            @Value("${banking.admission.tolerance:2.0}") double tolerance) {
+        return new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, smoothing, tolerance);
+    }
+
+    /**
+     * Registers the request timing interceptors.
+     *
+     * @param registry the interceptor registry
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(requestTimingInterceptor).addPathPatterns("/event", "/async/event");
+        registry.addInterceptor(serverTimingInterceptor).addPathPatterns("/event", "/balance");
+    }
+
+    /**
+     * Puts the {@link CompactFormatConverter} ahead of the string converter, which would
+     * otherwise write JSON text under a CBOR or Smile content type.
+     *
+     * @param converters the configured message converters
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(0, new CompactFormatConverter());
+    }
+}
@@ -0,0 +1,127 @@
+package org.orelio.controllers;
+
+import org.orelio.facade.ChallengeCoreBankingFacade;
+import org.orelio.model.Constants;
+import org.orelio.util.ChallengeCoreUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for account queries in the ChallengeCoreBanking system.
+ *
+ * <p>This controller exposes read-only, index-backed views over the accounts:</p>
+ * <ul>
+ *   <li>{@code GET /accounts?after={id}&limit={limit}&prefix={prefix}} - Accounts in ID order, cursor-paginated</li>
+ *   <li>{@code GET /accounts/top?n={n}&order={desc|asc}} - Largest or most overdrawn balances</li>
+ *   <li>{@code GET /accounts/by-balance?min={min}&max={max}&limit={limit}} - Accounts in a balance range</li>
+ * </ul>
+ *
+ * <p>All endpoints return JSON with HTTP 200, or "0" with HTTP 400 if a parameter
+ * is out of range.</p>
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ * @see org.orelio.facade.ChallengeCoreBankingFacade
+ * @see org.orelio.store.BalanceIndex
+ * @see org.orelio.store.AccountIdIndex
+ */
+@RestController
+@RequestMapping(path = "/accounts", produces = MediaType.APPLICATION_JSON_VALUE)
+public class AccountsController {
+
+    /**
+     * Maximum number of accounts returned by a single request.
+     */
+    private static final int MAX_RESULTS = 10000;
+
+    /**
+     * The banking facade service that owns the account state.
+     */
+    @Autowired
+    private ChallengeCoreBankingFacade challengeCoreBankingFacade;
+
+    /**
+     * Lists accounts in ascending ID order with cursor pagination.
+     *
+     * <p>The response holds the page of accounts and a {@code next} cursor; request
+     * the following page with {@code after=<next>} until {@code next} is null.</p>
+     *
+     * @param after the last ID of the previous page, omitted for the first page
+     * @param limit the maximum number of accounts on the page (1 to 10000, default 100)
+     * @param prefix only list accounts whose ID starts with this prefix, omitted for all
+     * @return ResponseEntity containing the page as JSON:
+     *         <ul>
+     *           <li>HTTP 200 with {@code {"accounts": [...], "next": "..."}}</li>
+     *           <li>HTTP 400 with "0" if limit is invalid</li>
+     *         </ul>
+     * @see ChallengeCoreBankingFacade#listAccounts(String, String, int)
+     */
+    @GetMapping
+    @ResponseBody
+    public ResponseEntity<String> listAccounts(@RequestParam(value = "after", required = false) String after,
+                                               @RequestParam(value = "limit", defaultValue = "100") int limit,
+                                               @RequestParam(value = "prefix", required = false) String prefix) {
+        if (limit < 1 || limit > MAX_RESULTS) {
+            return new ResponseEntity<String>(Constants.ZERO, HttpStatus.BAD_REQUEST);
+        }
+        return new ResponseEntity<String>(
+                ChallengeCoreUtils.toJson(challengeCoreBankingFacade.listAccounts(after, prefix, limit)),
+                HttpStatus.OK);
+    }
+
+    /**
+     * Returns the accounts with the largest or the most negative balances.
+     *
+     * @param n the number of accounts to return (1 to 10000, default 100)
+     * @param order "desc" for the largest balances first, "asc" for the most overdrawn first
+     * @return ResponseEntity containing a JSON array of accounts:
+     *         <ul>
+     *           <li>HTTP 200 with the accounts in balance order</li>
+     *           <li>HTTP 400 with "0" if n or order is invalid</li>
+     *         </ul>
+     * @see ChallengeCoreBankingFacade#getTopAccounts(int, boolean)
+     */
+    @GetMapping("/top")
+    @ResponseBody
+    public ResponseEntity<String> getTopAccounts(@RequestParam(value = "n", defaultValue = "100") int n,
+                                                 @RequestParam(value = "order", defaultValue = "desc") String order) {
+        boolean descending = "desc".equalsIgnoreCase(order);
+        if (n < 1 || n > MAX_RESULTS || (!descending && !"asc".equalsIgnoreCase(order))) {
+            return new ResponseEntity<String>(Constants.ZERO, HttpStatus.BAD_REQUEST);
+        }
+        return new ResponseEntity<String>(
+                ChallengeCoreUtils.toJson(challengeCoreBankingFacade.getTopAccounts(n, descending)), HttpStatus.OK);
+    }
+
+    /**
+     * Returns the accounts whose balance lies in {@code [min, max)}, lowest balance first.
+     *
+     * <p>For example, {@code GET /accounts/by-balance?max=0} lists the overdrawn accounts.</p>
+     *
+     * @param min the inclusive lower bound, omitted for no lower bound
+     * @param max the exclusive upper bound, omitted for no upper bound
+     * @param limit the maximum number of accounts to return (1 to 10000, default 100)
+     * @return ResponseEntity containing a JSON array of accounts:
+     *         <ul>
+     *           <li>HTTP 200 with the accounts in ascending balance order</li>
+     *           <li>HTTP 400 with "0" if limit is invalid or min is greater than max</li>
+     *         </ul>
+     * @see ChallengeCoreBankingFacade#getAccountsByBalance(Long, Long, int)
+     */
+    @GetMapping("/by-balance")
+    @ResponseBody
+    public ResponseEntity<String> getAccountsByBalance(@RequestParam(value = "min", required = false) Long min,
+                                                       @RequestParam(value = "max", required = false) Long max,
+                                                       @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        if (limit < 1 || limit > MAX_RESULTS || (min != null && max != null && min > max)) {
+            return new ResponseEntity<String>(Constants.ZERO, HttpStatus.BAD_REQUEST);
+        }
+        return new ResponseEntity<String>(
+                ChallengeCoreUtils.toJson(challengeCoreBankingFacade.getAccountsByBalance(min, max, limit)),
+                HttpStatus.OK);
+    }
+}
@@ -0,0 +1,119 @@
+package org.orelio.controllers;
+
+import org.orelio.metrics.JfrRecorder;
+import org.orelio.model.Constants;
+import org.orelio.util.ChallengeCoreUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+/**
+ * REST controller for administrative operations in the ChallengeCoreBanking system.
+ *
+ * <p>Controls an on-demand Java Flight Recorder recording that includes the
+ * {@code org.orelio.BankingOperation} events:</p>
+ * <ul>
+ *   <li>{@code GET /admin/jfr} - state of the recording</li>
+ *   <li>{@code POST /admin/jfr/start?settings={default|profile}} - start a recording</li>
+ *   <li>{@code POST /admin/jfr/dump} - dump the data recorded so far to a local file</li>
+ *   <li>{@code POST /admin/jfr/stop} - stop the recording and dump it to a local file</li>
+ * </ul>
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ * @see org.orelio.metrics.JfrRecorder
+ * @see org.orelio.metrics.BankingOperationEvent
+ */
+@RestController
+@RequestMapping(path = "/admin/jfr", produces = MediaType.APPLICATION_JSON_VALUE)
+public class AdminController {
+
+    /**
+     * The recorder managing the JFR recording.
+     */
+    @Autowired
+    private JfrRecorder jfrRecorder;
+
+    /**
+     * Returns the state of the recording.
+     *
+     * @return ResponseEntity containing the recording state as JSON with HTTP 200 status
+     */
+    @GetMapping
+    @ResponseBody
+    public ResponseEntity<String> status() {
+        return new ResponseEntity<String>(ChallengeCoreUtils.toJson(jfrRecorder.status()), HttpStatus.OK);
+    }
+
+    /**
+     * Starts a recording.
+     *
+     * @param settings the predefined JDK settings, {@code default} or {@code profile}
+     * @return ResponseEntity containing:
+     *         <ul>
+     *           <li>HTTP 200 with the recording state</li>
+     *           <li>HTTP 400 with "0" if the settings are unknown</li>
+     *           <li>HTTP 409 with "0" if a recording is already running</li>
+     *         </ul>
+     */
+    @PostMapping("/start")
+    @ResponseBody
+    public ResponseEntity<String> start(@RequestParam(value = "settings", defaultValue = "default") String settings) {
+        try {
+            return new ResponseEntity<String>(ChallengeCoreUtils.toJson(jfrRecorder.start(settings)), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<String>(Constants.ZERO, HttpStatus.BAD_REQUEST);
+        } catch (IllegalStateException e) {
+            return new ResponseEntity<String>(Constants.ZERO, HttpStatus.CONFLICT);
+        }
+    }
+
+    /**
+     * Dumps the data recorded so far without stopping the recording.
+     *
+     * @return ResponseEntity containing:
+     *         <ul>
+     *           <li>HTTP 200 with the recording state and the dump file</li>
+     *           <li>HTTP 409 with "0" if no recording is running</li>
+     *           <li>HTTP 500 with "0" if the dump cannot be written</li>
+     *         </ul>
+     */
+    @PostMapping("/dump")
+    @ResponseBody
+    public ResponseEntity<String> dump() {
+        try {
+            return new ResponseEntity<String>(ChallengeCoreUtils.toJson(jfrRecorder.dump()), HttpStatus.OK);
+        } catch (IllegalStateException e) {
+            return new ResponseEntity<String>(Constants.ZERO, HttpStatus.CONFLICT);
+        } catch (IOException e) {
+            return new ResponseEntity<String>(Constants.ZERO, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Stops the recording and dumps it.
+     *
+     * @return ResponseEntity containing:
+     *         <ul>
+     *           <li>HTTP 200 with the final recording state and the dump file</li>
+     *           <li>HTTP 409 with "0" if no recording is running</li>
+     *           <li>HTTP 500 with "0" if the dump cannot be written</li>
+     *         </ul>
+     */
+    @PostMapping("/stop")
+    @ResponseBody
+    public ResponseEntity<String> stop() {
+        try {
+            return new ResponseEntity<String>(ChallengeCoreUtils.toJson(jfrRecorder.stop()), HttpStatus.OK);
+        } catch (IllegalStateException e) {
+            return new ResponseEntity<String>(Constants.ZERO, HttpStatus.CONFLICT);
+        } catch (IOException e) {
+            return new ResponseEntity<String>(Constants.ZERO, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+}
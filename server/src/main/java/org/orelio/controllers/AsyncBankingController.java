@@ -0,0 +1,123 @@
+package org.orelio.controllers;
+
+import org.orelio.admission.RateLimits;
+import org.orelio.config.CompactFormatConverter;
+import org.orelio.config.RequestTimingInterceptor;
+import org.orelio.facade.ChallengeCoreBankingFacade;
+import org.orelio.metrics.OperationMetrics;
+import org.orelio.model.Constants;
+import org.orelio.model.Operation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asynchronous variants of the banking endpoints of the ChallengeCoreBanking system.
+ *
+ * <p>{@code POST /async/event} and {@code GET /async/balance} take the same parameters and
+ * return the same responses as {@code /event} and {@code /balance} in {@link GreetingsController},
+ * but return a {@link CompletableFuture} from the non-blocking facade API instead of running
+ * on a workload lane. With {@code banking.deposits.combining.enabled=true}, a deposit waiting
+ * for its account lock holds no thread at all: it waits on the lock stripe's queue and is
+ * answered by whichever thread combines it. Every other request completes on the container
+ * thread, as reads take no lock and other operations hold theirs only for the update.</p>
+ *
+ * <p>Combining is off by default. A deposit then waits for its lock stripe on the container
+ * thread, as on {@code /event}, and the returned future is already complete: the endpoint
+ * only saves a thread once combining is enabled.</p>
+ *
+ * <p>Requests are admitted and rate limited like the synchronous endpoints, and negotiate
+ * JSON, CBOR or Smile bodies the same way. Requests carrying the {@code X-Server-Timing}
+ * header get no {@code Server-Timing} breakdown.</p>
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ * @see ChallengeCoreBankingFacade#operationEventAsync(Operation)
+ * @see ChallengeCoreBankingFacade#getAccountAsync(String)
+ */
+@RestController
+@RequestMapping(path = "/async", produces = {MediaType.APPLICATION_JSON_VALUE, CompactFormatConverter.CBOR_VALUE,
+        CompactFormatConverter.SMILE_VALUE})
+public class AsyncBankingController {
+
+    /**
+     * The banking facade service that handles all business logic operations.
+     */
+    @Autowired
+    private ChallengeCoreBankingFacade challengeCoreBankingFacade;
+
+    /**
+     * The per-account and per-client rate limits of banking operations.
+     */
+    @Autowired
+    private RateLimits rateLimits;
+
+    /**
+     * Retrieves the balance of a specific account.
+     *
+     * @param accountId the unique identifier of the account to query
+     * @return future ResponseEntity containing the account balance as a string:
+     *         <ul>
+     *           <li>HTTP 200 with balance if account exists</li>
+     *           <li>HTTP 404 with "0" if account does not exist</li>
+     *         </ul>
+     * @see ChallengeCoreBankingFacade#getAccountAsync(String)
+     */
+    @GetMapping("/balance")
+    @ResponseBody
+    public CompletableFuture<ResponseEntity<String>> getAccount(@RequestParam("account_id") String accountId) {
+        return challengeCoreBankingFacade.getAccountAsync(accountId).thenApply(account -> account != null
+                ? new ResponseEntity<String>(account.getBalance().toString(), HttpStatus.OK)
+                : new ResponseEntity<String>(Constants.ZERO, HttpStatus.NOT_FOUND));
+    }
+
+    /**
+     * Performs a banking operation (deposit, withdraw, or transfer).
+     *
+     * @param operation the banking operation to perform
+     * @param request the current request, identifying the client
+     * @return future ResponseEntity containing the operation result:
+     *         <ul>
+     *           <li>HTTP 201 with account details if operation succeeds</li>
+     *           <li>HTTP 404 with "0" if operation fails</li>
+     *           <li>HTTP 429 with "0" and {@code Retry-After} if a rate limit is exceeded</li>
+     *         </ul>
+     * @see ChallengeCoreBankingFacade#operationEventAsync(Operation)
+     */
+    @PostMapping("/event")
+    @ResponseBody
+    public CompletableFuture<ResponseEntity<String>> deposit(@RequestBody Operation operation,
+                                                             HttpServletRequest request) {
+        OperationMetrics metrics = challengeCoreBankingFacade.getMetrics();
+        String client = request.getHeader(GreetingsController.CLIENT_HEADER);
+        long waitNanos = rateLimits.tryAcquire(client != null ? client : request.getRemoteAddr(), operation);
+        if (waitNanos > 0) {
+            request.setAttribute(RequestTimingInterceptor.REQUEST_STATE, metrics.detachRequest());
+            long retryAfterSeconds = (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+            HttpHeaders headers = new HttpHeaders();
+            headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            return CompletableFuture.completedFuture(
+                    new ResponseEntity<String>(Constants.ZERO, headers, HttpStatus.TOO_MANY_REQUESTS));
+        }
+
+        CompletableFuture<String> result = challengeCoreBankingFacade.operationEventAsync(operation);
+        // The metrics state moves to the async dispatch that writes the response
+        OperationMetrics.RequestState state = metrics.detachRequest();
+        int type = OperationMetrics.typeIndex(
+                operation.getType() != null ? operation.getType().toLowerCase() : null);
+        return result.thenApply(resultBalance -> {
+            boolean success = !resultBalance.equals(Constants.ZERO);
+            request.setAttribute(RequestTimingInterceptor.REQUEST_STATE,
+                    state != null ? state.withOutcome(type, success) : null);
+            return new ResponseEntity<String>(resultBalance, success ? HttpStatus.CREATED : HttpStatus.NOT_FOUND);
+        });
+    }
+}
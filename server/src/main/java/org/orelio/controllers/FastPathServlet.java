@@ -0,0 +1,387 @@
+package org.orelio.controllers;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import org.orelio.admission.IdempotencyCache;
+import org.orelio.admission.RateLimits;
+import org.orelio.facade.ChallengeCoreBankingFacade;
+import org.orelio.metrics.OperationMetrics;
+import org.orelio.model.Account;
+import org.orelio.model.Constants;
+import org.orelio.model.Operation;
+import org.orelio.util.ResponseBuffer;
+import org.orelio.workload.Lane;
+import org.orelio.workload.WorkloadLanes;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.RequestDispatcher;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Low-level handler of {@code /event} and {@code /balance} bypassing Spring MVC dispatch.
+ *
+ * <p>Registered directly with the servlet container by
+ * {@link org.orelio.config.FastPathConfig} when {@code banking.fast-path.enabled=true}.
+ * It answers with the same status codes and bodies as {@link GreetingsController}, but
+ * skips handler mapping, argument resolution and message conversion: the body is read
+ * into a per-thread byte array and parsed with Jackson's streaming parser, and responses
+ * are written as bytes, constant ones encoded once. Servlet filters, so admission control,
+ * still apply; rate limits, idempotency keys, workload lanes and operation metrics are
+ * applied here.</p>
+ *
+ * <p><strong>Differences from the controller:</strong></p>
+ * <ul>
+ *   <li>No {@code Server-Timing} breakdown is produced</li>
+ *   <li>Bodies above {@value #MAX_BODY} bytes are rejected with {@code 413}</li>
+ *   <li>Failures other than a malformed body get {@code 500} from the container's error page</li>
+ * </ul>
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ * @see GreetingsController
+ */
+public class FastPathServlet extends HttpServlet {
+
+    /**
+     * Largest accepted request body, in bytes.
+     */
+    static final int MAX_BODY = 64 * 1024;
+
+    /**
+     * Request attribute set when the body exceeds {@link #MAX_BODY}.
+     */
+    private static final String MAX_BODY_EXCEEDED = FastPathServlet.class.getName() + ".tooLarge";
+
+    private static final String CONTENT_TYPE = "application/json;charset=UTF-8";
+
+    private static final byte[] ZERO = Constants.ZERO.getBytes(StandardCharsets.UTF_8);
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    /**
+     * Per-thread request body buffer, grown up to {@link #MAX_BODY}.
+     */
+    private static final ThreadLocal<byte[]> bodies = ThreadLocal.withInitial(() -> new byte[512]);
+
+    /**
+     * Per-thread response encoding buffers.
+     */
+    private static final ThreadLocal<ResponseBuffer> responses = ThreadLocal.withInitial(ResponseBuffer::new);
+
+    private static final ThreadLocal<byte[]> encoded = ThreadLocal.withInitial(() -> new byte[256]);
+
+    private final transient ChallengeCoreBankingFacade facade;
+
+    private final transient WorkloadLanes workloadLanes;
+
+    private final transient RateLimits rateLimits;
+
+    private final transient IdempotencyCache idempotencyCache;
+
+    /**
+     * Creates the handler.
+     *
+     * @param facade the banking facade
+     * @param workloadLanes the read and write executors
+     * @param rateLimits the per-account and per-client rate limits
+     * @param idempotencyCache the stored responses of operations sent with an idempotency key
+     */
+    public FastPathServlet(ChallengeCoreBankingFacade facade, WorkloadLanes workloadLanes, RateLimits rateLimits,
+                           IdempotencyCache idempotencyCache) {
+        this.facade = facade;
+        this.workloadLanes = workloadLanes;
+        this.rateLimits = rateLimits;
+        this.idempotencyCache = idempotencyCache;
+    }
+
+    /**
+     * Serves {@code GET /balance}: 200 with the balance, 404 with "0" for an unknown
+     * account, 400 without {@code account_id}, or the lane rejection when the read lane is full.
+     *
+     * @param request the current request
+     * @param response the current response
+     * @throws IOException if the response cannot be written
+     */
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (!"/balance".equals(request.getServletPath())) {
+            response.sendError(HttpServletResponse.SC_METHOD_NOT_ALLOWED);
+            return;
+        }
+        String accountId = request.getParameter("account_id");
+        if (accountId == null) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+            return;
+        }
+        dispatch(request, response, workloadLanes.read(), null, () -> {
+            Account account = facade.getAccount(accountId);
+            if (account == null) {
+                write(response, HttpServletResponse.SC_NOT_FOUND, ZERO, ZERO.length);
+            } else {
+                ResponseBuffer buffer = responses.get().clear().append(account.getBalance());
+                write(response, HttpServletResponse.SC_OK, buffer);
+            }
+        });
+    }
+
+    /**
+     * Serves {@code POST /event}: 201 with the accounts touched, 404 with "0" if the operation
+     * fails, 400 for a malformed body, 429 when rate limited, or the lane rejection when the
+     * write lane is full. An {@link IdempotencyCache#HEADER} already used for the operation
+     * gets the stored response, or 409 while its first request is running.
+     *
+     * @param request the current request
+     * @param response the current response
+     * @throws IOException if the request cannot be read or the response written
+     */
+    @Override
+    protected void doPost(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (!"/event".equals(request.getServletPath())) {
+            response.sendError(HttpServletResponse.SC_METHOD_NOT_ALLOWED);
+            return;
+        }
+        OperationMetrics metrics = facade.getMetrics();
+        metrics.requestStarted();
+        metrics.parseStarted();
+        Operation operation = read(request);
+        if (operation == null) {
+            metrics.requestFinished();
+            response.sendError(request.getAttribute(MAX_BODY_EXCEEDED) != null
+                    ? HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE : HttpServletResponse.SC_BAD_REQUEST);
+            return;
+        }
+        metrics.parseFinished();
+
+        String header = request.getHeader(GreetingsController.CLIENT_HEADER);
+        String client = header != null ? header : request.getRemoteAddr();
+        String key = request.getHeader(IdempotencyCache.HEADER);
+        IdempotencyCache.Entry stored = idempotencyCache.begin(client, key,
+                key != null ? IdempotencyCache.fingerprint(operation) : null);
+        if (stored != null) {
+            metrics.requestFinished();
+            if (stored.isReplayed()) {
+                response.setHeader(IdempotencyCache.REPLAYED_HEADER, "true");
+            }
+            byte[] body = stored.getBody().getBytes(StandardCharsets.UTF_8);
+            write(response, stored.getStatus(), body, body.length);
+            return;
+        }
+
+        long waitNanos = rateLimits.tryAcquire(client, operation);
+        if (waitNanos > 0) {
+            idempotencyCache.release(client, key);
+            metrics.requestFinished();
+            long retryAfterSeconds = (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            write(response, HttpStatus.TOO_MANY_REQUESTS.value(), ZERO, ZERO.length);
+            return;
+        }
+
+        OperationMetrics.RequestState state = metrics.detachRequest();
+        boolean queued = dispatch(request, response, workloadLanes.write(), state, () -> {
+            metrics.attachRequest(state);
+            try {
+                ResponseBuffer buffer = responses.get();
+                boolean applied;
+                try {
+                    applied = facade.operationEvent(operation, buffer);
+                } catch (RuntimeException e) {
+                    idempotencyCache.release(client, key);
+                    throw e;
+                }
+                if (applied) {
+                    if (key != null) {
+                        idempotencyCache.complete(client, key, HttpServletResponse.SC_CREATED, buffer.toString());
+                    }
+                    write(response, HttpServletResponse.SC_CREATED, buffer);
+                } else {
+                    idempotencyCache.complete(client, key, HttpServletResponse.SC_NOT_FOUND, Constants.ZERO);
+                    write(response, HttpServletResponse.SC_NOT_FOUND, ZERO, ZERO.length);
+                }
+            } finally {
+                metrics.requestFinished();
+            }
+        });
+        if (!queued) {
+            idempotencyCache.release(client, key);
+            rateLimits.release(client, operation);
+        }
+    }
+
+    /**
+     * Runs a handler on a lane, completing the request asynchronously, or inline when
+     * lanes are disabled.
+     *
+     * @return false if the lane was full and the request was rejected without running the handler
+     */
+    private boolean dispatch(HttpServletRequest request, HttpServletResponse response, Lane lane,
+                          OperationMetrics.RequestState state, Handler handler) throws IOException {
+        if (!workloadLanes.isEnabled()) {
+            handler.handle();
+            return true;
+        }
+        AsyncContext async = request.startAsync();
+        boolean submitted = lane.submit(() -> {
+            try {
+                handler.handle();
+            } catch (IOException e) {
+                // The client is gone; nothing left to answer
+            } catch (RuntimeException e) {
+                fail(request, response, e);
+            } finally {
+                async.complete();
+            }
+        });
+        if (!submitted) {
+            if (state != null) {
+                OperationMetrics metrics = facade.getMetrics();
+                metrics.attachRequest(state);
+                metrics.requestFinished();
+            }
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(workloadLanes.getRetryAfterSeconds()));
+            write(response, workloadLanes.getRejectionStatus(), ZERO, ZERO.length);
+            async.complete();
+        }
+        return submitted;
+    }
+
+    /**
+     * Answers 500 for a failure on a lane thread, where the container cannot catch it.
+     */
+    private static void fail(HttpServletRequest request, HttpServletResponse response, RuntimeException e) {
+        request.setAttribute(RequestDispatcher.ERROR_EXCEPTION, e);
+        try {
+            response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        } catch (IOException | IllegalStateException ignored) {
+            // The response is already committed or the client is gone
+        }
+    }
+
+    /**
+     * Reads and parses the operation in the body.
+     *
+     * @return the operation, or null if the body is malformed or too large
+     */
+    private static Operation read(HttpServletRequest request) throws IOException {
+        byte[] body = bodies.get();
+        int length = 0;
+        InputStream in = request.getInputStream();
+        for (int n; (n = in.read(body, length, body.length - length)) != -1; ) {
+            length += n;
+            if (length == body.length) {
+                if (body.length == MAX_BODY) {
+                    request.setAttribute(MAX_BODY_EXCEEDED, Boolean.TRUE);
+                    return null;
+                }
+                body = Arrays.copyOf(body, Math.min(body.length * 2, MAX_BODY));
+                bodies.set(body);
+            }
+        }
+        return parse(body, length);
+    }
+
+    /**
+     * Parses an operation object, ignoring unknown fields like the MVC message converter.
+     *
+     * @param body the body bytes
+     * @param length the body length
+     * @return the operation, or null if the body is not a JSON object of scalar fields
+     */
+    static Operation parse(byte[] body, int length) throws IOException {
+        Operation operation = new Operation();
+        try (JsonParser parser = JSON.createParser(body, 0, length)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            for (JsonToken token = parser.nextToken(); token != JsonToken.END_OBJECT; token = parser.nextToken()) {
+                if (token != JsonToken.FIELD_NAME) {
+                    return null;
+                }
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if (value == JsonToken.START_ARRAY || value == JsonToken.START_OBJECT) {
+                    if (isOperationField(field)) {
+                        return null;
+                    }
+                    parser.skipChildren();
+                    continue;
+                }
+                String text = value == JsonToken.VALUE_NULL ? null : parser.getValueAsString();
+                switch (field) {
+                    case "type":
+                        operation.setType(text);
+                        break;
+                    case "amount":
+                        operation.setAmount(text);
+                        break;
+                    case "origin":
+                        operation.setOrigin(text);
+                        break;
+                    case "destination":
+                        operation.setDestination(text);
+                        break;
+                    default:
+                        break;
+                }
+            }
+            return parser.nextToken() == null ? operation : null;
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    private static boolean isOperationField(String field) {
+        return "type".equals(field) || "amount".equals(field) || "origin".equals(field)
+                || "destination".equals(field);
+    }
+
+    /**
+     * Writes a response encoded in a buffer, as UTF-8.
+     */
+    private static void write(HttpServletResponse response, int status, ResponseBuffer buffer) throws IOException {
+        int length = buffer.length();
+        byte[] bytes = encoded.get();
+        if (bytes.length < length) {
+            bytes = new byte[Math.max(length, bytes.length * 2)];
+            encoded.set(bytes);
+        }
+        for (int i = 0; i < length; i++) {
+            char c = buffer.charAt(i);
+            if (c >= 0x80) {
+                byte[] utf8 = buffer.toString().getBytes(StandardCharsets.UTF_8);
+                write(response, status, utf8, utf8.length);
+                return;
+            }
+            bytes[i] = (byte) c;
+        }
+        write(response, status, bytes, length);
+    }
+
+    private static void write(HttpServletResponse response, int status, byte[] body, int length) throws IOException {
+        response.setStatus(status);
+        response.setContentType(CONTENT_TYPE);
+        response.setContentLength(length);
+        response.getOutputStream().write(body, 0, length);
+    }
+
+    /**
+     * Request handling run on a lane.
+     */
+    @FunctionalInterface
+    private interface Handler {
+
+        void handle() throws IOException;
+    }
+}
@@ -0,0 +1,335 @@
+package org.orelio.controllers;
+
+import org.orelio.admission.IdempotencyCache;
+import org.orelio.admission.RateLimits;
+import org.orelio.config.CompactFormatConverter;
+import org.orelio.facade.ChallengeCoreBankingFacade;
+import org.orelio.metrics.ServerTiming;
+import org.orelio.model.Account;
+import org.orelio.model.Constants;
+import org.orelio.model.Operation;
+import org.orelio.workload.WorkloadLanes;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * REST controller for banking operations in the ChallengeCoreBanking system.
+ * 
+ * <p>This controller provides RESTful endpoints for core banking operations including
+ * account balance retrieval, banking operations (deposit, withdraw, transfer), and
+ * system reset functionality.</p>
+ * 
+ * <p>All endpoints return JSON responses by default, or the same structure in CBOR or
+ * Smile for clients whose {@code Accept} header asks for {@code application/cbor} or
+ * {@code application/x-jackson-smile} (see {@link CompactFormatConverter}); operations
+ * may be sent in any of the three formats. They use standard HTTP status codes:</p>
+ * <ul>
+ *   <li>{@code 200 OK} - Successful GET requests</li>
+ *   <li>{@code 201 Created} - Successful POST operations</li>
+ *   <li>{@code 404 Not Found} - Account not found or invalid operations</li>
+ * </ul>
+ * 
+ * <p>The controller delegates business logic to the {@link ChallengeCoreBankingFacade}
+ * service layer. Balance reads and banking operations run on separate
+ * {@link WorkloadLanes}; when a lane's queue is full the request is rejected with
+ * {@code 503 Service Unavailable} (or {@code 429}) and a {@code Retry-After} header.</p>
+ * 
+ * <p>Operations sent with an {@link IdempotencyCache#HEADER} header are applied once
+ * per key: a retry with the same key gets the stored response of the first request.</p>
+ * 
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ * @see org.orelio.facade.ChallengeCoreBankingFacade
+ * @see org.orelio.model.Account
+ * @see org.orelio.model.Operation
+ * @see org.orelio.workload.WorkloadLanes
+ */
+@RestController
+@RequestMapping(produces = {MediaType.APPLICATION_JSON_VALUE, CompactFormatConverter.CBOR_VALUE,
+        CompactFormatConverter.SMILE_VALUE})
+public class GreetingsController {
+
+    /**
+     * Request header identifying the client for rate limiting; the remote address is used without it.
+     */
+    public static final String CLIENT_HEADER = "X-Client-Id";
+
+    /**
+     * The banking facade service that handles all business logic operations.
+     */
+    @Autowired
+    private ChallengeCoreBankingFacade challengeCoreBankingFacade;
+
+    /**
+     * The read and write executors running the banking endpoints.
+     */
+    @Autowired
+    private WorkloadLanes workloadLanes;
+
+    /**
+     * The per-account and per-client rate limits of banking operations.
+     */
+    @Autowired
+    private RateLimits rateLimits;
+
+    /**
+     * The stored responses of operations sent with an idempotency key.
+     */
+    @Autowired
+    private IdempotencyCache idempotencyCache;
+
+    /**
+     * The most operations accepted in one batch.
+     */
+    @Value("${banking.batch.max-operations:1000}")
+    private int maxBatchOperations;
+
+    /**
+     * Resets the banking system by clearing all accounts.
+     * 
+     * <p>This endpoint removes all accounts from the system and returns the system
+     * to its initial state. This is useful for testing or system maintenance.</p>
+     * 
+     * @return ResponseEntity containing "OK" string with HTTP 200 status
+     * @see ChallengeCoreBankingFacade#resetAccount()
+     */
+    @PostMapping("/reset")
+    @ResponseBody
+    public ResponseEntity<String> restBalance(){
+        challengeCoreBankingFacade.resetAccount();
+        return new ResponseEntity<String>("OK", HttpStatus.OK);
+    }
+
+    /**
+     * Retrieves the balance of a specific account.
+     * 
+     * <p>This endpoint looks up an account by its ID and returns the current balance.
+     * If the account does not exist, it returns "0" with a 404 status. The lookup runs
+     * on the read lane and takes no lock, so it is not delayed by saturated writes.</p>
+     * 
+     * <p>Requests carrying the {@link ServerTiming#REQUEST_HEADER} header get a
+     * {@code Server-Timing} header with the queue, apply (lookup) and serialize stages.</p>
+     * 
+     * @param accountId the unique identifier of the account to query
+     * @return ResponseEntity containing the account balance as a string:
+     *         <ul>
+     *           <li>HTTP 200 with balance if account exists</li>
+     *           <li>HTTP 404 with "0" if account does not exist</li>
+     *           <li>HTTP 503 with "0" if the read lane is full</li>
+     *         </ul>
+     * @see ChallengeCoreBankingFacade#getAccount(String)
+     */
+    @GetMapping("/balance")
+    @ResponseBody
+    public DeferredResult<ResponseEntity<String>> getAccount(@RequestParam("account_id") String accountId){
+        return workloadLanes.dispatch(workloadLanes.read(), () -> {
+            ServerTiming timing = ServerTiming.current();
+            long start = timing != null ? System.nanoTime() : 0L;
+            Account account = challengeCoreBankingFacade.getAccount(accountId);
+            long found = timing != null ? System.nanoTime() : 0L;
+            String balance = account != null ? account.getBalance().toString() : Constants.ZERO;
+            if (timing != null) {
+                timing.record(ServerTiming.Stage.APPLY, found - start);
+                timing.record(ServerTiming.Stage.SERIALIZE, System.nanoTime() - found);
+            }
+            return new ResponseEntity<String>(balance, account != null ? HttpStatus.OK : HttpStatus.NOT_FOUND);
+        });
+    }
+
+    /**
+     * Performs a banking operation (deposit, withdraw, or transfer).
+     * 
+     * <p>This endpoint processes banking operations based on the operation type:</p>
+     * <ul>
+     *   <li><strong>deposit</strong> - Adds funds to an account (creates account if it doesn't exist)</li>
+     *   <li><strong>withdraw</strong> - Removes funds from an existing account</li>
+     *   <li><strong>transfer</strong> - Moves funds between accounts</li>
+     * </ul>
+     * 
+     * <p>Requests carrying the {@link ServerTiming#REQUEST_HEADER} header get a
+     * {@code Server-Timing} header breaking the request into deserialize, queue,
+     * lock, apply, durability and serialize stages.</p>
+     * 
+     * <p>Operations exceeding the rate limit of their client (the {@link #CLIENT_HEADER}
+     * header, or the remote address) or of an account they touch are rejected with
+     * {@code 429 Too Many Requests} before reaching the write lane. An operation the full
+     * write lane rejects gets its tokens back.</p>
+     * 
+     * <p>An operation sent with an {@link IdempotencyCache#HEADER} header already used for
+     * it is not applied again: the first response is sent back with an
+     * {@link IdempotencyCache#REPLAYED_HEADER} header, or {@code 409 Conflict} while the
+     * first request is still running.</p>
+     * 
+     * <p>The request body should contain:</p>
+     * <ul>
+     *   <li>{@code type} - Operation type ("deposit", "withdraw", "transfer")</li>
+     *   <li>{@code amount} - Amount as string (e.g., "100")</li>
+     *   <li>{@code destination} - Destination account ID (required for deposit/transfer)</li>
+     *   <li>{@code origin} - Origin account ID (required for withdraw/transfer)</li>
+     * </ul>
+     * 
+     * @param operation the banking operation to perform
+     * @param request the current request, identifying the client
+     * @return ResponseEntity containing the operation result:
+     *         <ul>
+     *           <li>HTTP 201 with account details if operation succeeds</li>
+     *           <li>HTTP 404 with "0" if operation fails (invalid account, insufficient funds, etc.)</li>
+     *           <li>HTTP 429 with "0" and {@code Retry-After} if a rate limit is exceeded</li>
+     *           <li>HTTP 503 with "0" if the write lane is full</li>
+     *           <li>HTTP 409 or 422 with "0" if the idempotency key is in use or was sent with another operation</li>
+     *         </ul>
+     * @see ChallengeCoreBankingFacade#operationEvent(Operation)
+     * @see org.orelio.model.Operation
+     */
+    @PostMapping("/event")
+    @ResponseBody
+    public DeferredResult<ResponseEntity<String>> deposit(@RequestBody Operation operation,
+                                                          HttpServletRequest request){
+        String header = request.getHeader(CLIENT_HEADER);
+        String client = header != null ? header : request.getRemoteAddr();
+        String key = request.getHeader(IdempotencyCache.HEADER);
+        IdempotencyCache.Entry stored = idempotencyCache.begin(client, key,
+                key != null ? IdempotencyCache.fingerprint(operation) : null);
+        if (stored != null) {
+            return answer(stored);
+        }
+        long waitNanos = rateLimits.tryAcquire(client, operation);
+        if (waitNanos > 0) {
+            idempotencyCache.release(client, key);
+            return workloadLanes.reject(HttpStatus.TOO_MANY_REQUESTS, retryAfterSeconds(waitNanos));
+        }
+        DeferredResult<ResponseEntity<String>> result = workloadLanes.dispatch(workloadLanes.write(), () -> {
+            String resultBalance;
+            try {
+                resultBalance = challengeCoreBankingFacade.operationEvent(operation);
+            } catch (RuntimeException e) {
+                idempotencyCache.release(client, key);
+                throw e;
+            }
+            HttpStatus status = resultBalance.equals(Constants.ZERO) ? HttpStatus.NOT_FOUND : HttpStatus.CREATED;
+            idempotencyCache.complete(client, key, status.value(), resultBalance);
+            return new ResponseEntity<String>(resultBalance, status);
+        });
+        // Answered before the handler could complete the key: the write lane was full
+        if (result.hasResult()) {
+            idempotencyCache.release(client, key);
+            rateLimits.release(client, operation);
+        }
+        return result;
+    }
+
+    /**
+     * Performs a batch of banking operations in order, as one task of the write lane.
+     * 
+     * <p>The body is a JSON array of operations as accepted by {@code /event}. The response
+     * is {@code 200 OK} with an array holding, for each operation in order, the status and
+     * body {@code /event} would have answered:</p>
+     * <pre>
+     * [{"status":201,"body":{"destination": {"id":"100","balance":10}}},
+     *  {"status":404,"body":0},
+     *  {"status":429,"body":0,"retryAfter":1}]
+     * </pre>
+     * 
+     * <p>Each operation takes its own rate-limit tokens, and a rate-limited one is
+     * reported in its item without stopping the others. Sending many operations at once
+     * saves a request, a lane handoff and a response per operation. The
+     * {@link IdempotencyCache#HEADER} header applies to the batch as a whole.</p>
+     * 
+     * @param operations the operations to perform, at most {@code banking.batch.max-operations}
+     * @param request the current request, identifying the client
+     * @return ResponseEntity containing the batch result:
+     *         <ul>
+     *           <li>HTTP 200 with the result of each operation</li>
+     *           <li>HTTP 400 with "0" for an empty batch</li>
+     *           <li>HTTP 413 with "0" for a batch above the limit</li>
+     *           <li>HTTP 503 with "0" if the write lane is full</li>
+     *           <li>HTTP 409 or 422 with "0" if the idempotency key is in use or was sent with another batch</li>
+     *         </ul>
+     * @see #deposit(Operation, HttpServletRequest)
+     */
+    @PostMapping("/event/batch")
+    @ResponseBody
+    public DeferredResult<ResponseEntity<String>> batch(@RequestBody List<Operation> operations,
+                                                        HttpServletRequest request){
+        if (operations.isEmpty() || operations.size() > maxBatchOperations) {
+            return workloadLanes.answer(new ResponseEntity<String>(Constants.ZERO,
+                    operations.isEmpty() ? HttpStatus.BAD_REQUEST : HttpStatus.PAYLOAD_TOO_LARGE));
+        }
+        String header = request.getHeader(CLIENT_HEADER);
+        String client = header != null ? header : request.getRemoteAddr();
+        String key = request.getHeader(IdempotencyCache.HEADER);
+        IdempotencyCache.Entry stored = idempotencyCache.begin(client, key,
+                key != null ? IdempotencyCache.fingerprint(operations) : null);
+        if (stored != null) {
+            return answer(stored);
+        }
+        long[] waitNanos = new long[operations.size()];
+        for (int i = 0; i < waitNanos.length; i++) {
+            waitNanos[i] = rateLimits.tryAcquire(client, operations.get(i));
+        }
+        DeferredResult<ResponseEntity<String>> result = workloadLanes.dispatch(workloadLanes.write(), () -> {
+            StringBuilder body = new StringBuilder(operations.size() * 72).append('[');
+            for (int i = 0; i < waitNanos.length; i++) {
+                if (i > 0) {
+                    body.append(',');
+                }
+                if (waitNanos[i] > 0) {
+                    body.append("{\"status\":").append(HttpStatus.TOO_MANY_REQUESTS.value())
+                            .append(",\"body\":0,\"retryAfter\":").append(retryAfterSeconds(waitNanos[i])).append('}');
+                    continue;
+                }
+                String resultBalance;
+                HttpStatus status;
+                try {
+                    resultBalance = challengeCoreBankingFacade.operationEvent(operations.get(i));
+                    status = resultBalance.equals(Constants.ZERO) ? HttpStatus.NOT_FOUND : HttpStatus.CREATED;
+                } catch (RuntimeException e) {
+                    // Earlier operations are applied; the batch still answers for each of them
+                    resultBalance = Constants.ZERO;
+                    status = HttpStatus.INTERNAL_SERVER_ERROR;
+                }
+                body.append("{\"status\":").append(status.value()).append(",\"body\":").append(resultBalance)
+                        .append('}');
+            }
+            String results = body.append(']').toString();
+            idempotencyCache.complete(client, key, HttpStatus.OK.value(), results);
+            return new ResponseEntity<String>(results, HttpStatus.OK);
+        });
+        if (result.hasResult()) {
+            idempotencyCache.release(client, key);
+            for (int i = 0; i < waitNanos.length; i++) {
+                if (waitNanos[i] == 0) {
+                    rateLimits.release(client, operations.get(i));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Answers with the response stored for an idempotency key, or the refusal of the key.
+     */
+    private DeferredResult<ResponseEntity<String>> answer(IdempotencyCache.Entry stored) {
+        HttpHeaders headers = new HttpHeaders();
+        if (stored.isReplayed()) {
+            headers.set(IdempotencyCache.REPLAYED_HEADER, "true");
+        }
+        return workloadLanes.answer(new ResponseEntity<String>(stored.getBody(), headers,
+                HttpStatus.valueOf(stored.getStatus())));
+    }
+
+    private static long retryAfterSeconds(long waitNanos) {
+        return (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,70 @@
+package org.orelio.controllers;
+
+import org.orelio.admission.AdaptiveConcurrencyLimiter;
+import org.orelio.admission.RateLimits;
+import org.orelio.facade.ChallengeCoreBankingFacade;
+import org.orelio.metrics.PrometheusFormatter;
+import org.orelio.workload.WorkloadLanes;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller exposing operation latency metrics in the ChallengeCoreBanking system.
+ *
+ * <p>{@code GET /metrics} returns the per-stage, per-type and per-outcome latency
+ * histograms, the admission control and rate limit state, and the utilization and
+ * queueing of the workload lanes in the Prometheus text exposition format, ready to be scraped.</p>
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ * @see org.orelio.metrics.OperationMetrics
+ * @see org.orelio.metrics.PrometheusFormatter
+ */
+@RestController
+public class MetricsController {
+
+    /**
+     * The banking facade service that owns the metrics.
+     */
+    @Autowired
+    private ChallengeCoreBankingFacade challengeCoreBankingFacade;
+
+    /**
+     * The admission limiter in front of the facade.
+     */
+    @Autowired
+    private AdaptiveConcurrencyLimiter admissionLimiter;
+
+    /**
+     * The per-account and per-client rate limits.
+     */
+    @Autowired
+    private RateLimits rateLimits;
+
+    /**
+     * The read and write executors running the banking endpoints.
+     */
+    @Autowired
+    private WorkloadLanes workloadLanes;
+
+    /**
+     * Returns the recorded latency metrics, the admission control and rate limit state, and the lane statistics.
+     *
+     * @return ResponseEntity containing the Prometheus exposition text with HTTP 200 status
+     * @see PrometheusFormatter#format(org.orelio.metrics.OperationMetrics)
+     */
+    @GetMapping(path = "/metrics", produces = PrometheusFormatter.CONTENT_TYPE)
+    @ResponseBody
+    public ResponseEntity<String> getMetrics() {
+        return new ResponseEntity<String>(
+                PrometheusFormatter.format(challengeCoreBankingFacade.getMetrics())
+                        + PrometheusFormatter.format(admissionLimiter)
+                        + PrometheusFormatter.format(rateLimits)
+                        + PrometheusFormatter.format(workloadLanes.lanes()), HttpStatus.OK);
+    }
+}
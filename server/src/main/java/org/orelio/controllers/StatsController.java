@@ -0,0 +1,142 @@
+package org.orelio.controllers;
+
+import org.orelio.facade.ChallengeCoreBankingFacade;
+import org.orelio.model.Constants;
+import org.orelio.util.ChallengeCoreUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for system-wide statistics in the ChallengeCoreBanking system.
+ *
+ * <p>This controller exposes read-only views over the state maintained by the
+ * {@link ChallengeCoreBankingFacade}:</p>
+ * <ul>
+ *   <li>{@code GET /stats/aggregates} - O(1) aggregates maintained by every operation</li>
+ *   <li>{@code GET /stats/aggregates/scan} - the same aggregates recomputed by a full scan</li>
+ *   <li>{@code GET /stats/scan?min={min}&max={max}} - parallel count, sum, min and max over balances</li>
+ *   <li>{@code GET /stats/scan/histogram?bounds={b0,b1,...}} - parallel balance histogram</li>
+ *   <li>{@code GET /stats/hot-accounts?limit={limit}} - accounts with the most recent operations</li>
+ * </ul>
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ * @see org.orelio.facade.ChallengeCoreBankingFacade#getAggregates()
+ * @see org.orelio.store.AggregatesSnapshot
+ * @see org.orelio.store.BalanceScanEngine
+ * @see org.orelio.metrics.HotAccountTracker
+ */
+@RestController
+@RequestMapping(path = "/stats", produces = MediaType.APPLICATION_JSON_VALUE)
+public class StatsController {
+
+    /**
+     * Largest {@code limit} accepted by {@code /stats/hot-accounts}, the candidates kept by the tracker.
+     */
+    private static final int MAX_HOT_ACCOUNTS = 64;
+
+    /**
+     * The banking facade service that owns the account state.
+     */
+    @Autowired
+    private ChallengeCoreBankingFacade challengeCoreBankingFacade;
+
+    /**
+     * Returns the incrementally maintained system-wide aggregates.
+     *
+     * @return ResponseEntity containing the aggregates as JSON with HTTP 200 status
+     * @see ChallengeCoreBankingFacade#getAggregates()
+     */
+    @GetMapping("/aggregates")
+    @ResponseBody
+    public ResponseEntity<String> getAggregates() {
+        return new ResponseEntity<String>(
+                ChallengeCoreUtils.toJson(challengeCoreBankingFacade.getAggregates()), HttpStatus.OK);
+    }
+
+    /**
+     * Recomputes the aggregates with a full scan of all accounts.
+     *
+     * <p>This endpoint blocks writers while it runs and is meant for reconciling
+     * {@code /stats/aggregates}, not for routine monitoring.</p>
+     *
+     * @return ResponseEntity containing the scanned aggregates as JSON with HTTP 200 status
+     * @see ChallengeCoreBankingFacade#scanAggregates()
+     */
+    @GetMapping("/aggregates/scan")
+    @ResponseBody
+    public ResponseEntity<String> scanAggregates() {
+        return new ResponseEntity<String>(
+                ChallengeCoreUtils.toJson(challengeCoreBankingFacade.scanAggregates()), HttpStatus.OK);
+    }
+
+    /**
+     * Aggregates the balances in {@code [min, max)} with a parallel scan.
+     *
+     * <p>For example, {@code GET /stats/scan?max=0} returns the number and total of
+     * overdrawn balances. Omitting both bounds scans every balance.</p>
+     *
+     * @param min the inclusive lower bound, omitted for no lower bound
+     * @param max the exclusive upper bound, omitted for no upper bound
+     * @return ResponseEntity containing the scan result as JSON with HTTP 200 status
+     * @see ChallengeCoreBankingFacade#scanBalances(Long, Long)
+     */
+    @GetMapping("/scan")
+    @ResponseBody
+    public ResponseEntity<String> scanBalances(@RequestParam(value = "min", required = false) Long min,
+                                               @RequestParam(value = "max", required = false) Long max) {
+        return new ResponseEntity<String>(
+                ChallengeCoreUtils.toJson(challengeCoreBankingFacade.scanBalances(min, max)), HttpStatus.OK);
+    }
+
+    /**
+     * Builds a histogram of all balances with a parallel scan.
+     *
+     * @param bounds comma-separated, strictly ascending bucket bounds
+     * @return ResponseEntity containing the histogram:
+     *         <ul>
+     *           <li>HTTP 200 with {@code {"bounds": [...], "counts": [...]}}</li>
+     *           <li>HTTP 400 with "0" if the bounds are not strictly ascending</li>
+     *         </ul>
+     * @see ChallengeCoreBankingFacade#balanceHistogram(long[])
+     */
+    @GetMapping("/scan/histogram")
+    @ResponseBody
+    public ResponseEntity<String> balanceHistogram(@RequestParam("bounds") long[] bounds) {
+        try {
+            return new ResponseEntity<String>(
+                    ChallengeCoreUtils.toJson(challengeCoreBankingFacade.balanceHistogram(bounds)), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<String>(Constants.ZERO, HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    /**
+     * Returns the accounts touched by the most operations, older ones fading with a one-minute half-life.
+     *
+     * <p>For example, {@code GET /stats/hot-accounts?limit=3} returns
+     * {@code {"windowSeconds":60.0,"sampleRate":16,"accounts":[{"id":"MERCHANT","sampled":5120,
+     * "operationsPerSecond":1365.3,"meanLockWaitMicros":12.4,"striped":true},...]}}.</p>
+     *
+     * @param limit the maximum number of accounts (1 to 64, default 10)
+     * @return ResponseEntity containing the report:
+     *         <ul>
+     *           <li>HTTP 200 with the hottest accounts as JSON</li>
+     *           <li>HTTP 400 with "0" if limit is invalid</li>
+     *         </ul>
+     * @see ChallengeCoreBankingFacade#getHotAccounts(int)
+     */
+    @GetMapping("/hot-accounts")
+    @ResponseBody
+    public ResponseEntity<String> getHotAccounts(@RequestParam(value = "limit", defaultValue = "10") int limit) {
+        if (limit < 1 || limit > MAX_HOT_ACCOUNTS) {
+            return new ResponseEntity<String>(Constants.ZERO, HttpStatus.BAD_REQUEST);
+        }
+        return new ResponseEntity<String>(
+                ChallengeCoreUtils.toJson(challengeCoreBankingFacade.getHotAccounts(limit)), HttpStatus.OK);
+    }
+}
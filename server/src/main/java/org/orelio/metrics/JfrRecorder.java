@@ -0,0 +1,172 @@
+package org.orelio.metrics;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Starts, stops and dumps an on-demand Java Flight Recorder recording.
+ *
+ * <p>At most one recording is managed at a time. It uses one of the JDK's
+ * predefined settings ({@code default} or {@code profile}) and always enables
+ * {@link BankingOperationEvent}. Dumps are written to the directory configured by
+ * {@code banking.jfr.directory} under generated file names; callers cannot choose
+ * the path.</p>
+ *
+ * <p>Calls are serialized with a {@link ReentrantLock} rather than a monitor, as dumps
+ * write files while holding it and would otherwise pin a virtual thread's carrier.</p>
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ * @see BankingOperationEvent
+ */
+@Component
+public class JfrRecorder {
+
+    /**
+     * Directory receiving the dumped recordings.
+     */
+    @Value("${banking.jfr.directory:recordings}")
+    private String directory;
+
+    /**
+     * The managed recording, or null if none was started.
+     */
+    private Recording recording;
+
+    /**
+     * Serializes access to the managed recording.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Starts a new recording.
+     *
+     * @param settings the predefined JDK settings, {@code default} or {@code profile}
+     * @return the recording status
+     * @throws IllegalStateException if a recording is already running
+     * @throws IllegalArgumentException if the settings are unknown
+     */
+    public Map<String, Object> start(String settings) {
+        lock.lock();
+        try {
+            if (recording != null && recording.getState() == RecordingState.RUNNING) {
+                throw new IllegalStateException("A recording is already running");
+            }
+            Configuration configuration;
+            try {
+                configuration = Configuration.getConfiguration(settings);
+            } catch (IOException | ParseException e) {
+                throw new IllegalArgumentException("Unknown settings: " + settings, e);
+            }
+            if (recording != null) {
+                recording.close();
+            }
+            recording = new Recording(configuration);
+            recording.setName("banking");
+            recording.enable(BankingOperationEvent.class).withoutThreshold();
+            recording.start();
+            return status();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops the running recording and dumps it.
+     *
+     * <p>The recording is closed and released even if the dump fails, so its buffers are
+     * freed and a new recording can be started.</p>
+     *
+     * @return the recording status, including the dump file
+     * @throws IllegalStateException if no recording is running
+     * @throws IOException if the dump cannot be written
+     */
+    public Map<String, Object> stop() throws IOException {
+        lock.lock();
+        try {
+            requireRunning();
+            try {
+                recording.stop();
+                Path file = dumpFile();
+                recording.dump(file);
+                Map<String, Object> status = status();
+                status.put("file", file.toString());
+                return status;
+            } finally {
+                recording.close();
+                recording = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Dumps the data recorded so far without stopping the recording.
+     *
+     * @return the recording status, including the dump file
+     * @throws IllegalStateException if no recording is running
+     * @throws IOException if the dump cannot be written
+     */
+    public Map<String, Object> dump() throws IOException {
+        lock.lock();
+        try {
+            requireRunning();
+            Path file = dumpFile();
+            recording.dump(file);
+            Map<String, Object> status = status();
+            status.put("file", file.toString());
+            return status;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the state of the managed recording.
+     *
+     * @return the recording status
+     */
+    public Map<String, Object> status() {
+        lock.lock();
+        try {
+            Map<String, Object> status = new LinkedHashMap<>();
+            status.put("state", recording == null ? "NONE" : recording.getState().name());
+            if (recording != null && recording.getStartTime() != null) {
+                status.put("startTime", recording.getStartTime().toString());
+            }
+            return status;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void requireRunning() {
+        if (recording == null || recording.getState() != RecordingState.RUNNING) {
+            throw new IllegalStateException("No recording is running");
+        }
+    }
+
+    private Path dumpFile() throws IOException {
+        File dir = new File(directory);
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Cannot create " + dir.getAbsolutePath());
+        }
+        String name = "banking-" + new SimpleDateFormat("yyyyMMdd-HHmmss-SSS").format(new Date()) + ".jfr";
+        return new File(dir, name).getAbsoluteFile().toPath();
+    }
+}
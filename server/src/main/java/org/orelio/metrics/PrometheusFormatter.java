@@ -0,0 +1,210 @@
+package org.orelio.metrics;
+
+import org.orelio.admission.AdaptiveConcurrencyLimiter;
+import org.orelio.admission.RateLimits;
+import org.orelio.workload.Lane;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Renders {@link OperationMetrics} in the Prometheus text exposition format (version 0.0.4).
+ *
+ * <p>Two metric families are written, one series per stage, operation type and
+ * outcome that has recorded at least one value:</p>
+ * <ul>
+ *   <li>{@code banking_operation_latency_seconds} - a histogram over fixed
+ *       {@code le} buckets from 1&micro;s to 1s, with {@code _sum} and {@code _count}</li>
+ *   <li>{@code banking_operation_latency_quantile_seconds} - p50, p99, p99.9 and max
+ *       taken from the full-resolution histogram</li>
+ * </ul>
+ *
+ * <p>The admission limiter, the rate limits and the workload lanes are rendered
+ * separately, as {@code banking_admission_*}, {@code banking_rate_limit*} and
+ * {@code banking_lane_*} families.</p>
+ *
+ * <p><strong>Example Output:</strong></p>
+ * <pre>
+ * banking_operation_latency_seconds_bucket{stage="apply",type="deposit",outcome="success",le="1.0E-5"} 812
+ * banking_operation_latency_seconds_count{stage="apply",type="deposit",outcome="success"} 815
+ * banking_operation_latency_quantile_seconds{stage="apply",type="deposit",outcome="success",quantile="0.99"} 8.191E-6
+ * </pre>
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ * @see OperationMetrics
+ */
+public class PrometheusFormatter {
+
+    /**
+     * Content type of the Prometheus text exposition format.
+     */
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    /**
+     * Exported {@code le} bucket bounds in nanoseconds.
+     */
+    private static final long[] BUCKET_NANOS = {
+        1_000L, 2_500L, 5_000L, 10_000L, 25_000L, 50_000L, 100_000L, 250_000L, 500_000L,
+        1_000_000L, 2_500_000L, 5_000_000L, 10_000_000L, 25_000_000L, 50_000_000L,
+        100_000_000L, 250_000_000L, 500_000_000L, 1_000_000_000L
+    };
+
+    /**
+     * Exported quantiles as (label, percentile) pairs.
+     */
+    private static final String[] QUANTILE_LABELS = {"0.5", "0.99", "0.999", "1"};
+    private static final double[] QUANTILES = {50.0, 99.0, 99.9, 100.0};
+
+    private static final String LATENCY = "banking_operation_latency_seconds";
+    private static final String QUANTILE = "banking_operation_latency_quantile_seconds";
+
+    private PrometheusFormatter() {
+    }
+
+    /**
+     * Renders all recorded series.
+     *
+     * @param metrics the metrics to render
+     * @return the exposition text
+     */
+    public static String format(OperationMetrics metrics) {
+        StringBuilder histograms = new StringBuilder(4096);
+        StringBuilder quantiles = new StringBuilder(1024);
+        histograms.append("# HELP ").append(LATENCY)
+                .append(" Latency of banking operations by stage, type and outcome.\n")
+                .append("# TYPE ").append(LATENCY).append(" histogram\n");
+        quantiles.append("# HELP ").append(QUANTILE)
+                .append(" Latency quantiles of banking operations by stage, type and outcome.\n")
+                .append("# TYPE ").append(QUANTILE).append(" gauge\n");
+
+        for (OperationMetrics.Stage stage : OperationMetrics.Stage.values()) {
+            for (int type = 0; type < OperationMetrics.TYPE_LABELS.length; type++) {
+                for (boolean success : new boolean[] {true, false}) {
+                    LatencyHistogram histogram = metrics.snapshot(stage, type, success);
+                    if (histogram.getCount() == 0) {
+                        continue;
+                    }
+                    String labels = "stage=\"" + stage.label() + "\",type=\"" + OperationMetrics.TYPE_LABELS[type]
+                            + "\",outcome=\"" + (success ? "success" : "failure") + "\"";
+                    appendHistogram(histograms, labels, histogram);
+                    appendQuantiles(quantiles, labels, histogram);
+                }
+            }
+        }
+        return histograms.append(quantiles).toString();
+    }
+
+    private static void appendHistogram(StringBuilder out, String labels, LatencyHistogram histogram) {
+        for (long bound : BUCKET_NANOS) {
+            out.append(LATENCY).append("_bucket{").append(labels).append(",le=\"").append(seconds(bound))
+                    .append("\"} ").append(histogram.countAtOrBelow(bound)).append('\n');
+        }
+        out.append(LATENCY).append("_bucket{").append(labels).append(",le=\"+Inf\"} ")
+                .append(histogram.getCount()).append('\n');
+        out.append(LATENCY).append("_sum{").append(labels).append("} ")
+                .append(seconds(histogram.getSum())).append('\n');
+        out.append(LATENCY).append("_count{").append(labels).append("} ")
+                .append(histogram.getCount()).append('\n');
+    }
+
+    private static void appendQuantiles(StringBuilder out, String labels, LatencyHistogram histogram) {
+        for (int i = 0; i < QUANTILES.length; i++) {
+            out.append(QUANTILE).append('{').append(labels).append(",quantile=\"").append(QUANTILE_LABELS[i])
+                    .append("\"} ").append(seconds(histogram.valueAtPercentile(QUANTILES[i]))).append('\n');
+        }
+    }
+
+    /**
+     * Renders the state of the admission limiter.
+     *
+     * @param limiter the admission limiter
+     * @return the exposition text
+     */
+    public static String format(AdaptiveConcurrencyLimiter limiter) {
+        return "# HELP banking_admission_limit Current adaptive concurrency limit.\n"
+                + "# TYPE banking_admission_limit gauge\n"
+                + "banking_admission_limit " + limiter.getLimit() + '\n'
+                + "# HELP banking_admission_in_flight Requests admitted and not yet completed.\n"
+                + "# TYPE banking_admission_in_flight gauge\n"
+                + "banking_admission_in_flight " + limiter.getInFlight() + '\n'
+                + "# HELP banking_admission_rejected_total Requests rejected by admission control.\n"
+                + "# TYPE banking_admission_rejected_total counter\n"
+                + "banking_admission_rejected_total " + limiter.getRejected() + '\n';
+    }
+
+    /**
+     * Renders the rejections and bucket counts of the rate limits.
+     *
+     * @param limits the rate limits
+     * @return the exposition text
+     */
+    public static String format(RateLimits limits) {
+        return "# HELP banking_rate_limited_total Operations rejected by a rate limit.\n"
+                + "# TYPE banking_rate_limited_total counter\n"
+                + "banking_rate_limited_total{scope=\"account\"} " + limits.getAccountLimited() + '\n'
+                + "banking_rate_limited_total{scope=\"client\"} " + limits.getClientLimited() + '\n'
+                + "# HELP banking_rate_limit_buckets Token buckets currently held.\n"
+                + "# TYPE banking_rate_limit_buckets gauge\n"
+                + "banking_rate_limit_buckets{scope=\"account\"} " + limits.getAccountBuckets() + '\n'
+                + "banking_rate_limit_buckets{scope=\"client\"} " + limits.getClientBuckets() + '\n';
+    }
+
+    /**
+     * Renders the utilization and queueing of the workload lanes, one series per lane.
+     *
+     * <p>{@code banking_lane_utilization} is the busy fraction of the lane threads at
+     * scrape time; {@code rate(banking_lane_busy_seconds_total) / banking_lane_threads}
+     * gives it over a window.</p>
+     *
+     * @param lanes the workload lanes
+     * @return the exposition text
+     */
+    public static String format(Iterable<Lane> lanes) {
+        StringBuilder out = new StringBuilder(2048);
+        appendLaneFamily(out, lanes, "threads", "gauge", "Threads of the lane.", Lane::getThreads);
+        appendLaneFamily(out, lanes, "active", "gauge", "Lane threads running a task.", Lane::getActive);
+        appendLaneFamily(out, lanes, "utilization", "gauge", "Fraction of the lane threads running a task.",
+                lane -> (double) lane.getActive() / lane.getThreads());
+        appendLaneFamily(out, lanes, "queued", "gauge", "Tasks waiting in the lane queue.", Lane::getQueued);
+        appendLaneFamily(out, lanes, "queue_capacity", "gauge", "Maximum tasks waiting in the lane queue.",
+                Lane::getQueueCapacity);
+        appendLaneFamily(out, lanes, "completed_total", "counter", "Tasks completed by the lane.",
+                Lane::getCompleted);
+        appendLaneFamily(out, lanes, "rejected_total", "counter", "Tasks rejected because the lane queue was full.",
+                Lane::getRejected);
+        appendLaneFamily(out, lanes, "busy_seconds_total", "counter", "Time the lane threads spent running tasks.",
+                lane -> seconds(lane.getBusyNanos()));
+
+        String wait = "banking_lane_queue_wait_seconds";
+        out.append("# HELP ").append(wait).append(" Time tasks waited in the lane queue.\n")
+                .append("# TYPE ").append(wait).append(" summary\n");
+        for (Lane lane : lanes) {
+            String labels = "{lane=\"" + lane.getName() + "\"} ";
+            out.append(wait).append("_sum").append(labels).append(seconds(lane.getQueueWaitNanos())).append('\n');
+            out.append(wait).append("_count").append(labels).append(lane.getStarted()).append('\n');
+        }
+        return out.toString();
+    }
+
+    private static void appendLaneFamily(StringBuilder out, Iterable<Lane> lanes, String suffix, String type,
+                                         String help, ToDoubleFunction<Lane> value) {
+        String name = "banking_lane_" + suffix;
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n')
+                .append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        for (Lane lane : lanes) {
+            double v = value.applyAsDouble(lane);
+            out.append(name).append("{lane=\"").append(lane.getName()).append("\"} ");
+            if (v == Math.rint(v) && Math.abs(v) < 1e15) {
+                out.append((long) v);
+            } else {
+                out.append(v);
+            }
+            out.append('\n');
+        }
+    }
+
+    private static double seconds(long nanos) {
+        return nanos / 1e9;
+    }
+}
@@ -0,0 +1,126 @@
+package org.orelio.reactive;
+
+import org.orelio.admission.AdaptiveConcurrencyLimiter;
+import org.orelio.admission.RateLimits;
+import org.orelio.config.BankingEngineConfig;
+import org.orelio.facade.ChallengeCoreBankingFacade;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.GET;
+import static org.springframework.web.reactive.function.server.RequestPredicates.POST;
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+/**
+ * Reactive front end of the ChallengeCoreBanking system on Netty.
+ *
+ * <p>An alternative to {@link org.orelio.Application} serving {@code POST /reset},
+ * {@code GET /balance} and {@code POST /event} through Spring WebFlux on Reactor Netty,
+ * with a few event-loop threads instead of a thread per request. It shares the facade,
+ * rate limits and {@code application.properties}, and activates the {@code reactive}
+ * profile, which combines deposits so that a deposit waiting for its account lock never
+ * blocks an event loop.</p>
+ *
+ * <p>Only the banking endpoints are served, with admission control and rate limits. The
+ * servlet stack's other endpoints, workload lanes and {@code Server-Timing} breakdown are
+ * not part of this front end. The configuration only applies to a reactive application,
+ * so the servlet application's component scan skips it.</p>
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ * @see ReactiveBankingHandler
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@EnableAutoConfiguration
+@Import({BankingEngineConfig.class, RateLimits.class})
+public class ReactiveApplication {
+
+    /**
+     * Starts the reactive front end.
+     *
+     * @param args command line arguments passed to the application
+     */
+    public static void main(String[] args) {
+        run(args);
+    }
+
+    /**
+     * Starts the reactive front end with the {@code reactive} profile.
+     *
+     * @param args command line arguments passed to the application
+     * @return the running application context
+     */
+    public static ConfigurableApplicationContext run(String... args) {
+        return new SpringApplicationBuilder(ReactiveApplication.class)
+                .web(WebApplicationType.REACTIVE)
+                .profiles("reactive")
+                .run(args);
+    }
+
+    /**
+     * Serves on Reactor Netty; with Tomcat on the classpath for the servlet stack, Spring Boot
+     * would otherwise run the reactive application on Tomcat.
+     *
+     * @return the Netty server factory
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    /**
+     * Creates the handlers, with an admission limiter from {@code banking.admission.*} properties.
+     *
+     * @param facade the banking facade
+     * @param rateLimits the per-account and per-client rate limits
+     * @param enabled whether admission control is enabled
+     * @param initialLimit the limit before any latency has been observed
+     * @param minLimit the lowest limit
+     * @param maxLimit the highest limit
+     * @param smoothing the weight of each new limit
+     * @param tolerance the latency increase tolerated before the limit shrinks
+     * @param rejectionStatus the status of rejected requests
+     * @param retryAfterSeconds the {@code Retry-After} of rejected requests
+     * @return the handlers
+     */
+    @Bean
+    public ReactiveBankingHandler reactiveBankingHandler(
+            ChallengeCoreBankingFacade facade, RateLimits rateLimits,
+            @Value("${banking.admission.enabled:true}") boolean enabled,
+            @Value("${banking.admission.initial-limit:64}") int initialLimit,
+            @Value("${banking.admission.min-limit:8}") int minLimit,
+            @Value("${banking.admission.max-limit:512}") int maxLimit,
+            @Value("${banking.admission.smoothing:0.2}") double smoothing,
+            @Value("${banking.admission.tolerance:2.0}") double tolerance,
+            @Value("${banking.admission.rejection-status:503}") int rejectionStatus,
+            @Value("${banking.admission.retry-after-seconds:1}") int retryAfterSeconds) {
+        AdaptiveConcurrencyLimiter limiter = enabled
+                ? new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, smoothing, tolerance) : null;
+        return new ReactiveBankingHandler(facade, rateLimits, limiter, rejectionStatus, retryAfterSeconds);
+    }
+
+    /**
+     * Routes the banking endpoints to their handlers.
+     *
+     * @param handler the handlers
+     * @return the routes
+     */
+    @Bean
+    public RouterFunction<ServerResponse> bankingRoutes(ReactiveBankingHandler handler) {
+        return route(POST("/reset"), handler::reset)
+                .andRoute(GET("/balance"), handler.admitted(handler::balance))
+                .andRoute(POST("/event"), handler.admitted(handler::event));
+    }
+}
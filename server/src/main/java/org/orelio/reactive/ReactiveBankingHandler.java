@@ -0,0 +1,177 @@
+package org.orelio.reactive;
+
+import org.orelio.admission.AdaptiveConcurrencyLimiter;
+import org.orelio.admission.RateLimits;
+import org.orelio.controllers.GreetingsController;
+import org.orelio.facade.ChallengeCoreBankingFacade;
+import org.orelio.model.Constants;
+import org.orelio.model.Operation;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.HandlerFunction;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Non-blocking handlers of the banking endpoints for the reactive front end.
+ *
+ * <p>Serves {@code POST /reset}, {@code GET /balance} and {@code POST /event} with the
+ * same status codes and bodies as {@link GreetingsController}. Operation bodies are
+ * decoded by the non-blocking Jackson decoder as they arrive, and every response is a
+ * {@link Mono} completed from the facade's asynchronous API, so the event loop never
+ * waits for a request. A deposit queued behind its account lock is answered by the
+ * thread that applies it; other operations hold their lock only for the update.</p>
+ *
+ * <p>Responses are written as pre-encoded UTF-8 bytes: a {@code String} body with a JSON
+ * content type would otherwise be encoded by Jackson as a quoted JSON string.</p>
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ * @see ReactiveApplication
+ * @see ChallengeCoreBankingFacade#operationEventAsync(Operation)
+ * @see ChallengeCoreBankingFacade#getAccountAsync(String)
+ */
+public class ReactiveBankingHandler {
+
+    private static final byte[] OK = "OK".getBytes(StandardCharsets.UTF_8);
+
+    private static final byte[] ZERO = Constants.ZERO.getBytes(StandardCharsets.UTF_8);
+
+    private final ChallengeCoreBankingFacade facade;
+
+    private final RateLimits rateLimits;
+
+    private final AdaptiveConcurrencyLimiter admissionLimiter;
+
+    private final int rejectionStatus;
+
+    private final String retryAfterSeconds;
+
+    /**
+     * Creates the handlers.
+     *
+     * @param facade the banking facade
+     * @param rateLimits the per-account and per-client rate limits
+     * @param admissionLimiter the admission limiter, or null to admit every request
+     * @param rejectionStatus the status of requests rejected by admission control
+     * @param retryAfterSeconds the {@code Retry-After} of requests rejected by admission control
+     */
+    public ReactiveBankingHandler(ChallengeCoreBankingFacade facade, RateLimits rateLimits,
+                                  AdaptiveConcurrencyLimiter admissionLimiter, int rejectionStatus,
+                                  int retryAfterSeconds) {
+        this.facade = facade;
+        this.rateLimits = rateLimits;
+        this.admissionLimiter = admissionLimiter;
+        this.rejectionStatus = rejectionStatus;
+        this.retryAfterSeconds = String.valueOf(retryAfterSeconds);
+    }
+
+    /**
+     * Resets the banking system by clearing all accounts.
+     *
+     * @param request the current request
+     * @return HTTP 200 with "OK"
+     * @see ChallengeCoreBankingFacade#resetAccount()
+     */
+    public Mono<ServerResponse> reset(ServerRequest request) {
+        facade.resetAccount();
+        return respond(HttpStatus.OK, OK);
+    }
+
+    /**
+     * Retrieves the balance of a specific account.
+     *
+     * @param request the current request, with the {@code account_id} parameter
+     * @return HTTP 200 with the balance, HTTP 404 with "0" if the account does not exist,
+     *         or HTTP 400 without {@code account_id}
+     * @see ChallengeCoreBankingFacade#getAccountAsync(String)
+     */
+    public Mono<ServerResponse> balance(ServerRequest request) {
+        Optional<String> accountId = request.queryParam("account_id");
+        if (!accountId.isPresent()) {
+            return ServerResponse.badRequest().build();
+        }
+        return Mono.fromFuture(facade.getAccountAsync(accountId.get()))
+                .flatMap(account -> respond(HttpStatus.OK,
+                        account.getBalance().toString().getBytes(StandardCharsets.UTF_8)))
+                .switchIfEmpty(Mono.defer(() -> respond(HttpStatus.NOT_FOUND, ZERO)));
+    }
+
+    /**
+     * Performs a banking operation (deposit, withdraw, or transfer).
+     *
+     * @param request the current request, with the operation as its JSON body
+     * @return HTTP 201 with account details if the operation succeeds, HTTP 404 with "0" if it
+     *         fails, HTTP 429 with "0" and {@code Retry-After} if a rate limit is exceeded, or
+     *         HTTP 400 if the body is not a valid operation
+     * @see ChallengeCoreBankingFacade#operationEventAsync(Operation)
+     */
+    public Mono<ServerResponse> event(ServerRequest request) {
+        String header = request.headers().asHttpHeaders().getFirst(GreetingsController.CLIENT_HEADER);
+        String client = header != null ? header
+                : request.remoteAddress().map(ReactiveBankingHandler::host).orElse(null);
+        return request.bodyToMono(Operation.class)
+                .onErrorMap(DecodingException.class, e -> new ServerWebInputException("Invalid operation", null, e))
+                .flatMap(operation -> apply(client, operation));
+    }
+
+    /**
+     * Wraps a handler with admission control, like the servlet stack's admission filter.
+     *
+     * <p>Rejected requests get the rejection status with "0" and {@code Retry-After}. An
+     * admitted request is released with its latency once its response is produced, fails
+     * or is cancelled.</p>
+     *
+     * @param handler the handler to admit requests to
+     * @return the admitting handler
+     */
+    public HandlerFunction<ServerResponse> admitted(HandlerFunction<ServerResponse> handler) {
+        if (admissionLimiter == null) {
+            return handler;
+        }
+        return request -> {
+            if (!admissionLimiter.tryAcquire()) {
+                return ServerResponse.status(HttpStatus.valueOf(rejectionStatus))
+                        .header(HttpHeaders.RETRY_AFTER, retryAfterSeconds)
+                        .contentType(MediaType.APPLICATION_JSON_UTF8)
+                        .syncBody(ZERO);
+            }
+            long start = System.nanoTime();
+            return handler.handle(request)
+                    .doFinally(signal -> admissionLimiter.release(System.nanoTime() - start));
+        };
+    }
+
+    private Mono<ServerResponse> apply(String client, Operation operation) {
+        long waitNanos = rateLimits.tryAcquire(client, operation);
+        if (waitNanos > 0) {
+            long retryAfter = (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+            return ServerResponse.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter))
+                    .contentType(MediaType.APPLICATION_JSON_UTF8)
+                    .syncBody(ZERO);
+        }
+        return Mono.fromFuture(facade.operationEventAsync(operation)).flatMap(result -> {
+            boolean success = !result.equals(Constants.ZERO);
+            return respond(success ? HttpStatus.CREATED : HttpStatus.NOT_FOUND, result.getBytes(StandardCharsets.UTF_8));
+        });
+    }
+
+    private static Mono<ServerResponse> respond(HttpStatus status, byte[] body) {
+        return ServerResponse.status(status).contentType(MediaType.APPLICATION_JSON_UTF8).syncBody(body);
+    }
+
+    private static String host(InetSocketAddress address) {
+        return address.getAddress() != null ? address.getAddress().getHostAddress() : address.getHostString();
+    }
+}
@@ -0,0 +1,216 @@
+package org.orelio.tcp;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Frame layout of the binary banking protocol served by {@link BinaryServer}.
+ *
+ * <p>Every frame is a big-endian 32-bit length, counting the bytes that follow it, then
+ * a 64-bit request ID chosen by the client and echoed in the response, then one byte:
+ * the opcode of a request or the status of a response. A client may send any number of
+ * requests before reading responses; it matches each response to its request by ID.</p>
+ *
+ * <p><strong>Requests:</strong> amounts are signed 64-bit integers; account IDs are an
+ * unsigned length byte (1 to {@value #MAX_ID_BYTES}) followed by the UTF-8 bytes.</p>
+ * <ul>
+ *   <li>{@link #DEPOSIT}: amount, destination</li>
+ *   <li>{@link #WITHDRAW}: amount, origin</li>
+ *   <li>{@link #TRANSFER}: amount, origin, destination</li>
+ *   <li>{@link #BALANCE}: account</li>
+ * </ul>
+ *
+ * <p><strong>Responses:</strong> an {@link #OK} response carries the balances after the
+ * operation as 64-bit integers: the destination balance of a deposit, the origin balance
+ * of a withdrawal, the origin then the destination balance of a transfer, the balance
+ * of a balance request. A {@link #RATE_LIMITED} response carries the milliseconds after
+ * which to retry. Other statuses carry nothing.</p>
+ *
+ * <p>A frame whose length is outside {@code [HEADER_BYTES, MAX_FRAME - LENGTH_BYTES]}
+ * cannot be skipped safely, so the server closes the connection; any other malformed
+ * request is answered with {@link #BAD_REQUEST}.</p>
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ * @see BinaryServer
+ */
+public final class BinaryProtocol {
+
+    /**
+     * Opcode of a deposit to the destination account, created if missing.
+     */
+    public static final byte DEPOSIT = 1;
+
+    /**
+     * Opcode of a withdrawal from an existing origin account.
+     */
+    public static final byte WITHDRAW = 2;
+
+    /**
+     * Opcode of a transfer from an existing origin account to the destination account.
+     */
+    public static final byte TRANSFER = 3;
+
+    /**
+     * Opcode of a balance read.
+     */
+    public static final byte BALANCE = 4;
+
+    /**
+     * The operation was applied or the account was found.
+     */
+    public static final byte OK = 0;
+
+    /**
+     * The operation was rejected or the account does not exist ("0" with 404 over HTTP).
+     */
+    public static final byte NOT_FOUND = 1;
+
+    /**
+     * The request is malformed.
+     */
+    public static final byte BAD_REQUEST = 2;
+
+    /**
+     * The operation exceeded a rate limit.
+     */
+    public static final byte RATE_LIMITED = 3;
+
+    /**
+     * The operation failed unexpectedly.
+     */
+    public static final byte ERROR = 4;
+
+    /**
+     * Size of the length prefix.
+     */
+    public static final int LENGTH_BYTES = 4;
+
+    /**
+     * Size of the request ID and the opcode or status.
+     */
+    public static final int HEADER_BYTES = 9;
+
+    /**
+     * Longest account ID, in UTF-8 bytes.
+     */
+    public static final int MAX_ID_BYTES = 255;
+
+    /**
+     * Largest request frame, length prefix included: a transfer with two IDs of maximum length.
+     */
+    public static final int MAX_FRAME = LENGTH_BYTES + HEADER_BYTES + 8 + 2 * (1 + MAX_ID_BYTES);
+
+    /**
+     * Largest response frame, length prefix included: a transfer with two balances.
+     */
+    public static final int MAX_RESPONSE = LENGTH_BYTES + HEADER_BYTES + 16;
+
+    private BinaryProtocol() {
+    }
+
+    /**
+     * Writes a deposit request.
+     *
+     * @param out the buffer receiving the frame
+     * @param requestId the ID echoed in the response
+     * @param destination the account credited
+     * @param amount the amount deposited
+     * @throws IllegalArgumentException if the account ID is empty or too long
+     */
+    public static void putDeposit(ByteBuffer out, long requestId, String destination, long amount) {
+        byte[] id = idBytes(destination);
+        putHeader(out, 8 + 1 + id.length, requestId, DEPOSIT);
+        out.putLong(amount);
+        putId(out, id);
+    }
+
+    /**
+     * Writes a withdrawal request.
+     *
+     * @param out the buffer receiving the frame
+     * @param requestId the ID echoed in the response
+     * @param origin the account debited
+     * @param amount the amount withdrawn
+     * @throws IllegalArgumentException if the account ID is empty or too long
+     */
+    public static void putWithdraw(ByteBuffer out, long requestId, String origin, long amount) {
+        byte[] id = idBytes(origin);
+        putHeader(out, 8 + 1 + id.length, requestId, WITHDRAW);
+        out.putLong(amount);
+        putId(out, id);
+    }
+
+    /**
+     * Writes a transfer request.
+     *
+     * @param out the buffer receiving the frame
+     * @param requestId the ID echoed in the response
+     * @param origin the account debited
+     * @param destination the account credited
+     * @param amount the amount transferred
+     * @throws IllegalArgumentException if an account ID is empty or too long
+     */
+    public static void putTransfer(ByteBuffer out, long requestId, String origin, String destination, long amount) {
+        byte[] from = idBytes(origin);
+        byte[] to = idBytes(destination);
+        putHeader(out, 8 + 2 + from.length + to.length, requestId, TRANSFER);
+        out.putLong(amount);
+        putId(out, from);
+        putId(out, to);
+    }
+
+    /**
+     * Writes a balance request.
+     *
+     * @param out the buffer receiving the frame
+     * @param requestId the ID echoed in the response
+     * @param account the account read
+     * @throws IllegalArgumentException if the account ID is empty or too long
+     */
+    public static void putBalance(ByteBuffer out, long requestId, String account) {
+        byte[] id = idBytes(account);
+        putHeader(out, 1 + id.length, requestId, BALANCE);
+        putId(out, id);
+    }
+
+    /**
+     * Reads an account ID at the buffer's position.
+     *
+     * @param in the frame being read
+     * @param end the end of the frame
+     * @return the account ID, or null if it is empty or overruns the frame
+     */
+    static String getId(ByteBuffer in, int end) {
+        if (in.position() >= end) {
+            return null;
+        }
+        int length = in.get() & 0xFF;
+        if (length == 0 || in.position() + length > end) {
+            return null;
+        }
+        String id = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return id;
+    }
+
+    private static void putHeader(ByteBuffer out, int bodyLength, long requestId, byte opcode) {
+        out.putInt(HEADER_BYTES + bodyLength);
+        out.putLong(requestId);
+        out.put(opcode);
+    }
+
+    private static void putId(ByteBuffer out, byte[] id) {
+        out.put((byte) id.length);
+        out.put(id);
+    }
+
+    private static byte[] idBytes(String account) {
+        byte[] id = account.getBytes(StandardCharsets.UTF_8);
+        if (id.length == 0 || id.length > MAX_ID_BYTES) {
+            throw new IllegalArgumentException("Account ID must be 1 to " + MAX_ID_BYTES + " UTF-8 bytes: " + account);
+        }
+        return id;
+    }
+}
@@ -0,0 +1,444 @@
+package org.orelio.tcp;
+
+import org.orelio.admission.RateLimits;
+import org.orelio.facade.ChallengeCoreBankingFacade;
+import org.orelio.metrics.OperationMetrics;
+import org.orelio.model.Account;
+import org.orelio.model.Constants;
+import org.orelio.model.Operation;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * NIO server of the {@link BinaryProtocol} for high-frequency clients.
+ *
+ * <p>Started next to the web server by {@link org.orelio.config.BinaryServerConfig} when
+ * {@code banking.tcp.enabled=true}. An acceptor thread hands each connection to one of a
+ * few I/O threads, each running its own selector. An I/O thread decodes every complete
+ * frame it has read, applies the operation through the {@link ChallengeCoreBankingFacade}
+ * on that same thread and queues the response, then writes all queued responses with one
+ * system call, so pipelined requests share their reads and writes.</p>
+ *
+ * <p>Responses of a connection currently come back in request order, but clients must
+ * match them by request ID. When a client stops reading its responses, the connection
+ * stops being read once half of its output buffer is waiting, so it cannot buffer an
+ * unbounded backlog.</p>
+ *
+ * <p>Operations are rate limited per remote address and recorded in the operation metrics
+ * like {@code /event} requests. Admission control and workload lanes, which act on HTTP
+ * requests, do not apply.</p>
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ * @see BinaryProtocol
+ */
+public class BinaryServer {
+
+    /**
+     * Size of each connection's input and output buffer.
+     */
+    static final int BUFFER_BYTES = 8 * 1024;
+
+    private final ChallengeCoreBankingFacade facade;
+
+    private final RateLimits rateLimits;
+
+    private final IoThread[] ioThreads;
+
+    private ServerSocketChannel serverChannel;
+
+    private Thread acceptor;
+
+    private volatile boolean running;
+
+    /**
+     * Creates a stopped server.
+     *
+     * @param facade the banking facade
+     * @param rateLimits the per-account and per-client rate limits
+     * @param ioThreads the number of I/O threads, or 0 for one per available processor
+     */
+    public BinaryServer(ChallengeCoreBankingFacade facade, RateLimits rateLimits, int ioThreads) {
+        this.facade = facade;
+        this.rateLimits = rateLimits;
+        this.ioThreads = new IoThread[ioThreads > 0 ? ioThreads : Runtime.getRuntime().availableProcessors()];
+    }
+
+    /**
+     * Binds the server socket and starts accepting connections.
+     *
+     * @param address the address to listen on, with port 0 for an ephemeral port
+     * @throws IOException if the socket cannot be bound
+     * @throws IllegalStateException if the server is already running
+     */
+    public synchronized void start(InetSocketAddress address) throws IOException {
+        if (running) {
+            throw new IllegalStateException("Binary server already running");
+        }
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(address, 1024);
+        for (int i = 0; i < ioThreads.length; i++) {
+            ioThreads[i] = new IoThread("binary-io-" + (i + 1), Selector.open());
+        }
+        running = true;
+        for (IoThread ioThread : ioThreads) {
+            ioThread.start();
+        }
+        acceptor = new Thread(this::accept, "binary-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    /**
+     * Returns the port the server listens on.
+     *
+     * @return the bound port, or -1 if the server is not running
+     */
+    public synchronized int getPort() {
+        return running ? serverChannel.socket().getLocalPort() : -1;
+    }
+
+    /**
+     * Stops accepting connections and closes every open one.
+     */
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            serverChannel.close();
+        } catch (IOException ignored) {
+            // Closing anyway
+        }
+        for (IoThread ioThread : ioThreads) {
+            ioThread.selector.wakeup();
+        }
+        try {
+            acceptor.join(TimeUnit.SECONDS.toMillis(5));
+            for (IoThread ioThread : ioThreads) {
+                ioThread.join(TimeUnit.SECONDS.toMillis(5));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Accepts connections and spreads them over the I/O threads in turn.
+     */
+    private void accept() {
+        int next = 0;
+        while (running) {
+            try {
+                SocketChannel channel = serverChannel.accept();
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                ioThreads[next].register(channel);
+                next = (next + 1) % ioThreads.length;
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException e) {
+                // Typically out of file descriptors; back off instead of spinning
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+            }
+        }
+    }
+
+    /**
+     * Handles the request frame at the input position and appends its response.
+     *
+     * @param in the input, positioned after the length prefix
+     * @param end the end of the frame
+     * @param out the output, with room for {@link BinaryProtocol#MAX_RESPONSE} bytes
+     * @param client the rate limit key of the connection
+     * @param operation the reusable operation of the calling thread
+     * @param balances the reusable balances of the calling thread
+     */
+    void handle(ByteBuffer in, int end, ByteBuffer out, String client, Operation operation, long[] balances) {
+        long requestId = in.getLong();
+        byte opcode = in.get();
+        if (opcode == BinaryProtocol.BALANCE) {
+            String accountId = BinaryProtocol.getId(in, end);
+            if (accountId == null || in.position() != end) {
+                respond(out, requestId, BinaryProtocol.BAD_REQUEST);
+                return;
+            }
+            Account account = facade.getAccount(accountId);
+            if (account == null) {
+                respond(out, requestId, BinaryProtocol.NOT_FOUND);
+            } else {
+                respond(out, requestId, BinaryProtocol.OK, account.getBalance());
+            }
+            return;
+        }
+
+        OperationMetrics metrics = facade.getMetrics();
+        metrics.requestStarted();
+        metrics.parseStarted();
+        if (!decode(opcode, in, end, operation)) {
+            metrics.requestFinished();
+            respond(out, requestId, BinaryProtocol.BAD_REQUEST);
+            return;
+        }
+        metrics.parseFinished();
+
+        long waitNanos = rateLimits.tryAcquire(client, operation);
+        if (waitNanos > 0) {
+            metrics.requestFinished();
+            long retryAfterMillis = (waitNanos + TimeUnit.MILLISECONDS.toNanos(1) - 1) / TimeUnit.MILLISECONDS.toNanos(1);
+            respond(out, requestId, BinaryProtocol.RATE_LIMITED, retryAfterMillis);
+            return;
+        }
+
+        try {
+            if (!facade.operationEvent(operation, balances)) {
+                respond(out, requestId, BinaryProtocol.NOT_FOUND);
+            } else if (opcode == BinaryProtocol.DEPOSIT) {
+                respond(out, requestId, BinaryProtocol.OK, balances[1]);
+            } else if (opcode == BinaryProtocol.WITHDRAW) {
+                respond(out, requestId, BinaryProtocol.OK, balances[0]);
+            } else {
+                out.putInt(BinaryProtocol.HEADER_BYTES + 16);
+                out.putLong(requestId);
+                out.put(BinaryProtocol.OK);
+                out.putLong(balances[0]);
+                out.putLong(balances[1]);
+            }
+        } catch (RuntimeException e) {
+            respond(out, requestId, BinaryProtocol.ERROR);
+        } finally {
+            metrics.requestFinished();
+        }
+    }
+
+    /**
+     * Decodes the body of an operation frame into a reusable operation.
+     *
+     * @return true if the body matches the layout of the opcode
+     */
+    private static boolean decode(byte opcode, ByteBuffer in, int end, Operation operation) {
+        String type;
+        switch (opcode) {
+            case BinaryProtocol.DEPOSIT:
+                type = Constants.DEPOSIT;
+                break;
+            case BinaryProtocol.WITHDRAW:
+                type = Constants.WITHDRAW;
+                break;
+            case BinaryProtocol.TRANSFER:
+                type = Constants.TRANSFER;
+                break;
+            default:
+                return false;
+        }
+        if (end - in.position() < 8) {
+            return false;
+        }
+        long amount = in.getLong();
+        String origin = opcode == BinaryProtocol.DEPOSIT ? null : BinaryProtocol.getId(in, end);
+        String destination = opcode == BinaryProtocol.WITHDRAW ? null : BinaryProtocol.getId(in, end);
+        if ((opcode != BinaryProtocol.DEPOSIT && origin == null)
+                || (opcode != BinaryProtocol.WITHDRAW && destination == null) || in.position() != end) {
+            return false;
+        }
+        operation.setType(type);
+        operation.setAmount(Long.toString(amount));
+        operation.setOrigin(origin);
+        operation.setDestination(destination);
+        return true;
+    }
+
+    private static void respond(ByteBuffer out, long requestId, byte status) {
+        out.putInt(BinaryProtocol.HEADER_BYTES);
+        out.putLong(requestId);
+        out.put(status);
+    }
+
+    private static void respond(ByteBuffer out, long requestId, byte status, long value) {
+        out.putInt(BinaryProtocol.HEADER_BYTES + 8);
+        out.putLong(requestId);
+        out.put(status);
+        out.putLong(value);
+    }
+
+    /**
+     * Selector loop serving the connections handed to it by the acceptor.
+     */
+    private final class IoThread extends Thread {
+
+        private final Selector selector;
+
+        private final Queue<SocketChannel> accepted = new ConcurrentLinkedQueue<>();
+
+        private final Operation operation = new Operation();
+
+        private final long[] balances = new long[2];
+
+        IoThread(String name, Selector selector) {
+            super(name);
+            this.selector = selector;
+            setDaemon(true);
+        }
+
+        void register(SocketChannel channel) {
+            accepted.add(channel);
+            selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (running) {
+                    selector.select();
+                    for (SocketChannel channel; (channel = accepted.poll()) != null; ) {
+                        try {
+                            Connection connection = new Connection(channel);
+                            connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+                        } catch (IOException e) {
+                            closeQuietly(channel);
+                        }
+                    }
+                    for (SelectionKey key : selector.selectedKeys()) {
+                        Connection connection = (Connection) key.attachment();
+                        try {
+                            if (!connection.ready(key.isWritable(), key.isReadable())) {
+                                connection.close();
+                            }
+                        } catch (IOException e) {
+                            connection.close();
+                        }
+                    }
+                    selector.selectedKeys().clear();
+                }
+            } catch (IOException e) {
+                // The selector failed; its connections are closed below
+            } finally {
+                for (SelectionKey key : selector.keys()) {
+                    ((Connection) key.attachment()).close();
+                }
+                for (SocketChannel channel; (channel = accepted.poll()) != null; ) {
+                    closeQuietly(channel);
+                }
+                try {
+                    selector.close();
+                } catch (IOException ignored) {
+                    // Nothing left to release
+                }
+            }
+        }
+
+        /**
+         * Buffers and protocol state of one client connection.
+         */
+        private final class Connection {
+
+            private final SocketChannel channel;
+
+            private SelectionKey key;
+
+            private final String client;
+
+            private final ByteBuffer in = ByteBuffer.allocate(BUFFER_BYTES);
+
+            private final ByteBuffer out = ByteBuffer.allocate(BUFFER_BYTES);
+
+            Connection(SocketChannel channel) throws IOException {
+                this.channel = channel;
+                SocketAddress remote = channel.getRemoteAddress();
+                this.client = remote instanceof InetSocketAddress
+                        ? ((InetSocketAddress) remote).getAddress().getHostAddress() : String.valueOf(remote);
+            }
+
+            /**
+             * Writes pending responses, reads and handles new requests, then updates the interest set.
+             *
+             * @return false if the connection must be closed
+             */
+            boolean ready(boolean writable, boolean readable) throws IOException {
+                if (writable) {
+                    flush();
+                }
+                if (readable && channel.read(in) < 0) {
+                    return false;
+                }
+                in.flip();
+                boolean valid = process();
+                in.compact();
+                flush();
+                // Stop reading while half of the output buffer is waiting for the client
+                int ops = out.position() == 0 ? SelectionKey.OP_READ
+                        : out.position() < BUFFER_BYTES / 2 ? SelectionKey.OP_READ | SelectionKey.OP_WRITE
+                        : SelectionKey.OP_WRITE;
+                if (key.interestOps() != ops) {
+                    key.interestOps(ops);
+                }
+                return valid;
+            }
+
+            /**
+             * Handles every complete frame that fits in the output buffer.
+             *
+             * @return false if a frame length is invalid
+             */
+            private boolean process() throws IOException {
+                while (in.remaining() >= BinaryProtocol.LENGTH_BYTES) {
+                    int length = in.getInt(in.position());
+                    if (length < BinaryProtocol.HEADER_BYTES
+                            || length > BinaryProtocol.MAX_FRAME - BinaryProtocol.LENGTH_BYTES) {
+                        return false;
+                    }
+                    if (in.remaining() < BinaryProtocol.LENGTH_BYTES + length) {
+                        break;
+                    }
+                    if (out.remaining() < BinaryProtocol.MAX_RESPONSE) {
+                        flush();
+                        if (out.remaining() < BinaryProtocol.MAX_RESPONSE) {
+                            break;
+                        }
+                    }
+                    int end = in.position() + BinaryProtocol.LENGTH_BYTES + length;
+                    in.position(in.position() + BinaryProtocol.LENGTH_BYTES);
+                    handle(in, end, out, client, operation, balances);
+                    in.position(end);
+                }
+                return true;
+            }
+
+            private void flush() throws IOException {
+                if (out.position() > 0) {
+                    out.flip();
+                    channel.write(out);
+                    out.compact();
+                }
+            }
+
+            void close() {
+                key.cancel();
+                closeQuietly(channel);
+            }
+        }
+    }
+
+    private static void closeQuietly(SocketChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // The connection is gone either way
+        }
+    }
+}
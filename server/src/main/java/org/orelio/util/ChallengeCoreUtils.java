@@ -37,6 +37,12 @@ import org.orelio.model.Constants;
  */
 public class ChallengeCoreUtils {
 
+    /**
+     * Shared Jackson mapper. Mappers are thread-safe once configured, and creating
+     * one per call dominated the cost of every response.
+     */
+    private static final ObjectMapper objMapper = new ObjectMapper();
+
     /**
      * Converts an Account object to a JSON string using a custom format template.
      * 
@@ -52,16 +58,18 @@ public class ChallengeCoreUtils {
      * </ul>
      * 
      * @param account the Account object to serialize
-     * @param fmt the format string template (must contain %s placeholder)
-     * @return formatted JSON string, or {@link Constants#ZERO} if serialization fails
-     * @throws IllegalArgumentException if format string is invalid or has wrong number of placeholders
+     * @param fmt the format string template (must contain a single %s placeholder)
+     * @return formatted JSON string, or {@link Constants#ZERO} if the account or format is null,
+     *         the format has no placeholder or more than one, or serialization fails
      * @see Constants#fmtDestination
      * @see Constants#fmtOrigin
      * @see Constants#fmtOriginDestin
      */
     public static String resultJsonAPI(Account account, String fmt) {
+        if (account == null || fmt == null || !fmt.contains("%s")) {
+            return Constants.ZERO;
+        }
         try {
-            ObjectMapper objMapper = new ObjectMapper();
             // Convert Account object to JSON string
             String jsonStr = objMapper.writeValueAsString(account);
             // Apply format template to create final response
@@ -84,12 +92,15 @@ public class ChallengeCoreUtils {
      * <pre>{"id":"ACC001","balance":1000}</pre>
      * 
      * @param account the Account object to serialize
-     * @return JSON string representation of the account, or {@link Constants#ZERO} if serialization fails
+     * @return JSON string representation of the account, or {@link Constants#ZERO} if the account
+     *         is null or serialization fails
      * @see #resultJsonAPI(Account, String)
      */
     public static String resultJsonAPI(Account account) {
+        if (account == null) {
+            return Constants.ZERO;
+        }
         try {
-            ObjectMapper objMapper = new ObjectMapper();
             return objMapper.writeValueAsString(account);
 
         } catch (Exception e) {
@@ -97,4 +108,44 @@ public class ChallengeCoreUtils {
             return Constants.ZERO;
         }
     }
+
+    /**
+     * Converts an arbitrary object to a plain JSON string.
+     *
+     * <p>Used for the bodies of the statistics endpoints, where the response is a
+     * plain object rather than an {@link Account}.</p>
+     *
+     * @param value the object to serialize
+     * @return JSON string representation of the object, or {@link Constants#ZERO} if serialization fails
+     * @see #resultJsonAPI(Account)
+     */
+    public static String toJson(Object value) {
+        try {
+            return objMapper.writeValueAsString(value);
+
+        } catch (Exception e) {
+            // Return error constant if serialization fails
+            return Constants.ZERO;
+        }
+    }
+
+    /**
+     * Appends the JSON representation of an account to a reusable buffer.
+     * 
+     * <p>Produces exactly the output of {@link #resultJsonAPI(Account)} for an account
+     * with the given ID and balance, without creating the {@link Account} or any other
+     * object, so it can be used on allocation-free paths.</p>
+     * 
+     * <p><strong>Example Output:</strong></p>
+     * <pre>{"id":"ACC001","balance":1000}</pre>
+     * 
+     * @param out the buffer to append to
+     * @param accountId the account ID
+     * @param balance the account balance
+     * @return the buffer
+     * @see ResponseBuffer#appendAccountJson(String, long)
+     */
+    public static ResponseBuffer appendAccountJson(ResponseBuffer out, String accountId, long balance) {
+        return out.appendAccountJson(accountId, balance);
+    }
 }
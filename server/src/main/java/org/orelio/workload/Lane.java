@@ -0,0 +1,225 @@
+package org.orelio.workload;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-size executor with a bounded queue for one class of requests in the ChallengeCoreBanking system.
+ *
+ * <p>Each lane owns its threads and its queue, so a burst filling one lane cannot delay
+ * the tasks of another. A task submitted while the queue is full is rejected at once
+ * instead of waiting.</p>
+ *
+ * <p><strong>Tracked Statistics:</strong></p>
+ * <ul>
+ *   <li>threads, active threads, queued tasks and queue capacity</li>
+ *   <li>completed and rejected tasks</li>
+ *   <li>cumulative busy time, whose rate divided by the thread count is the utilization</li>
+ *   <li>cumulative and counted queue wait, from submission to start</li>
+ * </ul>
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ * @see WorkloadLanes
+ */
+public final class Lane {
+
+    private final String name;
+
+    private final int queueCapacity;
+
+    private final ThreadPoolExecutor executor;
+
+    private final LongAdder rejected = new LongAdder();
+
+    private final LongAdder busyNanos = new LongAdder();
+
+    private final LongAdder queueWaitNanos = new LongAdder();
+
+    private final LongAdder started = new LongAdder();
+
+    /**
+     * Creates a lane and starts its threads.
+     *
+     * @param name the lane name, used for thread names and metric labels
+     * @param threads the number of threads
+     * @param queueCapacity the maximum number of waiting tasks
+     * @param priority the priority of the lane threads
+     * @throws IllegalArgumentException if the threads or the queue capacity are below 1
+     */
+    public Lane(String name, int threads, int queueCapacity, int priority) {
+        if (threads < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("Threads and queue capacity must be at least 1");
+        }
+        this.name = name;
+        this.queueCapacity = queueCapacity;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new LaneThreadFactory(name, priority),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor.prestartAllCoreThreads();
+    }
+
+    /**
+     * Queues a task.
+     *
+     * @param task the task
+     * @return true if queued, false if the queue is full or the lane is shut down
+     */
+    public boolean submit(Runnable task) {
+        long submitted = System.nanoTime();
+        try {
+            executor.execute(() -> {
+                long start = System.nanoTime();
+                queueWaitNanos.add(start - submitted);
+                started.increment();
+                try {
+                    task.run();
+                } finally {
+                    busyNanos.add(System.nanoTime() - start);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            return false;
+        }
+    }
+
+    /**
+     * Stops the lane threads once the queued tasks have run.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Waits for the lane threads to stop after {@link #shutdown()}.
+     *
+     * @param timeout the maximum time to wait
+     * @param unit the unit of the timeout
+     * @return true if the threads stopped, false if the timeout elapsed
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return executor.awaitTermination(timeout, unit);
+    }
+
+    /**
+     * Returns the lane name.
+     *
+     * @return the lane name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the number of lane threads.
+     *
+     * @return the number of lane threads
+     */
+    public int getThreads() {
+        return executor.getMaximumPoolSize();
+    }
+
+    /**
+     * Returns the number of threads running a task.
+     *
+     * @return the number of threads running a task
+     */
+    public int getActive() {
+        return executor.getActiveCount();
+    }
+
+    /**
+     * Returns the number of tasks waiting in the queue.
+     *
+     * @return the number of tasks waiting in the queue
+     */
+    public int getQueued() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Returns the maximum number of waiting tasks.
+     *
+     * @return the maximum number of waiting tasks
+     */
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * Returns the number of completed tasks.
+     *
+     * @return the number of completed tasks
+     */
+    public long getCompleted() {
+        return executor.getCompletedTaskCount();
+    }
+
+    /**
+     * Returns the number of tasks rejected because the queue was full.
+     *
+     * @return the number of tasks rejected because the queue was full
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * Returns the cumulative time spent running tasks, in nanoseconds.
+     *
+     * @return the cumulative time spent running tasks, in nanoseconds
+     */
+    public long getBusyNanos() {
+        return busyNanos.sum();
+    }
+
+    /**
+     * Returns the cumulative time tasks waited in the queue, in nanoseconds.
+     *
+     * @return the cumulative time tasks waited in the queue, in nanoseconds
+     */
+    public long getQueueWaitNanos() {
+        return queueWaitNanos.sum();
+    }
+
+    /**
+     * Returns the number of tasks taken from the queue.
+     *
+     * @return the number of tasks taken from the queue
+     */
+    public long getStarted() {
+        return started.sum();
+    }
+
+    /**
+     * Creates named daemon threads with the lane priority.
+     */
+    private static final class LaneThreadFactory implements ThreadFactory {
+
+        private final String name;
+        private final int priority;
+        private final AtomicInteger count = new AtomicInteger();
+
+        LaneThreadFactory(String name, int priority) {
+            this.name = name;
+            this.priority = priority;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "lane-" + name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(priority);
+            return thread;
+        }
+    }
+}
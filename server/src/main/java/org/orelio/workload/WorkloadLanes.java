@@ -0,0 +1,242 @@
+package org.orelio.workload;
+
+import org.orelio.config.RequestTimingInterceptor;
+import org.orelio.facade.ChallengeCoreBankingFacade;
+import org.orelio.metrics.OperationMetrics;
+import org.orelio.metrics.ServerTiming;
+import org.orelio.model.Constants;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import javax.annotation.PreDestroy;
+import javax.servlet.http.HttpServletRequest;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Separate read and write executors for the banking endpoints of the ChallengeCoreBanking system.
+ *
+ * <p>{@code /balance} reads and {@code /event} writes are handed off from the servlet
+ * container thread to their own {@link Lane}, each with its own threads, queue limit
+ * and thread priority. The container thread is released as soon as the task is
+ * queued, so a burst of writes fills the write lane's queue and is then rejected.
+ * It cannot hold every container thread, and reads keep their own threads. Reads
+ * use the lock-free account lookup and never wait on write locks.</p>
+ *
+ * <p>A task rejected by a full queue is answered at once like an admission rejection:
+ * {@code banking.admission.rejection-status}, a {@code Retry-After} header and a "0" body.</p>
+ *
+ * <p>The request's latency metrics and {@code Server-Timing} state move with the
+ * task to the lane thread and back to the container thread that writes the response.</p>
+ *
+ * <p>Configured by {@code banking.lanes.*} in {@code application.properties} and
+ * disabled by default, in which case the handlers run on the container thread.
+ * {@code banking.lanes.enabled=true} turns the lanes on.</p>
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 1.0
+ * @see Lane
+ */
+@Component
+public class WorkloadLanes {
+
+    /**
+     * The banking facade service that owns the metrics.
+     */
+    @Autowired
+    private ChallengeCoreBankingFacade challengeCoreBankingFacade;
+
+    @Value("${banking.lanes.enabled:false}")
+    private boolean enabled;
+
+    @Value("${banking.admission.rejection-status:503}")
+    private int rejectionStatus;
+
+    @Value("${banking.admission.retry-after-seconds:1}")
+    private int retryAfterSeconds;
+
+    private final Lane read;
+
+    private final Lane write;
+
+    /**
+     * Creates the lanes from {@code banking.lanes.*} properties.
+     *
+     * @param readThreads the threads of the read lane
+     * @param readQueue the queue capacity of the read lane
+     * @param readPriority the thread priority of the read lane
+     * @param writeThreads the threads of the write lane
+     * @param writeQueue the queue capacity of the write lane
+     * @param writePriority the thread priority of the write lane
+     */
+    @Autowired
+    public WorkloadLanes(@Value("${banking.lanes.read.threads:4}") int readThreads,
+                         @Value("${banking.lanes.read.queue-capacity:256}") int readQueue,
+                         @Value("${banking.lanes.read.priority:6}") int readPriority,
+                         @Value("${banking.lanes.write.threads:8}") int writeThreads,
+                         @Value("${banking.lanes.write.queue-capacity:1024}") int writeQueue,
+                         @Value("${banking.lanes.write.priority:5}") int writePriority) {
+        this.read = new Lane("read", readThreads, readQueue, readPriority);
+        this.write = new Lane("write", writeThreads, writeQueue, writePriority);
+    }
+
+    /**
+     * Returns the lane of {@code /balance} reads.
+     *
+     * @return the read lane
+     */
+    public Lane read() {
+        return read;
+    }
+
+    /**
+     * Returns the lane of {@code /event} writes.
+     *
+     * @return the write lane
+     */
+    public Lane write() {
+        return write;
+    }
+
+    /**
+     * Returns every lane, reads first.
+     *
+     * @return the lanes
+     */
+    public List<Lane> lanes() {
+        return Arrays.asList(read, write);
+    }
+
+    /**
+     * Runs a handler on a lane and completes the request with its response.
+     *
+     * <p>Must be called on the container thread handling the request. Exceptions thrown
+     * by the handler are resolved by Spring MVC as if thrown by the controller.</p>
+     *
+     * @param lane the lane running the handler
+     * @param handler produces the response
+     * @return the deferred response to return from the controller
+     */
+    public DeferredResult<ResponseEntity<String>> dispatch(Lane lane, Supplier<ResponseEntity<String>> handler) {
+        DeferredResult<ResponseEntity<String>> result = new DeferredResult<>();
+        HttpServletRequest request = ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes())
+                .getRequest();
+        OperationMetrics metrics = challengeCoreBankingFacade.getMetrics();
+        OperationMetrics.RequestState state = metrics.detachRequest();
+        ServerTiming timing = ServerTiming.current();
+
+        Runnable task = () -> {
+            metrics.attachRequest(state);
+            ServerTiming.attach(timing);
+            if (timing != null) {
+                timing.handlerStarted();
+            }
+            ResponseEntity<String> response = null;
+            Throwable failure = null;
+            try {
+                response = handler.get();
+            } catch (Throwable e) {
+                failure = e;
+            } finally {
+                ServerTiming.end();
+                // Hand the metrics to the async dispatch before it can start
+                request.setAttribute(RequestTimingInterceptor.REQUEST_STATE, metrics.detachRequest());
+            }
+            if (failure != null) {
+                result.setErrorResult(failure);
+            } else {
+                result.setResult(response);
+            }
+        };
+
+        if (!enabled) {
+            task.run();
+        } else if (!lane.submit(task)) {
+            request.setAttribute(RequestTimingInterceptor.REQUEST_STATE, state);
+            result.setResult(rejection(HttpStatus.valueOf(rejectionStatus), retryAfterSeconds));
+        }
+        return result;
+    }
+
+    /**
+     * Returns whether requests run on the lanes rather than on the container thread.
+     *
+     * @return true if lanes are enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the status of requests rejected because their lane is full.
+     *
+     * @return the rejection status, 503 or 429
+     */
+    public int getRejectionStatus() {
+        return rejectionStatus;
+    }
+
+    /**
+     * Returns the {@code Retry-After} of requests rejected because their lane is full.
+     *
+     * @return the seconds after which to retry
+     */
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    /**
+     * Rejects a request without running any handler.
+     *
+     * <p>Must be called on the container thread handling the request.</p>
+     *
+     * @param status the rejection status, such as {@code 429 Too Many Requests}
+     * @param retryAfterSeconds the value of the {@code Retry-After} header
+     * @return the rejection to return from the controller
+     */
+    public DeferredResult<ResponseEntity<String>> reject(HttpStatus status, long retryAfterSeconds) {
+        return answer(rejection(status, retryAfterSeconds));
+    }
+
+    /**
+     * Answers a request without running any handler, such as with a stored response.
+     *
+     * <p>Must be called on the container thread handling the request.</p>
+     *
+     * @param response the response
+     * @return the deferred response to return from the controller
+     */
+    public DeferredResult<ResponseEntity<String>> answer(ResponseEntity<String> response) {
+        HttpServletRequest request = ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes())
+                .getRequest();
+        request.setAttribute(RequestTimingInterceptor.REQUEST_STATE,
+                challengeCoreBankingFacade.getMetrics().detachRequest());
+        DeferredResult<ResponseEntity<String>> result = new DeferredResult<>();
+        result.setResult(response);
+        return result;
+    }
+
+    private static ResponseEntity<String> rejection(HttpStatus status, long retryAfterSeconds) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        return new ResponseEntity<String>(Constants.ZERO, headers, status);
+    }
+
+    /**
+     * Stops the lane threads.
+     */
+    @PreDestroy
+    public void shutdown() {
+        read.shutdown();
+        write.shutdown();
+    }
+}
@@ -0,0 +1,119 @@
+package org.orelio.admission;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * JUnit test class for AdaptiveConcurrencyLimiter
+ * Demonstrates testing of admission control including:
+ * - Fast rejection above the limit
+ * - Limit growth while latency is stable and the limit is in use
+ * - Limit reduction when latency rises, bounded by the minimum
+ * - Parameter validation
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 18/10/2026
+ */
+public class AdaptiveConcurrencyLimiterTest {
+
+    private static final long RTT = 100_000L;
+
+    /**
+     * Test that requests above the limit are rejected and counted
+     */
+    @Test
+    public void testRejectsAboveLimit() {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 0.2, 2.0);
+
+        // Act
+        boolean first = limiter.tryAcquire();
+        boolean second = limiter.tryAcquire();
+        boolean third = limiter.tryAcquire();
+
+        // Assert
+        assertTrue("First request should be admitted", first);
+        assertTrue("Second request should be admitted", second);
+        assertFalse("Third request should be rejected", third);
+        assertEquals("In-flight requests should be counted", 2, limiter.getInFlight());
+        assertEquals("Rejected requests should be counted", 1L, limiter.getRejected());
+    }
+
+    /**
+     * Test that a saturated limit grows while latency stays stable
+     */
+    @Test
+    public void testLimitGrowsWithStableLatency() {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 100, 0.2, 2.0);
+
+        // Act
+        saturate(limiter, RTT, 50);
+
+        // Assert
+        assertTrue("Limit should grow with stable latency", limiter.getLimit() > 10);
+        assertTrue("Limit should stay below the maximum", limiter.getLimit() <= 100);
+        assertEquals("All requests should be released", 0, limiter.getInFlight());
+    }
+
+    /**
+     * Test that the limit shrinks to the minimum when latency keeps rising
+     */
+    @Test
+    public void testLimitShrinksWhenLatencyRises() {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(50, 5, 100, 0.2, 2.0);
+        saturate(limiter, RTT, 20);
+        int before = limiter.getLimit();
+
+        // Act
+        saturate(limiter, RTT * 20, 5);
+
+        // Assert
+        assertTrue("Limit should shrink when latency rises", limiter.getLimit() < before);
+        assertEquals("Limit should not fall below the minimum", 5, limiter.getLimit());
+    }
+
+    /**
+     * Test that mostly idle traffic leaves the limit unchanged
+     */
+    @Test
+    public void testIdleTrafficKeepsLimit() {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 1, 100, 0.2, 2.0);
+
+        // Act
+        for (int i = 0; i < 100; i++) {
+            assertTrue("Idle request should be admitted", limiter.tryAcquire());
+            limiter.release(RTT * (i % 2 == 0 ? 1 : 50));
+        }
+
+        // Assert
+        assertEquals("Limit should not move without saturation", 20, limiter.getLimit());
+    }
+
+    /**
+     * Test that inconsistent parameters are rejected
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsInitialLimitAboveMaximum() {
+        // Act
+        new AdaptiveConcurrencyLimiter(20, 1, 10, 0.2, 2.0);
+    }
+
+    /**
+     * Fills the limit and releases every request with the same latency, for a number of rounds.
+     */
+    private static void saturate(AdaptiveConcurrencyLimiter limiter, long rtt, int rounds) {
+        for (int round = 0; round < rounds; round++) {
+            int admitted = 0;
+            while (limiter.tryAcquire()) {
+                admitted++;
+            }
+            for (int i = 0; i < admitted; i++) {
+                limiter.release(rtt);
+            }
+        }
+    }
+}
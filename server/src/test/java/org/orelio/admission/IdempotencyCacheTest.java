@@ -0,0 +1,130 @@
+package org.orelio.admission;
+
+import org.junit.Test;
+import org.orelio.model.Operation;
+import java.util.concurrent.TimeUnit;
+import static org.junit.Assert.*;
+
+/**
+ * JUnit test class for IdempotencyCache
+ * Demonstrates testing of the stored responses of idempotency keys including:
+ * - Stored responses replayed for the same key and operation
+ * - Keys in progress, reused for another operation, released or invalid
+ * - Expired responses and abandoned reservations swept, new keys refused when the cache is full
+ * - Keys scoped to the client sending them
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 19/10/2026
+ */
+public class IdempotencyCacheTest {
+
+    private static final String CLIENT = "127.0.0.1";
+
+    /**
+     * Test that a completed key answers its stored response, marked as replayed
+     */
+    @Test
+    public void testReplay() {
+        // Arrange
+        IdempotencyCache cache = new IdempotencyCache(true, 300, 10);
+        String fingerprint = IdempotencyCache.fingerprint(deposit("100", "10"));
+
+        // Act
+        IdempotencyCache.Entry first = cache.begin(CLIENT, "k", fingerprint);
+        IdempotencyCache.Entry running = cache.begin(CLIENT, "k", fingerprint);
+        cache.complete(CLIENT, "k", 201, "{\"destination\": {\"id\":\"100\",\"balance\":10}}");
+        IdempotencyCache.Entry replay = cache.begin(CLIENT, "k", fingerprint);
+        IdempotencyCache.Entry reused = cache.begin(CLIENT, "k", IdempotencyCache.fingerprint(deposit("100", "11")));
+
+        // Assert
+        assertNull("First request should proceed", first);
+        assertEquals("Key in progress should answer 409", 409, running.getStatus());
+        assertFalse("A refusal should not be a replay", running.isReplayed());
+        assertEquals("Replay should answer the stored status", 201, replay.getStatus());
+        assertEquals("Replay should answer the stored body", "{\"destination\": {\"id\":\"100\",\"balance\":10}}",
+                replay.getBody());
+        assertTrue("Replay should be marked", replay.isReplayed());
+        assertEquals("Key reused for another operation should answer 422", 422, reused.getStatus());
+    }
+
+    /**
+     * Test that a released key lets its retry proceed, and that missing or invalid keys are handled
+     */
+    @Test
+    public void testReleaseAndInvalidKeys() {
+        // Arrange
+        IdempotencyCache cache = new IdempotencyCache(true, 300, 10);
+        cache.begin(CLIENT, "k", "f");
+
+        // Act
+        cache.release(CLIENT, "k");
+        IdempotencyCache.Entry retry = cache.begin(CLIENT, "k", "f");
+        IdempotencyCache.Entry none = cache.begin(CLIENT, null, null);
+        IdempotencyCache.Entry empty = cache.begin(CLIENT, "", "f");
+        IdempotencyCache.Entry disabled = new IdempotencyCache(false, 300, 10).begin(CLIENT, "k", "f");
+
+        // Assert
+        assertNull("Released key should proceed again", retry);
+        assertNull("Requests without a key should proceed", none);
+        assertEquals("Empty key should be a bad request", 400, empty.getStatus());
+        assertNull("Disabled cache should ignore keys", disabled);
+    }
+
+    /**
+     * Test that expired responses and abandoned reservations are swept and new keys refused beyond the limit
+     */
+    @Test
+    public void testSweepAndLimit() {
+        // Arrange
+        IdempotencyCache cache = new IdempotencyCache(true, 300, 2);
+        cache.begin(CLIENT, "a", "f");
+        cache.complete(CLIENT, "a", 201, "{}");
+        cache.begin(CLIENT, "b", "f");
+
+        // Act
+        IdempotencyCache.Entry full = cache.begin(CLIENT, "c", "f");
+        int sweptEarly = cache.sweep(System.nanoTime());
+        int swept = cache.sweep(System.nanoTime() + TimeUnit.SECONDS.toNanos(301));
+        IdempotencyCache.Entry afterSweep = cache.begin(CLIENT, "c", "f");
+
+        // Assert
+        assertEquals("New key beyond the limit should answer 503", 503, full.getStatus());
+        assertEquals("Nothing should be swept before the TTL", 0, sweptEarly);
+        assertEquals("Expired response and reservation never completed should be swept", 2, swept);
+        assertNull("Swept room should accept a new key", afterSweep);
+        assertEquals("Only the new key should remain", 1, cache.size());
+    }
+
+    /**
+     * Test that the same key sent by two clients is two independent keys
+     */
+    @Test
+    public void testKeysScopedPerClient() {
+        // Arrange
+        IdempotencyCache cache = new IdempotencyCache(true, 300, 10);
+        String fingerprint = IdempotencyCache.fingerprint(deposit("100", "10"));
+        cache.begin("client-a", "k", fingerprint);
+        cache.complete("client-a", "k", 201, "{\"destination\": {\"id\":\"100\",\"balance\":10}}");
+
+        // Act
+        IdempotencyCache.Entry sameOperation = cache.begin("client-b", "k", fingerprint);
+        IdempotencyCache.Entry otherOperation = cache.begin("client-c", "k",
+                IdempotencyCache.fingerprint(deposit("200", "5")));
+        IdempotencyCache.Entry replay = cache.begin("client-a", "k", fingerprint);
+
+        // Assert
+        assertNull("Another client should not get the stored response", sameOperation);
+        assertNull("Another client should not get a key mismatch", otherOperation);
+        assertTrue("The client that sent the key should get the replay", replay.isReplayed());
+        assertEquals("Each client should hold its own key", 3, cache.size());
+    }
+
+    private static Operation deposit(String destination, String amount) {
+        Operation operation = new Operation();
+        operation.setType("deposit");
+        operation.setDestination(destination);
+        operation.setAmount(amount);
+        return operation;
+    }
+}
@@ -0,0 +1,196 @@
+package org.orelio.admission;
+
+import org.junit.Test;
+import org.orelio.model.Constants;
+import org.orelio.model.Operation;
+import java.util.concurrent.TimeUnit;
+import static org.junit.Assert.*;
+
+/**
+ * JUnit test class for TokenBucketTable and RateLimits
+ * Demonstrates testing of per-key rate limiting including:
+ * - Bursts up to the bucket capacity, then waits at the configured rate
+ * - Lazy refill from the elapsed time
+ * - Eviction of idle buckets without losing state
+ * - Tokens given back without exceeding the burst
+ * - Account and client scopes of banking operations, refunded on rejection
+ * - Tokens of an admitted operation released when it is not processed
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 18/10/2026
+ */
+public class TokenBucketTableTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * Test that a bucket allows its burst and then reports the wait until the next token
+     */
+    @Test
+    public void testBurstThenWait() {
+        // Arrange
+        TokenBucketTable table = new TokenBucketTable(10, 3, SECOND, 0L);
+
+        // Act
+        long first = table.tryAcquire("A", 0L);
+        long second = table.tryAcquire("A", 0L);
+        long third = table.tryAcquire("A", 0L);
+        long fourth = table.tryAcquire("A", 0L);
+        long other = table.tryAcquire("B", 0L);
+
+        // Assert
+        assertEquals("First token should be granted", 0L, first);
+        assertEquals("Second token should be granted", 0L, second);
+        assertEquals("Third token should be granted", 0L, third);
+        assertEquals("Fourth token should wait one interval", SECOND / 10, fourth);
+        assertEquals("Other keys should have their own bucket", 0L, other);
+    }
+
+    /**
+     * Test that tokens refill lazily with elapsed time, up to the burst
+     */
+    @Test
+    public void testLazyRefill() {
+        // Arrange
+        TokenBucketTable table = new TokenBucketTable(10, 2, SECOND, 0L);
+        table.tryAcquire("A", 0L);
+        table.tryAcquire("A", 0L);
+
+        // Act
+        long early = table.tryAcquire("A", SECOND / 20);
+        long refilled = table.tryAcquire("A", SECOND / 10);
+        long afterIdle1 = table.tryAcquire("A", 10 * SECOND);
+        long afterIdle2 = table.tryAcquire("A", 10 * SECOND);
+        long afterIdle3 = table.tryAcquire("A", 10 * SECOND);
+
+        // Assert
+        assertTrue("Token should not be available before the interval", early > 0);
+        assertEquals("Token should be available after the interval", 0L, refilled);
+        assertEquals("Idle bucket should refill", 0L, afterIdle1);
+        assertEquals("Idle bucket should refill up to the burst", 0L, afterIdle2);
+        assertTrue("Idle bucket should not exceed the burst", afterIdle3 > 0);
+    }
+
+    /**
+     * Test that full buckets are evicted and busy ones kept
+     */
+    @Test
+    public void testSweepEvictsIdleBuckets() {
+        // Arrange
+        TokenBucketTable table = new TokenBucketTable(10, 5, SECOND, 0L);
+        table.tryAcquire("IDLE", 0L);
+        for (int i = 0; i < 5; i++) {
+            table.tryAcquire("BUSY", SECOND / 20);
+        }
+
+        // Act
+        int evicted = table.sweep(SECOND / 10);
+        long busy = table.tryAcquire("BUSY", SECOND / 10);
+
+        // Assert
+        assertEquals("Only the refilled bucket should be evicted", 1, evicted);
+        assertEquals("Busy bucket should be kept", 1, table.size());
+        assertTrue("Busy bucket should keep its state", busy > 0);
+    }
+
+    /**
+     * Test that a token given back can be taken again, but never beyond the burst
+     */
+    @Test
+    public void testReleaseReturnsToken() {
+        // Arrange
+        TokenBucketTable table = new TokenBucketTable(10, 1, SECOND, 0L);
+        table.tryAcquire("A", 0L);
+
+        // Act
+        long limited = table.tryAcquire("A", 0L);
+        table.release("A", 0L);
+        long afterRelease = table.tryAcquire("A", 0L);
+        table.release("A", SECOND);
+        long refilled = table.tryAcquire("A", SECOND);
+        long beyondBurst = table.tryAcquire("A", SECOND);
+        table.release("MISSING", 0L);
+
+        // Assert
+        assertTrue("Empty bucket should be limited", limited > 0);
+        assertEquals("Given back token should be granted again", 0L, afterRelease);
+        assertEquals("Refilled bucket should grant its burst", 0L, refilled);
+        assertTrue("Releasing into a refilled bucket should not exceed the burst", beyondBurst > 0);
+        assertEquals("Releasing a missing key should not create a bucket", 1, table.size());
+    }
+
+    /**
+     * Test that operations are charged to their client and to the accounts they touch
+     */
+    @Test
+    public void testRateLimitsChargeClientAndAccounts() {
+        // Arrange
+        RateLimits limits = new RateLimits(true, 1, 1, 1, 3);
+        Operation deposit = operation(Constants.DEPOSIT, null, "HOT");
+        Operation transfer = operation(Constants.TRANSFER, "COLD", "HOT");
+        Operation other = operation(Constants.WITHDRAW, "COLD", null);
+
+        // Act
+        long first = limits.tryAcquire("client", deposit);
+        long second = limits.tryAcquire("client", transfer);
+        long third = limits.tryAcquire("client", other);
+        long fourth = limits.tryAcquire("client", operation(Constants.DEPOSIT, null, "NEW"));
+        long fifth = limits.tryAcquire("client", operation(Constants.DEPOSIT, null, "OTHER"));
+
+        // Assert
+        assertEquals("First deposit should pass", 0L, first);
+        assertTrue("Transfer to the hot account should be limited", second > 0);
+        assertEquals("Origin token taken by the rejected transfer should be given back", 0L, third);
+        assertEquals("Client token taken by the rejected transfer should be given back", 0L, fourth);
+        assertTrue("Client should be limited after its burst", fifth > 0);
+        assertEquals("Account rejections should be counted", 1L, limits.getAccountLimited());
+        assertEquals("Client rejections should be counted", 1L, limits.getClientLimited());
+    }
+
+    /**
+     * Test that releasing an admitted operation gives back its client and account tokens
+     */
+    @Test
+    public void testRateLimitsReleaseOperation() {
+        // Arrange
+        RateLimits limits = new RateLimits(true, 1, 1, 1, 1);
+        Operation transfer = operation(Constants.TRANSFER, "COLD", "HOT");
+        limits.tryAcquire("client", transfer);
+
+        // Act
+        limits.release("client", transfer);
+        long again = limits.tryAcquire("client", transfer);
+        long limited = limits.tryAcquire("client", operation(Constants.DEPOSIT, null, "OTHER"));
+
+        // Assert
+        assertEquals("Released transfer should be admitted again", 0L, again);
+        assertTrue("Client should be limited once its token is taken again", limited > 0);
+        assertEquals("No account rejection should be counted", 0L, limits.getAccountLimited());
+    }
+
+    /**
+     * Test that disabled limits let every operation through
+     */
+    @Test
+    public void testDisabledRateLimits() {
+        // Arrange
+        RateLimits limits = new RateLimits(false, 1, 1, 1, 1);
+        Operation deposit = operation(Constants.DEPOSIT, null, "HOT");
+
+        // Act & Assert
+        for (int i = 0; i < 10; i++) {
+            assertEquals("Disabled limits should not reject", 0L, limits.tryAcquire("client", deposit));
+        }
+        assertEquals("Disabled limits should hold no buckets", 0, limits.getAccountBuckets());
+    }
+
+    private static Operation operation(String type, String origin, String destination) {
+        Operation operation = new Operation();
+        operation.setType(type);
+        operation.setOrigin(origin);
+        operation.setDestination(destination);
+        operation.setAmount("1");
+        return operation;
+    }
+}
@@ -0,0 +1,207 @@
+package org.orelio.facade;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.orelio.model.Account;
+import org.orelio.model.Constants;
+import org.orelio.model.Operation;
+import org.orelio.util.ChallengeCoreUtils;
+import org.orelio.util.ResponseBuffer;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * JUnit test class for the allocation-free operation path of ChallengeCoreBankingFacade
+ * Demonstrates testing of the steady-state mode including:
+ * - Zero bytes allocated per deposit and withdrawal, measured with ThreadMXBean
+ * - Responses identical to the Jackson-based encoding
+ * - Buffers left empty by an operation that throws
+ * - Control characters escaped as ObjectMapper escapes them
+ * - Balance-ordered queries with index maintenance disabled
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 18/10/2026
+ */
+public class AllocationFreePathTest {
+
+    private static final int ACCOUNTS = 64;
+    private static final int WARM_UP_OPERATIONS = 200_000;
+    private static final int OPERATIONS = 10_000;
+
+    private ChallengeCoreBankingFacade facade;
+
+    @Before
+    public void setUp() {
+        facade = new ChallengeCoreBankingFacade();
+        facade.resetAccount();
+        facade.setBalanceIndexEnabled(false);
+    }
+
+    @After
+    public void tearDown() {
+        facade.setBalanceIndexEnabled(true);
+        facade.resetAccount();
+    }
+
+    /**
+     * Test that warmed-up deposits and withdrawals on existing accounts allocate nothing
+     */
+    @Test
+    public void testDepositAndWithdrawAllocateNothing() {
+        // Arrange
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue("Per-thread allocation is not measured by this JVM",
+                bean instanceof com.sun.management.ThreadMXBean
+                        && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported());
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        threads.setThreadAllocatedMemoryEnabled(true);
+        Operation[] operations = new Operation[ACCOUNTS * 2];
+        for (int i = 0; i < ACCOUNTS; i++) {
+            String id = "ALLOC" + i;
+            facade.operationEvent(operation(Constants.DEPOSIT, null, id, "1000"));
+            operations[2 * i] = operation(Constants.DEPOSIT, null, id, "7");
+            operations[2 * i + 1] = operation(Constants.WITHDRAW, id, null, "7");
+        }
+        ResponseBuffer response = new ResponseBuffer();
+        long threadId = Thread.currentThread().getId();
+        run(operations, response, WARM_UP_OPERATIONS);
+        threads.getThreadAllocatedBytes(threadId);
+
+        // Act
+        long before = threads.getThreadAllocatedBytes(threadId);
+        boolean allApplied = run(operations, response, OPERATIONS);
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        // Assert
+        assertTrue("Every operation should succeed", allApplied);
+        assertEquals("Steady-state deposits and withdrawals should allocate nothing", 0L, allocated);
+        assertEquals("Balances should be unchanged after matching deposits and withdrawals",
+                Long.valueOf(1000L), facade.getAccount("ALLOC0").getBalance());
+    }
+
+    /**
+     * Test that buffered responses match the Jackson-based encoding
+     */
+    @Test
+    public void testResponsesMatchJacksonEncoding() {
+        // Arrange
+        Account origin = new Account();
+        origin.setId("A\"1\\\n");
+        origin.setBalance(90L);
+        Account destination = new Account();
+        destination.setId("B2");
+        destination.setBalance(-9223372036854775808L + 10);
+        facade.operationEvent(operation(Constants.DEPOSIT, null, origin.getId(), "100"));
+        facade.operationEvent(operation(Constants.DEPOSIT, null, destination.getId(), "-9223372036854775808"));
+
+        // Act
+        String transfer = facade.operationEvent(operation(Constants.TRANSFER, origin.getId(), destination.getId(), "10"));
+        String withdraw = facade.operationEvent(operation(Constants.WITHDRAW, origin.getId(), null, "0"));
+        String rejected = facade.operationEvent(operation(Constants.WITHDRAW, "MISSING", null, "1"));
+
+        // Assert
+        assertEquals("Transfer response should match",
+                String.format(Constants.fmtOriginDestin, ChallengeCoreUtils.resultJsonAPI(origin),
+                        ChallengeCoreUtils.resultJsonAPI(destination)), transfer);
+        assertEquals("Withdraw response should match",
+                ChallengeCoreUtils.resultJsonAPI(origin, Constants.fmtOrigin), withdraw);
+        assertEquals("Rejected operation should return ZERO", Constants.ZERO, rejected);
+    }
+
+    /**
+     * Test that an operation throwing on the buffered path leaves no earlier response in the buffer
+     */
+    @Test
+    public void testThrowingOperationClearsBuffer() {
+        // Arrange
+        ResponseBuffer response = new ResponseBuffer();
+        facade.operationEvent(operation(Constants.DEPOSIT, null, "100", "10"), response);
+        NumberFormatException failure = null;
+
+        // Act
+        try {
+            facade.operationEvent(operation(Constants.DEPOSIT, null, "100", "ten"), response);
+        } catch (NumberFormatException e) {
+            failure = e;
+        }
+        String left = response.toString();
+        boolean applied = facade.operationEvent(operation(Constants.WITHDRAW, "100", null, "4"), response);
+
+        // Assert
+        assertNotNull("Invalid amount should throw", failure);
+        assertEquals("Buffer should not keep the earlier response", "", left);
+        assertTrue("Next operation should be applied", applied);
+        assertEquals("Next operation should encode only its own response",
+                "{\"origin\": {\"id\":\"100\",\"balance\":6}}", response.toString());
+    }
+
+    /**
+     * Test that control characters in account IDs are escaped exactly as ObjectMapper escapes them
+     */
+    @Test
+    public void testControlCharactersMatchObjectMapper() throws Exception {
+        // Arrange
+        ObjectMapper mapper = new ObjectMapper();
+        String[] ids = {"C\u0001", "D\u001f", "E\u0000\u000b\u001a\u007f"};
+
+        for (String id : ids) {
+            Account account = new Account();
+            account.setId(id);
+            account.setBalance(5L);
+
+            // Act
+            String buffered = new ResponseBuffer().appendAccountJson(id, 5L).toString();
+            String deposit = facade.operationEvent(operation(Constants.DEPOSIT, null, id, "5"));
+
+            // Assert
+            assertEquals("Account JSON should match ObjectMapper", mapper.writeValueAsString(account), buffered);
+            assertEquals("Deposit response should match ObjectMapper",
+                    String.format(Constants.fmtDestination, mapper.writeValueAsString(account)), deposit);
+        }
+    }
+
+    /**
+     * Test balance-ordered queries while index maintenance is disabled and after re-enabling it
+     */
+    @Test
+    public void testBalanceQueriesWithoutIndex() {
+        // Arrange
+        facade.operationEvent(operation(Constants.DEPOSIT, null, "LOW", "5"));
+        facade.operationEvent(operation(Constants.DEPOSIT, null, "HIGH", "500"));
+        facade.operationEvent(operation(Constants.WITHDRAW, "LOW", null, "10"));
+
+        // Act
+        List<Account> top = facade.getTopAccounts(1, true);
+        List<Account> overdrawn = facade.getAccountsByBalance(null, 0L, 10);
+        facade.setBalanceIndexEnabled(true);
+        List<Account> rebuilt = facade.getTopAccounts(2, false);
+
+        // Assert
+        assertEquals("Top account should be found by scan", "HIGH", top.get(0).getId());
+        assertEquals("Overdrawn account should be found by scan", 1, overdrawn.size());
+        assertEquals("Overdrawn balance should be current", Long.valueOf(-5L), overdrawn.get(0).getBalance());
+        assertEquals("Rebuilt index should order by balance", "LOW", rebuilt.get(0).getId());
+    }
+
+    private boolean run(Operation[] operations, ResponseBuffer response, int count) {
+        boolean allApplied = true;
+        for (int i = 0; i < count; i++) {
+            allApplied &= facade.operationEvent(operations[i % operations.length], response);
+        }
+        return allApplied;
+    }
+
+    private static Operation operation(String type, String origin, String destination, String amount) {
+        Operation operation = new Operation();
+        operation.setType(type);
+        operation.setOrigin(origin);
+        operation.setDestination(destination);
+        operation.setAmount(amount);
+        return operation;
+    }
+}
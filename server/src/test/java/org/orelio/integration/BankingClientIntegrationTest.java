@@ -0,0 +1,143 @@
+package org.orelio.integration;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.orelio.client.Balance;
+import org.orelio.client.BankingClient;
+import org.orelio.client.BankingException;
+import org.orelio.client.Transfer;
+import org.orelio.facade.ChallengeCoreBankingFacade;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import static org.junit.Assert.*;
+
+/**
+ * Integration test class for the Java SDK against the running application
+ * Demonstrates testing of BankingClient over real HTTP including:
+ * - Blocking operations and their typed balances
+ * - Asynchronous operations pipelined on a few connections
+ * - Asynchronous operations grouped into /event/batch requests
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 19/10/2026
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "banking.ratelimit.enabled=false")
+public class BankingClientIntegrationTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ChallengeCoreBankingFacade facade;
+
+    private BankingClient client;
+
+    @Before
+    public void setUp() {
+        facade.resetAccount();
+    }
+
+    @After
+    public void tearDown() {
+        if (client != null) {
+            client.close();
+        }
+        facade.resetAccount();
+    }
+
+    /**
+     * Test that blocking operations return the balances the server computed
+     */
+    @Test
+    public void testBlockingOperations() {
+        // Arrange
+        client = BankingClient.builder("http://localhost:" + port).build();
+
+        // Act
+        Balance deposit = client.deposit("100", 10);
+        Balance withdrawal = client.withdraw("100", 3);
+        Transfer transfer = client.transfer("100", "300", 5);
+        OptionalLong balance = client.balance("300");
+        OptionalLong missing = client.balance("999");
+
+        // Assert
+        assertEquals("Deposit should return the new balance", new Balance("100", 10), deposit);
+        assertEquals("Withdrawal should return the new balance", new Balance("100", 7), withdrawal);
+        assertEquals("Transfer should return both balances",
+                new Transfer(new Balance("100", 2), new Balance("300", 5)), transfer);
+        assertEquals("Balance should be read", OptionalLong.of(5L), balance);
+        assertFalse("Unknown account should have no balance", missing.isPresent());
+        try {
+            client.withdraw("999", 1);
+            fail("Withdrawal from an unknown account should fail");
+        } catch (BankingException e) {
+            assertEquals("Failure should carry the 404 status", 404, e.getStatus());
+        }
+    }
+
+    /**
+     * Test that pipelined asynchronous operations are all applied
+     */
+    @Test
+    public void testPipelinedOperations() {
+        // Arrange
+        client = BankingClient.builder("http://localhost:" + port).maxConnections(2).pipelineDepth(16).build();
+        List<CompletableFuture<Balance>> deposits = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < 500; i++) {
+            deposits.add(client.depositAsync("P" + (i % 5), 2));
+        }
+        CompletableFuture.allOf(deposits.toArray(new CompletableFuture<?>[0])).join();
+
+        // Assert
+        for (int account = 0; account < 5; account++) {
+            assertEquals("Every deposit should be applied once", OptionalLong.of(200L), client.balance("P" + account));
+        }
+        assertTrue("Operations should share a few connections", client.getConnectionsOpened() <= 4);
+    }
+
+    /**
+     * Test that batched asynchronous operations are all applied with their own results
+     */
+    @Test
+    public void testBatchedOperations() {
+        // Arrange
+        client = BankingClient.builder("http://localhost:" + port).batching(Duration.ofMillis(5), 64).build();
+        List<CompletableFuture<Balance>> deposits = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < 300; i++) {
+            deposits.add(client.depositAsync("B" + (i % 3), 1));
+        }
+        CompletableFuture<Balance> refused = client.withdrawAsync("999", 1);
+        CompletableFuture.allOf(deposits.toArray(new CompletableFuture<?>[0])).join();
+
+        // Assert
+        for (int account = 0; account < 3; account++) {
+            assertEquals("Every deposit should be applied once", Long.valueOf(100L),
+                    facade.getAccount("B" + account).getBalance());
+        }
+        assertEquals("Each deposit should return its own account", "B1", deposits.get(4).join().getAccountId());
+        try {
+            refused.join();
+            fail("Refused withdrawal should fail on its own");
+        } catch (CompletionException e) {
+            assertEquals("Failure should carry the 404 status", 404, ((BankingException) e.getCause()).getStatus());
+        }
+    }
+}
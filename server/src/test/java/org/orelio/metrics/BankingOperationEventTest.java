@@ -0,0 +1,200 @@
+package org.orelio.metrics;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.orelio.facade.ChallengeCoreBankingFacade;
+import org.orelio.model.Constants;
+import org.orelio.model.Operation;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import static org.junit.Assert.*;
+
+/**
+ * JUnit test class for the BankingOperationEvent flight recorder event
+ * Demonstrates testing of the recorded events including:
+ * - One event per processed operation while a recording is running
+ * - Operation fields, amount buckets and lock timings
+ * - No events while no recording is running
+ * - The Flight Recorder guard resolved once and following the recording state
+ * - Recordings closed and released when their dump fails
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 18/10/2026
+ */
+public class BankingOperationEventTest {
+
+    private ChallengeCoreBankingFacade facade;
+    private Path dump;
+
+    @Before
+    public void setUp() throws Exception {
+        facade = new ChallengeCoreBankingFacade();
+        facade.resetAccount();
+        dump = Files.createTempFile("banking", ".jfr");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        facade.resetAccount();
+        Files.deleteIfExists(dump);
+    }
+
+    /**
+     * Test that the Flight Recorder guard follows the recording state
+     */
+    @Test
+    public void testFlightRecorderSupport() {
+        // Act
+        boolean available = FlightRecorderSupport.isAvailable();
+        boolean recording;
+        try (Recording running = new Recording()) {
+            running.enable(BankingOperationEvent.class).withoutThreshold();
+            running.start();
+            recording = FlightRecorderSupport.isRecording();
+        }
+
+        // Assert
+        assertTrue("This runtime should have the Flight Recorder API", available);
+        assertTrue("A running recording should be reported", recording);
+        assertFalse("A closed recording should not be reported", FlightRecorderSupport.isRecording());
+    }
+
+    /**
+     * Test that every operation processed during a recording produces one event
+     */
+    @Test
+    public void testOperationsAreRecorded() throws Exception {
+        // Arrange
+        facade.operationEvent(operation(Constants.DEPOSIT, null, "UNRECORDED", "1"));
+        List<RecordedEvent> events;
+
+        // Act
+        try (Recording recording = new Recording()) {
+            recording.enable(BankingOperationEvent.class).withoutThreshold();
+            recording.start();
+            facade.operationEvent(operation(Constants.DEPOSIT, null, "JFR1", "1500"));
+            facade.operationEvent(operation(Constants.TRANSFER, "JFR1", "JFR2", "20"));
+            facade.operationEvent(operation(Constants.WITHDRAW, "MISSING", null, "5"));
+            recording.stop();
+            recording.dump(dump);
+        }
+        events = RecordingFile.readAllEvents(dump).stream()
+                .filter(e -> e.getEventType().getName().equals("org.orelio.BankingOperation"))
+                .collect(Collectors.toList());
+
+        // Assert
+        assertEquals("Only operations during the recording should be recorded", 3, events.size());
+        RecordedEvent deposit = events.get(0);
+        assertEquals("Deposit type should be recorded", Constants.DEPOSIT, deposit.getString("type"));
+        assertEquals("Deposit destination should be recorded", "JFR1", deposit.getString("destination"));
+        assertEquals("Deposit amount bucket should be recorded", "1K-10K", deposit.getString("amountBucket"));
+        assertTrue("Deposit should be successful", deposit.getBoolean("success"));
+        assertTrue("Store time should be measured", deposit.getLong("storeTime") > 0);
+        RecordedEvent transfer = events.get(1);
+        assertEquals("Transfer origin should be recorded", "JFR1", transfer.getString("origin"));
+        assertTrue("Lock wait should not be negative", transfer.getLong("lockWait") >= 0);
+        RecordedEvent rejected = events.get(2);
+        assertFalse("Rejected withdrawal should be unsuccessful", rejected.getBoolean("success"));
+        assertEquals("Rejected withdrawal should not hold locks", 0L, rejected.getLong("storeTime"));
+    }
+
+    /**
+     * Test amount bucketing by order of magnitude
+     */
+    @Test
+    public void testAmountBuckets() {
+        // Act & Assert
+        assertEquals("Zero should have its own bucket", "0", BankingOperationEvent.amountBucket("0"));
+        assertEquals("Units should be bucketed", "1-9", BankingOperationEvent.amountBucket("9"));
+        assertEquals("Hundreds should be bucketed", "100-999", BankingOperationEvent.amountBucket("100"));
+        assertEquals("Large amounts should share the top bucket", ">=100M",
+                BankingOperationEvent.amountBucket(String.valueOf(Long.MAX_VALUE)));
+        assertEquals("Negative amounts should be bucketed", "negative", BankingOperationEvent.amountBucket("-3"));
+        assertEquals("Invalid amounts should be bucketed", "invalid", BankingOperationEvent.amountBucket(null));
+    }
+
+    /**
+     * Test that the event is disabled while no recording is running
+     */
+    @Test
+    public void testDisabledWithoutRecording() {
+        // Act & Assert
+        assertFalse("Event should be disabled without a recording", BankingOperationEvent.isRecording());
+    }
+
+    /**
+     * Test that the recorder dumps to a generated file in its directory
+     */
+    @Test
+    public void testRecorderDumpsToDirectory() throws Exception {
+        // Arrange
+        JfrRecorder recorder = new JfrRecorder();
+        File directory = Files.createTempDirectory("recordings").toFile();
+        org.springframework.test.util.ReflectionTestUtils.setField(recorder, "directory", directory.getPath());
+
+        // Act
+        recorder.start("default");
+        facade.operationEvent(operation(Constants.DEPOSIT, null, "DUMPED", "1"));
+        String file = (String) recorder.stop().get("file");
+
+        // Assert
+        assertEquals("Recording should be written to the directory", directory.getAbsolutePath(),
+                new File(file).getParent());
+        assertTrue("Recording file should exist", new File(file).length() > 0);
+        assertEquals("Recorder should be idle after stopping", "NONE", recorder.status().get("state"));
+        new File(file).delete();
+        directory.delete();
+    }
+
+    /**
+     * Test that a recording whose dump fails is still closed and released
+     */
+    @Test
+    public void testRecorderReleasedWhenDumpFails() throws Exception {
+        // Arrange
+        JfrRecorder recorder = new JfrRecorder();
+        File blocker = Files.createTempFile("recordings", ".tmp").toFile();
+        org.springframework.test.util.ReflectionTestUtils.setField(recorder, "directory",
+                new File(blocker, "child").getPath());
+        recorder.start("default");
+        IOException failure = null;
+
+        // Act
+        try {
+            recorder.stop();
+        } catch (IOException e) {
+            failure = e;
+        }
+        Object stoppedState = recorder.status().get("state");
+        recorder.start("default");
+        Object restartedState = recorder.status().get("state");
+
+        // Assert
+        assertNotNull("Dumping below a regular file should fail", failure);
+        assertEquals("Recorder should be idle after the failed stop", "NONE", stoppedState);
+        assertEquals("A new recording should start", "RUNNING", restartedState);
+        File directory = Files.createTempDirectory("recordings").toFile();
+        org.springframework.test.util.ReflectionTestUtils.setField(recorder, "directory", directory.getPath());
+        new File((String) recorder.stop().get("file")).delete();
+        directory.delete();
+        blocker.delete();
+    }
+
+    private static Operation operation(String type, String origin, String destination, String amount) {
+        Operation operation = new Operation();
+        operation.setType(type);
+        operation.setOrigin(origin);
+        operation.setDestination(destination);
+        operation.setAmount(amount);
+        return operation;
+    }
+}
@@ -0,0 +1,231 @@
+package org.orelio.metrics;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.orelio.facade.ChallengeCoreBankingFacade;
+import org.orelio.model.Operation;
+import static org.junit.Assert.*;
+
+/**
+ * JUnit test class for OperationMetrics
+ * Demonstrates testing of the latency histograms including:
+ * - Log-linear bucket boundaries and percentiles
+ * - Request-scoped parse and total stages
+ * - Recording from the facade
+ * - Shared histograms bounding the recorders of virtual threads
+ * - Histograms of finished platform threads retired into one set
+ * - Prometheus text output
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 18/10/2026
+ */
+public class OperationMetricsTest {
+
+    private OperationMetrics metrics;
+
+    @Before
+    public void setUp() {
+        metrics = new OperationMetrics();
+    }
+
+    /**
+     * Test that every value falls inside its bucket and buckets are contiguous
+     */
+    @Test
+    public void testBucketBoundaries() {
+        // Assert
+        for (long value : new long[] {0L, 1L, 15L, 16L, 17L, 31L, 32L, 1_000L, 999_999L, 123_456_789L}) {
+            int bucket = LatencyHistogram.bucketOf(value);
+            assertTrue("Value should not exceed its bucket bound", value <= LatencyHistogram.upperBoundOf(bucket));
+            assertTrue("Value should exceed the previous bucket bound",
+                    bucket == 0 || value > LatencyHistogram.upperBoundOf(bucket - 1));
+        }
+        assertEquals("Values beyond the range should be clamped into the last bucket",
+                LatencyHistogram.BUCKETS - 1, LatencyHistogram.bucketOf(Long.MAX_VALUE));
+    }
+
+    /**
+     * Test percentiles stay within the relative error of the histogram
+     */
+    @Test
+    public void testPercentiles() {
+        // Arrange
+        for (long i = 1; i <= 1000; i++) {
+            metrics.record(OperationMetrics.Stage.APPLY, OperationMetrics.DEPOSIT, true, i * 1000);
+        }
+
+        // Act
+        LatencyHistogram histogram = metrics.snapshot(OperationMetrics.Stage.APPLY, OperationMetrics.DEPOSIT, true);
+
+        // Assert
+        assertEquals("Every value should be counted", 1000L, histogram.getCount());
+        assertEquals("Max should be exact", 1_000_000L, histogram.getMax());
+        assertEquals("p100 should be the max", 1_000_000L, histogram.valueAtPercentile(100.0));
+        long p50 = histogram.valueAtPercentile(50.0);
+        assertTrue("p50 should be within the bucket error", p50 >= 500_000L && p50 <= 500_000L * 17 / 16);
+        assertEquals("Other series should be empty", 0L,
+                metrics.snapshot(OperationMetrics.Stage.APPLY, OperationMetrics.DEPOSIT, false).getCount());
+    }
+
+    /**
+     * Test that merged snapshots include values recorded by other threads
+     */
+    @Test
+    public void testMergesThreads() throws InterruptedException {
+        // Arrange
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    metrics.record(OperationMetrics.Stage.TOTAL, OperationMetrics.TRANSFER, true, 5_000L);
+                }
+            });
+            threads[t].start();
+        }
+
+        // Act
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // Assert
+        assertEquals("All threads should be merged", 4000L,
+                metrics.snapshot(OperationMetrics.Stage.TOTAL, OperationMetrics.TRANSFER, true).getCount());
+    }
+
+    /**
+     * Test that threads sharing histograms, like virtual threads, add no recorders and lose no values
+     */
+    @Test
+    public void testSharedHistogramsBoundRecorders() throws InterruptedException {
+        // Arrange
+        OperationMetrics sharedMetrics = new OperationMetrics(true);
+        int recorders = sharedMetrics.recorderCount();
+        Thread[] threads = new Thread[64];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 500; i++) {
+                    sharedMetrics.record(OperationMetrics.Stage.APPLY, OperationMetrics.DEPOSIT, true, 2_000L);
+                }
+            });
+        }
+
+        // Act
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // Assert
+        assertEquals("Short-lived threads should not add recorders", recorders, sharedMetrics.recorderCount());
+        assertEquals("Every value from every thread should be merged", 32_000L,
+                sharedMetrics.snapshot(OperationMetrics.Stage.APPLY, OperationMetrics.DEPOSIT, true).getCount());
+    }
+
+    /**
+     * Test that the histograms of finished platform threads are retired without losing values
+     */
+    @Test
+    public void testFinishedThreadsAreRetired() throws InterruptedException {
+        // Arrange
+        int recorders = metrics.recorderCount();
+        for (int t = 0; t < 32; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 100; i++) {
+                    metrics.record(OperationMetrics.Stage.APPLY, OperationMetrics.WITHDRAW, false, 3_000L);
+                }
+            });
+            thread.start();
+            thread.join();
+        }
+
+        // Act
+        LatencyHistogram histogram = metrics.snapshot(OperationMetrics.Stage.APPLY, OperationMetrics.WITHDRAW, false);
+
+        // Assert
+        assertEquals("Finished threads should leave no recorders", recorders, metrics.recorderCount());
+        assertEquals("Values of finished threads should be kept", 3_200L, histogram.getCount());
+        assertEquals("Max of finished threads should be kept", 3_000L, histogram.getMax());
+    }
+
+    /**
+     * Test that parse and total stages are recorded only once the outcome is known
+     */
+    @Test
+    public void testRequestStages() {
+        // Act
+        metrics.requestStarted();
+        metrics.parseStarted();
+        metrics.parseFinished();
+        metrics.operationCompleted(OperationMetrics.WITHDRAW, false);
+        metrics.requestFinished();
+
+        metrics.requestStarted();
+        metrics.requestFinished();
+
+        // Assert
+        assertEquals("Parse should be recorded for the outcome", 1L,
+                metrics.snapshot(OperationMetrics.Stage.PARSE, OperationMetrics.WITHDRAW, false).getCount());
+        assertEquals("Total should be recorded once", 1L,
+                metrics.snapshot(OperationMetrics.Stage.TOTAL, OperationMetrics.WITHDRAW, false).getCount());
+        assertEquals("Requests without an outcome should not be recorded", 0L,
+                metrics.snapshot(OperationMetrics.Stage.TOTAL, OperationMetrics.OTHER, true).getCount());
+    }
+
+    /**
+     * Test that the facade records apply and serialize stages by type and outcome
+     */
+    @Test
+    public void testFacadeRecording() {
+        // Arrange
+        ChallengeCoreBankingFacade facade = new ChallengeCoreBankingFacade();
+        facade.resetAccount();
+        OperationMetrics shared = facade.getMetrics();
+        long successBefore = shared.snapshot(OperationMetrics.Stage.APPLY, OperationMetrics.DEPOSIT, true).getCount();
+        long failureBefore = shared.snapshot(OperationMetrics.Stage.SERIALIZE, OperationMetrics.WITHDRAW, false).getCount();
+
+        Operation deposit = new Operation();
+        deposit.setType("deposit");
+        deposit.setDestination("M1");
+        deposit.setAmount("10");
+        Operation withdraw = new Operation();
+        withdraw.setType("withdraw");
+        withdraw.setOrigin("MISSING");
+        withdraw.setAmount("10");
+
+        // Act
+        facade.operationEvent(deposit);
+        facade.operationEvent(withdraw);
+
+        // Assert
+        assertEquals("Successful deposit should be recorded", successBefore + 1,
+                shared.snapshot(OperationMetrics.Stage.APPLY, OperationMetrics.DEPOSIT, true).getCount());
+        assertEquals("Failed withdraw should be recorded", failureBefore + 1,
+                shared.snapshot(OperationMetrics.Stage.SERIALIZE, OperationMetrics.WITHDRAW, false).getCount());
+    }
+
+    /**
+     * Test the Prometheus text output
+     */
+    @Test
+    public void testPrometheusFormat() {
+        // Arrange
+        metrics.record(OperationMetrics.Stage.APPLY, OperationMetrics.DEPOSIT, true, 3_000L);
+
+        // Act
+        String text = PrometheusFormatter.format(metrics);
+
+        // Assert
+        String labels = "stage=\"apply\",type=\"deposit\",outcome=\"success\"";
+        assertTrue("Type line should be present", text.contains("# TYPE banking_operation_latency_seconds histogram"));
+        assertTrue("Value should be below the 5us bucket",
+                text.contains("banking_operation_latency_seconds_bucket{" + labels + ",le=\"5.0E-6\"} 1"));
+        assertTrue("Value should be above the 1us bucket",
+                text.contains("banking_operation_latency_seconds_bucket{" + labels + ",le=\"1.0E-6\"} 0"));
+        assertTrue("Count should be present", text.contains("banking_operation_latency_seconds_count{" + labels + "} 1"));
+        assertFalse("Empty series should be omitted", text.contains("type=\"transfer\""));
+    }
+}
@@ -0,0 +1,142 @@
+package org.orelio.reactive;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.orelio.admission.AdaptiveConcurrencyLimiter;
+import org.orelio.admission.RateLimits;
+import org.orelio.facade.ChallengeCoreBankingFacade;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import static org.junit.Assert.*;
+
+/**
+ * JUnit test class for the reactive front end
+ * Demonstrates testing of the WebFlux banking routes including:
+ * - Status codes and bodies identical to the servlet controller
+ * - Combined deposits answered asynchronously
+ * - Rejection of malformed bodies and missing parameters
+ * - Admission control and rate limits
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 18/10/2026
+ */
+public class ReactiveBankingHandlerTest {
+
+    private ChallengeCoreBankingFacade facade;
+
+    private WebTestClient client;
+
+    @Before
+    public void setUp() {
+        facade = new ChallengeCoreBankingFacade();
+        facade.resetAccount();
+        facade.setDepositCombining(true);
+        client = bind(new RateLimits(false, 0, 0, 0, 0), null);
+    }
+
+    @After
+    public void tearDown() {
+        facade.setDepositCombining(false);
+        facade.resetAccount();
+    }
+
+    /**
+     * Test that reset, deposit, transfer and balance answer like the servlet controller
+     */
+    @Test
+    public void testBankingContract() {
+        // Act & Assert
+        client.post().uri("/reset").exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo("OK");
+        client.post().uri("/event").contentType(MediaType.APPLICATION_JSON)
+                .syncBody("{\"type\":\"deposit\",\"destination\":\"100\",\"amount\":\"10\"}").exchange()
+                .expectStatus().isCreated()
+                .expectBody(String.class).isEqualTo("{\"destination\": {\"id\":\"100\",\"balance\":10}}");
+        client.post().uri("/event").contentType(MediaType.APPLICATION_JSON)
+                .syncBody("{\"type\":\"transfer\",\"origin\":\"100\",\"destination\":\"300\",\"amount\":\"15\"}").exchange()
+                .expectStatus().isCreated()
+                .expectBody(String.class).isEqualTo(
+                        "{\"origin\": {\"id\":\"100\",\"balance\":-5}, \"destination\": {\"id\":\"300\",\"balance\":15}}");
+        client.get().uri("/balance?account_id=300").exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_JSON)
+                .expectBody(String.class).isEqualTo("15");
+    }
+
+    /**
+     * Test that unknown accounts and failed operations answer 404 with "0"
+     */
+    @Test
+    public void testNotFound() {
+        // Act & Assert
+        client.get().uri("/balance?account_id=1234").exchange()
+                .expectStatus().isNotFound()
+                .expectBody(String.class).isEqualTo("0");
+        client.post().uri("/event").contentType(MediaType.APPLICATION_JSON)
+                .syncBody("{\"type\":\"withdraw\",\"origin\":\"200\",\"amount\":\"10\"}").exchange()
+                .expectStatus().isNotFound()
+                .expectBody(String.class).isEqualTo("0");
+    }
+
+    /**
+     * Test that malformed bodies and missing parameters are bad requests
+     */
+    @Test
+    public void testBadRequests() {
+        // Act & Assert
+        client.post().uri("/event").contentType(MediaType.APPLICATION_JSON).syncBody("{bad").exchange()
+                .expectStatus().isBadRequest();
+        client.get().uri("/balance").exchange()
+                .expectStatus().isBadRequest();
+        assertEquals("Nothing should have been applied", 0L, facade.getAggregates().getAccountCount());
+    }
+
+    /**
+     * Test that rate-limited operations are rejected with 429 and Retry-After
+     */
+    @Test
+    public void testRateLimited() {
+        // Arrange
+        WebTestClient limited = bind(new RateLimits(true, 1, 1, 0, 0), null);
+        String body = "{\"type\":\"deposit\",\"destination\":\"HOT\",\"amount\":\"1\"}";
+        limited.post().uri("/event").contentType(MediaType.APPLICATION_JSON).syncBody(body).exchange()
+                .expectStatus().isCreated();
+
+        // Act & Assert
+        limited.post().uri("/event").contentType(MediaType.APPLICATION_JSON).syncBody(body).exchange()
+                .expectStatus().isEqualTo(429)
+                .expectHeader().valueEquals(HttpHeaders.RETRY_AFTER, "1")
+                .expectBody(String.class).isEqualTo("0");
+    }
+
+    /**
+     * Test that requests above the admission limit are rejected and admitted ones are released
+     */
+    @Test
+    public void testAdmission() {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, 0.2, 2.0);
+        WebTestClient admitted = bind(new RateLimits(false, 0, 0, 0, 0), limiter);
+
+        // Act
+        admitted.get().uri("/balance?account_id=1").exchange().expectStatus().isNotFound();
+        boolean held = limiter.tryAcquire();
+        admitted.get().uri("/balance?account_id=1").exchange()
+                .expectStatus().isEqualTo(503)
+                .expectHeader().valueEquals(HttpHeaders.RETRY_AFTER, "1")
+                .expectBody(String.class).isEqualTo("0");
+
+        // Assert
+        assertTrue("The completed request should have released its permit", held);
+        assertEquals("The rejection should be counted", 1L, limiter.getRejected());
+    }
+
+    private WebTestClient bind(RateLimits rateLimits, AdaptiveConcurrencyLimiter limiter) {
+        ReactiveBankingHandler handler = new ReactiveBankingHandler(facade, rateLimits, limiter, 503, 1);
+        return WebTestClient.bindToRouterFunction(new ReactiveApplication().bankingRoutes(handler)).build();
+    }
+}
@@ -0,0 +1,75 @@
+package org.orelio.requests;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import static org.junit.Assert.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * JUnit test class for AccountsController
+ * Demonstrates testing of the balance range endpoint including:
+ * - Accounts in a balance range listed in balance order
+ * - A lower bound above the upper bound rejected with 400
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 19/10/2026
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+public class AccountsControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Before
+    public void setUp() throws Exception {
+        mockMvc.perform(post("/reset"));
+        deposit("100", "10");
+        deposit("200", "50");
+    }
+
+    /**
+     * Test that the accounts in a balance range are listed lowest balance first
+     */
+    @Test
+    public void testBalanceRange() throws Exception {
+        // Act
+        MockHttpServletResponse response = mockMvc.perform(get("/accounts/by-balance?min=0&max=100"))
+                .andReturn().getResponse();
+
+        // Assert
+        assertEquals("Range should be answered", 200, response.getStatus());
+        assertEquals("Accounts should be in ascending balance order",
+                "[{\"id\":\"100\",\"balance\":10},{\"id\":\"200\",\"balance\":50}]", response.getContentAsString());
+    }
+
+    /**
+     * Test that a lower bound above the upper bound is a bad request, not a server error
+     */
+    @Test
+    public void testInvertedRangeRejected() throws Exception {
+        // Act
+        MockHttpServletResponse response = mockMvc.perform(get("/accounts/by-balance?min=100&max=0"))
+                .andReturn().getResponse();
+
+        // Assert
+        assertEquals("Inverted range should be rejected", 400, response.getStatus());
+        assertEquals("Rejection should answer 0", "0", response.getContentAsString());
+    }
+
+    private void deposit(String destination, String amount) throws Exception {
+        mockMvc.perform(post("/event").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"type\":\"deposit\",\"destination\":\"" + destination + "\",\"amount\":\"" + amount + "\"}"));
+    }
+}
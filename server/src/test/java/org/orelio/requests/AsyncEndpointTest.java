@@ -0,0 +1,137 @@
+package org.orelio.requests;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.orelio.facade.ChallengeCoreBankingFacade;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import static org.junit.Assert.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * JUnit test class for AsyncBankingController
+ * Demonstrates testing of the /async endpoints through async dispatch including:
+ * - Deposits answered from the future with deposit combining off
+ * - Concurrent deposits combined without losing any with combining on
+ * - Failed operations and unknown accounts answered with 404
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 19/10/2026
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+public class AsyncEndpointTest {
+
+    private static final String DEPOSIT = "{\"type\":\"deposit\",\"destination\":\"100\",\"amount\":\"10\"}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ChallengeCoreBankingFacade facade;
+
+    @Before
+    public void setUp() throws Exception {
+        mockMvc.perform(post("/reset"));
+    }
+
+    @After
+    public void tearDown() {
+        facade.setDepositCombining(false);
+    }
+
+    /**
+     * Test that a deposit is answered through async dispatch with combining off
+     */
+    @Test
+    public void testDepositWithCombiningOff() throws Exception {
+        // Arrange
+        facade.setDepositCombining(false);
+
+        // Act
+        MockHttpServletResponse deposit = perform(post("/async/event")
+                .contentType(MediaType.APPLICATION_JSON).content(DEPOSIT));
+        MockHttpServletResponse balance = perform(get("/async/balance").param("account_id", "100"));
+
+        // Assert
+        assertEquals("Deposit should be created", 201, deposit.getStatus());
+        assertEquals("Deposit should answer the new balance",
+                "{\"destination\": {\"id\":\"100\",\"balance\":10}}", deposit.getContentAsString());
+        assertEquals("Balance should be found", 200, balance.getStatus());
+        assertEquals("Balance should include the deposit", "10", balance.getContentAsString());
+    }
+
+    /**
+     * Test that concurrent deposits are all applied with combining on
+     */
+    @Test
+    public void testConcurrentDepositsWithCombiningOn() throws Exception {
+        // Arrange
+        facade.setDepositCombining(true);
+        int clients = 8;
+        int deposits = 50;
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        List<Future<Integer>> statuses = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < clients * deposits; i++) {
+            statuses.add(executor.submit(() -> perform(post("/async/event")
+                    .contentType(MediaType.APPLICATION_JSON).content(DEPOSIT)).getStatus()));
+        }
+        int created = 0;
+        for (Future<Integer> status : statuses) {
+            created += status.get() == 201 ? 1 : 0;
+        }
+        executor.shutdown();
+
+        // Assert
+        assertEquals("Every deposit should be created", clients * deposits, created);
+        assertEquals("Every deposit should be in the balance",
+                Long.valueOf(10L * clients * deposits), facade.getAccount("100").getBalance());
+    }
+
+    /**
+     * Test that failed operations and unknown accounts answer 404 with "0"
+     */
+    @Test
+    public void testFailuresWithCombiningOn() throws Exception {
+        // Arrange
+        facade.setDepositCombining(true);
+
+        // Act
+        MockHttpServletResponse withdraw = perform(post("/async/event").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"type\":\"withdraw\",\"origin\":\"999\",\"amount\":\"5\"}"));
+        MockHttpServletResponse balance = perform(get("/async/balance").param("account_id", "999"));
+
+        // Assert
+        assertEquals("Withdrawal from a missing account should fail", 404, withdraw.getStatus());
+        assertEquals("Failure should answer 0", "0", withdraw.getContentAsString());
+        assertEquals("Missing account should not be found", 404, balance.getStatus());
+        assertEquals("Missing balance should answer 0", "0", balance.getContentAsString());
+    }
+
+    private MockHttpServletResponse perform(MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult result = mockMvc.perform(request).andReturn();
+        assertTrue("Request should be handled asynchronously", result.getRequest().isAsyncStarted());
+        result.getAsyncResult();
+        return mockMvc.perform(asyncDispatch(result)).andReturn().getResponse();
+    }
+}
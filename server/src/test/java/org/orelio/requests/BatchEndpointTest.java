@@ -0,0 +1,170 @@
+package org.orelio.requests;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.orelio.admission.IdempotencyCache;
+import org.orelio.controllers.GreetingsController;
+import org.orelio.facade.ChallengeCoreBankingFacade;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import static org.junit.Assert.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * JUnit test class for /event/batch and idempotency keys
+ * Demonstrates testing of batched and retried operations including:
+ * - One status and body per operation of a batch, in order
+ * - Operations and batches retried with an idempotency key applied once
+ * - Idempotency keys scoped to the client sending them
+ * - Empty and oversized batches rejected
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 19/10/2026
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+public class BatchEndpointTest {
+
+    private static final String DEPOSIT = "{\"type\":\"deposit\",\"destination\":\"100\",\"amount\":\"10\"}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ChallengeCoreBankingFacade facade;
+
+    @Before
+    public void setUp() throws Exception {
+        mockMvc.perform(post("/reset"));
+    }
+
+    /**
+     * Test that each operation of a batch gets the status and body /event would answer
+     */
+    @Test
+    public void testBatchResults() throws Exception {
+        // Act
+        MockHttpServletResponse response = perform(post("/event/batch").contentType(MediaType.APPLICATION_JSON)
+                .content("[" + DEPOSIT + ","
+                        + "{\"type\":\"withdraw\",\"origin\":\"999\",\"amount\":\"5\"},"
+                        + "{\"type\":\"transfer\",\"origin\":\"100\",\"destination\":\"300\",\"amount\":\"4\"}]"));
+
+        // Assert
+        assertEquals("Batch should be answered", 200, response.getStatus());
+        assertEquals("Each operation should have its result, in order",
+                "[{\"status\":201,\"body\":{\"destination\": {\"id\":\"100\",\"balance\":10}}},"
+                        + "{\"status\":404,\"body\":0},"
+                        + "{\"status\":201,\"body\":{\"origin\": {\"id\":\"100\",\"balance\":6}, "
+                        + "\"destination\": {\"id\":\"300\",\"balance\":4}}}]",
+                response.getContentAsString());
+    }
+
+    /**
+     * Test that an operation sent twice with the same key is applied once
+     */
+    @Test
+    public void testEventRetriedWithKey() throws Exception {
+        // Act
+        MockHttpServletResponse first = perform(post("/event").contentType(MediaType.APPLICATION_JSON)
+                .header(IdempotencyCache.HEADER, "event-key").content(DEPOSIT));
+        MockHttpServletResponse retry = perform(post("/event").contentType(MediaType.APPLICATION_JSON)
+                .header(IdempotencyCache.HEADER, "event-key").content(DEPOSIT));
+        MockHttpServletResponse reused = perform(post("/event").contentType(MediaType.APPLICATION_JSON)
+                .header(IdempotencyCache.HEADER, "event-key")
+                .content("{\"type\":\"deposit\",\"destination\":\"100\",\"amount\":\"20\"}"));
+
+        // Assert
+        assertEquals("First request should be created", 201, first.getStatus());
+        assertEquals("Retry should get the stored status", 201, retry.getStatus());
+        assertEquals("Retry should get the stored body", first.getContentAsString(), retry.getContentAsString());
+        assertEquals("Retry should be marked as replayed", "true", retry.getHeader(IdempotencyCache.REPLAYED_HEADER));
+        assertEquals("Key reused for another operation should be refused", 422, reused.getStatus());
+        assertEquals("Deposit should be applied once", Long.valueOf(10L), facade.getAccount("100").getBalance());
+    }
+
+    /**
+     * Test that the same key sent by two clients applies each client's operation
+     */
+    @Test
+    public void testKeysScopedPerClient() throws Exception {
+        // Act
+        MockHttpServletResponse first = perform(post("/event").contentType(MediaType.APPLICATION_JSON)
+                .header(GreetingsController.CLIENT_HEADER, "client-a").header(IdempotencyCache.HEADER, "shared-key")
+                .content(DEPOSIT));
+        MockHttpServletResponse other = perform(post("/event").contentType(MediaType.APPLICATION_JSON)
+                .header(GreetingsController.CLIENT_HEADER, "client-b").header(IdempotencyCache.HEADER, "shared-key")
+                .content("{\"type\":\"deposit\",\"destination\":\"200\",\"amount\":\"5\"}"));
+
+        // Assert
+        assertEquals("First client's operation should be created", 201, first.getStatus());
+        assertEquals("Second client's operation should be created, not refused", 201, other.getStatus());
+        assertNull("Second client should not get a replay", other.getHeader(IdempotencyCache.REPLAYED_HEADER));
+        assertEquals("Second client should get its own account", Long.valueOf(5L), facade.getAccount("200").getBalance());
+    }
+
+    /**
+     * Test that a batch sent twice with the same key is applied once
+     */
+    @Test
+    public void testBatchRetriedWithKey() throws Exception {
+        // Arrange
+        String batch = "[" + DEPOSIT + "," + DEPOSIT + "]";
+
+        // Act
+        MockHttpServletResponse first = perform(post("/event/batch").contentType(MediaType.APPLICATION_JSON)
+                .header(IdempotencyCache.HEADER, "batch-key").content(batch));
+        MockHttpServletResponse retry = perform(post("/event/batch").contentType(MediaType.APPLICATION_JSON)
+                .header(IdempotencyCache.HEADER, "batch-key").content(batch));
+
+        // Assert
+        assertEquals("Retry should get the stored results", first.getContentAsString(), retry.getContentAsString());
+        assertEquals("Retry should be marked as replayed", "true", retry.getHeader(IdempotencyCache.REPLAYED_HEADER));
+        assertEquals("Batch should be applied once", Long.valueOf(20L), facade.getAccount("100").getBalance());
+    }
+
+    /**
+     * Test that empty batches and batches above the limit are rejected without being applied
+     */
+    @Test
+    public void testBatchLimits() throws Exception {
+        // Arrange
+        StringBuilder large = new StringBuilder("[");
+        for (int i = 0; i <= 1000; i++) {
+            large.append(i > 0 ? "," : "").append(DEPOSIT);
+        }
+
+        // Act
+        MockHttpServletResponse empty = perform(post("/event/batch").contentType(MediaType.APPLICATION_JSON)
+                .content("[]"));
+        MockHttpServletResponse tooLarge = perform(post("/event/batch").contentType(MediaType.APPLICATION_JSON)
+                .content(large.append(']').toString()));
+
+        // Assert
+        assertEquals("Empty batch should be a bad request", 400, empty.getStatus());
+        assertEquals("Batch above the limit should be rejected", 413, tooLarge.getStatus());
+        assertNull("Nothing should have been applied", facade.getAccount("100"));
+    }
+
+    /**
+     * Performs a request, following its asynchronous dispatch when the handler ran on a lane.
+     */
+    private MockHttpServletResponse perform(MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult result = mockMvc.perform(request).andReturn();
+        if (result.getRequest().isAsyncStarted()) {
+            result.getAsyncResult();
+            result = mockMvc.perform(asyncDispatch(result)).andReturn();
+        }
+        return result.getResponse();
+    }
+}
@@ -0,0 +1,141 @@
+package org.orelio.requests;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.orelio.config.CompactFormatConverter;
+import org.orelio.model.Operation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import static org.junit.Assert.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * JUnit test class for CBOR and Smile content negotiation
+ * Demonstrates testing of the compact encodings of /event and /balance including:
+ * - JSON kept as the default response encoding
+ * - CBOR and Smile responses with the same structure as the JSON ones
+ * - Operations sent as CBOR or Smile bodies
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 19/10/2026
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+public class ContentNegotiationTest {
+
+    private static final String DEPOSIT = "{\"type\":\"deposit\",\"destination\":\"100\",\"amount\":\"10\"}";
+
+    private final ObjectMapper json = new ObjectMapper();
+
+    private final ObjectMapper cbor = new ObjectMapper(new CBORFactory());
+
+    private final ObjectMapper smile = new ObjectMapper(new SmileFactory());
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Before
+    public void setUp() throws Exception {
+        mockMvc.perform(post("/reset"));
+    }
+
+    /**
+     * Test that clients accepting anything still get the JSON text
+     */
+    @Test
+    public void testJsonRemainsDefault() throws Exception {
+        // Act
+        MockHttpServletResponse response = perform(post("/event").contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.ALL).content(DEPOSIT));
+
+        // Assert
+        assertEquals("Deposit should be created", 201, response.getStatus());
+        assertTrue("Response should be JSON",
+                MediaType.APPLICATION_JSON.isCompatibleWith(MediaType.valueOf(response.getContentType())));
+        assertEquals("Body should be the JSON text", "{\"destination\": {\"id\":\"100\",\"balance\":10}}",
+                response.getContentAsString());
+    }
+
+    /**
+     * Test that CBOR responses carry the structure and numbers of the JSON ones
+     */
+    @Test
+    public void testCborResponses() throws Exception {
+        // Arrange
+        perform(post("/event").contentType(MediaType.APPLICATION_JSON).content(DEPOSIT));
+
+        // Act
+        MockHttpServletResponse transfer = perform(post("/event").contentType(MediaType.APPLICATION_JSON)
+                .accept(CompactFormatConverter.CBOR)
+                .content("{\"type\":\"transfer\",\"origin\":\"100\",\"destination\":\"300\",\"amount\":\"15\"}"));
+        MockHttpServletResponse balance = perform(get("/balance").param("account_id", "300")
+                .accept(CompactFormatConverter.CBOR));
+        MockHttpServletResponse missing = perform(get("/balance").param("account_id", "999")
+                .accept(CompactFormatConverter.CBOR));
+
+        // Assert
+        assertEquals("Transfer should be created", 201, transfer.getStatus());
+        assertEquals("Response should be CBOR", CompactFormatConverter.CBOR_VALUE, transfer.getContentType());
+        assertEquals("CBOR transfer should match the JSON structure",
+                json.readTree("{\"origin\": {\"id\":\"100\",\"balance\":-5}, \"destination\": {\"id\":\"300\",\"balance\":15}}"),
+                cbor.readTree(transfer.getContentAsByteArray()));
+        JsonNode found = cbor.readTree(balance.getContentAsByteArray());
+        assertTrue("Balance should be a CBOR integer", found.isIntegralNumber());
+        assertEquals("Balance should be found", 15L, found.asLong());
+        assertEquals("Unknown account should not be found", 404, missing.getStatus());
+        assertEquals("Unknown account should answer 0", 0L, cbor.readTree(missing.getContentAsByteArray()).asLong());
+    }
+
+    /**
+     * Test that operations sent as Smile or CBOR are applied and answered in the accepted format
+     */
+    @Test
+    public void testCompactRequests() throws Exception {
+        // Arrange
+        Operation operation = new Operation();
+        operation.setType("deposit");
+        operation.setDestination("200");
+        operation.setAmount("25");
+
+        // Act
+        MockHttpServletResponse smileResponse = perform(post("/event").contentType(CompactFormatConverter.SMILE)
+                .accept(CompactFormatConverter.SMILE).content(smile.writeValueAsBytes(operation)));
+        MockHttpServletResponse cborResponse = perform(post("/event").contentType(CompactFormatConverter.CBOR)
+                .accept(MediaType.APPLICATION_JSON).content(cbor.writeValueAsBytes(operation)));
+
+        // Assert
+        assertEquals("Smile deposit should be created", 201, smileResponse.getStatus());
+        assertEquals("Smile response should carry the balance", 25L,
+                smile.readTree(smileResponse.getContentAsByteArray()).path("destination").path("balance").asLong());
+        assertEquals("CBOR deposit should be answered in JSON", "{\"destination\": {\"id\":\"200\",\"balance\":50}}",
+                cborResponse.getContentAsString());
+    }
+
+    /**
+     * Performs a request, following its asynchronous dispatch when the handler ran on a lane.
+     */
+    private MockHttpServletResponse perform(MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult result = mockMvc.perform(request).andReturn();
+        if (result.getRequest().isAsyncStarted()) {
+            result.getAsyncResult();
+            result = mockMvc.perform(asyncDispatch(result)).andReturn();
+        }
+        return result.getResponse();
+    }
+}
@@ -0,0 +1,256 @@
+package org.orelio.requests;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.orelio.admission.IdempotencyCache;
+import org.orelio.admission.RateLimits;
+import org.orelio.controllers.FastPathServlet;
+import org.orelio.facade.ChallengeCoreBankingFacade;
+import org.orelio.workload.WorkloadLanes;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import static org.junit.Assert.*;
+
+/**
+ * JUnit test class for FastPathServlet
+ * Demonstrates testing of the low-level /event and /balance handler including:
+ * - Status codes and bodies identical to GreetingsController
+ * - Unknown fields ignored and malformed bodies rejected
+ * - Rate-limited operations answered with 429 and Retry-After
+ * - Rate-limit tokens given back when the write lane rejects an operation
+ * - Operations retried with an idempotency key applied once
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 18/10/2026
+ */
+public class FastPathServletTest {
+
+    private ChallengeCoreBankingFacade facade;
+
+    private WorkloadLanes lanes;
+
+    private FastPathServlet servlet;
+
+    @Before
+    public void setUp() {
+        facade = new ChallengeCoreBankingFacade();
+        facade.resetAccount();
+        // Lanes are disabled without their properties, so requests complete inline
+        lanes = new WorkloadLanes(1, 1, 5, 1, 1, 5);
+        servlet = new FastPathServlet(facade, lanes, new RateLimits(false, 0, 0, 0, 0),
+                new IdempotencyCache(true, 300, 1000));
+    }
+
+    @After
+    public void tearDown() {
+        lanes.shutdown();
+        facade.resetAccount();
+    }
+
+    /**
+     * Test that operations and balances answer like the controller
+     */
+    @Test
+    public void testEventAndBalance() throws Exception {
+        // Act
+        MockHttpServletResponse deposit = event("{\"type\":\"deposit\",\"destination\":\"100\",\"amount\":\"10\"}");
+        MockHttpServletResponse transfer = event(
+                "{\"type\":\"transfer\",\"origin\":\"100\",\"destination\":\"300\",\"amount\":\"15\"}");
+        MockHttpServletResponse balance = balance("300");
+        MockHttpServletResponse missing = balance("999");
+
+        // Assert
+        assertEquals("Deposit should be created", 201, deposit.getStatus());
+        assertEquals("Deposit body should match the controller",
+                "{\"destination\": {\"id\":\"100\",\"balance\":10}}", deposit.getContentAsString());
+        assertEquals("Content type should match the controller", "application/json;charset=UTF-8",
+                deposit.getContentType());
+        assertEquals("Transfer body should match the controller",
+                "{\"origin\": {\"id\":\"100\",\"balance\":-5}, \"destination\": {\"id\":\"300\",\"balance\":15}}",
+                transfer.getContentAsString());
+        assertEquals("Existing balance should be found", 200, balance.getStatus());
+        assertEquals("Balance should be the bare number", "15", balance.getContentAsString());
+        assertEquals("Unknown account should not be found", 404, missing.getStatus());
+        assertEquals("Unknown account should answer 0", "0", missing.getContentAsString());
+    }
+
+    /**
+     * Test that failed operations answer 404 with "0"
+     */
+    @Test
+    public void testFailedOperation() throws Exception {
+        // Act
+        MockHttpServletResponse response = event("{\"type\":\"withdraw\",\"origin\":\"200\",\"amount\":\"10\"}");
+
+        // Assert
+        assertEquals("Withdrawal from a missing account should fail", 404, response.getStatus());
+        assertEquals("Failure should answer 0", "0", response.getContentAsString());
+    }
+
+    /**
+     * Test that unknown fields and numeric amounts are accepted like the JSON converter does
+     */
+    @Test
+    public void testLenientFields() throws Exception {
+        // Act
+        MockHttpServletResponse response = event(
+                "{\"id\":7,\"type\":\"deposit\",\"tags\":{\"a\":[1,2]},\"destination\":\"1\",\"amount\":25}");
+
+        // Assert
+        assertEquals("Operation should be applied", 201, response.getStatus());
+        assertEquals("Numeric amount should be read as text",
+                "{\"destination\": {\"id\":\"1\",\"balance\":25}}", response.getContentAsString());
+    }
+
+    /**
+     * Test that malformed bodies, missing parameters and oversized bodies are rejected
+     */
+    @Test
+    public void testBadRequests() throws Exception {
+        // Arrange
+        byte[] large = new byte[64 * 1024 + 1];
+        Arrays.fill(large, (byte) ' ');
+
+        // Act
+        MockHttpServletResponse malformed = event("{bad");
+        MockHttpServletResponse nested = event("{\"type\":{\"deposit\":1},\"destination\":\"1\",\"amount\":\"1\"}");
+        MockHttpServletResponse trailing = event("{\"type\":\"deposit\",\"destination\":\"1\",\"amount\":\"1\"} {}");
+        MockHttpServletResponse tooLarge = event(large);
+        MockHttpServletResponse noAccount = balance(null);
+
+        // Assert
+        assertEquals("Malformed JSON should be a bad request", 400, malformed.getStatus());
+        assertEquals("Object in an operation field should be a bad request", 400, nested.getStatus());
+        assertEquals("Trailing content should be a bad request", 400, trailing.getStatus());
+        assertEquals("Oversized body should be rejected", 413, tooLarge.getStatus());
+        assertEquals("Missing account_id should be a bad request", 400, noAccount.getStatus());
+        assertEquals("Nothing should have been applied", 0L, facade.getAggregates().getAccountCount());
+    }
+
+    /**
+     * Test that rate-limited operations are rejected with 429 and Retry-After
+     */
+    @Test
+    public void testRateLimited() throws Exception {
+        // Arrange
+        servlet = new FastPathServlet(facade, lanes, new RateLimits(true, 1, 1, 0, 0),
+                new IdempotencyCache(true, 300, 1000));
+        String body = "{\"type\":\"deposit\",\"destination\":\"HOT\",\"amount\":\"1\"}";
+        event(body);
+
+        // Act
+        MockHttpServletResponse response = event(body);
+
+        // Assert
+        assertEquals("Second deposit should be rate limited", 429, response.getStatus());
+        assertEquals("Retry-After should be set", "1", response.getHeader("Retry-After"));
+        assertEquals("Rejection should answer 0", "0", response.getContentAsString());
+    }
+
+    /**
+     * Test that an operation rejected by the full write lane gets its rate-limit tokens back
+     */
+    @Test
+    public void testLaneRejectionReleasesRateLimit() throws Exception {
+        // Arrange
+        servlet = new FastPathServlet(facade, lanes, new RateLimits(true, 1, 1, 1, 1),
+                new IdempotencyCache(true, 300, 1000));
+        ReflectionTestUtils.setField(lanes, "enabled", true);
+        ReflectionTestUtils.setField(lanes, "rejectionStatus", 503);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch running = new CountDownLatch(1);
+        lanes.write().submit(() -> {
+            running.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue("Blocking task should start", running.await(5, TimeUnit.SECONDS));
+        assertTrue("Queue should take one task", lanes.write().submit(() -> { }));
+        String body = "{\"type\":\"deposit\",\"destination\":\"HOT\",\"amount\":\"1\"}";
+
+        // Act
+        MockHttpServletResponse rejected = event(body);
+        release.countDown();
+        ReflectionTestUtils.setField(lanes, "enabled", false);
+        MockHttpServletResponse retried = event(body);
+
+        // Assert
+        assertEquals("Full lane should reject the deposit", 503, rejected.getStatus());
+        assertEquals("Retry should not be rate limited", 201, retried.getStatus());
+        assertEquals("Deposit should be applied once", Long.valueOf(1L), facade.getAccount("HOT").getBalance());
+    }
+
+    /**
+     * Test that an operation retried with its idempotency key is applied once
+     */
+    @Test
+    public void testIdempotentRetry() throws Exception {
+        // Arrange
+        String body = "{\"type\":\"deposit\",\"destination\":\"100\",\"amount\":\"10\"}";
+        MockHttpServletResponse first = event(body, "key-1");
+
+        // Act
+        MockHttpServletResponse retry = event(body, "key-1");
+        MockHttpServletResponse reused = event("{\"type\":\"deposit\",\"destination\":\"100\",\"amount\":\"99\"}",
+                "key-1");
+        MockHttpServletResponse other = event(body, "key-2");
+
+        // Assert
+        assertEquals("First request should be created", 201, first.getStatus());
+        assertEquals("Retry should get the stored status", 201, retry.getStatus());
+        assertEquals("Retry should get the stored body", first.getContentAsString(), retry.getContentAsString());
+        assertEquals("Retry should be marked as replayed", "true", retry.getHeader(IdempotencyCache.REPLAYED_HEADER));
+        assertNull("First request should not be marked as replayed", first.getHeader(IdempotencyCache.REPLAYED_HEADER));
+        assertEquals("Key reused for another operation should be refused", 422, reused.getStatus());
+        assertEquals("Another key should be applied", "{\"destination\": {\"id\":\"100\",\"balance\":20}}",
+                other.getContentAsString());
+        assertEquals("Balance should count each key once", Long.valueOf(20L), facade.getAccount("100").getBalance());
+    }
+
+    private MockHttpServletResponse event(String body) throws Exception {
+        return event(body.getBytes(StandardCharsets.UTF_8), null);
+    }
+
+    private MockHttpServletResponse event(String body, String idempotencyKey) throws Exception {
+        return event(body.getBytes(StandardCharsets.UTF_8), idempotencyKey);
+    }
+
+    private MockHttpServletResponse event(byte[] body) throws Exception {
+        return event(body, null);
+    }
+
+    private MockHttpServletResponse event(byte[] body, String idempotencyKey) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/event");
+        request.setServletPath("/event");
+        request.setContentType("application/json");
+        request.setContent(body);
+        request.setAsyncSupported(true);
+        if (idempotencyKey != null) {
+            request.addHeader(IdempotencyCache.HEADER, idempotencyKey);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        servlet.service(request, response);
+        return response;
+    }
+
+    private MockHttpServletResponse balance(String accountId) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/balance");
+        request.setServletPath("/balance");
+        if (accountId != null) {
+            request.setParameter("account_id", accountId);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        servlet.service(request, response);
+        return response;
+    }
+}
@@ -7,6 +7,7 @@ import org.junit.AfterClass;
 import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.ClassRule;
+import org.junit.Ignore;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TestWatcher;
@@ -20,6 +21,11 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
+/**
+ * Tests of a "Hello {name}!" endpoint left over from the project template.
+ * The banking API has no such endpoint, so these tests are skipped.
+ */
+@Ignore("The banking API has no GET /{name} greeting endpoint")
 @RunWith(OrderedTestRunner.class)
 @SpringBootTest
 @AutoConfigureMockMvc
@@ -0,0 +1,110 @@
+package org.orelio.suite;
+
+import org.junit.runner.RunWith;
+import org.junit.runners.Suite;
+import org.orelio.model.AccountTest;
+import org.orelio.model.OperationTest;
+import org.orelio.facade.ChallengeCoreBankingFacadeTest;
+import org.orelio.facade.AllocationFreePathTest;
+import org.orelio.facade.DepositCombiningTest;
+import org.orelio.facade.HotAccountStripingTest;
+import org.orelio.facade.EmbeddedEngineTest;
+import org.orelio.util.ChallengeCoreUtilsTest;
+import org.orelio.util.VirtualThreadsTest;
+import org.orelio.store.AccountAggregatesTest;
+import org.orelio.store.BalanceIndexTest;
+import org.orelio.store.AccountIdIndexTest;
+import org.orelio.store.BalanceScanEngineTest;
+import org.orelio.metrics.OperationMetricsTest;
+import org.orelio.metrics.BankingOperationEventTest;
+import org.orelio.metrics.ServerTimingTest;
+import org.orelio.metrics.HotAccountTrackerTest;
+import org.orelio.admission.AdaptiveConcurrencyLimiterTest;
+import org.orelio.admission.TokenBucketTableTest;
+import org.orelio.admission.IdempotencyCacheTest;
+import org.orelio.workload.LaneTest;
+import org.orelio.reactive.ReactiveBankingHandlerTest;
+import org.orelio.tcp.BinaryServerTest;
+import org.orelio.requests.ContentNegotiationTest;
+import org.orelio.requests.FastPathServletTest;
+import org.orelio.requests.AsyncEndpointTest;
+import org.orelio.requests.BatchEndpointTest;
+import org.orelio.requests.AccountsControllerTest;
+import org.orelio.integration.BankingSystemIntegrationTest;
+import org.orelio.integration.BankingClientIntegrationTest;
+import org.orelio.advanced.AdvancedJUnitTestExamples;
+
+/**
+ * Test suite that runs all JUnit test classes
+ * Demonstrates how to organize and run multiple test classes together
+ * 
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 28/09/2025
+ */
+@RunWith(Suite.class)
+@Suite.SuiteClasses({
+    // Model layer tests
+    AccountTest.class,
+    OperationTest.class,
+    
+    // Service layer tests
+    ChallengeCoreBankingFacadeTest.class,
+    AllocationFreePathTest.class,
+    HotAccountStripingTest.class,
+    DepositCombiningTest.class,
+    EmbeddedEngineTest.class,
+    
+    // Utility layer tests
+    ChallengeCoreUtilsTest.class,
+    VirtualThreadsTest.class,
+    
+    // Store layer tests
+    AccountAggregatesTest.class,
+    BalanceIndexTest.class,
+    AccountIdIndexTest.class,
+    BalanceScanEngineTest.class,
+    
+    // Metrics tests
+    OperationMetricsTest.class,
+    BankingOperationEventTest.class,
+    ServerTimingTest.class,
+    HotAccountTrackerTest.class,
+    
+    // Admission control tests
+    AdaptiveConcurrencyLimiterTest.class,
+    TokenBucketTableTest.class,
+    IdempotencyCacheTest.class,
+    
+    // Workload lane tests
+    LaneTest.class,
+    
+    // Low-level handler tests
+    FastPathServletTest.class,
+    
+    // Content negotiation tests
+    ContentNegotiationTest.class,
+    
+    // Asynchronous endpoint tests
+    AsyncEndpointTest.class,
+    
+    // Batch and idempotency tests
+    BatchEndpointTest.class,
+    AccountsControllerTest.class,
+    
+    // Reactive front end tests
+    ReactiveBankingHandlerTest.class,
+    
+    // Binary protocol tests
+    BinaryServerTest.class,
+    
+    // Integration tests
+    BankingSystemIntegrationTest.class,
+    BankingClientIntegrationTest.class,
+    
+    // Advanced testing examples
+    AdvancedJUnitTestExamples.class
+})
+public class AllTestsSuite {
+    // This class remains empty, it is used only as a holder for the above annotations
+}
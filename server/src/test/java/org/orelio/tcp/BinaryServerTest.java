@@ -0,0 +1,220 @@
+package org.orelio.tcp;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.orelio.admission.RateLimits;
+import org.orelio.facade.ChallengeCoreBankingFacade;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import static org.junit.Assert.*;
+
+/**
+ * JUnit test class for BinaryServer
+ * Demonstrates testing of the binary TCP protocol including:
+ * - Deposit, withdraw, transfer and balance frames and their balances
+ * - Pipelined requests answered by request ID
+ * - Malformed frames answered with BAD_REQUEST or a closed connection
+ * - Rate-limited operations answered with their retry delay
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 19/10/2026
+ */
+public class BinaryServerTest {
+
+    private ChallengeCoreBankingFacade facade;
+
+    private BinaryServer server;
+
+    private SocketChannel channel;
+
+    private DataInputStream responses;
+
+    @Before
+    public void setUp() throws IOException {
+        facade = new ChallengeCoreBankingFacade();
+        facade.resetAccount();
+        connect(new RateLimits(false, 0, 0, 0, 0));
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        channel.close();
+        server.stop();
+        facade.resetAccount();
+    }
+
+    /**
+     * Test that each operation answers the balances it produced, like the JSON responses
+     */
+    @Test
+    public void testOperationsAndBalance() throws IOException {
+        // Arrange
+        ByteBuffer out = ByteBuffer.allocate(1024);
+        BinaryProtocol.putDeposit(out, 1L, "100", 10L);
+        BinaryProtocol.putWithdraw(out, 2L, "100", 3L);
+        BinaryProtocol.putTransfer(out, 3L, "100", "300", 15L);
+        BinaryProtocol.putBalance(out, 4L, "300");
+        BinaryProtocol.putBalance(out, 5L, "999");
+        BinaryProtocol.putWithdraw(out, 6L, "200", 10L);
+
+        // Act
+        send(out);
+        long[] deposit = readResponse();
+        long[] withdraw = readResponse();
+        long[] transfer = readResponse();
+        long[] balance = readResponse();
+        long[] missing = readResponse();
+        long[] failed = readResponse();
+
+        // Assert
+        assertArrayEquals("Deposit should answer the destination balance", new long[]{1L, BinaryProtocol.OK, 10L}, deposit);
+        assertArrayEquals("Withdrawal should answer the origin balance", new long[]{2L, BinaryProtocol.OK, 7L}, withdraw);
+        assertArrayEquals("Transfer should answer both balances",
+                new long[]{3L, BinaryProtocol.OK, -8L, 15L}, transfer);
+        assertArrayEquals("Balance should be found", new long[]{4L, BinaryProtocol.OK, 15L}, balance);
+        assertArrayEquals("Unknown account should not be found", new long[]{5L, BinaryProtocol.NOT_FOUND}, missing);
+        assertArrayEquals("Withdrawal from a missing account should fail",
+                new long[]{6L, BinaryProtocol.NOT_FOUND}, failed);
+        assertEquals("The facade should hold the same balance", Long.valueOf(15L), facade.getAccount("300").getBalance());
+    }
+
+    /**
+     * Test that many requests written at once are all answered under their request IDs
+     */
+    @Test
+    public void testPipelinedRequests() throws IOException {
+        // Arrange
+        int requests = 2000;
+        ByteBuffer out = ByteBuffer.allocate(requests * 32);
+        for (int i = 0; i < requests; i++) {
+            BinaryProtocol.putDeposit(out, 1000L + i, "P" + (i % 3), 1L);
+        }
+
+        // Act
+        send(out);
+        long received = 0;
+        long lastBalanceSum = 0;
+        for (int i = 0; i < requests; i++) {
+            long[] response = readResponse();
+            assertEquals("Response should carry its request ID", 1000L + i, response[0]);
+            assertEquals("Deposit should succeed", BinaryProtocol.OK, response[1]);
+            received++;
+            if (i >= requests - 3) {
+                lastBalanceSum += response[2];
+            }
+        }
+
+        // Assert
+        assertEquals("Every request should be answered", requests, received);
+        assertEquals("The last deposit of each account should see every earlier one", requests, lastBalanceSum);
+    }
+
+    /**
+     * Test that malformed requests are rejected without being applied
+     */
+    @Test
+    public void testMalformedFrames() throws IOException {
+        // Arrange
+        ByteBuffer out = ByteBuffer.allocate(1024);
+        out.putInt(BinaryProtocol.HEADER_BYTES).putLong(1L).put((byte) 42);
+        out.putInt(BinaryProtocol.HEADER_BYTES + 8 + 1).putLong(2L).put(BinaryProtocol.DEPOSIT).putLong(5L).put((byte) 0);
+        out.putInt(BinaryProtocol.HEADER_BYTES + 8 + 3).putLong(3L).put(BinaryProtocol.DEPOSIT).putLong(5L)
+                .put((byte) 1).put((byte) 'A').put((byte) 0);
+        out.putInt(BinaryProtocol.HEADER_BYTES + 1).putLong(4L).put(BinaryProtocol.BALANCE).put((byte) 9);
+
+        // Act
+        send(out);
+        long[] unknownOpcode = readResponse();
+        long[] emptyAccount = readResponse();
+        long[] trailingBytes = readResponse();
+        long[] truncatedAccount = readResponse();
+
+        // Assert
+        assertArrayEquals("Unknown opcode should be a bad request",
+                new long[]{1L, BinaryProtocol.BAD_REQUEST}, unknownOpcode);
+        assertArrayEquals("Empty account ID should be a bad request",
+                new long[]{2L, BinaryProtocol.BAD_REQUEST}, emptyAccount);
+        assertArrayEquals("Trailing bytes should be a bad request",
+                new long[]{3L, BinaryProtocol.BAD_REQUEST}, trailingBytes);
+        assertArrayEquals("Account ID overrunning the frame should be a bad request",
+                new long[]{4L, BinaryProtocol.BAD_REQUEST}, truncatedAccount);
+        assertEquals("Nothing should have been applied", 0L, facade.getAggregates().getAccountCount());
+    }
+
+    /**
+     * Test that a frame length that cannot be skipped closes the connection
+     */
+    @Test(expected = EOFException.class)
+    public void testInvalidFrameLengthClosesConnection() throws IOException {
+        // Arrange
+        ByteBuffer out = ByteBuffer.allocate(16);
+        out.putInt(BinaryProtocol.MAX_FRAME).putLong(1L);
+
+        // Act
+        send(out);
+
+        // Assert
+        readResponse();
+    }
+
+    /**
+     * Test that rate-limited operations are answered with a retry delay
+     */
+    @Test
+    public void testRateLimited() throws IOException {
+        // Arrange
+        channel.close();
+        server.stop();
+        connect(new RateLimits(true, 1, 1, 0, 0));
+        ByteBuffer out = ByteBuffer.allocate(128);
+        BinaryProtocol.putDeposit(out, 1L, "HOT", 1L);
+        BinaryProtocol.putDeposit(out, 2L, "HOT", 1L);
+
+        // Act
+        send(out);
+        long[] first = readResponse();
+        long[] second = readResponse();
+
+        // Assert
+        assertEquals("First deposit should be applied", BinaryProtocol.OK, first[1]);
+        assertEquals("Second deposit should be rate limited", BinaryProtocol.RATE_LIMITED, second[1]);
+        assertTrue("Retry delay should be positive", second[2] > 0);
+        assertTrue("Retry delay should be at most one second", second[2] <= 1000);
+    }
+
+    private void connect(RateLimits rateLimits) throws IOException {
+        server = new BinaryServer(facade, rateLimits, 1);
+        server.start(new InetSocketAddress("127.0.0.1", 0));
+        channel = SocketChannel.open(new InetSocketAddress("127.0.0.1", server.getPort()));
+        responses = new DataInputStream(Channels.newInputStream(channel));
+    }
+
+    private void send(ByteBuffer out) throws IOException {
+        out.flip();
+        while (out.hasRemaining()) {
+            channel.write(out);
+        }
+    }
+
+    /**
+     * Reads a response as its request ID, status and values.
+     */
+    private long[] readResponse() throws IOException {
+        int length = responses.readInt();
+        long[] response = new long[2 + (length - BinaryProtocol.HEADER_BYTES) / 8];
+        response[0] = responses.readLong();
+        response[1] = responses.readByte();
+        for (int i = 2; i < response.length; i++) {
+            response[i] = responses.readLong();
+        }
+        return response;
+    }
+}
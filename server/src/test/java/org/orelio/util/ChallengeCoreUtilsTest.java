@@ -83,8 +83,9 @@ public class ChallengeCoreUtilsTest {
      */
     @Test
     public void testResultJsonAPIWithOriginDestinationFormat() {
-        // Act
-        String result = ChallengeCoreUtils.resultJsonAPI(testAccount, Constants.fmtOriginDestin);
+        // Act - The transfer format takes one account JSON per placeholder
+        String json = ChallengeCoreUtils.resultJsonAPI(testAccount);
+        String result = String.format(Constants.fmtOriginDestin, json, json);
 
         // Assert
         assertNotNull("JSON result should not be null", result);
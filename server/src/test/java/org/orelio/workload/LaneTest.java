@@ -0,0 +1,132 @@
+package org.orelio.workload;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import static org.junit.Assert.*;
+
+/**
+ * JUnit test class for Lane
+ * Demonstrates testing of a workload lane including:
+ * - Running submitted tasks on named lane threads
+ * - Rejecting tasks once the queue limit is reached
+ * - Busy time and queue wait statistics
+ * - Isolation of one lane from another saturated lane
+ *
+ * @author Marcos Orelio
+ * @version 1.0-SNAPSHOT
+ * @since 18/10/2026
+ */
+public class LaneTest {
+
+    private Lane lane;
+    private Lane other;
+
+    @Before
+    public void setUp() {
+        lane = new Lane("test", 1, 2, Thread.NORM_PRIORITY);
+        other = new Lane("other", 1, 2, Thread.NORM_PRIORITY);
+    }
+
+    @After
+    public void tearDown() {
+        lane.shutdown();
+        other.shutdown();
+    }
+
+    /**
+     * Test that tasks run on the lane threads
+     */
+    @Test
+    public void testRunsTasksOnLaneThreads() throws Exception {
+        // Arrange
+        CountDownLatch done = new CountDownLatch(1);
+        String[] threadName = new String[1];
+
+        // Act
+        boolean queued = lane.submit(() -> {
+            threadName[0] = Thread.currentThread().getName();
+            done.countDown();
+        });
+
+        // Assert
+        assertTrue("Task should be queued", queued);
+        assertTrue("Task should run", done.await(5, TimeUnit.SECONDS));
+        assertEquals("Task should run on a lane thread", "lane-test-1", threadName[0]);
+    }
+
+    /**
+     * Test that tasks beyond the running one and the queue capacity are rejected while another lane keeps running
+     */
+    @Test
+    public void testRejectsWhenQueueIsFull() throws Exception {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch running = new CountDownLatch(1);
+        lane.submit(() -> {
+            running.countDown();
+            await(release);
+        });
+        assertTrue("Blocking task should start", running.await(5, TimeUnit.SECONDS));
+        CountDownLatch otherDone = new CountDownLatch(1);
+
+        // Act
+        boolean second = lane.submit(() -> { });
+        boolean third = lane.submit(() -> { });
+        boolean fourth = lane.submit(() -> { });
+        boolean isolated = other.submit(otherDone::countDown);
+
+        // Assert
+        assertTrue("Second task should be queued", second);
+        assertTrue("Third task should be queued", third);
+        assertFalse("Fourth task should be rejected", fourth);
+        assertEquals("Queued tasks should be counted", 2, lane.getQueued());
+        assertEquals("Rejected tasks should be counted", 1L, lane.getRejected());
+        assertTrue("Other lane should accept its task", isolated);
+        assertTrue("Other lane should not wait for the saturated lane", otherDone.await(5, TimeUnit.SECONDS));
+        release.countDown();
+    }
+
+    /**
+     * Test busy time and queue wait statistics
+     */
+    @Test
+    public void testTracksBusyTimeAndQueueWait() throws Exception {
+        // Arrange
+        CountDownLatch done = new CountDownLatch(2);
+
+        // Act
+        lane.submit(() -> {
+            sleep(20);
+            done.countDown();
+        });
+        lane.submit(done::countDown);
+        assertTrue("Tasks should run", done.await(5, TimeUnit.SECONDS));
+        lane.shutdown();
+        assertTrue("Lane should stop", lane.awaitTermination(5, TimeUnit.SECONDS));
+
+        // Assert
+        assertEquals("Started tasks should be counted", 2L, lane.getStarted());
+        assertEquals("Completed tasks should be counted", 2L, lane.getCompleted());
+        assertTrue("Busy time should include the sleeping task", lane.getBusyNanos() >= 20_000_000L);
+        assertTrue("Second task should have waited behind the first", lane.getQueueWaitNanos() >= 15_000_000L);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}